@@ -0,0 +1,77 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.benchmark;
+
+import alpine.Config;
+import alpine.persistence.PersistenceManagerFactory;
+import org.dependencytrack.persistence.DefaultObjectGenerator;
+import org.dependencytrack.persistence.QueryManager;
+import javax.jdo.PersistenceManager;
+import javax.jdo.datastore.JDOConnection;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Provides benchmarks with an embedded in-memory H2 database, configured in the same way as
+ * for unit tests, and populated with the default objects (licenses, repositories, CWEs and
+ * config properties) created at startup.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class BenchmarkFixture implements AutoCloseable {
+
+    private final QueryManager qm;
+
+    /**
+     * Creates an empty database with the default objects and opens a QueryManager on it.
+     */
+    public BenchmarkFixture() {
+        Config.enableUnitTests();
+        reset();
+        new DefaultObjectGenerator().contextInitialized(null);
+        this.qm = new QueryManager();
+    }
+
+    public QueryManager getQueryManager() {
+        return qm;
+    }
+
+    /**
+     * Closes the QueryManager and drops all objects from the database.
+     */
+    @Override
+    public void close() {
+        qm.close();
+        reset();
+    }
+
+    private static void reset() {
+        final PersistenceManager pm = PersistenceManagerFactory.createPersistenceManager();
+        final JDOConnection jdoConnection = pm.getDataStoreConnection();
+        try (Connection conn = (Connection) jdoConnection.getNativeConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DROP ALL OBJECTS");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to reset the benchmark database", e);
+        } finally {
+            pm.close();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.benchmark;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Hash;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.model.Severity;
+import org.dependencytrack.model.Vulnerability;
+import org.dependencytrack.model.VulnerableSoftware;
+import org.dependencytrack.persistence.QueryManager;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic, but realistically shaped, data for benchmarks. Generation is seeded so
+ * that the same sizes always produce the same data, which keeps results comparable across runs.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class SyntheticData {
+
+    private static final String[] VENDORS = {"apache", "fasterxml", "eclipse", "google", "jboss", "spring", "netty", "square"};
+    private static final String[] LICENSES = {"Apache-2.0", "MIT", "BSD-3-Clause", "EPL-1.0", "LGPL-2.1", "GPL-2.0"};
+
+    private final Random random;
+
+    public SyntheticData() {
+        this(42);
+    }
+
+    public SyntheticData(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Creates a CycloneDX BOM with the specified number of components.
+     * @param size the number of components
+     * @return a Bom
+     */
+    public Bom createBom(int size) {
+        final List<org.cyclonedx.model.Component> components = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            final String vendor = vendor(i);
+            final org.cyclonedx.model.Component component = new org.cyclonedx.model.Component();
+            component.setType("library");
+            component.setGroup("org." + vendor);
+            component.setName(product(i));
+            component.setVersion(version());
+            component.setDescription("Synthetic component " + i);
+            component.setPurl("pkg:maven/org." + vendor + "/" + product(i) + "@" + component.getVersion());
+            component.addHash(new Hash(Hash.Algorithm.MD5, hex(32)));
+            component.addHash(new Hash(Hash.Algorithm.SHA1, hex(40)));
+            final org.cyclonedx.model.License license = new org.cyclonedx.model.License();
+            license.setId(LICENSES[random.nextInt(LICENSES.length)]);
+            component.setLicenses(Collections.singletonList(license));
+            components.add(component);
+        }
+        final Bom bom = new Bom();
+        bom.setComponents(components);
+        return bom;
+    }
+
+    /**
+     * Writes an NVD JSON 1.0 feed with the specified number of CVEs, each having CVSS scores,
+     * a CWE, references and CPE match criteria.
+     * @param file the file to write
+     * @param size the number of CVEs
+     * @throws IOException if the file could not be written
+     */
+    public void writeNvdFeed(File file, int size) throws IOException {
+        final JsonArrayBuilder items = Json.createArrayBuilder();
+        for (int i = 0; i < size; i++) {
+            final String id = "CVE-2018-" + (10000 + i);
+            final JsonArrayBuilder cpeMatches = Json.createArrayBuilder();
+            for (int j = 0; j < 3; j++) {
+                final int product = random.nextInt(size);
+                cpeMatches.add(Json.createObjectBuilder()
+                        .add("vulnerable", true)
+                        .add("cpe23Uri", "cpe:2.3:a:" + vendor(product) + ":" + product(product) + ":*:*:*:*:*:*:*:*")
+                        .add("versionStartIncluding", "1." + j + ".0")
+                        .add("versionEndExcluding", "1." + j + "." + (1 + random.nextInt(20))));
+            }
+            final JsonObjectBuilder item = Json.createObjectBuilder()
+                    .add("cve", Json.createObjectBuilder()
+                            .add("CVE_data_meta", Json.createObjectBuilder().add("ID", id))
+                            .add("problemtype", Json.createObjectBuilder().add("problemtype_data", Json.createArrayBuilder()
+                                    .add(Json.createObjectBuilder().add("description", Json.createArrayBuilder()
+                                            .add(Json.createObjectBuilder().add("lang", "en").add("value", "CWE-79"))))))
+                            .add("references", Json.createObjectBuilder().add("reference_data", Json.createArrayBuilder()
+                                    .add(Json.createObjectBuilder().add("url", "https://example.com/advisories/" + id))))
+                            .add("description", Json.createObjectBuilder().add("description_data", Json.createArrayBuilder()
+                                    .add(Json.createObjectBuilder().add("lang", "en").add("value", "Synthetic vulnerability " + id)))))
+                    .add("configurations", Json.createObjectBuilder()
+                            .add("CVE_data_version", "4.0")
+                            .add("nodes", Json.createArrayBuilder()
+                                    .add(Json.createObjectBuilder().add("operator", "OR").add("cpe_match", cpeMatches))))
+                    .add("impact", Json.createObjectBuilder()
+                            .add("baseMetricV2", Json.createObjectBuilder()
+                                    .add("cvssV2", Json.createObjectBuilder()
+                                            .add("vectorString", "AV:N/AC:L/Au:N/C:P/I:P/A:P")
+                                            .add("baseScore", 7.5))
+                                    .add("exploitabilityScore", 10.0)
+                                    .add("impactScore", 6.4)))
+                    .add("publishedDate", "2018-06-01T12:00Z")
+                    .add("lastModifiedDate", "2018-06-02T12:00Z");
+            items.add(item);
+        }
+        try (OutputStream out = new FileOutputStream(file);
+             JsonWriter writer = Json.createWriter(out)) {
+            writer.writeObject(Json.createObjectBuilder()
+                    .add("CVE_data_type", "CVE")
+                    .add("CVE_data_format", "MITRE")
+                    .add("CVE_data_version", "4.0")
+                    .add("CVE_Items", items)
+                    .build());
+        }
+    }
+
+    /**
+     * Creates a portfolio of projects, each depending on its own set of components, of which
+     * a share is affected by vulnerabilities.
+     * @param qm the QueryManager to use
+     * @param projects the number of projects
+     * @param componentsPerProject the number of components per project
+     * @param vulnerabilitiesPerComponent the number of vulnerabilities affecting every fourth component
+     * @return the created projects
+     */
+    public List<Project> createPortfolio(QueryManager qm, int projects, int componentsPerProject, int vulnerabilitiesPerComponent) {
+        final List<Project> result = new ArrayList<>();
+        final List<Vulnerability> vulnerabilities = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, vulnerabilitiesPerComponent * 10); i++) {
+            vulnerabilities.add(createVulnerability(qm, Vulnerability.Source.NVD, "CVE-2018-" + (20000 + i)));
+        }
+        for (int p = 0; p < projects; p++) {
+            final Project project = qm.createProject("Project " + p, null, "1.0", null, null, null, false);
+            for (int c = 0; c < componentsPerProject; c++) {
+                final Component component = qm.createComponent(createComponent(p * componentsPerProject + c), false);
+                qm.createDependencyIfNotExist(project, component, null, null);
+                if (c % 4 == 0) {
+                    for (int v = 0; v < vulnerabilitiesPerComponent; v++) {
+                        qm.addVulnerability(vulnerabilities.get(random.nextInt(vulnerabilities.size())), component);
+                    }
+                }
+            }
+            result.add(project);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a transient component with hashes and a PackageURL.
+     * @param i the index of the component, which determines its vendor and product
+     * @return a Component
+     */
+    public Component createComponent(int i) {
+        final Component component = new Component();
+        component.setGroup("org." + vendor(i));
+        component.setName(product(i));
+        component.setVersion(version());
+        component.setMd5(hex(32));
+        component.setSha1(hex(40));
+        try {
+            component.setPurl(new PackageURL("maven", component.getGroup(), component.getName(), component.getVersion(), null, null));
+        } catch (MalformedPackageURLException e) {
+            throw new IllegalStateException(e);
+        }
+        return component;
+    }
+
+    /**
+     * Creates NPM advisories as they are stored by the NPM advisory mirror.
+     * @param qm the QueryManager to use
+     * @param size the number of advisories
+     */
+    public void createNpmAdvisories(QueryManager qm, int size) {
+        for (int i = 0; i < size; i++) {
+            final Vulnerability vulnerability = new Vulnerability();
+            vulnerability.setSource(Vulnerability.Source.NPM);
+            vulnerability.setVulnId(String.valueOf(i + 1));
+            vulnerability.setSubTitle(npmModule(i));
+            vulnerability.setSeverity(Severity.HIGH);
+            final int major = random.nextInt(5);
+            vulnerability.setVulnerableVersions("<" + major + "." + random.nextInt(10) + "." + random.nextInt(10)
+                    + " || >=" + (major + 1) + ".0.0 <" + (major + 1) + "." + random.nextInt(5) + ".0");
+            vulnerability.setPatchedVersions(">=" + (major + 2) + ".0.0");
+            qm.createVulnerability(vulnerability, false);
+        }
+    }
+
+    /**
+     * Creates NVD vulnerabilities with CPE match criteria.
+     * @param qm the QueryManager to use
+     * @param size the number of vulnerabilities
+     * @param criteriaPerVulnerability the number of CPE match criteria per vulnerability
+     */
+    public void createVulnerableSoftware(QueryManager qm, int size, int criteriaPerVulnerability) {
+        for (int i = 0; i < size; i++) {
+            final Vulnerability vulnerability = createVulnerability(qm, Vulnerability.Source.NVD, "CVE-2017-" + (10000 + i));
+            final List<VulnerableSoftware> criteria = new ArrayList<>();
+            for (int j = 0; j < criteriaPerVulnerability; j++) {
+                final int product = random.nextInt(size);
+                final VulnerableSoftware vs = new VulnerableSoftware();
+                vs.setVendor(vendor(product));
+                vs.setProduct(product(product));
+                vs.setVersion("*");
+                vs.setCpe23("cpe:2.3:a:" + vs.getVendor() + ":" + vs.getProduct() + ":*:*:*:*:*:*:*:*");
+                vs.setVersionStartIncluding(random.nextInt(3) + ".0.0");
+                vs.setVersionEndExcluding((3 + random.nextInt(3)) + "." + random.nextInt(10) + ".0");
+                criteria.add(vs);
+            }
+            qm.synchronizeVulnerableSoftware(vulnerability, criteria);
+        }
+    }
+
+    private Vulnerability createVulnerability(QueryManager qm, Vulnerability.Source source, String vulnId) {
+        final Vulnerability vulnerability = new Vulnerability();
+        vulnerability.setSource(source);
+        vulnerability.setVulnId(vulnId);
+        vulnerability.setCvssV2BaseScore(BigDecimal.valueOf(random.nextInt(100), 1));
+        vulnerability.setCvssV3BaseScore(BigDecimal.valueOf(random.nextInt(100), 1));
+        return qm.createVulnerability(vulnerability, false);
+    }
+
+    public String vendor(int i) {
+        return VENDORS[i % VENDORS.length];
+    }
+
+    public String product(int i) {
+        return "product-" + i;
+    }
+
+    public String npmModule(int i) {
+        return "module-" + i;
+    }
+
+    public String version() {
+        return random.nextInt(6) + "." + random.nextInt(10) + "." + random.nextInt(20);
+    }
+
+    private String hex(int length) {
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return sb.toString();
+    }
+}
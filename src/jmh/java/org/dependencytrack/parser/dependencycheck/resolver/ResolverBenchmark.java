@@ -0,0 +1,93 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.parser.dependencycheck.resolver;
+
+import org.dependencytrack.benchmark.BenchmarkFixture;
+import org.dependencytrack.benchmark.SyntheticData;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.License;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.owasp.dependencycheck.dependency.Dependency;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the resolution of components and licenses against a portfolio of configurable size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ResolverBenchmark {
+
+    @Param({"1000", "10000"})
+    private int portfolioSize;
+
+    private BenchmarkFixture fixture;
+    private ComponentResolver componentResolver;
+    private LicenseResolver licenseResolver;
+    private final List<Component> candidates = new ArrayList<>();
+    private Dependency dependency;
+    private int next;
+
+    @Setup
+    public void setup() {
+        fixture = new BenchmarkFixture();
+        final SyntheticData data = new SyntheticData();
+        data.createPortfolio(fixture.getQueryManager(), 10, portfolioSize / 10, 0);
+        // Lookups alternate between components which exist in the portfolio and components which do not
+        final List<Component> existing = fixture.getQueryManager().getAllComponents();
+        for (int i = 0; i < 1000; i++) {
+            candidates.add((i % 2 == 0) ? existing.get((i * 31) % existing.size()) : data.createComponent(portfolioSize + i));
+        }
+        componentResolver = new ComponentResolver(fixture.getQueryManager());
+        licenseResolver = new LicenseResolver(fixture.getQueryManager());
+        dependency = new Dependency();
+        dependency.setLicense("The Apache Software License, Version 2.0");
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public Component resolveComponent() {
+        next = (next + 1) % candidates.size();
+        return componentResolver.resolve(candidates.get(next));
+    }
+
+    @Benchmark
+    public License resolveLicense() {
+        return licenseResolver.resolve(dependency);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.parser.nvd;
+
+import org.dependencytrack.benchmark.BenchmarkFixture;
+import org.dependencytrack.benchmark.SyntheticData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the parsing and synchronization of NVD feeds of configurable size. The first
+ * parse of the feed creates the vulnerabilities, subsequent parses update them, as happens
+ * each time a modified feed is mirrored.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class NvdParserBenchmark {
+
+    @Param({"1000"})
+    private int feedSize;
+
+    private BenchmarkFixture fixture;
+    private File feed;
+
+    @Setup
+    public void setup() throws IOException {
+        fixture = new BenchmarkFixture();
+        feed = Files.createTempFile("nvdcve-synthetic-", ".json").toFile();
+        new SyntheticData().writeNvdFeed(feed, feedSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+        feed.delete();
+    }
+
+    @Benchmark
+    public void parse() {
+        new NvdParser().parse(feed);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks;
+
+import org.dependencytrack.benchmark.BenchmarkFixture;
+import org.dependencytrack.benchmark.SyntheticData;
+import org.dependencytrack.event.MetricsUpdateEvent;
+import org.dependencytrack.model.Project;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the metric counters of projects and of the portfolio of configurable size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class MetricsUpdateBenchmark {
+
+    @Param({"10"})
+    private int projects;
+
+    @Param({"100", "500"})
+    private int componentsPerProject;
+
+    private BenchmarkFixture fixture;
+    private MetricsUpdateTask task;
+    private Project project;
+
+    @Setup
+    public void setup() {
+        fixture = new BenchmarkFixture();
+        final List<Project> portfolio = new SyntheticData().createPortfolio(fixture.getQueryManager(), projects, componentsPerProject, 2);
+        project = portfolio.get(0);
+        task = new MetricsUpdateTask();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void updateProject() {
+        task.update(new MetricsUpdateEvent(project));
+    }
+
+    @Benchmark
+    public void updatePortfolio() {
+        task.update(new MetricsUpdateEvent(MetricsUpdateEvent.Type.PORTFOLIO));
+    }
+}
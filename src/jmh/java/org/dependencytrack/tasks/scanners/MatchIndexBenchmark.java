@@ -0,0 +1,107 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks.scanners;
+
+import com.github.packageurl.PackageURL;
+import org.dependencytrack.benchmark.BenchmarkFixture;
+import org.dependencytrack.benchmark.SyntheticData;
+import org.dependencytrack.parser.npm.SemverRange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks matching components against the in-memory NPM advisory and CPE match indexes,
+ * loaded from databases of configurable size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MatchIndexBenchmark {
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    private BenchmarkFixture fixture;
+    private SyntheticData data;
+    private NpmAdvisoryIndex npmAdvisoryIndex;
+    private CpeMatchIndex cpeMatchIndex;
+    private final String[] versions = new String[1024];
+    private int next;
+
+    @Setup
+    public void setup() {
+        fixture = new BenchmarkFixture();
+        data = new SyntheticData();
+        data.createNpmAdvisories(fixture.getQueryManager(), size);
+        data.createVulnerableSoftware(fixture.getQueryManager(), size, 3);
+        npmAdvisoryIndex = NpmAdvisoryIndex.getInstance();
+        npmAdvisoryIndex.ensureLoaded();
+        cpeMatchIndex = CpeMatchIndex.getInstance();
+        cpeMatchIndex.ensureLoaded();
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = data.version();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<String> matchNpmAdvisory() {
+        next = (next + 1) & (versions.length - 1);
+        return npmAdvisoryIndex.match(data.npmModule((next * 31) % size), versions[next]);
+    }
+
+    @Benchmark
+    public Set<Long> matchCpe() {
+        next = (next + 1) & (versions.length - 1);
+        final int product = (next * 31) % size;
+        return cpeMatchIndex.match(data.vendor(product), data.product(product), versions[next]);
+    }
+
+    @Benchmark
+    public Set<Long> matchPurl() throws Exception {
+        next = (next + 1) & (versions.length - 1);
+        final int product = (next * 31) % size;
+        return cpeMatchIndex.match(new PackageURL("maven", "org." + data.vendor(product), data.product(product), versions[next], null, null));
+    }
+
+    @Benchmark
+    public SemverRange compileSemverRange() {
+        next = (next + 1) & (versions.length - 1);
+        return SemverRange.parse(">=" + versions[next] + " <" + versions[(next + 1) & (versions.length - 1)] + " || ^" + versions[next]);
+    }
+}
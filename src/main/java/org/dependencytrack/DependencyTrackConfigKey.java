@@ -28,9 +28,29 @@ import alpine.Config;
  */
 public enum DependencyTrackConfigKey implements Config.Key {
 
-    DATASOURCE_VULN_DB_ENABLED  ("datasource.vulndb.enabled", false),
-    DATASOURCE_VULN_DB_KEY      ("datasource.vulndb.key", null),
-    DATASOURCE_VULN_DB_SECRET   ("datasource.vulndb.secret", null);
+    DATASOURCE_VULN_DB_ENABLED              ("datasource.vulndb.enabled", false),
+    DATASOURCE_VULN_DB_KEY                  ("datasource.vulndb.key", null),
+    DATASOURCE_VULN_DB_SECRET               ("datasource.vulndb.secret", null),
+    SEARCH_RESULT_CACHE_SIZE                ("search.result.cache.size", 100),
+    REPO_META_ANALYZER_THREADS              ("repository.meta.analyzer.threads", 8),
+    REPO_META_ANALYZER_MAX_CONNECTIONS      ("repository.meta.analyzer.max.connections", 4),
+    REPO_META_ANALYZER_REQUESTS_PER_SECOND  ("repository.meta.analyzer.requests.per.second", 10),
+    REPO_META_ANALYZER_FRESHNESS_HOURS      ("repository.meta.analyzer.freshness.hours", 12),
+    NPM_AUDIT_ANALYZER_THREADS              ("npm.audit.analyzer.threads", 4),
+    METRICS_UPDATE_DEBOUNCE_MILLIS          ("metrics.update.debounce.millis", 5000),
+    METRICS_RETENTION_RAW_DAYS              ("metrics.retention.raw.days", 30),
+    METRICS_RETENTION_DAILY_DAYS            ("metrics.retention.daily.days", 365),
+    METRICS_COMPACTION_BATCH_SIZE           ("metrics.compaction.batch.size", 1000),
+    PROJECT_DELETION_BATCH_SIZE             ("project.deletion.batch.size", 5000),
+    COMPONENT_GC_GRACE_PERIOD_DAYS          ("component.gc.grace.period.days", 7),
+    COMPONENT_GC_BATCH_SIZE                 ("component.gc.batch.size", 1000),
+    COMPONENT_GC_DRY_RUN                    ("component.gc.dry.run", false),
+    HISTORY_RETENTION_IMPORTS               ("history.retention.imports", 0),
+    HISTORY_MIGRATION_BATCH_SIZE            ("history.migration.batch.size", 100),
+    ENTITY_CACHE_MAX_SIZE                   ("entity.cache.max.size", 10000),
+    ENTITY_CACHE_TTL_SECONDS                ("entity.cache.ttl.seconds", 300),
+    QUERY_INSTRUMENTATION_SLOW_MILLIS       ("query.instrumentation.slow.threshold.millis", 500),
+    QUERY_INSTRUMENTATION_REPEAT_THRESHOLD  ("query.instrumentation.repeat.threshold", 50);
 
     private String propertyName;
     private Object defaultValue;
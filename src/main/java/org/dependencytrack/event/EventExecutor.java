@@ -0,0 +1,201 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.event;
+
+import alpine.event.framework.ChainLink;
+import alpine.event.framework.ChainableEvent;
+import alpine.event.framework.Event;
+import alpine.event.framework.Subscriber;
+import alpine.logging.Logger;
+import org.dependencytrack.metrics.OperationalMetrics;
+import org.dependencytrack.persistence.instrumentation.QueryStatistics;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An executor dedicated to processing one or more types of events. Each executor has its
+ * own thread count and queue bound. When the queue is full, events dispatched through the
+ * {@link EventPipeline} make the dispatching thread wait until capacity is available, while
+ * events handed over by Alpine's EventService are rejected, so that a saturated executor
+ * never stalls the threads shared by all event types.
+ *
+ * The success or failure chain of a {@link ChainableEvent} is dispatched once the subscriber
+ * has processed the event.
+ *
+ * Queue depth, active count, and processing time percentiles of recently processed events
+ * are available for monitoring purposes.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class EventExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(EventExecutor.class);
+    private static final int SAMPLE_SIZE = 1024;
+
+    private final EventPipeline pipeline;
+    private final String name;
+    private final int queueSize;
+    private final ThreadPoolExecutor executor;
+
+    // Ring buffer of the processing time (in nanoseconds) of the most recent events
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private int sampleCount;
+    private int sampleIndex;
+
+    EventExecutor(EventPipeline pipeline, String name, int threads, int queueSize) {
+        this.pipeline = pipeline;
+        this.name = name;
+        this.queueSize = queueSize;
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                r -> new Thread(r, "EventExecutor-" + name + "-" + threadNumber.incrementAndGet()));
+        this.executor.prestartAllCoreThreads();
+    }
+
+    /**
+     * Queues the event for processing by a new instance of the specified subscriber.
+     * @param event the event to process
+     * @param subscriberClass the subscriber to inform of the event
+     * @param wait true to wait for capacity if the queue is full, false to reject the event
+     * @throws RejectedExecutionException if the event was rejected
+     */
+    void execute(Event event, Class<? extends Subscriber> subscriberClass, boolean wait) {
+        final Runnable task = () -> process(event, subscriberClass);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (!wait || executor.isShutdown()) {
+                OperationalMetrics.EVENTS_REJECTED.labels(name).inc();
+                throw e;
+            }
+            try {
+                // Apply back-pressure to the dispatching thread by waiting for capacity.
+                // All threads of the executor are started up front and never time out.
+                executor.getQueue().put(task);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                OperationalMetrics.EVENTS_REJECTED.labels(name).inc();
+                throw new RejectedExecutionException("Interrupted while waiting for the " + name + " executor", ex);
+            }
+        }
+    }
+
+    private void process(Event event, Class<? extends Subscriber> subscriberClass) {
+        final long start = System.nanoTime();
+        boolean success = false;
+        try (QueryStatistics.Scope scope = QueryStatistics.begin(subscriberClass.getSimpleName())) {
+            subscriberClass.newInstance().inform(event);
+            success = true;
+        } catch (InstantiationException | IllegalAccessException e) {
+            LOGGER.error("An error occurred while instantiating subscriber " + subscriberClass.getName(), e);
+            OperationalMetrics.SUBSCRIBER_FAILURES.labels(subscriberClass.getSimpleName()).inc();
+        } catch (RuntimeException e) {
+            LOGGER.error("An error occurred while processing " + event.getClass().getSimpleName(), e);
+            OperationalMetrics.SUBSCRIBER_FAILURES.labels(subscriberClass.getSimpleName()).inc();
+        } finally {
+            final long duration = System.nanoTime() - start;
+            record(duration);
+            OperationalMetrics.SUBSCRIBER_DURATION.labels(subscriberClass.getSimpleName()).observe(duration / 1e9);
+        }
+        if (event instanceof ChainableEvent) {
+            dispatchChain((ChainableEvent) event, success);
+        }
+    }
+
+    /**
+     * Dispatches the events chained to the success or failure of the specified event.
+     */
+    private void dispatchChain(ChainableEvent event, boolean success) {
+        for (final ChainLink link: success ? event.onSuccess() : event.onFailure()) {
+            final Event chainedEvent = success ? link.getSuccessEvent() : link.getFailureEvent();
+            if (chainedEvent != null) {
+                try {
+                    pipeline.dispatch(chainedEvent);
+                } catch (RejectedExecutionException e) {
+                    LOGGER.error("Unable to dispatch " + chainedEvent.getClass().getSimpleName() + " chained to "
+                            + event.getClass().getSimpleName(), e);
+                }
+            }
+        }
+    }
+
+    private synchronized void record(long duration) {
+        samples[sampleIndex] = duration;
+        sampleIndex = (sampleIndex + 1) % SAMPLE_SIZE;
+        if (sampleCount < SAMPLE_SIZE) {
+            sampleCount++;
+        }
+    }
+
+    /**
+     * Returns the processing time of recently processed events at the specified percentile.
+     * @param percentile the percentile (between 0 and 100)
+     * @return the processing time in milliseconds, or 0 if no events have been processed
+     */
+    public synchronized double getProcessingTime(double percentile) {
+        if (sampleCount == 0) {
+            return 0;
+        }
+        final long[] sorted = Arrays.copyOf(samples, sampleCount);
+        Arrays.sort(sorted);
+        final int index = (int) Math.ceil(percentile / 100.0 * sampleCount) - 1;
+        return sorted[Math.max(0, Math.min(index, sampleCount - 1))] / 1_000_000.0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getThreads() {
+        return executor.getCorePoolSize();
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    /**
+     * Returns whether or not the queue of the executor is full.
+     */
+    public boolean isSaturated() {
+        return executor.getQueue().remainingCapacity() == 0;
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+}
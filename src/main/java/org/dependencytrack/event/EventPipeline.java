@@ -0,0 +1,205 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.event;
+
+import alpine.Config;
+import alpine.event.framework.Event;
+import alpine.event.framework.EventService;
+import alpine.event.framework.Subscriber;
+import alpine.logging.Logger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A Singleton which routes events to dedicated {@link EventExecutor}s, so that long running
+ * events of one type do not delay the processing of events of another type.
+ *
+ * Events are dispatched using {@link #dispatch(Event)}, which hands them directly to the executor
+ * they are routed to. Events of a type routed to a single-threaded executor are therefore processed
+ * in the order they were dispatched in, and the chain of a {@link alpine.event.framework.ChainableEvent}
+ * is only dispatched once its subscriber has finished. Events dispatched using
+ * {@link Event#dispatch(Event)}, such as scheduled events, reach the executor through the
+ * {@link EventService} and {@link EventPipelineSubscriber}. Those must not be chained.
+ *
+ * The thread count and queue bound of each executor are configurable using the properties
+ * event.executor.[name].threads and event.executor.[name].queue.size.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class EventPipeline {
+
+    /**
+     * The number of seconds clients are asked to wait before retrying, when a request is refused due to a saturated executor.
+     */
+    public static final int RETRY_AFTER_SECONDS = 30;
+
+    private static final Logger LOGGER = Logger.getLogger(EventPipeline.class);
+    private static final EventPipeline INSTANCE = new EventPipeline();
+
+    private final Map<String, EventExecutor> executors = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<Class<? extends Event>, Route> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Package-private constructor so that tests may create isolated pipelines.
+     */
+    EventPipeline() { }
+
+    /**
+     * Return an instance of the EventPipeline instance.
+     * @return an EventPipeline instance
+     */
+    public static EventPipeline getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates a new executor. The defaults may be overridden in the configuration.
+     * @param name the name of the executor
+     * @param defaultThreads the number of threads, unless configured otherwise
+     * @param defaultQueueSize the maximum number of queued events, unless configured otherwise
+     */
+    public void createExecutor(String name, int defaultThreads, int defaultQueueSize) {
+        final int threads = Config.getInstance().getPropertyAsInt(new ExecutorConfigKey(name, "threads", defaultThreads));
+        final int queueSize = Config.getInstance().getPropertyAsInt(new ExecutorConfigKey(name, "queue.size", defaultQueueSize));
+        LOGGER.debug("Creating executor " + name + " (threads: " + threads + ", queue size: " + queueSize + ")");
+        executors.put(name, new EventExecutor(this, name, Math.max(1, threads), Math.max(1, queueSize)));
+    }
+
+    /**
+     * Routes events of the specified type to the specified subscriber, processed by the named executor.
+     * @param eventClass the type of event
+     * @param subscriberClass the subscriber to inform of the event
+     * @param executorName the name of a previously created executor
+     */
+    public void route(Class<? extends Event> eventClass, Class<? extends Subscriber> subscriberClass, String executorName) {
+        final EventExecutor executor = executors.get(executorName);
+        if (executor == null) {
+            throw new IllegalArgumentException("An executor named " + executorName + " does not exist");
+        }
+        routes.put(eventClass, new Route(subscriberClass, executor));
+        EventService.getInstance().subscribe(eventClass, EventPipelineSubscriber.class);
+    }
+
+    /**
+     * Hands the event over to the executor it is routed to. If the queue of the executor
+     * is full, this method waits until capacity is available. Events which are not routed
+     * are dispatched to Alpine's event services.
+     * @param event the event to dispatch
+     * @throws java.util.concurrent.RejectedExecutionException if the executor has been shutdown
+     */
+    public void dispatch(Event event) {
+        final Route route = routes.get(event.getClass());
+        if (route == null) {
+            Event.dispatch(event);
+            return;
+        }
+        route.executor.execute(event, route.subscriberClass, true);
+    }
+
+    /**
+     * Hands an event received from the {@link EventService} over to the executor it is routed to.
+     * The event is rejected rather than waiting if the queue of the executor is full, since
+     * waiting would stall the threads the EventService shares between all event types.
+     */
+    void offer(Event event) {
+        final Route route = routes.get(event.getClass());
+        if (route == null) {
+            LOGGER.warn("No route exists for " + event.getClass().getName());
+            return;
+        }
+        try {
+            route.executor.execute(event, route.subscriberClass, false);
+        } catch (RejectedExecutionException e) {
+            LOGGER.error("The " + route.executor.getName() + " executor is saturated. " + event.getClass().getSimpleName() + " was discarded");
+        }
+    }
+
+    /**
+     * Returns whether or not the executor processing the specified type of event is saturated.
+     * Callers accepting work from external sources should refuse it while this is the case.
+     * @param eventClass the type of event
+     * @return true if the queue of the executor is full, false if not or if the event is not routed
+     */
+    public boolean isSaturated(Class<? extends Event> eventClass) {
+        final Route route = routes.get(eventClass);
+        return route != null && route.executor.isSaturated();
+    }
+
+    /**
+     * Returns all executors, in order of creation.
+     * @return a List of EventExecutor objects
+     */
+    public List<EventExecutor> getExecutors() {
+        synchronized (executors) {
+            return new ArrayList<>(executors.values());
+        }
+    }
+
+    /**
+     * Removes all routes and shuts down all executors. Previously queued events are still processed.
+     */
+    public void shutdown() {
+        EventService.getInstance().unsubscribe(EventPipelineSubscriber.class);
+        routes.clear();
+        synchronized (executors) {
+            for (EventExecutor executor: executors.values()) {
+                executor.shutdown();
+            }
+            executors.clear();
+        }
+    }
+
+    private static final class Route {
+        private final Class<? extends Subscriber> subscriberClass;
+        private final EventExecutor executor;
+
+        private Route(Class<? extends Subscriber> subscriberClass, EventExecutor executor) {
+            this.subscriberClass = subscriberClass;
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * Configuration key of an executor setting. Executors are defined in code, therefore their
+     * keys are not enumerated in {@link org.dependencytrack.DependencyTrackConfigKey}.
+     */
+    private static final class ExecutorConfigKey implements Config.Key {
+        private final String propertyName;
+        private final Object defaultValue;
+
+        private ExecutorConfigKey(String executorName, String setting, Object defaultValue) {
+            this.propertyName = "event.executor." + executorName + "." + setting;
+            this.defaultValue = defaultValue;
+        }
+
+        public String getPropertyName() {
+            return propertyName;
+        }
+
+        public Object getDefaultValue() {
+            return defaultValue;
+        }
+    }
+
+}
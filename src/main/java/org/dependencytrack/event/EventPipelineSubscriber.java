@@ -0,0 +1,41 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.event;
+
+import alpine.event.framework.Event;
+import alpine.event.framework.Subscriber;
+
+/**
+ * Subscriber which hands events dispatched through Alpine's EventService, such as scheduled
+ * events, over to the {@link EventPipeline}. Alpine dispatches the chain of a chainable event
+ * as soon as this subscriber returns, before the event has been processed, therefore chained
+ * events must be dispatched using {@link EventPipeline#dispatch(Event)} instead.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public class EventPipelineSubscriber implements Subscriber {
+
+    /**
+     * {@inheritDoc}
+     */
+    public void inform(Event e) {
+        EventPipeline.getInstance().offer(e);
+    }
+
+}
@@ -19,19 +19,25 @@ package org.dependencytrack.event;
 
 import alpine.event.LdapSyncEvent;
 import alpine.event.framework.EventService;
-import alpine.event.framework.SingleThreadedEventService;
 import alpine.tasks.LdapSyncTask;
 import org.dependencytrack.RequirementsVerifier;
 import org.dependencytrack.tasks.BomUploadProcessingTask;
+import org.dependencytrack.tasks.ComponentGarbageCollectionTask;
+import org.dependencytrack.tasks.HistoryPruningTask;
 import org.dependencytrack.tasks.IndexTask;
+import org.dependencytrack.tasks.MetricsCompactionTask;
+import org.dependencytrack.tasks.MetricsUpdateScheduler;
 import org.dependencytrack.tasks.MetricsUpdateTask;
 import org.dependencytrack.tasks.NistMirrorTask;
 import org.dependencytrack.tasks.NpmAdvisoryMirrorTask;
+import org.dependencytrack.tasks.ProjectDeletionTask;
 import org.dependencytrack.tasks.ScanUploadProcessingTask;
 import org.dependencytrack.tasks.TaskScheduler;
 import org.dependencytrack.tasks.VulnDbSyncTask;
 import org.dependencytrack.tasks.VulnerabilityAnalysisTask;
 import org.dependencytrack.tasks.repositories.RepositoryMetaAnalyzerTask;
+import org.dependencytrack.tasks.scanners.CpeMatchAnalysisTask;
+import org.dependencytrack.tasks.scanners.DependencyCheckEngine;
 import org.dependencytrack.tasks.scanners.DependencyCheckTask;
 import org.dependencytrack.tasks.scanners.NpmAuditAnalysisTask;
 import org.dependencytrack.tasks.scanners.OssIndexAnalysisTask;
@@ -49,8 +55,8 @@ public class EventSubsystemInitializer implements ServletContextListener {
     // Starts the EventService
     private static final EventService EVENT_SERVICE = EventService.getInstance();
 
-    // Starts the SingleThreadedEventService
-    private static final SingleThreadedEventService EVENT_SERVICE_ST = SingleThreadedEventService.getInstance();
+    // Routes events to dedicated executors
+    private static final EventPipeline EVENT_PIPELINE = EventPipeline.getInstance();
 
     /**
      * {@inheritDoc}
@@ -59,20 +65,45 @@ public class EventSubsystemInitializer implements ServletContextListener {
         if (RequirementsVerifier.failedValidation()) {
             return;
         }
-        EVENT_SERVICE.subscribe(BomUploadEvent.class, BomUploadProcessingTask.class);
-        EVENT_SERVICE.subscribe(ScanUploadEvent.class, ScanUploadProcessingTask.class);
-        EVENT_SERVICE.subscribe(LdapSyncEvent.class, LdapSyncTask.class);
-        EVENT_SERVICE.subscribe(NpmAuditAnalysisEvent.class, NpmAuditAnalysisTask.class);
-        EVENT_SERVICE.subscribe(OssIndexAnalysisEvent.class, OssIndexAnalysisTask.class);
-        EVENT_SERVICE.subscribe(NpmAdvisoryMirrorEvent.class, NpmAdvisoryMirrorTask.class);
-        EVENT_SERVICE.subscribe(VulnDbSyncEvent.class, VulnDbSyncTask.class);
-        EVENT_SERVICE.subscribe(VulnerabilityAnalysisEvent.class, VulnerabilityAnalysisTask.class);
-        EVENT_SERVICE.subscribe(RepositoryMetaEvent.class, RepositoryMetaAnalyzerTask.class);
-        EVENT_SERVICE.subscribe(MetricsUpdateEvent.class, MetricsUpdateTask.class);
+        EVENT_PIPELINE.createExecutor("bom-upload", 2, 100);
+        EVENT_PIPELINE.createExecutor("scan-upload", 2, 100);
+        EVENT_PIPELINE.createExecutor("ldap-sync", 1, 10);
+        EVENT_PIPELINE.createExecutor("npm-audit-analysis", 2, 1000);
+        EVENT_PIPELINE.createExecutor("ossindex-analysis", 2, 1000);
+        EVENT_PIPELINE.createExecutor("cpe-match-analysis", 1, 1000);
+        EVENT_PIPELINE.createExecutor("npm-advisory-mirror", 1, 10);
+        EVENT_PIPELINE.createExecutor("vulndb-sync", 1, 10);
+        EVENT_PIPELINE.createExecutor("vulnerability-analysis", 2, 1000);
+        EVENT_PIPELINE.createExecutor("repository-meta", 2, 1000);
+        // Metrics updates are handed over to the MetricsUpdateScheduler, which coalesces and performs them
+        EVENT_PIPELINE.createExecutor("metrics-update", 1, 10000);
+        EVENT_PIPELINE.createExecutor("metrics-compaction", 1, 10);
+        EVENT_PIPELINE.createExecutor("project-deletion", 1, 100);
+        EVENT_PIPELINE.createExecutor("component-gc", 1, 10);
+        EVENT_PIPELINE.createExecutor("history-pruning", 1, 10);
+        // The search indexes are written by a single thread
+        EVENT_PIPELINE.createExecutor("index", 1, 100000);
+        // Mirroring the NVD and Dependency-Check analysis (which uses the mirror) are never performed concurrently
+        EVENT_PIPELINE.createExecutor("nvd", 1, 10);
 
-        EVENT_SERVICE_ST.subscribe(IndexEvent.class, IndexTask.class);
-        EVENT_SERVICE_ST.subscribe(DependencyCheckEvent.class, DependencyCheckTask.class);
-        EVENT_SERVICE_ST.subscribe(NistMirrorEvent.class, NistMirrorTask.class);
+        EVENT_PIPELINE.route(BomUploadEvent.class, BomUploadProcessingTask.class, "bom-upload");
+        EVENT_PIPELINE.route(ScanUploadEvent.class, ScanUploadProcessingTask.class, "scan-upload");
+        EVENT_PIPELINE.route(LdapSyncEvent.class, LdapSyncTask.class, "ldap-sync");
+        EVENT_PIPELINE.route(NpmAuditAnalysisEvent.class, NpmAuditAnalysisTask.class, "npm-audit-analysis");
+        EVENT_PIPELINE.route(OssIndexAnalysisEvent.class, OssIndexAnalysisTask.class, "ossindex-analysis");
+        EVENT_PIPELINE.route(CpeMatchAnalysisEvent.class, CpeMatchAnalysisTask.class, "cpe-match-analysis");
+        EVENT_PIPELINE.route(NpmAdvisoryMirrorEvent.class, NpmAdvisoryMirrorTask.class, "npm-advisory-mirror");
+        EVENT_PIPELINE.route(VulnDbSyncEvent.class, VulnDbSyncTask.class, "vulndb-sync");
+        EVENT_PIPELINE.route(VulnerabilityAnalysisEvent.class, VulnerabilityAnalysisTask.class, "vulnerability-analysis");
+        EVENT_PIPELINE.route(RepositoryMetaEvent.class, RepositoryMetaAnalyzerTask.class, "repository-meta");
+        EVENT_PIPELINE.route(MetricsUpdateEvent.class, MetricsUpdateTask.class, "metrics-update");
+        EVENT_PIPELINE.route(MetricsCompactionEvent.class, MetricsCompactionTask.class, "metrics-compaction");
+        EVENT_PIPELINE.route(ProjectDeletionEvent.class, ProjectDeletionTask.class, "project-deletion");
+        EVENT_PIPELINE.route(ComponentGarbageCollectionEvent.class, ComponentGarbageCollectionTask.class, "component-gc");
+        EVENT_PIPELINE.route(HistoryPruningEvent.class, HistoryPruningTask.class, "history-pruning");
+        EVENT_PIPELINE.route(IndexEvent.class, IndexTask.class, "index");
+        EVENT_PIPELINE.route(DependencyCheckEvent.class, DependencyCheckTask.class, "nvd");
+        EVENT_PIPELINE.route(NistMirrorEvent.class, NistMirrorTask.class, "nvd");
 
         TaskScheduler.getInstance();
     }
@@ -82,22 +113,10 @@ public class EventSubsystemInitializer implements ServletContextListener {
      */
     public void contextDestroyed(ServletContextEvent event) {
         TaskScheduler.getInstance().shutdown();
+        MetricsUpdateScheduler.getInstance().shutdown();
 
-        EVENT_SERVICE.unsubscribe(BomUploadProcessingTask.class);
-        EVENT_SERVICE.unsubscribe(ScanUploadProcessingTask.class);
-        EVENT_SERVICE.unsubscribe(LdapSyncTask.class);
-        EVENT_SERVICE.unsubscribe(NpmAuditAnalysisTask.class);
-        EVENT_SERVICE.unsubscribe(OssIndexAnalysisTask.class);
-        EVENT_SERVICE.unsubscribe(NpmAdvisoryMirrorTask.class);
-        EVENT_SERVICE.unsubscribe(VulnDbSyncTask.class);
-        EVENT_SERVICE.unsubscribe(VulnerabilityAnalysisTask.class);
-        EVENT_SERVICE.unsubscribe(RepositoryMetaAnalyzerTask.class);
-        EVENT_SERVICE.unsubscribe(MetricsUpdateTask.class);
+        EVENT_PIPELINE.shutdown();
         EVENT_SERVICE.shutdown();
-
-        EVENT_SERVICE_ST.unsubscribe(IndexTask.class);
-        EVENT_SERVICE_ST.unsubscribe(DependencyCheckTask.class);
-        EVENT_SERVICE_ST.unsubscribe(NistMirrorTask.class);
-        EVENT_SERVICE_ST.shutdown();
+        DependencyCheckEngine.getInstance().close();
     }
 }
@@ -0,0 +1,47 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.event;
+
+import alpine.event.framework.Event;
+import java.util.UUID;
+
+/**
+ * Defines an event used to delete a project, its children, and all objects dependant on them.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public class ProjectDeletionEvent implements Event {
+
+    private final UUID projectUuid;
+    private final UUID jobUuid;
+
+    public ProjectDeletionEvent(UUID projectUuid, UUID jobUuid) {
+        this.projectUuid = projectUuid;
+        this.jobUuid = jobUuid;
+    }
+
+    public UUID getProjectUuid() {
+        return projectUuid;
+    }
+
+    public UUID getJobUuid() {
+        return jobUuid;
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.filters;
+
+import org.dependencytrack.persistence.instrumentation.QueryStatistics;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Attributes the SQL statements executed while processing a request to the request in
+ * {@link QueryStatistics}. Requests are named after their method and path, with identifiers
+ * in the path replaced by placeholders so that requests for different objects are counted together.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class QueryInstrumentationFilter implements Filter {
+
+    private static final Pattern UUID = Pattern.compile("/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}(?=/|$)");
+    private static final Pattern NUMBER = Pattern.compile("/\\d+(?=/|$)");
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (!QueryStatistics.getInstance().isEnabled() || !(request instanceof HttpServletRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        final HttpServletRequest req = (HttpServletRequest) request;
+        try (QueryStatistics.Scope scope = QueryStatistics.begin(req.getMethod() + " " + normalize(req.getRequestURI()))) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    static String normalize(String path) {
+        final String normalized = UUID.matcher(path).replaceAll("/{uuid}");
+        return NUMBER.matcher(normalized).replaceAll("/{id}");
+    }
+
+}
@@ -0,0 +1,190 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.metrics;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A downsampled time series of metrics for a single subject (the portfolio or a project).
+ * Values are stored in columnar form: one array of bucket timestamps and one array of
+ * values per metric, which keeps long ranges compact when serialized.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class MetricsSeries {
+
+    /**
+     * The size of the time buckets metrics are grouped by.
+     */
+    public enum Bucket {
+        HOUR,
+        DAY,
+        WEEK;
+
+        /**
+         * Returns the start of the bucket the specified date parts fall into.
+         * @param year the year
+         * @param month the zero-based month
+         * @param day the day of month
+         * @param hour the hour of day
+         * @return the start of the bucket in milliseconds since the epoch
+         */
+        public long start(int year, int month, int day, int hour) {
+            final Calendar calendar = Calendar.getInstance();
+            calendar.clear();
+            calendar.set(year, month, day, (this == HOUR) ? hour : 0, 0, 0);
+            if (this == WEEK) {
+                final int offset = (calendar.get(Calendar.DAY_OF_WEEK) + 5) % 7;
+                calendar.add(Calendar.DAY_OF_MONTH, -offset);
+            }
+            return calendar.getTimeInMillis();
+        }
+    }
+
+    /**
+     * The function used to aggregate all metrics recorded within a bucket.
+     */
+    public enum Aggregate {
+        MIN,
+        MAX,
+        AVG;
+
+        /**
+         * Returns the JDOQL aggregate expression of the specified field.
+         * @param field the name of the field to aggregate
+         * @return a JDOQL expression
+         */
+        public String of(String field) {
+            return name().toLowerCase() + "(" + field + ")";
+        }
+
+        double combine(double current, long currentSamples, double value, long samples) {
+            switch (this) {
+                case MIN: return Math.min(current, value);
+                case MAX: return Math.max(current, value);
+                default: return (current * currentSamples + value * samples) / (currentSamples + samples);
+            }
+        }
+    }
+
+    private final String subject;
+    private final List<String> columns;
+    private final Aggregate aggregate;
+    private final List<Long> timestamps = new ArrayList<>();
+    private final List<Long> samples = new ArrayList<>();
+    private final List<double[]> values = new ArrayList<>();
+
+    public MetricsSeries(String subject, List<String> columns, Aggregate aggregate) {
+        this.subject = subject;
+        this.columns = Collections.unmodifiableList(columns);
+        this.aggregate = aggregate;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public List<Long> getTimestamps() {
+        return Collections.unmodifiableList(timestamps);
+    }
+
+    /**
+     * Returns the aggregated values of the specified column, one per timestamp.
+     * @param column the name of the column
+     * @return a list of values
+     */
+    public List<Double> getValues(String column) {
+        final int index = columns.indexOf(column);
+        final List<Double> result = new ArrayList<>(values.size());
+        for (double[] row: values) {
+            result.add(row[index]);
+        }
+        return result;
+    }
+
+    /**
+     * Adds the aggregated values of a bucket. Buckets must be added in ascending order.
+     * When the timestamp equals the one of the previous bucket (for example when daily
+     * groups are folded into weeks), the values are combined using the aggregate function.
+     * @param timestamp the start of the bucket
+     * @param count the number of metrics the values were aggregated from
+     * @param row the aggregated values, in column order
+     */
+    public void add(long timestamp, long count, Number[] row) {
+        final int last = timestamps.size() - 1;
+        if (last >= 0 && timestamps.get(last) == timestamp) {
+            final double[] current = values.get(last);
+            final long currentSamples = samples.get(last);
+            for (int i = 0; i < current.length; i++) {
+                current[i] = aggregate.combine(current[i], currentSamples, toDouble(row[i]), count);
+            }
+            samples.set(last, currentSamples + count);
+            return;
+        }
+        final double[] converted = new double[columns.size()];
+        for (int i = 0; i < converted.length; i++) {
+            converted[i] = toDouble(row[i]);
+        }
+        timestamps.add(timestamp);
+        samples.add(count);
+        values.add(converted);
+    }
+
+    /**
+     * Serializes the series into its columnar JSON representation.
+     * @return a JsonObject
+     */
+    public JsonObject toJson() {
+        final JsonArrayBuilder timestampArray = Json.createArrayBuilder();
+        timestamps.forEach(timestampArray::add);
+        final JsonObjectBuilder valueObject = Json.createObjectBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            final JsonArrayBuilder column = Json.createArrayBuilder();
+            for (double[] row: values) {
+                final double value = row[i];
+                if (value == Math.rint(value) && !Double.isInfinite(value)) {
+                    column.add((long) value);
+                } else {
+                    column.add(value);
+                }
+            }
+            valueObject.add(columns.get(i), column);
+        }
+        return Json.createObjectBuilder()
+                .add("subject", subject)
+                .add("timestamps", timestampArray)
+                .add("values", valueObject)
+                .build();
+    }
+
+    private static double toDouble(Number number) {
+        return (number == null) ? 0 : number.doubleValue();
+    }
+}
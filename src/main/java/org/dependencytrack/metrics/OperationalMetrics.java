@@ -0,0 +1,161 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.metrics;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+import io.prometheus.client.Histogram;
+import io.prometheus.client.hotspot.DefaultExports;
+import org.apache.http.pool.PoolStats;
+import org.dependencytrack.event.EventExecutor;
+import org.dependencytrack.event.EventPipeline;
+import org.dependencytrack.persistence.EntityCacheCollector;
+import org.dependencytrack.search.IndexMetricsCollector;
+import org.dependencytrack.util.HttpClientFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operational metrics of the application, exposed in the Prometheus text format. In addition
+ * to the instruments defined here, the state of event executors, HTTP client connection pools,
+ * search indexes, the entity cache and the JVM is collected when the metrics are scraped.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class OperationalMetrics {
+
+    private static final double[] TASK_BUCKETS = {0.01, 0.05, 0.1, 0.5, 1, 5, 10, 30, 60, 300, 900, 3600};
+
+    public static final Histogram SUBSCRIBER_DURATION = Histogram.build()
+            .name("dtrack_subscriber_duration_seconds")
+            .help("Time spent by subscribers processing events")
+            .labelNames("subscriber")
+            .buckets(TASK_BUCKETS)
+            .register();
+
+    public static final Counter SUBSCRIBER_FAILURES = Counter.build()
+            .name("dtrack_subscriber_failures_total")
+            .help("Number of events subscribers failed to process")
+            .labelNames("subscriber")
+            .register();
+
+    public static final Counter EVENTS_REJECTED = Counter.build()
+            .name("dtrack_events_rejected_total")
+            .help("Number of events rejected by saturated or shutdown executors")
+            .labelNames("executor")
+            .register();
+
+    public static final Histogram INDEX_COMMIT_DURATION = Histogram.build()
+            .name("dtrack_index_commit_duration_seconds")
+            .help("Time spent committing changes to search indexes")
+            .labelNames("index")
+            .register();
+
+    static {
+        DefaultExports.initialize();
+        new EventExecutorCollector().register();
+        new HttpClientPoolCollector().register();
+        new IndexMetricsCollector().register();
+        new EntityCacheCollector().register();
+    }
+
+    private OperationalMetrics() { }
+
+    /**
+     * Returns the registry holding all operational metrics.
+     * @return a CollectorRegistry
+     */
+    public static CollectorRegistry getRegistry() {
+        return CollectorRegistry.defaultRegistry;
+    }
+
+    /**
+     * Collects the thread and queue utilization of each {@link EventExecutor}.
+     */
+    private static final class EventExecutorCollector extends Collector {
+
+        @Override
+        public List<MetricFamilySamples> collect() {
+            final List<String> labelNames = Collections.singletonList("executor");
+            final GaugeMetricFamily threads = new GaugeMetricFamily("dtrack_event_executor_threads",
+                    "Number of threads of the executor", labelNames);
+            final GaugeMetricFamily active = new GaugeMetricFamily("dtrack_event_executor_active_threads",
+                    "Number of threads actively processing events", labelNames);
+            final GaugeMetricFamily depth = new GaugeMetricFamily("dtrack_event_executor_queue_depth",
+                    "Number of events waiting to be processed", labelNames);
+            final GaugeMetricFamily capacity = new GaugeMetricFamily("dtrack_event_executor_queue_size",
+                    "Maximum number of events waiting to be processed", labelNames);
+            final CounterMetricFamily completed = new CounterMetricFamily("dtrack_event_executor_completed_total",
+                    "Number of events processed", labelNames);
+            for (final EventExecutor executor: EventPipeline.getInstance().getExecutors()) {
+                final List<String> labels = Collections.singletonList(executor.getName());
+                threads.addMetric(labels, executor.getThreads());
+                active.addMetric(labels, executor.getActiveCount());
+                depth.addMetric(labels, executor.getQueueDepth());
+                capacity.addMetric(labels, executor.getQueueSize());
+                completed.addMetric(labels, executor.getCompletedCount());
+            }
+            final List<MetricFamilySamples> mfs = new ArrayList<>();
+            mfs.add(threads);
+            mfs.add(active);
+            mfs.add(depth);
+            mfs.add(capacity);
+            mfs.add(completed);
+            return mfs;
+        }
+    }
+
+    /**
+     * Collects the connection utilization of pooled HTTP clients.
+     */
+    private static final class HttpClientPoolCollector extends Collector {
+
+        @Override
+        public List<MetricFamilySamples> collect() {
+            final List<String> labelNames = Collections.singletonList("pool");
+            final GaugeMetricFamily leased = new GaugeMetricFamily("dtrack_http_client_pool_leased_connections",
+                    "Number of connections in use", labelNames);
+            final GaugeMetricFamily available = new GaugeMetricFamily("dtrack_http_client_pool_available_connections",
+                    "Number of idle connections", labelNames);
+            final GaugeMetricFamily pending = new GaugeMetricFamily("dtrack_http_client_pool_pending_requests",
+                    "Number of requests waiting for a connection", labelNames);
+            final GaugeMetricFamily max = new GaugeMetricFamily("dtrack_http_client_pool_max_connections",
+                    "Maximum number of connections", labelNames);
+            for (final Map.Entry<String, PoolStats> entry: HttpClientFactory.getPoolStats().entrySet()) {
+                final List<String> labels = Collections.singletonList(entry.getKey());
+                leased.addMetric(labels, entry.getValue().getLeased());
+                available.addMetric(labels, entry.getValue().getAvailable());
+                pending.addMetric(labels, entry.getValue().getPending());
+                max.addMetric(labels, entry.getValue().getMax());
+            }
+            final List<MetricFamilySamples> mfs = new ArrayList<>();
+            mfs.add(leased);
+            mfs.add(available);
+            mfs.add(pending);
+            mfs.add(max);
+            return mfs;
+        }
+    }
+
+}
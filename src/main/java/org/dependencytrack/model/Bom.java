@@ -62,12 +62,25 @@ public class Bom implements Serializable {
     @NotNull
     private Project project;
 
+    /**
+     * Bindings recorded before 3.3.0. Components of newer imports are recorded in the
+     * component snapshot, and existing bindings are migrated to snapshots in the background.
+     */
     @Persistent(table = "BOMS_COMPONENTS", mappedBy = "boms")
     @Join(column = "BOM_ID")
     @Element(column = "COMPONENT_ID", dependent = "false")
     @Order(extensions = @Extension(vendorName = "datanucleus", key = "list-ordering", value = "id ASC"))
     private List<Component> components;
 
+    /**
+     * The IDs of the components contained in the import, encoded with {@link org.dependencytrack.util.SnapshotUtil}.
+     * Null if the import has not been migrated from the join table yet.
+     */
+    @Persistent
+    @Column(name = "COMPONENT_SNAPSHOT")
+    @JsonIgnore
+    private byte[] componentSnapshot;
+
     @Persistent(customValueStrategy = "uuid")
     @Unique(name = "BOM_UUID_IDX")
     @Column(name = "UUID", jdbcType = "VARCHAR", length = 36, allowsNull = "false")
@@ -106,6 +119,14 @@ public class Bom implements Serializable {
         this.components = components;
     }
 
+    public byte[] getComponentSnapshot() {
+        return componentSnapshot;
+    }
+
+    public void setComponentSnapshot(byte[] componentSnapshot) {
+        this.componentSnapshot = componentSnapshot;
+    }
+
     public UUID getUuid() {
         return uuid;
     }
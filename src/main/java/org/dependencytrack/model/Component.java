@@ -25,6 +25,7 @@ import com.github.packageurl.PackageURL;
 import org.apache.commons.lang3.StringUtils;
 import org.dependencytrack.persistence.PackageURLStringConverter;
 import org.dependencytrack.resources.v1.serializers.CustomPackageURLSerializer;
+import org.dependencytrack.util.PurlUtil;
 import javax.jdo.annotations.Column;
 import javax.jdo.annotations.Convert;
 import javax.jdo.annotations.Element;
@@ -44,6 +45,7 @@ import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
@@ -65,6 +67,7 @@ import java.util.UUID;
                 @Persistent(name = "vulnerabilities"),
         })
 })
+@Index(name = "COMPONENT_GROUP_NAME_VERSION_IDX", members = {"group", "name", "version"})
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class Component implements Serializable {
 
@@ -168,8 +171,16 @@ public class Component implements Serializable {
     @Pattern(regexp = RegexSequence.Definition.HTTP_URI, message = "The Package URL (purl) must be a valid URI and conform to https://github.com/package-url/purl-spec")
     @Convert(PackageURLStringConverter.class)
     @JsonSerialize(using = CustomPackageURLSerializer.class)
+    @Index(name = "COMPONENT_PURL_IDX")
     private PackageURL purl;
 
+    @Persistent
+    @Column(name = "PURLCOORDINATES", jdbcType = "VARCHAR")
+    @Index(name = "COMPONENT_PURL_COORDINATES_IDX")
+    @Size(max = 255)
+    @JsonIgnore
+    private String purlCoordinates;
+
     @Persistent
     @Column(name = "DESCRIPTION", jdbcType = "VARCHAR", length = 1024)
     @Size(max = 1024)
@@ -219,6 +230,12 @@ public class Component implements Serializable {
     @Order(extensions = @Extension(vendorName = "datanucleus", key = "list-ordering", value = "id ASC"))
     private List<Vulnerability> vulnerabilities;
 
+    @Persistent
+    @Column(name = "LAST_IMPORTED")
+    @Index(name = "COMPONENT_LAST_IMPORTED_IDX")
+    @JsonIgnore
+    private Date lastImported;
+
     @Persistent(customValueStrategy = "uuid")
     @Unique(name = "COMPONENT_UUID_IDX")
     @Column(name = "UUID", jdbcType = "VARCHAR", length = 36, allowsNull = "false")
@@ -343,6 +360,11 @@ public class Component implements Serializable {
 
     public void setPurl(PackageURL purl) {
         this.purl = purl;
+        this.purlCoordinates = PurlUtil.getCoordinates(purl);
+    }
+
+    public String getPurlCoordinates() {
+        return purlCoordinates;
     }
 
     public String getDescription() {
@@ -433,6 +455,14 @@ public class Component implements Serializable {
         this.vulnerabilities.remove(vulnerability);
     }
 
+    public Date getLastImported() {
+        return lastImported;
+    }
+
+    public void setLastImported(Date lastImported) {
+        this.lastImported = lastImported;
+    }
+
     public UUID getUuid() {
         return uuid;
     }
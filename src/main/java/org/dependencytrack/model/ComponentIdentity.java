@@ -0,0 +1,137 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.model;
+
+import org.apache.commons.lang3.StringUtils;
+import javax.jdo.annotations.Column;
+import javax.jdo.annotations.IdGeneratorStrategy;
+import javax.jdo.annotations.Index;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Maps a value that identifies a component, such as one of its hashes or its
+ * Package URL, to the component. Components are resolved by looking up all of
+ * their identities at once instead of querying each hash column in turn.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+@PersistenceCapable
+public class ComponentIdentity implements Serializable {
+
+    private static final long serialVersionUID = 2373390385464519215L;
+
+    /**
+     * The kinds of identity, in the order they are preferred when resolving a component.
+     */
+    public enum Type {
+        MD5,
+        SHA1,
+        SHA256,
+        SHA512,
+        SHA3_256,
+        SHA3_512,
+        PURL
+    }
+
+    /**
+     * The maximum length of an identity value. Longer values are not recorded.
+     */
+    public static final int MAX_VALUE_LENGTH = 255;
+
+    @PrimaryKey
+    @Persistent(valueStrategy = IdGeneratorStrategy.NATIVE)
+    private long id;
+
+    @Persistent
+    @Column(name = "COMPONENT_ID", allowsNull = "false")
+    @Index(name = "COMPONENTIDENTITY_COMPONENT_IDX")
+    private Component component;
+
+    @Persistent
+    @Column(name = "TYPE", jdbcType = "VARCHAR", length = 16, allowsNull = "false")
+    private Type type;
+
+    @Persistent
+    @Column(name = "VALUE", jdbcType = "VARCHAR", length = MAX_VALUE_LENGTH, allowsNull = "false")
+    @Index(name = "COMPONENTIDENTITY_VALUE_IDX")
+    private String value;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public Component getComponent() {
+        return component;
+    }
+
+    public void setComponent(Component component) {
+        this.component = component;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the identities of a component in the order they are preferred when resolving it.
+     * The Package URL is recorded in its canonical form.
+     * @param component the Component to return the identities of
+     * @return a Map of identity type to value
+     */
+    public static Map<Type, String> getIdentities(Component component) {
+        final Map<Type, String> identities = new EnumMap<>(Type.class);
+        putIdentity(identities, Type.MD5, component.getMd5());
+        putIdentity(identities, Type.SHA1, component.getSha1());
+        putIdentity(identities, Type.SHA256, component.getSha256());
+        putIdentity(identities, Type.SHA512, component.getSha512());
+        putIdentity(identities, Type.SHA3_256, component.getSha3_256());
+        putIdentity(identities, Type.SHA3_512, component.getSha3_512());
+        putIdentity(identities, Type.PURL, component.getPurl() == null ? null : component.getPurl().canonicalize());
+        return identities;
+    }
+
+    private static void putIdentity(Map<Type, String> identities, Type type, String value) {
+        final String trimmedValue = StringUtils.trimToNull(value);
+        if (trimmedValue != null && trimmedValue.length() <= MAX_VALUE_LENGTH) {
+            identities.put(type, trimmedValue);
+        }
+    }
+
+}
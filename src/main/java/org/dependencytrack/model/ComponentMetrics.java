@@ -37,6 +37,7 @@ import java.util.Date;
  */
 @PersistenceCapable
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@Index(name = "COMPONENTMETRICS_COMPOSITE_IDX", members = {"component", "lastOccurrence"})
 public class ComponentMetrics implements Serializable {
 
     private static final long serialVersionUID = -263294978712893194L;
@@ -31,10 +31,14 @@ public enum ConfigPropertyConstants {
     EMAIL_SMTP_SSLTLS("email", "smtp.ssltls", "false", PropertyType.BOOLEAN, "Flag to enable/disable the use of SSL/TLS when connecting to the SMTP server"),
     EMAIL_SMTP_TRUSTCERT("email", "smtp.trustcert", "false", PropertyType.BOOLEAN, "Flag to enable/disable the trust of the certificate presented by the SMTP server"),
     SCANNER_DEPENDENCYCHECK_ENABLED("scanner", "dependencycheck.enabled", "true", PropertyType.BOOLEAN, "Flag to enable/disable OWASP Dependency-Check"),
+    SCANNER_CPEMATCH_ENABLED("scanner", "cpematch.enabled", "false", PropertyType.BOOLEAN, "Flag to enable/disable matching components against the CPE match criteria of mirrored NVD vulnerabilities"),
     SCANNER_NPMAUDIT_ENABLED("scanner", "npmaudit.enabled", "true", PropertyType.BOOLEAN, "Flag to enable/disable NPM Audit"),
+    SCANNER_NPMAUDIT_OFFLINE_ENABLED("scanner", "npmaudit.offline.enabled", "false", PropertyType.BOOLEAN, "Flag to enable/disable matching npm components against mirrored NPM advisories rather than the NPM Audit API"),
     SCANNER_OSSINDEX_ENABLED("scanner", "ossindex.enabled", "false", PropertyType.BOOLEAN, "Flag to enable/disable Sonatype OSS Index"),
     SCANNER_OSSINDEX_API_USERNAME("scanner", "ossindex.api.username", null, PropertyType.STRING, "The API username used for OSS Index authentication"),
-    SCANNER_OSSINDEX_API_TOKEN("scanner", "ossindex.api.token", null, PropertyType.ENCRYPTEDSTRING, "The API token used for OSS Index authentication");
+    SCANNER_OSSINDEX_API_TOKEN("scanner", "ossindex.api.token", null, PropertyType.ENCRYPTEDSTRING, "The API token used for OSS Index authentication"),
+    METRICS_COMPACTION_DAILY_WATERMARK("metrics", "compaction.daily.watermark", null, PropertyType.NUMBER, "The time (in milliseconds since the epoch) up to which metrics have been compacted to daily records"),
+    METRICS_COMPACTION_WEEKLY_WATERMARK("metrics", "compaction.weekly.watermark", null, PropertyType.NUMBER, "The time (in milliseconds since the epoch) up to which metrics have been compacted to weekly records");
 
     private String groupName;
     private String propertyName;
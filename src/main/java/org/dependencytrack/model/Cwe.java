@@ -20,6 +20,7 @@ package org.dependencytrack.model;
 import alpine.validation.RegexSequence;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import javax.jdo.annotations.Cacheable;
 import javax.jdo.annotations.Column;
 import javax.jdo.annotations.IdGeneratorStrategy;
 import javax.jdo.annotations.PersistenceCapable;
@@ -38,6 +39,7 @@ import java.io.Serializable;
  * @since 3.0.0
  */
 @PersistenceCapable
+@Cacheable
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class Cwe implements Serializable {
 
@@ -22,6 +22,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import javax.jdo.annotations.Column;
 import javax.jdo.annotations.IdGeneratorStrategy;
 import javax.jdo.annotations.Index;
+import javax.jdo.annotations.Indices;
 import javax.jdo.annotations.PersistenceCapable;
 import javax.jdo.annotations.Persistent;
 import javax.jdo.annotations.PrimaryKey;
@@ -37,7 +38,10 @@ import java.util.Date;
  */
 @PersistenceCapable
 @JsonInclude(JsonInclude.Include.NON_NULL)
-@Index(name = "DEPENDENCYMETRICS_COMPOSITE_IDX", members = {"project", "component"})
+@Indices({
+        @Index(name = "DEPENDENCYMETRICS_COMPOSITE_IDX", members = {"project", "component"}),
+        @Index(name = "DEPENDENCYMETRICS_LAST_OCCURRENCE_COMPOSITE_IDX", members = {"project", "component", "lastOccurrence"})
+})
 public class DependencyMetrics implements Serializable {
 
     private static final long serialVersionUID = 5231823328085979791L;
@@ -48,7 +48,7 @@ public class Finding implements Serializable {
             "\"VULNERABILITY\".\"SOURCE\" AS \"VULN_SOURCE\", " +
             "\"VULNERABILITY\".\"VULNID\" AS \"VULN_ID\", " +
             "\"VULNERABILITY\".\"UUID\" AS \"VULN_UUID\", " +
-            "\"VULNERABILITY\".\"SEVERITY\" AS \"VULN_SEVERITY\", " +
+            "COALESCE(\"VULNERABILITY\".\"EFFECTIVE_SEVERITY\", \"VULNERABILITY\".\"SEVERITY\") AS \"VULN_SEVERITY\", " +
             "\"VULNERABILITY\".\"CVSSV2BASESCORE\" AS \"VULN_CVSSV2BASESCORE\", " +
             "\"VULNERABILITY\".\"CVSSV3BASESCORE\" AS \"VULN_CVSSV3BASESCORE\", " +
             "\"CWE\".\"CWEID\" AS \"CWE_ID\", " +
@@ -20,6 +20,7 @@ package org.dependencytrack.model;
 import alpine.validation.RegexSequence;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import javax.jdo.annotations.Cacheable;
 import javax.jdo.annotations.Column;
 import javax.jdo.annotations.Element;
 import javax.jdo.annotations.Extension;
@@ -33,6 +34,7 @@ import javax.jdo.annotations.PersistenceCapable;
 import javax.jdo.annotations.Persistent;
 import javax.jdo.annotations.PrimaryKey;
 import javax.jdo.annotations.Unique;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
@@ -51,6 +53,7 @@ import java.util.UUID;
  * @since 3.0.0
  */
 @PersistenceCapable
+@Cacheable
 @FetchGroups({
         @FetchGroup(name = "ALL", members = {
                 @Persistent(name = "name"),
@@ -141,6 +144,14 @@ public class Project implements Serializable {
     @Column(name = "LAST_BOM_IMPORTED")
     private Date lastBomImport;
 
+    /**
+     * The number of BOM and scan imports to retain, or 0 to retain all. If null, the system-wide default applies.
+     */
+    @Persistent
+    @Column(name = "HISTORY_RETENTION")
+    @Min(0)
+    private Integer historyRetention;
+
     public long getId() {
         return id;
     }
@@ -237,6 +248,14 @@ public class Project implements Serializable {
         this.lastBomImport = lastBomImport;
     }
 
+    public Integer getHistoryRetention() {
+        return historyRetention;
+    }
+
+    public void setHistoryRetention(Integer historyRetention) {
+        this.historyRetention = historyRetention;
+    }
+
     @Override
     public String toString() {
         if (getPurl() != null) {
@@ -37,6 +37,7 @@ import java.util.Date;
  */
 @PersistenceCapable
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@Index(name = "PROJECTMETRICS_COMPOSITE_IDX", members = {"project", "lastOccurrence"})
 public class ProjectMetrics implements Serializable {
 
     private static final long serialVersionUID = 8741534340846353210L;
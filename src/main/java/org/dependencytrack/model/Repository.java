@@ -19,6 +19,7 @@ package org.dependencytrack.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import javax.jdo.annotations.Cacheable;
 import javax.jdo.annotations.Column;
 import javax.jdo.annotations.IdGeneratorStrategy;
 import javax.jdo.annotations.PersistenceCapable;
@@ -35,6 +36,7 @@ import java.io.Serializable;
  * @since 3.1.0
  */
 @PersistenceCapable(table = "REPOSITORY")
+@Cacheable
 @Unique(name = "REPOSITORY_COMPOUND_IDX", members = {"type", "identifier"})
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class Repository implements Serializable {
@@ -94,6 +94,29 @@ public class RepositoryMetaComponent implements Serializable {
     @NotNull
     private Date lastCheck;
 
+    /**
+     * The URL of the metadata document the cache validators were obtained from.
+     */
+    @Persistent
+    @Column(name = "METADATA_URL", length = 1024)
+    @JsonIgnore
+    private String metadataUrl;
+
+    /**
+     * The ETag of the metadata document, used for conditional requests.
+     */
+    @Persistent
+    @Column(name = "ETAG")
+    @JsonIgnore
+    private String etag;
+
+    /**
+     * The Last-Modified value of the metadata document, used for conditional requests.
+     */
+    @Persistent
+    @Column(name = "LAST_MODIFIED")
+    @JsonIgnore
+    private String lastModified;
 
     public long getId() {
         return id;
@@ -150,4 +173,28 @@ public class RepositoryMetaComponent implements Serializable {
     public void setLastCheck(Date lastCheck) {
         this.lastCheck = lastCheck;
     }
+
+    public String getMetadataUrl() {
+        return metadataUrl;
+    }
+
+    public void setMetadataUrl(String metadataUrl) {
+        this.metadataUrl = metadataUrl;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(String lastModified) {
+        this.lastModified = lastModified;
+    }
 }
@@ -20,6 +20,7 @@ package org.dependencytrack.model;
 import alpine.validation.RegexSequence;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import org.apache.commons.lang3.StringUtils;
 import javax.jdo.annotations.Column;
 import javax.jdo.annotations.Extension;
 import javax.jdo.annotations.IdGeneratorStrategy;
@@ -27,11 +28,13 @@ import javax.jdo.annotations.Order;
 import javax.jdo.annotations.PersistenceCapable;
 import javax.jdo.annotations.Persistent;
 import javax.jdo.annotations.PrimaryKey;
+import javax.jdo.annotations.Unique;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Model for assigning tags to specific objects.
@@ -57,6 +60,17 @@ public class Tag implements Serializable {
     @Pattern(regexp = RegexSequence.Definition.PRINTABLE_CHARS, message = "The name may only contain printable characters")
     private String name;
 
+    /**
+     * The lower-cased name used to look up tags case-insensitively and
+     * to keep concurrent requests from creating the same tag twice.
+     * @since 3.3.0
+     */
+    @Persistent
+    @Column(name = "NORMALIZED_NAME")
+    @Unique(name = "TAG_NORMALIZED_NAME_IDX")
+    @JsonIgnore
+    private String normalizedName;
+
     @Persistent
     @Order(extensions = @Extension(vendorName = "datanucleus", key = "list-ordering", value = "name ASC"))
     private List<Project> projects;
@@ -75,6 +89,11 @@ public class Tag implements Serializable {
 
     public void setName(String name) {
         this.name = name;
+        this.normalizedName = normalize(name);
+    }
+
+    public String getNormalizedName() {
+        return normalizedName;
     }
 
     public List<Project> getProjects() {
@@ -93,4 +112,15 @@ public class Tag implements Serializable {
         return false;
     }
 
+    /**
+     * Returns the form of a tag name that tags are looked up and kept unique by.
+     * @param name the name of a tag
+     * @return the trimmed and lower-cased name, or null if the name is blank
+     * @since 3.3.0
+     */
+    public static String normalize(String name) {
+        final String trimmed = StringUtils.trimToNull(name);
+        return trimmed == null ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
 }
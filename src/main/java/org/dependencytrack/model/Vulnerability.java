@@ -21,6 +21,7 @@ import alpine.validation.RegexSequence;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import org.dependencytrack.util.VulnerabilityUtil;
+import javax.jdo.annotations.Cacheable;
 import javax.jdo.annotations.Column;
 import javax.jdo.annotations.Extension;
 import javax.jdo.annotations.FetchGroup;
@@ -48,6 +49,7 @@ import java.util.UUID;
  * @since 3.0.0
  */
 @PersistenceCapable
+@Cacheable
 @FetchGroups({
         @FetchGroup(name = "COMPONENTS", members = {
                 @Persistent(name = "components")
@@ -193,6 +195,16 @@ public class Vulnerability implements Serializable {
     @Pattern(regexp = RegexSequence.Definition.PRINTABLE_CHARS, message = "The severity may only contain printable characters")
     private Severity severity;
 
+    /**
+     * The severity returned by {@link #getSeverity()}, persisted so that it may be
+     * used to filter, group, and count vulnerabilities in queries.
+     */
+    @Persistent
+    @Column(name = "EFFECTIVE_SEVERITY", jdbcType = "VARCHAR")
+    @Index(name = "VULNERABILITY_EFFECTIVE_SEVERITY_IDX")
+    @JsonIgnore
+    private Severity effectiveSeverity;
+
     @Persistent
     @Column(name = "MATCHEDALLPREVIOUSCPE")
     @Size(max = 255)
@@ -259,6 +271,25 @@ public class Vulnerability implements Serializable {
         this.severity = severity;
     }
 
+    /**
+     * Returns the persisted effective severity. This may differ from {@link #getSeverity()}
+     * until {@link #updateEffectiveSeverity()} is called.
+     * @return the effective severity of the vulnerability
+     * @since 3.3.0
+     */
+    public Severity getEffectiveSeverity() {
+        return effectiveSeverity;
+    }
+
+    /**
+     * Updates the effective severity from the severity or CVSS scores. This must be called
+     * whenever the severity or CVSS scores change.
+     * @since 3.3.0
+     */
+    public void updateEffectiveSeverity() {
+        this.effectiveSeverity = getSeverity();
+    }
+
     public String getVulnId() {
         return vulnId;
     }
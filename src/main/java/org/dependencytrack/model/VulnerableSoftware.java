@@ -0,0 +1,178 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.apache.commons.lang3.StringUtils;
+import javax.jdo.annotations.Column;
+import javax.jdo.annotations.IdGeneratorStrategy;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+
+/**
+ * Model for a CPE match criteria from the configurations of a NVD vulnerability. Describes
+ * a vendor and product, along with either a single version or a range of versions, which
+ * is affected by the vulnerability.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+@PersistenceCapable
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VulnerableSoftware implements Serializable {
+
+    private static final long serialVersionUID = -3987849400451432613L;
+
+    @PrimaryKey
+    @Persistent(valueStrategy = IdGeneratorStrategy.NATIVE)
+    @JsonIgnore
+    private long id;
+
+    @Persistent
+    @Column(name = "VULNERABILITY_ID", allowsNull = "false")
+    @JsonIgnore
+    private Vulnerability vulnerability;
+
+    @Persistent
+    @Column(name = "CPE23", jdbcType = "VARCHAR", allowsNull = "false")
+    @NotNull
+    @Size(max = 255)
+    private String cpe23;
+
+    @Persistent
+    @Column(name = "VENDOR", jdbcType = "VARCHAR", allowsNull = "false")
+    @NotNull
+    @Size(max = 255)
+    private String vendor;
+
+    @Persistent
+    @Column(name = "PRODUCT", jdbcType = "VARCHAR", allowsNull = "false")
+    @NotNull
+    @Size(max = 255)
+    private String product;
+
+    @Persistent
+    @Column(name = "VERSION", jdbcType = "VARCHAR")
+    @Size(max = 255)
+    private String version;
+
+    @Persistent
+    @Column(name = "VERSIONSTARTINCLUDING", jdbcType = "VARCHAR")
+    @Size(max = 255)
+    private String versionStartIncluding;
+
+    @Persistent
+    @Column(name = "VERSIONSTARTEXCLUDING", jdbcType = "VARCHAR")
+    @Size(max = 255)
+    private String versionStartExcluding;
+
+    @Persistent
+    @Column(name = "VERSIONENDINCLUDING", jdbcType = "VARCHAR")
+    @Size(max = 255)
+    private String versionEndIncluding;
+
+    @Persistent
+    @Column(name = "VERSIONENDEXCLUDING", jdbcType = "VARCHAR")
+    @Size(max = 255)
+    private String versionEndExcluding;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public Vulnerability getVulnerability() {
+        return vulnerability;
+    }
+
+    public void setVulnerability(Vulnerability vulnerability) {
+        this.vulnerability = vulnerability;
+    }
+
+    public String getCpe23() {
+        return cpe23;
+    }
+
+    public void setCpe23(String cpe23) {
+        this.cpe23 = StringUtils.abbreviate(cpe23, 255);
+    }
+
+    public String getVendor() {
+        return vendor;
+    }
+
+    public void setVendor(String vendor) {
+        this.vendor = StringUtils.abbreviate(vendor, 255);
+    }
+
+    public String getProduct() {
+        return product;
+    }
+
+    public void setProduct(String product) {
+        this.product = StringUtils.abbreviate(product, 255);
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = StringUtils.abbreviate(version, 255);
+    }
+
+    public String getVersionStartIncluding() {
+        return versionStartIncluding;
+    }
+
+    public void setVersionStartIncluding(String versionStartIncluding) {
+        this.versionStartIncluding = StringUtils.abbreviate(versionStartIncluding, 255);
+    }
+
+    public String getVersionStartExcluding() {
+        return versionStartExcluding;
+    }
+
+    public void setVersionStartExcluding(String versionStartExcluding) {
+        this.versionStartExcluding = StringUtils.abbreviate(versionStartExcluding, 255);
+    }
+
+    public String getVersionEndIncluding() {
+        return versionEndIncluding;
+    }
+
+    public void setVersionEndIncluding(String versionEndIncluding) {
+        this.versionEndIncluding = StringUtils.abbreviate(versionEndIncluding, 255);
+    }
+
+    public String getVersionEndExcluding() {
+        return versionEndExcluding;
+    }
+
+    public void setVersionEndExcluding(String versionEndExcluding) {
+        this.versionEndExcluding = StringUtils.abbreviate(versionEndExcluding, 255);
+    }
+}
@@ -19,7 +19,6 @@ package org.dependencytrack.notification;
 
 import alpine.logging.Logger;
 import alpine.notification.Notification;
-import alpine.notification.NotificationLevel;
 import alpine.notification.Subscriber;
 import org.dependencytrack.model.NotificationRule;
 import org.dependencytrack.model.Project;
@@ -27,8 +26,6 @@ import org.dependencytrack.notification.publisher.Publisher;
 import org.dependencytrack.notification.vo.NewVulnerabilityIdentified;
 import org.dependencytrack.notification.vo.NewVulnerableDependency;
 import org.dependencytrack.persistence.QueryManager;
-import javax.jdo.PersistenceManager;
-import javax.jdo.Query;
 import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonReader;
@@ -69,7 +66,6 @@ public class NotificationRouter implements Subscriber {
         }
     }
 
-    @SuppressWarnings("unchecked")
     private List<NotificationRule> resolveRules(Notification notification) {
         // The notification rules to process for this specific notification
         final List<NotificationRule> rules = new ArrayList<>();
@@ -78,24 +74,8 @@ public class NotificationRouter implements Subscriber {
             return rules;
         }
         try (QueryManager qm = new QueryManager()) {
-            final PersistenceManager pm = qm.getPersistenceManager();
-            final Query query = pm.newQuery(NotificationRule.class);
-
-            StringBuilder sb = new StringBuilder();
-
-            final NotificationLevel level = notification.getLevel();
-            if (NotificationLevel.INFORMATIONAL == level) {
-                sb.append("(notificationLevel == 'INFORMATIONAL' || notificationLevel == 'WARNING' || notificationLevel == 'ERROR') && ");
-            } else if (NotificationLevel.WARNING == level) {
-                sb.append("(notificationLevel == 'WARNING' || notificationLevel == 'ERROR') && ");
-            } else if (NotificationLevel.ERROR == level) {
-                sb.append("notificationLevel == 'ERROR' && ");
-            }
-
-            sb.append("enabled == true && scope == :scope"); //todo: improve this - this only works for testing
-            query.setFilter(sb.toString());
-            List<NotificationRule> result = (List<NotificationRule>)query.execute(NotificationScope.valueOf(notification.getScope()));
-
+            final List<NotificationRule> result = qm.getEnabledNotificationRules(
+                    NotificationScope.valueOf(notification.getScope()), notification.getLevel());
 
             if (NotificationScope.PORTFOLIO.name().equals(notification.getScope())
                     && notification.getSubject() != null && notification.getSubject() instanceof NewVulnerabilityIdentified) {
@@ -17,15 +17,12 @@
  */
 package org.dependencytrack.notification.publisher;
 
-import alpine.crypto.DataEncryption;
 import alpine.logging.Logger;
 import alpine.mail.SendMail;
-import alpine.model.ConfigProperty;
 import alpine.notification.Notification;
-import alpine.util.BooleanUtil;
 import com.mitchellbosecke.pebble.PebbleEngine;
 import com.mitchellbosecke.pebble.template.PebbleTemplate;
-import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.persistence.ConfigPropertyCache;
 import javax.json.JsonObject;
 
 import static org.dependencytrack.model.ConfigPropertyConstants.*;
@@ -48,32 +45,30 @@ public class SendMailPublisher implements Publisher {
             return;
         }
 
-        try (QueryManager qm = new QueryManager()) {
-            ConfigProperty smtpEnabled = qm.getConfigProperty(EMAIL_SMTP_ENABLED.getGroupName(), EMAIL_SMTP_ENABLED.getPropertyName());
-            ConfigProperty smtpFrom = qm.getConfigProperty(EMAIL_SMTP_FROM_ADDR.getGroupName(), EMAIL_SMTP_FROM_ADDR.getPropertyName());
-            ConfigProperty smtpHostname = qm.getConfigProperty(EMAIL_SMTP_SERVER_HOSTNAME.getGroupName(), EMAIL_SMTP_SERVER_HOSTNAME.getPropertyName());
-            ConfigProperty smtpPort = qm.getConfigProperty(EMAIL_SMTP_SERVER_PORT.getGroupName(), EMAIL_SMTP_SERVER_PORT.getPropertyName());
-            ConfigProperty smtpUser = qm.getConfigProperty(EMAIL_SMTP_USERNAME.getGroupName(), EMAIL_SMTP_USERNAME.getPropertyName());
-            ConfigProperty smtpPass = qm.getConfigProperty(EMAIL_SMTP_PASSWORD.getGroupName(), EMAIL_SMTP_PASSWORD.getPropertyName());
-            ConfigProperty smtpSslTls = qm.getConfigProperty(EMAIL_SMTP_SSLTLS.getGroupName(), EMAIL_SMTP_SSLTLS.getPropertyName());
-            ConfigProperty smtpTrustCert = qm.getConfigProperty(EMAIL_SMTP_TRUSTCERT.getGroupName(), EMAIL_SMTP_TRUSTCERT.getPropertyName());
-
-            if (!BooleanUtil.valueOf(smtpEnabled.getPropertyValue())) {
-                return; // smtp is not enabled
-            }
-            final boolean smtpAuth = (smtpUser.getPropertyValue() != null && smtpPass.getPropertyValue() != null);
+        final ConfigPropertyCache configPropertyCache = ConfigPropertyCache.getInstance();
+        if (!configPropertyCache.getBoolean(EMAIL_SMTP_ENABLED)) {
+            return; // smtp is not enabled
+        }
+        if (configPropertyCache.isDecryptionFailed(EMAIL_SMTP_PASSWORD)) {
+            LOGGER.error("The SMTP password could not be decrypted. Skipping notification");
+            return;
+        }
+        try {
+            final String smtpUser = configPropertyCache.getValue(EMAIL_SMTP_USERNAME);
+            final String smtpPass = configPropertyCache.getValue(EMAIL_SMTP_PASSWORD);
+            final boolean smtpAuth = (smtpUser != null && smtpPass != null);
             final SendMail sendMail = new SendMail()
-                    .from(smtpFrom.getPropertyValue())
+                    .from(configPropertyCache.getValue(EMAIL_SMTP_FROM_ADDR))
                     .to(destination)
                     .subject("[Dependency-Track] " + notification.getTitle())
                     .body(content)
-                    .host(smtpHostname.getPropertyValue())
-                    .port(Integer.valueOf(smtpPort.getPropertyValue()))
-                    .username(smtpUser.getPropertyValue())
-                    .password(DataEncryption.decryptAsString(smtpPass.getPropertyValue()))
+                    .host(configPropertyCache.getValue(EMAIL_SMTP_SERVER_HOSTNAME))
+                    .port(configPropertyCache.getInteger(EMAIL_SMTP_SERVER_PORT))
+                    .username(smtpUser)
+                    .password(smtpPass)
                     .smtpauth(smtpAuth)
-                    .useStartTLS(BooleanUtil.valueOf(smtpSslTls.getPropertyValue()))
-                    .trustCert(Boolean.valueOf(smtpTrustCert.getPropertyValue()));
+                    .useStartTLS(configPropertyCache.getBoolean(EMAIL_SMTP_SSLTLS))
+                    .trustCert(configPropertyCache.getBoolean(EMAIL_SMTP_TRUSTCERT));
             sendMail.send();
         } catch (Exception e) {
             LOGGER.error("An error occurred sending output email notification", e);
@@ -0,0 +1,48 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.notification.vo;
+
+import org.dependencytrack.model.Analysis;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.model.Vulnerability;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An analysis decision applied to many findings at once. The vulnerability and component are only
+ * specified when they are shared by all analyses, and the representative analysis is the first one
+ * that changed so that existing templates continue to render.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public class BulkAnalysisDecisionChange extends AnalysisDecisionChange {
+
+    private List<Analysis> analyses;
+
+    public BulkAnalysisDecisionChange(Vulnerability vulnerability, Component component,
+                                      Set<Project> affectedProjects, List<Analysis> analyses) {
+        super(vulnerability, component, affectedProjects, analyses.get(0));
+        this.analyses = analyses;
+    }
+
+    public List<Analysis> getAnalyses() {
+        return analyses;
+    }
+}
@@ -19,6 +19,8 @@ package org.dependencytrack.parser.dependencycheck;
 
 import org.dependencytrack.exception.ParseException;
 import org.dependencytrack.parser.dependencycheck.model.Analysis;
+import org.dependencytrack.parser.dependencycheck.model.Dependency;
+import org.dependencytrack.parser.dependencycheck.model.ProjectInfo;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
@@ -57,6 +59,27 @@ public class DependencyCheckParser {
         return parse(new StreamSource(new ByteArrayInputStream(scanData)));
     }
 
+    /**
+     * Parses a Dependency-Check report one dependency at a time. Unlike {@link #parse(File)}, only
+     * a single dependency (including its related dependencies) is held in memory at any time.
+     * @param file the XML report
+     * @param handler the handler to receive the project info and each dependency
+     * @throws ParseException when errors are encountered
+     */
+    public void parse(File file, Handler handler) throws ParseException {
+        parse(new StreamSource(file.getAbsolutePath()), handler);
+    }
+
+    /**
+     * Parses a Dependency-Check report one dependency at a time.
+     * @param scanData the XML report
+     * @param handler the handler to receive the project info and each dependency
+     * @throws ParseException when errors are encountered
+     */
+    public void parse(byte[] scanData, Handler handler) throws ParseException {
+        parse(new StreamSource(new ByteArrayInputStream(scanData)), handler);
+    }
+
     /**
      * Parses a Dependency-Check report.
      * @param streamSource the XML report
@@ -68,18 +91,80 @@ public class DependencyCheckParser {
             // Parse the native threat model
             final JAXBContext jaxbContext = JAXBContext.newInstance(Analysis.class);
             final Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+            return (Analysis) unmarshaller.unmarshal(createXMLStreamReader(streamSource));
+        } catch (JAXBException | XMLStreamException e) {
+            throw new ParseException(e);
+        }
+    }
 
-            // Prevent XML External Entity Injection
-            final XMLInputFactory xif = XMLInputFactory.newFactory();
-            xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
-            xif.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
-            xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-            final XMLStreamReader xsr = xif.createXMLStreamReader(streamSource);
-
-            return (Analysis) unmarshaller.unmarshal(xsr);
-
+    /**
+     * Parses a Dependency-Check report, unmarshalling the project info and each top-level
+     * dependency individually as the stream is read.
+     * @param streamSource the XML report
+     * @param handler the handler to receive the project info and each dependency
+     * @throws ParseException when errors are encountered
+     */
+    private void parse(StreamSource streamSource, Handler handler) throws ParseException {
+        XMLStreamReader xsr = null;
+        try {
+            final JAXBContext jaxbContext = JAXBContext.newInstance(ProjectInfo.class, Dependency.class);
+            final Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+            xsr = createXMLStreamReader(streamSource);
+            boolean inDependencies = false;
+            while (xsr.hasNext()) {
+                if (xsr.isStartElement()) {
+                    final String name = xsr.getLocalName();
+                    if ("projectInfo".equals(name)) {
+                        handler.handle(unmarshaller.unmarshal(xsr, ProjectInfo.class).getValue());
+                        continue; // the reader is positioned after the unmarshalled element
+                    } else if ("dependencies".equals(name)) {
+                        inDependencies = true;
+                    } else if (inDependencies && "dependency".equals(name)) {
+                        handler.handle(unmarshaller.unmarshal(xsr, Dependency.class).getValue());
+                        continue;
+                    }
+                } else if (xsr.isEndElement() && "dependencies".equals(xsr.getLocalName())) {
+                    inDependencies = false;
+                }
+                xsr.next();
+            }
         } catch (JAXBException | XMLStreamException e) {
             throw new ParseException(e);
+        } finally {
+            if (xsr != null) {
+                try {
+                    xsr.close();
+                } catch (XMLStreamException e) {
+                    // throw it away
+                }
+            }
         }
     }
+
+    private XMLStreamReader createXMLStreamReader(StreamSource streamSource) throws XMLStreamException {
+        // Prevent XML External Entity Injection
+        final XMLInputFactory xif = XMLInputFactory.newFactory();
+        xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xif.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        return xif.createXMLStreamReader(streamSource);
+    }
+
+    /**
+     * Receives the contents of a Dependency-Check report as it is parsed.
+     */
+    public interface Handler {
+
+        /**
+         * Invoked when the project info of the report has been parsed.
+         * @param projectInfo the ProjectInfo
+         */
+        void handle(ProjectInfo projectInfo);
+
+        /**
+         * Invoked for each top-level dependency of the report.
+         * @param dependency the Dependency, including its related dependencies
+         */
+        void handle(Dependency dependency);
+    }
 }
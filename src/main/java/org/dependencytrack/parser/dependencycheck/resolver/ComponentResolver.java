@@ -20,6 +20,9 @@ package org.dependencytrack.parser.dependencycheck.resolver;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.parser.dependencycheck.model.Dependency;
 import org.dependencytrack.persistence.QueryManager;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Attempts to resolve an existing Dependency-Track Component.
@@ -39,47 +42,44 @@ public class ComponentResolver implements IResolver {
      * {@inheritDoc}
      */
     public Component resolve(Dependency dependency) {
-        Component component = qm.getComponentByHash(dependency.getMd5());
-        if (component != null) {
-            return component;
-        }
-        component = qm.getComponentByHash(dependency.getSha1());
-        if (component != null) {
-            return component;
-        }
-        return null;
+        final Component component = new Component();
+        component.setMd5(dependency.getMd5());
+        component.setSha1(dependency.getSha1());
+        return qm.resolveComponent(component);
     }
 
+    /**
+     * Resolves an existing component by its hashes or Package URL in a single lookup,
+     * falling back to the coordinates of its Package URL, and then to its group, name
+     * and version.
+     * @param component the Component to resolve
+     * @return the existing Component, or null if not found
+     */
     public Component resolve(Component component) {
-        Component resolvedComponent = qm.getComponentByHash(component.getMd5());
+        final Component resolvedComponent = qm.resolveComponent(component);
         if (resolvedComponent != null) {
             return resolvedComponent;
         }
-        resolvedComponent = qm.getComponentByHash(component.getSha1());
-        if (resolvedComponent != null) {
-            return resolvedComponent;
+        if (component.getPurl() != null) {
+            // The same package may have been written with different qualifiers or encoding
+            final List<Component> components = qm.getComponentsByPurlCoordinates(component.getPurl());
+            if (!components.isEmpty()) {
+                return components.get(0);
+            }
         }
-        resolvedComponent = qm.getComponentByHash(component.getSha256());
-        if (resolvedComponent != null) {
-            return resolvedComponent;
-        }
-        resolvedComponent = qm.getComponentByHash(component.getSha512());
-        if (resolvedComponent != null) {
-            return resolvedComponent;
-        }
-        resolvedComponent = qm.getComponentByHash(component.getSha3_256());
-        if (resolvedComponent != null) {
-            return resolvedComponent;
-        }
-        resolvedComponent = qm.getComponentByHash(component.getSha3_512());
-        if (resolvedComponent != null) {
-            return resolvedComponent;
-        }
-        resolvedComponent = qm.getComponentByAttributes(component.getGroup(), component.getName(), component.getVersion());
-        if (resolvedComponent != null) {
-            return resolvedComponent;
-        }
-        return null;
+        return qm.getComponentByAttributes(component.getGroup(), component.getName(), component.getVersion());
+    }
+
+    /**
+     * Resolves existing components by their hashes or Package URL in bulk. Components
+     * which could not be resolved are absent from the result, and may be resolved
+     * individually with {@link #resolve(Component)}.
+     * @param components the Components to resolve
+     * @return a Map of each resolved Component to the existing Component
+     * @since 3.3.0
+     */
+    public Map<Component, Component> resolve(Collection<Component> components) {
+        return qm.resolveComponents(components);
     }
 
 }
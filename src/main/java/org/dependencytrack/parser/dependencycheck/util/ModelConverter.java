@@ -73,6 +73,36 @@ public final class ModelConverter {
         return persistable;
     }
 
+    /**
+     * Converts a Vulnerability (identified by an in-process Dependency-Check engine) to a native
+     * Dependency-Track Vulnerability.
+     * @param odcVuln the Dependency-Check vulnerability to convert
+     * @return a native Vulnerability object
+     */
+    public static org.dependencytrack.model.Vulnerability convert(QueryManager qm,
+                                                                  org.owasp.dependencycheck.dependency.Vulnerability odcVuln) {
+
+        final org.dependencytrack.model.Vulnerability persistable = new org.dependencytrack.model.Vulnerability();
+        persistable.setSource(convertSource(odcVuln));
+        persistable.setVulnId(odcVuln.getName());
+        persistable.setCwe(new CweResolver(qm).resolve(odcVuln.getCwe()));
+        persistable.setDescription(odcVuln.getDescription());
+        if (odcVuln.getCvssScore() > 0) {
+            persistable.setCvssV2BaseScore(new BigDecimal(String.valueOf(odcVuln.getCvssScore())));
+        }
+        return persistable;
+    }
+
+    /**
+     * Returns the Dependency-Track source of a Vulnerability identified by Dependency-Check.
+     * @param odcVuln the Dependency-Check vulnerability
+     * @return the name of the source
+     */
+    public static String convertSource(org.owasp.dependencycheck.dependency.Vulnerability odcVuln) {
+        final String source = (odcVuln.getSource() != null) ? odcVuln.getSource().name() : "NVD";
+        return ("NSP".equals(source)) ? "NPM" : source;
+    }
+
     /**
      * Converts a Dependency-Check Dependency object to a Dependency-Track Component object.
      * @param component the Component to convert to a Dependency
@@ -0,0 +1,176 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.parser.npm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable semantic version as used by npm. Build metadata is ignored for precedence.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class Semver implements Comparable<Semver> {
+
+    private static final Pattern VERSION = Pattern.compile(
+            "^\\s*[=v]*\\s*(\\d+)\\.(\\d+)\\.(\\d+)(?:-?([0-9A-Za-z-]+(?:\\.[0-9A-Za-z-]+)*))?(?:\\+[0-9A-Za-z-.]+)?\\s*$");
+
+    private final long major;
+    private final long minor;
+    private final long patch;
+    private final List<String> prerelease;
+
+    public Semver(long major, long minor, long patch) {
+        this(major, minor, patch, Collections.emptyList());
+    }
+
+    public Semver(long major, long minor, long patch, List<String> prerelease) {
+        this.major = major;
+        this.minor = minor;
+        this.patch = patch;
+        this.prerelease = prerelease;
+    }
+
+    /**
+     * Parses a version.
+     * @param version the version to parse
+     * @return a Semver, or null if the version is not a valid semantic version
+     */
+    public static Semver parse(String version) {
+        if (version == null) {
+            return null;
+        }
+        final Matcher matcher = VERSION.matcher(version);
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            return new Semver(Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)),
+                    Long.parseLong(matcher.group(3)), parsePrerelease(matcher.group(4)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static List<String> parsePrerelease(String prerelease) {
+        if (prerelease == null || prerelease.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<String> identifiers = new ArrayList<>();
+        Collections.addAll(identifiers, prerelease.split("\\."));
+        return Collections.unmodifiableList(identifiers);
+    }
+
+    public long getMajor() {
+        return major;
+    }
+
+    public long getMinor() {
+        return minor;
+    }
+
+    public long getPatch() {
+        return patch;
+    }
+
+    public List<String> getPrerelease() {
+        return prerelease;
+    }
+
+    public boolean isPrerelease() {
+        return !prerelease.isEmpty();
+    }
+
+    /**
+     * Returns true if both versions have the same major, minor and patch versions.
+     * @param other the version to compare to
+     * @return true if the tuples are equal, false if not
+     */
+    public boolean hasSameTuple(Semver other) {
+        return major == other.major && minor == other.minor && patch == other.patch;
+    }
+
+    @Override
+    public int compareTo(Semver other) {
+        int result = Long.compare(major, other.major);
+        if (result == 0) {
+            result = Long.compare(minor, other.minor);
+        }
+        if (result == 0) {
+            result = Long.compare(patch, other.patch);
+        }
+        if (result != 0) {
+            return result;
+        }
+        // A version without a prerelease has a higher precedence than one with a prerelease
+        if (prerelease.isEmpty() || other.prerelease.isEmpty()) {
+            return Boolean.compare(prerelease.isEmpty(), other.prerelease.isEmpty());
+        }
+        for (int i = 0; i < Math.min(prerelease.size(), other.prerelease.size()); i++) {
+            result = compareIdentifier(prerelease.get(i), other.prerelease.get(i));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(prerelease.size(), other.prerelease.size());
+    }
+
+    private static int compareIdentifier(String a, String b) {
+        final boolean numericA = isNumeric(a);
+        final boolean numericB = isNumeric(b);
+        if (numericA && numericB) {
+            // Compare by length first so that arbitrarily large numbers are supported
+            final int result = Integer.compare(a.length(), b.length());
+            return (result != 0) ? result : a.compareTo(b);
+        } else if (numericA) {
+            return -1;
+        } else if (numericB) {
+            return 1;
+        }
+        return a.compareTo(b);
+    }
+
+    private static boolean isNumeric(String identifier) {
+        for (int i = 0; i < identifier.length(); i++) {
+            if (!Character.isDigit(identifier.charAt(i))) {
+                return false;
+            }
+        }
+        return !identifier.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Semver && compareTo((Semver) o) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (31 * (31 * (31 * major + minor) + patch)) + prerelease.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        final String version = major + "." + minor + "." + patch;
+        return (prerelease.isEmpty()) ? version : version + "-" + String.join(".", prerelease);
+    }
+}
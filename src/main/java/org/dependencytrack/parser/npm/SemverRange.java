@@ -0,0 +1,337 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.parser.npm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A node-semver range (such as the vulnerable_versions of an npm advisory) compiled into a
+ * list of version intervals. Supports unions (||), hyphen ranges, tilde and caret ranges,
+ * X-ranges, partial versions and primitive comparators.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class SemverRange {
+
+    private static final Pattern HYPHEN = Pattern.compile("^\\s*(\\S+)\\s+-\\s+(\\S+)\\s*$");
+    private static final Pattern COMPARATOR = Pattern.compile(
+            "(<=|>=|<|>|=|~>|~|\\^)?\\s*[=v]*\\s*([0-9xX*]+)(?:\\.([0-9xX*]+))?(?:\\.([0-9xX*]+))?"
+                    + "(?:-?([0-9A-Za-z-]+(?:\\.[0-9A-Za-z-]+)*))?(?:\\+[0-9A-Za-z-.]+)?");
+    private static final List<String> MIN_PRERELEASE = Collections.singletonList("0");
+
+    private final String range;
+    private final List<Interval> intervals;
+
+    private SemverRange(String range, List<Interval> intervals) {
+        this.range = range;
+        this.intervals = intervals;
+    }
+
+    /**
+     * Compiles a range.
+     * @param range the range to compile
+     * @return a SemverRange, or null if the range could not be parsed
+     */
+    public static SemverRange parse(String range) {
+        if (range == null) {
+            return null;
+        }
+        final List<Interval> intervals = new ArrayList<>();
+        for (final String set: range.split("\\|\\|", -1)) {
+            final Interval interval = parseComparatorSet(set.trim());
+            if (interval == null) {
+                return null;
+            }
+            if (!interval.isEmpty()) {
+                intervals.add(interval);
+            }
+        }
+        return new SemverRange(range, Collections.unmodifiableList(intervals));
+    }
+
+    /**
+     * Returns true if the version satisfies this range.
+     * @param version the version to test
+     * @return true if the version is within the range, false if not
+     */
+    public boolean satisfies(Semver version) {
+        for (final Interval interval: intervals) {
+            if (interval.contains(version)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<Interval> getIntervals() {
+        return intervals;
+    }
+
+    @Override
+    public String toString() {
+        return range;
+    }
+
+    private static Interval parseComparatorSet(String set) {
+        final Interval interval = new Interval();
+        if (set.isEmpty()) {
+            return interval;
+        }
+        final Matcher hyphen = HYPHEN.matcher(set);
+        if (hyphen.matches()) {
+            return applyComparator(interval, ">=", hyphen.group(1))
+                    && applyComparator(interval, "<=", hyphen.group(2)) ? interval : null;
+        }
+        final Matcher matcher = COMPARATOR.matcher(set);
+        int position = 0;
+        while (position < set.length()) {
+            if (Character.isWhitespace(set.charAt(position))) {
+                position++;
+                continue;
+            }
+            if (!matcher.find(position) || matcher.start() != position) {
+                return null;
+            }
+            final Partial partial = Partial.of(matcher.group(2), matcher.group(3), matcher.group(4), matcher.group(5));
+            if (partial == null || !apply(interval, matcher.group(1), partial)) {
+                return null;
+            }
+            position = matcher.end();
+        }
+        return interval;
+    }
+
+    private static boolean applyComparator(Interval interval, String operator, String version) {
+        final Matcher matcher = COMPARATOR.matcher(version);
+        if (!matcher.matches() || matcher.group(1) != null) {
+            return false;
+        }
+        final Partial partial = Partial.of(matcher.group(2), matcher.group(3), matcher.group(4), matcher.group(5));
+        return partial != null && apply(interval, operator, partial);
+    }
+
+    /**
+     * Desugars a single comparator into lower and upper bounds and narrows the interval with them.
+     */
+    private static boolean apply(Interval interval, String operator, Partial p) {
+        if (p.prerelease != null) {
+            interval.prereleaseTuples.add(p.floor());
+        }
+        if (operator == null || "=".equals(operator)) {
+            if (p.isWildcard()) {
+                return true;
+            }
+            interval.lower(p.floor(), true);
+            if (p.patch != null) {
+                interval.upper(p.floor(), true);
+            } else {
+                interval.upper(p.next(), false);
+            }
+        } else if ("~".equals(operator) || "~>".equals(operator)) {
+            if (p.isWildcard()) {
+                return true;
+            }
+            interval.lower(p.floor(), true);
+            interval.upper(p.minor == null ? bump(p.major + 1, 0) : bump(p.major, p.minor + 1), false);
+        } else if ("^".equals(operator)) {
+            if (p.isWildcard()) {
+                return true;
+            }
+            interval.lower(p.floor(), true);
+            if (p.major != 0 || p.minor == null) {
+                interval.upper(bump(p.major + 1, 0), false);
+            } else if (p.minor != 0 || p.patch == null) {
+                interval.upper(bump(p.major, p.minor + 1), false);
+            } else {
+                interval.upper(new Semver(p.major, p.minor, p.patch + 1, MIN_PRERELEASE), false);
+            }
+        } else if (">".equals(operator)) {
+            if (p.isWildcard()) {
+                interval.empty = true;
+            } else if (p.patch != null) {
+                interval.lower(p.floor(), false);
+            } else {
+                interval.lower((p.minor == null) ? new Semver(p.major + 1, 0, 0) : new Semver(p.major, p.minor + 1, 0), true);
+            }
+        } else if (">=".equals(operator)) {
+            if (!p.isWildcard()) {
+                interval.lower(p.floor(), true);
+            }
+        } else if ("<".equals(operator)) {
+            if (p.isWildcard()) {
+                interval.empty = true;
+            } else if (p.patch != null) {
+                interval.upper(p.floor(), false);
+            } else {
+                interval.upper(new Semver(p.major, p.minorOrZero(), 0, MIN_PRERELEASE), false);
+            }
+        } else if ("<=".equals(operator)) {
+            if (p.isWildcard()) {
+                return true;
+            } else if (p.patch != null) {
+                interval.upper(p.floor(), true);
+            } else {
+                interval.upper(p.next(), false);
+            }
+        }
+        return true;
+    }
+
+    private static Semver bump(long major, long minor) {
+        return new Semver(major, minor, 0, MIN_PRERELEASE);
+    }
+
+    /**
+     * A partial version where any of the numeric components may be omitted or a wildcard.
+     */
+    private static final class Partial {
+        private final Long major;
+        private final Long minor;
+        private final Long patch;
+        private final List<String> prerelease;
+
+        private Partial(Long major, Long minor, Long patch, List<String> prerelease) {
+            this.major = major;
+            this.minor = minor;
+            this.patch = patch;
+            this.prerelease = prerelease;
+        }
+
+        private static Partial of(String major, String minor, String patch, String prerelease) {
+            try {
+                final Long ma = number(major);
+                final Long mi = (ma == null) ? null : number(minor);
+                final Long pa = (mi == null) ? null : number(patch);
+                final List<String> pre = (pa == null || prerelease == null) ? null : Semver.parsePrerelease(prerelease);
+                return new Partial(ma, mi, pa, pre);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static Long number(String value) {
+            if (value == null || "x".equalsIgnoreCase(value) || "*".equals(value)) {
+                return null;
+            }
+            return Long.parseLong(value);
+        }
+
+        private boolean isWildcard() {
+            return major == null;
+        }
+
+        private long minorOrZero() {
+            return (minor == null) ? 0 : minor;
+        }
+
+        private Semver floor() {
+            return new Semver(major, minorOrZero(), (patch == null) ? 0 : patch,
+                    (prerelease == null) ? Collections.emptyList() : prerelease);
+        }
+
+        /**
+         * Returns the lowest version above every version matched by this partial.
+         */
+        private Semver next() {
+            return (minor == null) ? bump(major + 1, 0) : bump(major, minor + 1);
+        }
+    }
+
+    /**
+     * A contiguous interval of versions. A null bound is unbounded.
+     */
+    public static final class Interval {
+        private Semver lower;
+        private boolean lowerInclusive;
+        private Semver upper;
+        private boolean upperInclusive;
+        private boolean empty;
+        private final List<Semver> prereleaseTuples = new ArrayList<>();
+
+        private void lower(Semver version, boolean inclusive) {
+            final int cmp = (lower == null) ? 1 : version.compareTo(lower);
+            if (cmp > 0 || (cmp == 0 && !inclusive)) {
+                lower = version;
+                lowerInclusive = inclusive;
+            }
+        }
+
+        private void upper(Semver version, boolean inclusive) {
+            final int cmp = (upper == null) ? -1 : version.compareTo(upper);
+            if (cmp < 0 || (cmp == 0 && !inclusive)) {
+                upper = version;
+                upperInclusive = inclusive;
+            }
+        }
+
+        public Semver getLower() {
+            return lower;
+        }
+
+        public Semver getUpper() {
+            return upper;
+        }
+
+        public boolean isEmpty() {
+            if (empty) {
+                return true;
+            }
+            if (lower == null || upper == null) {
+                return false;
+            }
+            final int cmp = lower.compareTo(upper);
+            return cmp > 0 || (cmp == 0 && !(lowerInclusive && upperInclusive));
+        }
+
+        /**
+         * Returns true if the version is within this interval. As with npm, a prerelease version
+         * only matches if the range explicitly mentions a prerelease of the same major.minor.patch.
+         */
+        public boolean contains(Semver version) {
+            if (empty) {
+                return false;
+            }
+            if (lower != null) {
+                final int cmp = version.compareTo(lower);
+                if (cmp < 0 || (cmp == 0 && !lowerInclusive)) {
+                    return false;
+                }
+            }
+            if (upper != null) {
+                final int cmp = version.compareTo(upper);
+                if (cmp > 0 || (cmp == 0 && !upperInclusive)) {
+                    return false;
+                }
+            }
+            if (version.isPrerelease()) {
+                for (final Semver tuple: prereleaseTuples) {
+                    if (tuple.hasSameTuple(version)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -17,14 +17,19 @@
  */
 package org.dependencytrack.parser.nvd;
 
-import alpine.event.framework.Event;
 import alpine.logging.Logger;
 import org.apache.commons.lang.StringUtils;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.event.IndexEvent;
 import org.dependencytrack.model.Cwe;
 import org.dependencytrack.model.Vulnerability;
+import org.dependencytrack.model.VulnerableSoftware;
 import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.tasks.scanners.CpeMatchIndex;
 import us.springett.cvss.Cvss;
+import us.springett.parsers.cpe.Cpe;
+import us.springett.parsers.cpe.CpeParser;
+import us.springett.parsers.cpe.CpeParsingException;
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
@@ -36,6 +41,9 @@ import java.io.InputStream;
 import java.sql.Date;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Parser and processor of NVD data feeds.
@@ -148,15 +156,128 @@ public final class NvdParser {
                     vulnerability.setReferences(references.substring(0, references.lastIndexOf("\n")));
                 }
 
+                // CPE match criteria
+                final List<VulnerableSoftware> vulnerableSoftware = parseCpeMatches(cveItem);
+
                 // Update the vulnerability
                 LOGGER.debug("Synchronizing: " + vulnerability.getVulnId());
-                qm.synchronizeVulnerability(vulnerability, false);
+                final Vulnerability synchronizedVulnerability = qm.synchronizeVulnerability(vulnerability, false);
+                if (qm.synchronizeVulnerableSoftware(synchronizedVulnerability, vulnerableSoftware)) {
+                    CpeMatchIndex.getInstance().update(synchronizedVulnerability.getId(), vulnerableSoftware);
+                }
             }
         } catch (Exception e) {
             LOGGER.error("Error parsing NVD JSON data");
             LOGGER.error(e.getMessage());
         }
-        Event.dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Vulnerability.class));
+        EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Vulnerability.class));
+    }
+
+    /**
+     * Parses the vulnerable CPE match criteria from the configurations of a CVE. Only criteria
+     * which identify affected software on their own are returned, see {@link #parseCpeMatchNode(JsonObject)}.
+     */
+    List<VulnerableSoftware> parseCpeMatches(JsonObject cveItem) {
+        final List<VulnerableSoftware> vulnerableSoftware = new ArrayList<>();
+        final JsonObject configurations = cveItem.getJsonObject("configurations");
+        if (configurations != null && configurations.getJsonArray("nodes") != null) {
+            final JsonArray nodes = configurations.getJsonArray("nodes");
+            for (int i = 0; i < nodes.size(); i++) {
+                vulnerableSoftware.addAll(parseCpeMatchNode(nodes.getJsonObject(i)));
+            }
+        }
+        return vulnerableSoftware;
+    }
+
+    /**
+     * Parses the vulnerable CPE match criteria of a configuration node. The criteria and children
+     * of an OR node each apply on their own. An AND node only applies when all of its criteria and
+     * children match, which can only be evaluated for a component when exactly one of them is
+     * vulnerable and the others describe the platform, such as an operating system. The platform
+     * of a component is not known and is disregarded. AND nodes combining several vulnerable
+     * criteria, and negated nodes, are skipped, as matching any of their criteria on its own would
+     * report vulnerabilities which do not apply.
+     */
+    private List<VulnerableSoftware> parseCpeMatchNode(JsonObject node) {
+        if (node.getBoolean("negate", false)) {
+            return Collections.emptyList();
+        }
+        final JsonArray cpeMatches = getCpeMatches(node);
+        final JsonArray children = node.getJsonArray("children");
+        final List<VulnerableSoftware> vulnerableSoftware = new ArrayList<>();
+        if ("AND".equalsIgnoreCase(node.getString("operator", "OR"))) {
+            final List<JsonObject> vulnerableMatches = new ArrayList<>();
+            final List<JsonObject> vulnerableChildren = new ArrayList<>();
+            for (int i = 0; cpeMatches != null && i < cpeMatches.size(); i++) {
+                if (cpeMatches.getJsonObject(i).getBoolean("vulnerable", true)) {
+                    vulnerableMatches.add(cpeMatches.getJsonObject(i));
+                }
+            }
+            for (int i = 0; children != null && i < children.size(); i++) {
+                if (hasVulnerableCpeMatch(children.getJsonObject(i))) {
+                    vulnerableChildren.add(children.getJsonObject(i));
+                }
+            }
+            if (vulnerableMatches.size() + vulnerableChildren.size() == 1) {
+                if (vulnerableMatches.size() == 1) {
+                    addCpeMatch(vulnerableMatches.get(0), vulnerableSoftware);
+                } else {
+                    vulnerableSoftware.addAll(parseCpeMatchNode(vulnerableChildren.get(0)));
+                }
+            }
+            return vulnerableSoftware;
+        }
+        for (int i = 0; cpeMatches != null && i < cpeMatches.size(); i++) {
+            addCpeMatch(cpeMatches.getJsonObject(i), vulnerableSoftware);
+        }
+        for (int i = 0; children != null && i < children.size(); i++) {
+            vulnerableSoftware.addAll(parseCpeMatchNode(children.getJsonObject(i)));
+        }
+        return vulnerableSoftware;
+    }
+
+    private boolean hasVulnerableCpeMatch(JsonObject node) {
+        final JsonArray cpeMatches = getCpeMatches(node);
+        for (int i = 0; cpeMatches != null && i < cpeMatches.size(); i++) {
+            if (cpeMatches.getJsonObject(i).getBoolean("vulnerable", true)) {
+                return true;
+            }
+        }
+        final JsonArray children = node.getJsonArray("children");
+        for (int i = 0; children != null && i < children.size(); i++) {
+            if (hasVulnerableCpeMatch(children.getJsonObject(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private JsonArray getCpeMatches(JsonObject node) {
+        // Earlier revisions of the 1.0 feeds name the array 'cpe' rather than 'cpe_match'
+        final JsonArray cpeMatches = node.getJsonArray("cpe_match");
+        return (cpeMatches != null) ? cpeMatches : node.getJsonArray("cpe");
+    }
+
+    private void addCpeMatch(JsonObject cpeMatch, List<VulnerableSoftware> vulnerableSoftware) {
+        if (!cpeMatch.getBoolean("vulnerable", true) || cpeMatch.getString("cpe23Uri", null) == null) {
+            return;
+        }
+        final String cpe23Uri = cpeMatch.getString("cpe23Uri");
+        try {
+            final Cpe cpe = CpeParser.parse(cpe23Uri);
+            final VulnerableSoftware vs = new VulnerableSoftware();
+            vs.setCpe23(cpe23Uri);
+            vs.setVendor(cpe.getVendor());
+            vs.setProduct(cpe.getProduct());
+            vs.setVersion(cpe.getVersion());
+            vs.setVersionStartIncluding(cpeMatch.getString("versionStartIncluding", null));
+            vs.setVersionStartExcluding(cpeMatch.getString("versionStartExcluding", null));
+            vs.setVersionEndIncluding(cpeMatch.getString("versionEndIncluding", null));
+            vs.setVersionEndExcluding(cpeMatch.getString("versionEndExcluding", null));
+            vulnerableSoftware.add(vs);
+        } catch (CpeParsingException e) {
+            LOGGER.warn("An error occurred while parsing CPE: " + cpe23Uri);
+        }
     }
 
     private void parseCveImpact(JsonObject cveItem, Vulnerability vuln) {
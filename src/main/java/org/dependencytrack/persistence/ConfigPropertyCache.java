@@ -0,0 +1,176 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import alpine.crypto.DataEncryption;
+import alpine.logging.Logger;
+import alpine.model.ConfigProperty;
+import alpine.util.BooleanUtil;
+import org.dependencytrack.model.ConfigPropertyConstants;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A process-wide cache of the values of all {@link ConfigPropertyConstants}. Values are read
+ * from the datastore on first access and held in memory until the cache is invalidated.
+ * The values of encrypted properties are held decrypted. Properties which cannot be decrypted
+ * have no value, and are reported by {@link #isDecryptionFailed(ConfigPropertyConstants)}.
+ *
+ * The cache must be invalidated whenever a config property is modified, so that subsequent
+ * reads reflect the change.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class ConfigPropertyCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ConfigPropertyCache.class);
+    private static final ConfigPropertyCache INSTANCE = new ConfigPropertyCache();
+
+    private volatile Values values;
+
+    /**
+     * Private constructor.
+     */
+    private ConfigPropertyCache() { }
+
+    public static ConfigPropertyCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the value of the property. The values of encrypted properties are returned decrypted.
+     * @param property the property to return the value of
+     * @return the value, or null if the property does not exist, has no value, or cannot be decrypted
+     */
+    public String getValue(ConfigPropertyConstants property) {
+        return getValues().values.get(property);
+    }
+
+    /**
+     * Returns whether the value of an encrypted property could not be decrypted. Callers must not
+     * treat such a property as unset, for instance by proceeding without a password.
+     * @param property the property to check
+     * @return true if the property has a value which cannot be decrypted
+     */
+    public boolean isDecryptionFailed(ConfigPropertyConstants property) {
+        return getValues().undecryptable.contains(property);
+    }
+
+    /**
+     * Returns the value of a boolean property.
+     * @param property the property to return the value of
+     * @return the value, or false if the property is not a boolean or does not exist
+     */
+    public boolean getBoolean(ConfigPropertyConstants property) {
+        return ConfigProperty.PropertyType.BOOLEAN == property.getPropertyType()
+                && BooleanUtil.valueOf(getValue(property));
+    }
+
+    /**
+     * Returns the value of an integer property.
+     * @param property the property to return the value of
+     * @return the value, or null if the property does not exist, has no value, or is not an integer
+     */
+    public Integer getInteger(ConfigPropertyConstants property) {
+        final String value = getValue(property);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warn("The value of config property " + property.getGroupName() + "." + property.getPropertyName() + " is not an integer");
+            return null;
+        }
+    }
+
+    /**
+     * Discards all cached values. Values are read from the datastore again on next access.
+     */
+    public synchronized void invalidate() {
+        values = null;
+    }
+
+    private Values getValues() {
+        Values current = values;
+        if (current == null) {
+            synchronized (this) {
+                current = values;
+                if (current == null) {
+                    current = load();
+                    values = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Values load() {
+        final Map<ConfigPropertyConstants, String> map = new EnumMap<>(ConfigPropertyConstants.class);
+        final Set<ConfigPropertyConstants> undecryptable = EnumSet.noneOf(ConfigPropertyConstants.class);
+        try (QueryManager qm = new QueryManager()) {
+            final List<ConfigProperty> properties = qm.getConfigProperties();
+            for (final ConfigPropertyConstants cpc: ConfigPropertyConstants.values()) {
+                for (final ConfigProperty property: properties) {
+                    if (cpc.getGroupName().equals(property.getGroupName()) && cpc.getPropertyName().equals(property.getPropertyName())) {
+                        final String value = getValue(property);
+                        if (value == null && property.getPropertyValue() != null) {
+                            undecryptable.add(cpc);
+                        }
+                        map.put(cpc, value);
+                        break;
+                    }
+                }
+            }
+        }
+        return new Values(Collections.unmodifiableMap(map), Collections.unmodifiableSet(undecryptable));
+    }
+
+    private String getValue(ConfigProperty property) {
+        if (ConfigProperty.PropertyType.ENCRYPTEDSTRING != property.getPropertyType() || property.getPropertyValue() == null) {
+            return property.getPropertyValue();
+        }
+        try {
+            return DataEncryption.decryptAsString(property.getPropertyValue());
+        } catch (Exception e) {
+            LOGGER.error("An error occurred decrypting config property " + property.getGroupName() + "." + property.getPropertyName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * The values loaded from the datastore at once, along with the properties which could not
+     * be decrypted.
+     */
+    private static final class Values {
+
+        private final Map<ConfigPropertyConstants, String> values;
+        private final Set<ConfigPropertyConstants> undecryptable;
+
+        private Values(Map<ConfigPropertyConstants, String> values, Set<ConfigPropertyConstants> undecryptable) {
+            this.values = values;
+            this.undecryptable = undecryptable;
+        }
+    }
+
+}
@@ -18,7 +18,6 @@
 package org.dependencytrack.persistence;
 
 import alpine.auth.PasswordService;
-import alpine.event.framework.Event;
 import alpine.logging.Logger;
 import alpine.model.ManagedUser;
 import alpine.model.Permission;
@@ -26,6 +25,7 @@ import alpine.model.Team;
 import org.apache.commons.io.FileUtils;
 import org.dependencytrack.RequirementsVerifier;
 import org.dependencytrack.auth.Permissions;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.event.IndexEvent;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.model.ConfigPropertyConstants;
@@ -62,10 +62,10 @@ public class DefaultObjectGenerator implements ServletContextListener {
             return;
         }
         // Creates empty indexes on startup if indexes do not exist
-        Event.dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Project.class));
-        Event.dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Component.class));
-        Event.dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Vulnerability.class));
-        Event.dispatch(new IndexEvent(IndexEvent.Action.COMMIT, License.class));
+        EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Project.class));
+        EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Component.class));
+        EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Vulnerability.class));
+        EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.COMMIT, License.class));
 
         loadDefaultPermissions();
         loadDefaultPersonas();
@@ -213,6 +213,7 @@ public class DefaultObjectGenerator implements ServletContextListener {
                 }
             }
         }
+        ConfigPropertyCache.getInstance().invalidate();
     }
 
     /**
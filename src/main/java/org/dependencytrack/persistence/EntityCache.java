@@ -0,0 +1,399 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import alpine.Config;
+import org.dependencytrack.DependencyTrackConfigKey;
+import org.dependencytrack.model.ComponentIdentity;
+import org.dependencytrack.model.Cwe;
+import org.dependencytrack.model.License;
+import org.dependencytrack.model.NotificationPublisher;
+import org.dependencytrack.model.NotificationRule;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.model.Repository;
+import org.dependencytrack.model.Vulnerability;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A process-wide cache resolving lookups of read-mostly objects, such as a vulnerability by its
+ * source and ID, to the identities of the matching objects. Each {@link QueryManager} resolves
+ * cached identities through its own PersistenceManager, which serves the objects from the
+ * level 2 cache of the PersistenceManagerFactory, so that lookups neither compile nor execute
+ * a query. The objects returned are persistent and may be modified like any other.
+ *
+ * Each cacheable class has its own region, bounded in size and by a time to live. Writes of
+ * a cacheable object invalidate the lookups resolving to it, as well as all cached lists of
+ * its class, since a new or modified object may now match them. Every invalidation advances
+ * the generation of the region, and lookups performed before an invalidation are not cached,
+ * as they may have read the state preceding the write.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class EntityCache {
+
+    /**
+     * The classes whose lookups are invalidated by {@link EntityCacheInvalidator} when an
+     * object is stored or deleted. High-churn classes, such as dependencies, components
+     * and metrics, are deliberately excluded.
+     */
+    static final List<Class<?>> INVALIDATED_CLASSES = Collections.unmodifiableList(Arrays.asList(
+            Vulnerability.class, Cwe.class, License.class, Repository.class,
+            NotificationRule.class, NotificationPublisher.class, Project.class));
+
+    /**
+     * The classes whose lookups are cached. Lookups of {@link ComponentIdentity} resolve an
+     * identity value to the ID of the component it identifies, and are invalidated by the
+     * {@link QueryManager} when the identities of a component change, since components are
+     * stored far more often than their hashes or Package URL change.
+     */
+    public static final List<Class<?>> CACHEABLE_CLASSES;
+
+    static {
+        final List<Class<?>> classes = new ArrayList<>(INVALIDATED_CLASSES);
+        classes.add(ComponentIdentity.class);
+        CACHEABLE_CLASSES = Collections.unmodifiableList(classes);
+    }
+
+    private static final EntityCache INSTANCE = new EntityCache(
+            Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.ENTITY_CACHE_MAX_SIZE),
+            Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.ENTITY_CACHE_TTL_SECONDS) * 1000L);
+
+    private final Map<Class<?>, Region> regions = new HashMap<>();
+
+    /**
+     * Creates a cache.
+     * @param maxSize the maximum number of lookups cached per class, or 0 to disable the cache
+     * @param ttl the time in milliseconds after which a lookup expires
+     */
+    EntityCache(int maxSize, long ttl) {
+        for (final Class<?> clazz: CACHEABLE_CLASSES) {
+            regions.put(clazz, new Region(clazz.getSimpleName(), maxSize, ttl));
+        }
+    }
+
+    public static EntityCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns whether lookups of the specified class are cached.
+     * @param clazz the class to check
+     * @return true if the class is cacheable
+     */
+    public boolean isCacheable(Class<?> clazz) {
+        return getRegion(clazz) != null;
+    }
+
+    /**
+     * Returns the generation of the region of a class, which is advanced by every invalidation.
+     * The generation must be obtained before performing a lookup, and be passed when caching it.
+     * @param clazz the class of the objects
+     * @return the current generation
+     */
+    public long getGeneration(Class<?> clazz) {
+        final Region region = getRegion(clazz);
+        return region == null ? 0 : region.getGeneration();
+    }
+
+    /**
+     * Returns the identity of the object the lookup resolves to.
+     * @param clazz the class of the object
+     * @param key the key of the lookup
+     * @return the identity of the object, or null if the lookup is not cached
+     */
+    public Object get(Class<?> clazz, String key) {
+        final Region region = getRegion(clazz);
+        return region == null ? null : region.get(key);
+    }
+
+    /**
+     * Returns the identities of the objects the lookup resolves to.
+     * @param clazz the class of the objects
+     * @param key the key of the lookup
+     * @return the identities of the objects, or null if the lookup is not cached
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object> getList(Class<?> clazz, String key) {
+        final Region region = getRegion(clazz);
+        return region == null ? null : (List<Object>) region.get(key);
+    }
+
+    /**
+     * Caches the identity of the object a lookup resolves to, unless the region has been
+     * invalidated since the lookup was performed.
+     * @param clazz the class of the object
+     * @param key the key of the lookup
+     * @param objectId the identity of the object
+     * @param generation the generation of the region obtained before the lookup was performed
+     */
+    public void put(Class<?> clazz, String key, Object objectId, long generation) {
+        final Region region = getRegion(clazz);
+        if (region != null && objectId != null) {
+            region.put(key, objectId, false, generation);
+        }
+    }
+
+    /**
+     * Caches the identities of the objects a lookup resolves to, unless the region has been
+     * invalidated since the lookup was performed.
+     * @param clazz the class of the objects
+     * @param key the key of the lookup
+     * @param objectIds the identities of the objects
+     * @param generation the generation of the region obtained before the lookup was performed
+     */
+    public void putList(Class<?> clazz, String key, List<Object> objectIds, long generation) {
+        final Region region = getRegion(clazz);
+        if (region != null && !objectIds.contains(null)) {
+            region.put(key, Collections.unmodifiableList(new ArrayList<>(objectIds)), true, generation);
+        }
+    }
+
+    /**
+     * Invalidates the lookups resolving to the specified object, and all lists of its class.
+     * @param clazz the class of the object
+     * @param objectId the identity of the object
+     */
+    public void invalidate(Class<?> clazz, Object objectId) {
+        final Region region = getRegion(clazz);
+        if (region != null) {
+            region.invalidate(objectId);
+        }
+    }
+
+    /**
+     * Invalidates all lookups of the specified class.
+     * @param clazz the class to invalidate
+     */
+    public void invalidate(Class<?> clazz) {
+        final Region region = getRegion(clazz);
+        if (region != null) {
+            region.clear();
+        }
+    }
+
+    /**
+     * Invalidates all lookups.
+     */
+    public void invalidateAll() {
+        regions.values().forEach(Region::clear);
+    }
+
+    /**
+     * Returns the statistics of each region.
+     * @return a List of Statistics
+     */
+    public List<Statistics> getStatistics() {
+        final List<Statistics> statistics = new ArrayList<>();
+        for (final Class<?> clazz: CACHEABLE_CLASSES) {
+            statistics.add(regions.get(clazz).getStatistics());
+        }
+        return statistics;
+    }
+
+    /**
+     * Returns the region of a class. Enhanced or proxied subclasses share the region of their superclass.
+     */
+    private Region getRegion(Class<?> clazz) {
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            final Region region = regions.get(c);
+            if (region != null) {
+                return region;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The hit, miss, eviction and invalidation counts of a region.
+     */
+    public static final class Statistics {
+
+        private final String name;
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+
+        Statistics(String name, int size, long hits, long misses, long evictions, long invalidations) {
+            this.name = name;
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getInvalidations() {
+            return invalidations;
+        }
+    }
+
+    /**
+     * The lookups of a single class, evicted least recently used first.
+     */
+    private static final class Region {
+
+        private final String name;
+        private final int maxSize;
+        private final long ttl;
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<Object, Set<String>> keysByObjectId = new HashMap<>();
+        private final Set<String> listKeys = new HashSet<>();
+        private long hits;
+        private long misses;
+        private long evictions;
+        private long invalidations;
+        private long generation;
+
+        Region(String name, int maxSize, long ttl) {
+            this.name = name;
+            this.maxSize = maxSize;
+            this.ttl = ttl;
+        }
+
+        synchronized Object get(String key) {
+            final Entry entry = entries.get(key);
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            if (entry.expires < System.currentTimeMillis()) {
+                remove(key);
+                evictions++;
+                misses++;
+                return null;
+            }
+            hits++;
+            return entry.value;
+        }
+
+        synchronized long getGeneration() {
+            return generation;
+        }
+
+        synchronized void put(String key, Object value, boolean list, long generation) {
+            if (maxSize <= 0 || ttl <= 0 || generation != this.generation) {
+                return;
+            }
+            remove(key);
+            entries.put(key, new Entry(value, list, System.currentTimeMillis() + ttl));
+            if (list) {
+                listKeys.add(key);
+            } else {
+                keysByObjectId.computeIfAbsent(value, k -> new HashSet<>()).add(key);
+            }
+            final Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                final Map.Entry<String, Entry> evicted = eldest.next();
+                eldest.remove();
+                unlink(evicted.getKey(), evicted.getValue());
+                evictions++;
+            }
+        }
+
+        synchronized void invalidate(Object objectId) {
+            generation++;
+            final Set<String> keys = keysByObjectId.remove(objectId);
+            if (keys != null) {
+                keys.forEach(entries::remove);
+                invalidations += keys.size();
+            }
+            listKeys.forEach(entries::remove);
+            invalidations += listKeys.size();
+            listKeys.clear();
+        }
+
+        synchronized void clear() {
+            generation++;
+            invalidations += entries.size();
+            entries.clear();
+            keysByObjectId.clear();
+            listKeys.clear();
+        }
+
+        synchronized Statistics getStatistics() {
+            return new Statistics(name, entries.size(), hits, misses, evictions, invalidations);
+        }
+
+        private void remove(String key) {
+            final Entry entry = entries.remove(key);
+            if (entry != null) {
+                unlink(key, entry);
+            }
+        }
+
+        /**
+         * Removes a key which is no longer cached from the indexes.
+         */
+        private void unlink(String key, Entry entry) {
+            if (entry.list) {
+                listKeys.remove(key);
+            } else {
+                final Set<String> keys = keysByObjectId.get(entry.value);
+                if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                    keysByObjectId.remove(entry.value);
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+        private final boolean list;
+        private final long expires;
+
+        Entry(Object value, boolean list, long expires) {
+            this.value = value;
+            this.list = list;
+            this.expires = expires;
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects the size and the hit, miss, eviction and invalidation counts of each
+ * region of the {@link EntityCache}.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class EntityCacheCollector extends Collector {
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        final List<String> labelNames = Collections.singletonList("class");
+        final GaugeMetricFamily size = new GaugeMetricFamily("dtrack_entity_cache_size",
+                "Number of cached lookups", labelNames);
+        final CounterMetricFamily hits = new CounterMetricFamily("dtrack_entity_cache_hits_total",
+                "Number of lookups served from the cache", labelNames);
+        final CounterMetricFamily misses = new CounterMetricFamily("dtrack_entity_cache_misses_total",
+                "Number of lookups not served from the cache", labelNames);
+        final CounterMetricFamily evictions = new CounterMetricFamily("dtrack_entity_cache_evictions_total",
+                "Number of lookups evicted because of the size limit or expiry", labelNames);
+        final CounterMetricFamily invalidations = new CounterMetricFamily("dtrack_entity_cache_invalidations_total",
+                "Number of lookups invalidated by writes", labelNames);
+        for (final EntityCache.Statistics statistics: EntityCache.getInstance().getStatistics()) {
+            final List<String> labels = Collections.singletonList(statistics.getName());
+            size.addMetric(labels, statistics.getSize());
+            hits.addMetric(labels, statistics.getHits());
+            misses.addMetric(labels, statistics.getMisses());
+            evictions.addMetric(labels, statistics.getEvictions());
+            invalidations.addMetric(labels, statistics.getInvalidations());
+        }
+        final List<MetricFamilySamples> mfs = new ArrayList<>();
+        mfs.add(size);
+        mfs.add(hits);
+        mfs.add(misses);
+        mfs.add(evictions);
+        mfs.add(invalidations);
+        return mfs;
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import javax.jdo.JDOHelper;
+import javax.jdo.PersistenceManager;
+import javax.jdo.listener.DeleteLifecycleListener;
+import javax.jdo.listener.InstanceLifecycleEvent;
+import javax.jdo.listener.StoreLifecycleListener;
+import javax.transaction.Synchronization;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Invalidates the {@link EntityCache} lookups of cacheable objects which are stored or deleted
+ * through a PersistenceManager. Objects written within a transaction are invalidated once the
+ * transaction has completed, since a lookup performed by another PersistenceManager before the
+ * commit would otherwise cache the previous state again. A Synchronization already registered
+ * with the transaction is retained and notified before the invalidator.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+final class EntityCacheInvalidator implements StoreLifecycleListener, DeleteLifecycleListener, Synchronization {
+
+    private final PersistenceManager pm;
+    private final Synchronization synchronization;
+    private final Map<Object, Class<?>> pending = new LinkedHashMap<>();
+
+    private EntityCacheInvalidator(PersistenceManager pm, Synchronization synchronization) {
+        this.pm = pm;
+        this.synchronization = synchronization;
+    }
+
+    /**
+     * Registers an invalidator with the specified PersistenceManager.
+     * @param pm the PersistenceManager to invalidate the writes of
+     */
+    static void register(PersistenceManager pm) {
+        final EntityCacheInvalidator invalidator = new EntityCacheInvalidator(pm, pm.currentTransaction().getSynchronization());
+        pm.addInstanceLifecycleListener(invalidator, EntityCache.INVALIDATED_CLASSES.toArray(new Class<?>[0]));
+        pm.currentTransaction().setSynchronization(invalidator);
+    }
+
+    @Override
+    public void preStore(InstanceLifecycleEvent event) {
+    }
+
+    @Override
+    public void postStore(InstanceLifecycleEvent event) {
+        invalidate(event);
+    }
+
+    @Override
+    public void preDelete(InstanceLifecycleEvent event) {
+        invalidate(event);
+    }
+
+    @Override
+    public void postDelete(InstanceLifecycleEvent event) {
+    }
+
+    @Override
+    public void beforeCompletion() {
+        if (synchronization != null) {
+            synchronization.beforeCompletion();
+        }
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        try {
+            if (synchronization != null) {
+                synchronization.afterCompletion(status);
+            }
+        } finally {
+            // Lookups are invalidated on rollback as well, the objects may have been cached in between
+            for (final Map.Entry<Object, Class<?>> entry: pending.entrySet()) {
+                EntityCache.getInstance().invalidate(entry.getValue(), entry.getKey());
+            }
+            pending.clear();
+        }
+    }
+
+    private void invalidate(InstanceLifecycleEvent event) {
+        final Object object = event.getPersistentInstance();
+        final Object objectId = JDOHelper.getObjectId(object);
+        if (pm.currentTransaction().isActive()) {
+            pending.put(objectId, object.getClass());
+        } else {
+            EntityCache.getInstance().invalidate(object.getClass(), objectId);
+        }
+    }
+
+}
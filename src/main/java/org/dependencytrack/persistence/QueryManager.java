@@ -18,7 +18,6 @@
 package org.dependencytrack.persistence;
 
 import alpine.Config;
-import alpine.event.framework.Event;
 import alpine.model.ConfigProperty;
 import alpine.notification.NotificationLevel;
 import alpine.persistence.AlpineQueryManager;
@@ -26,12 +25,15 @@ import alpine.persistence.PaginatedResult;
 import alpine.resources.AlpineRequest;
 import org.apache.commons.lang3.StringUtils;
 import org.datanucleus.api.jdo.JDOQuery;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.event.IndexEvent;
+import org.dependencytrack.metrics.MetricsSeries;
 import org.dependencytrack.model.Analysis;
 import org.dependencytrack.model.AnalysisComment;
 import org.dependencytrack.model.AnalysisState;
 import org.dependencytrack.model.Bom;
 import org.dependencytrack.model.Component;
+import org.dependencytrack.model.ComponentIdentity;
 import org.dependencytrack.model.ComponentMetrics;
 import org.dependencytrack.model.Cwe;
 import org.dependencytrack.model.Dependency;
@@ -49,21 +51,48 @@ import org.dependencytrack.model.Repository;
 import org.dependencytrack.model.RepositoryMetaComponent;
 import org.dependencytrack.model.RepositoryType;
 import org.dependencytrack.model.Scan;
+import org.dependencytrack.model.Severity;
 import org.dependencytrack.model.Tag;
 import org.dependencytrack.model.Vulnerability;
 import org.dependencytrack.model.VulnerabilityMetrics;
+import org.dependencytrack.model.VulnerableSoftware;
 import org.dependencytrack.notification.NotificationScope;
 import org.dependencytrack.util.NotificationUtil;
+import org.dependencytrack.util.PurlUtil;
+import org.dependencytrack.util.SnapshotUtil;
 import javax.jdo.FetchPlan;
+import javax.jdo.JDODataStoreException;
+import javax.jdo.JDOException;
+import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
 import javax.jdo.Query;
+import javax.jdo.Transaction;
+import javax.jdo.datastore.JDOConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -76,12 +105,27 @@ import java.util.stream.Collectors;
 public class QueryManager extends AlpineQueryManager {
 
     private static final boolean ENFORCE_AUTHORIZATION = Config.getInstance().getPropertyAsBoolean(Config.AlpineKey.ENFORCE_AUTHORIZATION);
+    private static final List<String> PROJECT_SERIES_COLUMNS = Arrays.asList("critical", "high", "medium", "low",
+            "vulnerabilities", "vulnerableComponents", "components", "suppressed", "inheritedRiskScore");
+    private static final List<String> PORTFOLIO_SERIES_COLUMNS = Arrays.asList("critical", "high", "medium", "low",
+            "vulnerabilities", "projects", "vulnerableProjects", "vulnerableComponents", "components", "suppressed",
+            "inheritedRiskScore");
+    // The maximum number of project IDs in a single IN clause
+    private static final int PROJECT_ID_CHUNK_SIZE = 500;
+    private static final int IMPORT_ID_CHUNK_SIZE = 500;
+    // The maximum number of component identity values in a single IN clause
+    private static final int IDENTITY_CHUNK_SIZE = 1000;
+    private static final String ORPHANED_COMPONENT_CONDITION = "\"LAST_IMPORTED\" < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM \"DEPENDENCY\" WHERE \"DEPENDENCY\".\"COMPONENT_ID\" = \"COMPONENT\".\"ID\") " +
+            "AND NOT EXISTS (SELECT 1 FROM \"ANALYSIS\" WHERE \"ANALYSIS\".\"COMPONENT_ID\" = \"COMPONENT\".\"ID\") " +
+            "AND NOT EXISTS (SELECT 1 FROM \"COMPONENT\" \"CHILD\" WHERE \"CHILD\".\"PARENT_COMPONENT_ID\" = \"COMPONENT\".\"ID\")";
 
     /**
      * Default constructor.
      */
     public QueryManager() {
         super();
+        EntityCacheInvalidator.register(pm);
     }
 
     /**
@@ -90,6 +134,61 @@ public class QueryManager extends AlpineQueryManager {
      */
     public QueryManager(final AlpineRequest request) {
         super(request);
+        EntityCacheInvalidator.register(pm);
+    }
+
+    /**
+     * Returns the object a lookup resolves to. The identity of the object is cached in the
+     * {@link EntityCache}, and the object is retrieved by its identity on subsequent lookups.
+     * @param clazz the class of the object
+     * @param key the key of the lookup, unique among the lookups of the class
+     * @param loader performs the lookup if it is not cached
+     * @return the object, or null if the lookup does not resolve to an object
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getCachedObject(Class<T> clazz, String key, Supplier<T> loader) {
+        final EntityCache cache = EntityCache.getInstance();
+        final Object objectId = cache.get(clazz, key);
+        if (objectId != null) {
+            try {
+                return (T) pm.getObjectById(objectId);
+            } catch (JDOObjectNotFoundException e) {
+                cache.invalidate(clazz, objectId);
+            }
+        }
+        final long generation = cache.getGeneration(clazz);
+        final T result = loader.get();
+        if (result != null) {
+            cache.put(clazz, key, JDOHelper.getObjectId(result), generation);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the objects a lookup resolves to, in the order of the lookup.
+     * @see #getCachedObject(Class, String, Supplier)
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> getCachedList(Class<T> clazz, String key, Supplier<List<T>> loader) {
+        final EntityCache cache = EntityCache.getInstance();
+        final List<Object> objectIds = cache.getList(clazz, key);
+        if (objectIds != null) {
+            try {
+                final List<T> result = new ArrayList<>(objectIds.size());
+                for (final Object objectId: objectIds) {
+                    result.add((T) pm.getObjectById(objectId));
+                }
+                return result;
+            } catch (JDOObjectNotFoundException e) {
+                cache.invalidate(clazz);
+            }
+        }
+        final long generation = cache.getGeneration(clazz);
+        final List<T> result = loader.get();
+        final List<Object> resultIds = new ArrayList<>(result.size());
+        result.forEach(object -> resultIds.add(JDOHelper.getObjectId(object)));
+        cache.putList(clazz, key, resultIds, generation);
+        return result;
     }
 
     /**
@@ -144,9 +243,11 @@ public class QueryManager extends AlpineQueryManager {
      */
     @SuppressWarnings("unchecked")
     public Project getProject(String name, String version) {
-        final Query query = pm.newQuery(Project.class, "name == :name && version == :version");
-        final List<Project> result = (List<Project>) query.execute(name, version);
-        return result.size() == 0 ? null : result.get(0);
+        return getCachedObject(Project.class, "name:" + name + ":" + version, () -> {
+            final Query query = pm.newQuery(Project.class, "name == :name && version == :version");
+            final List<Project> result = (List<Project>) query.execute(name, version);
+            return result.size() == 0 ? null : result.get(0);
+        });
     }
 
     /**
@@ -155,88 +256,185 @@ public class QueryManager extends AlpineQueryManager {
      * @return a List of Projects that contain the tag
      */
     public PaginatedResult getProjects(Tag tag) {
-        final Query query = pm.newQuery(Project.class, "tags.contains(:tag)");
+        return getProjects(tag == null ? Collections.emptyList() : Collections.singletonList(tag), true);
+    }
+
+    /**
+     * Returns a paginated result of projects by tags. The tag filter is evaluated by
+     * the database rather than by loading the projects of each tag.
+     * @param tags the tags associated with the Projects
+     * @param matchAll true to return projects that contain all of the tags, false to
+     *                 return projects that contain any of them
+     * @return a List of Projects that contain the tags
+     * @since 3.3.0
+     */
+    public PaginatedResult getProjects(List<Tag> tags, boolean matchAll) {
+        if (tags.isEmpty()) {
+            return new PaginatedResult().objects(Collections.emptyList()).total(0);
+        }
+        final StringBuilder filter = new StringBuilder();
+        final Map<String, Object> params = new HashMap<>();
+        for (int i = 0; i < tags.size(); i++) {
+            if (i > 0) {
+                filter.append(matchAll ? " && " : " || ");
+            }
+            filter.append("tags.contains(:tag").append(i).append(")");
+            params.put("tag" + i, tags.get(i));
+        }
+        final Query query = pm.newQuery(Project.class, filter.toString());
         if (orderBy == null) {
             query.setOrdering("name asc");
         }
-        return execute(query, tag);
+        return execute(query, params);
     }
 
     /**
      * Returns a list of Tag objects what have been resolved. It resolved
-     * tags by querying the database to retrieve the tag. If the tag does
-     * not exist, the tag will be created and returned with other resolved
-     * tags.
+     * tags by querying the database to retrieve the tags in a single query.
+     * Tags that do not exist are created and returned with the other resolved
+     * tags. Names are matched case-insensitively.
      * @param tags a List of Tags to resolve
      * @return List of resolved Tags
      */
-    @SuppressWarnings("unchecked")
-    public synchronized List<Tag> resolveTags(List<Tag> tags) {
+    public List<Tag> resolveTags(List<Tag> tags) {
         if (tags == null) {
             return new ArrayList<>();
         }
-        final List<Tag> resolvedTags = new ArrayList<>();
-        final List<String> unresolvedTags = new ArrayList<>();
+        final List<String> names = new ArrayList<>();
         for (Tag tag: tags) {
-            final String trimmedTag = StringUtils.trimToNull(tag.getName());
-            if (trimmedTag != null) {
-                final Tag resolvedTag = getTagByName(trimmedTag);
-                if (resolvedTag != null) {
-                    resolvedTags.add(resolvedTag);
-                } else {
-                    unresolvedTags.add(trimmedTag);
-                }
-            }
+            names.add(tag.getName());
         }
-        resolvedTags.addAll(createTags(unresolvedTags));
-        return resolvedTags;
+        return createTags(names);
     }
 
     /**
-     * Returns a list of Tag objects by name.
+     * Returns a Tag object by name. The name is matched case-insensitively.
      * @param name the name of the Tag
      * @return a Tag object
      */
     @SuppressWarnings("unchecked")
     public Tag getTagByName(String name) {
-        final String trimmedTag = StringUtils.trimToNull(name);
-        final Query query = pm.newQuery(Tag.class, "name == :name");
-        final List<Tag> result = (List<Tag>) query.execute(trimmedTag);
+        final Query query = pm.newQuery(Tag.class, "normalizedName == :name");
+        final List<Tag> result = (List<Tag>) query.execute(Tag.normalize(name));
         return result.size() == 0 ? null : result.get(0);
     }
 
+    /**
+     * Returns the Tag objects with the specified names in a single query.
+     * Names are matched case-insensitively.
+     * @param names the names of the Tags
+     * @return a List of the Tags that exist
+     * @since 3.3.0
+     */
+    @SuppressWarnings("unchecked")
+    public List<Tag> getTagsByName(Collection<String> names) {
+        final Set<String> normalizedNames = new HashSet<>();
+        for (final String name: names) {
+            final String normalizedName = Tag.normalize(name);
+            if (normalizedName != null) {
+                normalizedNames.add(normalizedName);
+            }
+        }
+        if (normalizedNames.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final Query query = pm.newQuery(Tag.class, ":names.contains(normalizedName)");
+        return new ArrayList<>((List<Tag>) query.execute(normalizedNames));
+    }
+
     /**
      * Creates a new Tag object with the specified name.
      * @param name the name of the Tag to create
-     * @return the created Tag object
+     * @return the created Tag object, or the existing Tag with the same name
      */
     public Tag createTag(String name) {
-        final String trimmedTag = StringUtils.trimToNull(name);
-        final Tag resolvedTag = getTagByName(trimmedTag);
-        if (resolvedTag != null) {
-            return resolvedTag;
-        }
-        final Tag tag = new Tag();
-        tag.setName(trimmedTag);
-        return persist(tag);
+        final List<Tag> tags = createTags(Collections.singletonList(name));
+        return tags.isEmpty() ? null : tags.get(0);
     }
 
     /**
-     * Creates one or more Tag objects from the specified name(s).
+     * Creates one or more Tag objects from the specified name(s). Existing tags are
+     * looked up in a single query and the remaining tags are inserted in a single
+     * transaction. Tags created concurrently by another request are rejected by the
+     * unique index on the normalized name and are looked up instead.
      * @param names the name(s) of the Tag(s) to create
-     * @return the created Tag object(s)
+     * @return the created or existing Tag object(s), in the order of the names
      */
     public List<Tag> createTags(List<String> names) {
-        final List<Tag> newTags = new ArrayList<>();
-        for (String name: names) {
+        final Map<String, String> requested = new LinkedHashMap<>();
+        for (final String name: names) {
             final String trimmedTag = StringUtils.trimToNull(name);
-            if (getTagByName(trimmedTag) == null) {
+            if (trimmedTag != null) {
+                requested.putIfAbsent(Tag.normalize(trimmedTag), trimmedTag);
+            }
+        }
+        final Map<String, Tag> resolved = new HashMap<>();
+        for (final Tag tag: getTagsByName(requested.keySet())) {
+            resolved.put(tag.getNormalizedName(), tag);
+        }
+        final List<Tag> newTags = new ArrayList<>();
+        for (final Map.Entry<String, String> entry: requested.entrySet()) {
+            if (!resolved.containsKey(entry.getKey())) {
                 final Tag tag = new Tag();
-                tag.setName(trimmedTag);
+                tag.setName(entry.getValue());
                 newTags.add(tag);
             }
         }
-        return new ArrayList<>(persist(newTags));
+        if (!newTags.isEmpty()) {
+            if (persistTags(newTags) == null) {
+                for (final Tag tag: newTags) {
+                    resolved.put(tag.getNormalizedName(), tag);
+                }
+            } else {
+                // At least one of the tags was created by a concurrent request. Insert the
+                // tags one at a time so that the others are still created, then look up
+                // the ones that lost the race.
+                JDOException failure = null;
+                final List<String> conflicts = new ArrayList<>();
+                for (final Tag newTag: newTags) {
+                    final Tag tag = new Tag();
+                    tag.setName(newTag.getName());
+                    final JDOException e = persistTags(Collections.singletonList(tag));
+                    if (e == null) {
+                        resolved.put(tag.getNormalizedName(), tag);
+                    } else {
+                        conflicts.add(tag.getNormalizedName());
+                        failure = e;
+                    }
+                }
+                for (final Tag tag: getTagsByName(conflicts)) {
+                    resolved.put(tag.getNormalizedName(), tag);
+                }
+                if (failure != null && !resolved.keySet().containsAll(conflicts)) {
+                    throw failure;
+                }
+            }
+        }
+        final List<Tag> result = new ArrayList<>();
+        for (final String normalizedName: requested.keySet()) {
+            result.add(resolved.get(normalizedName));
+        }
+        return result;
+    }
+
+    /**
+     * Inserts the specified tags in a single transaction.
+     * @return null if the tags were created, otherwise the exception that rolled back the transaction
+     */
+    private JDOException persistTags(List<Tag> tags) {
+        final Transaction trx = pm.currentTransaction();
+        try {
+            trx.begin();
+            pm.makePersistentAll(tags);
+            trx.commit();
+            return null;
+        } catch (JDOException e) {
+            return e;
+        } finally {
+            if (trx.isActive()) {
+                trx.rollback();
+            }
+        }
     }
 
     /**
@@ -264,7 +462,7 @@ public class QueryManager extends AlpineQueryManager {
         List<Tag> resolvedTags = resolveTags(tags);
         bind(project, resolvedTags);
 
-        Event.dispatch(new IndexEvent(IndexEvent.Action.CREATE, pm.detachCopy(result)));
+        EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.CREATE, pm.detachCopy(result)));
         commitSearchIndex(commitIndex, Project.class);
         return result;
     }
@@ -277,21 +475,26 @@ public class QueryManager extends AlpineQueryManager {
      * @param version the project version
      * @param tags a List of Tags - these will be resolved if necessary
      * @param purl an optional Package URL
+     * @param historyRetention the number of imports to retain or 0 to retain all, or null to keep the current retention
      * @param commitIndex specifies if the search index should be committed (an expensive operation)
      * @return the updated Project
      */
-    public Project updateProject(UUID uuid, String name, String description, String version, List<Tag> tags, String purl, boolean commitIndex) {
+    public Project updateProject(UUID uuid, String name, String description, String version, List<Tag> tags, String purl,
+                                 Integer historyRetention, boolean commitIndex) {
         final Project project = getObjectByUuid(Project.class, uuid);
         project.setName(name);
         project.setDescription(description);
         project.setVersion(version);
         project.setPurl(purl);
+        if (historyRetention != null) {
+            project.setHistoryRetention(historyRetention);
+        }
 
         List<Tag> resolvedTags = resolveTags(tags);
         bind(project, resolvedTags);
 
         final Project result = persist(project);
-        Event.dispatch(new IndexEvent(IndexEvent.Action.UPDATE, pm.detachCopy(result)));
+        EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.UPDATE, pm.detachCopy(result)));
         commitSearchIndex(commitIndex, Project.class);
         return result;
     }
@@ -319,29 +522,162 @@ public class QueryManager extends AlpineQueryManager {
     }
 
     /**
-     * Deletes a Project and all objects dependant on the project.
-     * @param project the Project to delete
+     * Returns the IDs and UUIDs of a Project and all of its descendants, grouped by level
+     * of the hierarchy. The first level holds the project itself.
+     * @param project the root of the hierarchy
+     * @return a List of levels, each mapping the IDs of the projects on that level to their UUIDs
+     * @since 3.3.0
      */
-    public void recursivelyDelete(Project project) {
-        if (project.getChildren() != null) {
-            for (Project child: project.getChildren()) {
-                recursivelyDelete(child);
+    @SuppressWarnings("unchecked")
+    public List<Map<Long, UUID>> getProjectHierarchy(Project project) {
+        final List<Map<Long, UUID>> levels = new ArrayList<>();
+        Map<Long, UUID> level = new LinkedHashMap<>();
+        level.put(project.getId(), project.getUuid());
+        while (!level.isEmpty()) {
+            levels.add(level);
+            final Map<Long, UUID> children = new LinkedHashMap<>();
+            for (final List<Long> parents: partition(new ArrayList<>(level.keySet()), PROJECT_ID_CHUNK_SIZE)) {
+                final Query query = pm.newQuery(Project.class, ":parents.contains(parent.id)");
+                query.setResult("id, uuid");
+                for (final Object[] row: (List<Object[]>) query.execute(parents)) {
+                    children.put((Long) row[0], (UUID) row[1]);
+                }
+            }
+            level = children;
+        }
+        return levels;
+    }
+
+    /**
+     * Deletes the specified projects and all objects dependant on them using set-based SQL
+     * statements. Rows of dependant tables are deleted in batches, each in its own transaction,
+     * so that locks are never held for long and the history of large projects can be removed
+     * without loading it. The projects themselves are deleted last, descendants first.
+     * @param hierarchy the projects to delete, grouped by level as returned by {@link #getProjectHierarchy(Project)}
+     * @param batchSize the maximum number of rows deleted per transaction
+     * @param progress receives a description of the progress made after each batch
+     * @return the number of rows deleted
+     * @throws SQLException if a statement fails, in which case the current batch is rolled back
+     * @since 3.3.0
+     */
+    public long deleteProjects(List<Map<Long, UUID>> hierarchy, int batchSize, Consumer<String> progress) throws SQLException {
+        final List<Long> projectIds = new ArrayList<>();
+        for (final Map<Long, UUID> level: hierarchy) {
+            projectIds.addAll(level.keySet());
+        }
+        final JDOConnection jdoConnection = pm.getDataStoreConnection();
+        try {
+            final Connection connection = (Connection) jdoConnection.getNativeConnection();
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                final long[] deleted = new long[1];
+                final Consumer<Integer> batchDeleted = count -> {
+                    deleted[0] += count;
+                    progress.accept("Deleted " + deleted[0] + " records");
+                };
+                for (final List<Long> chunk: partition(projectIds, PROJECT_ID_CHUNK_SIZE)) {
+                    final String ids = StringUtils.join(chunk, ", ");
+                    deleteInBatches(connection, "ANALYSIS", ids, batchSize, batchDeleted, "ANALYSISCOMMENT", "ANALYSIS_ID");
+                    deleteInBatches(connection, "DEPENDENCYMETRICS", ids, batchSize, batchDeleted);
+                    deleteInBatches(connection, "PROJECTMETRICS", ids, batchSize, batchDeleted);
+                    deleteInBatches(connection, "DEPENDENCY", ids, batchSize, batchDeleted);
+                    deleteInBatches(connection, "SCAN", ids, batchSize, batchDeleted, "SCANS_COMPONENTS", "SCAN_ID");
+                    deleteInBatches(connection, "BOM", ids, batchSize, batchDeleted, "BOMS_COMPONENTS", "BOM_ID");
+                    deleteInBatches(connection, "PROJECT_PROPERTY", ids, batchSize, batchDeleted);
+                    batchDeleted.accept(executeUpdate(connection, "DELETE FROM \"PROJECTS_TAGS\" WHERE \"PROJECT_ID\" IN (" + ids + ")")
+                            + executeUpdate(connection, "DELETE FROM \"NOTIFICATIONRULE_PROJECTS\" WHERE \"PROJECT_ID\" IN (" + ids + ")"));
+                    connection.commit();
+                }
+                // Children reference their parent, therefore the deepest level is deleted first
+                for (int i = hierarchy.size() - 1; i >= 0; i--) {
+                    for (final List<Long> chunk: partition(new ArrayList<>(hierarchy.get(i).keySet()), PROJECT_ID_CHUNK_SIZE)) {
+                        batchDeleted.accept(executeUpdate(connection, "DELETE FROM \"PROJECT\" WHERE \"ID\" IN (" + StringUtils.join(chunk, ", ") + ")"));
+                        connection.commit();
+                    }
+                }
+                // The projects and their notification rule associations have been deleted behind
+                // the back of the persistence layer
+                pm.getPersistenceManagerFactory().getDataStoreCache().evictAll(false, Project.class);
+                pm.getPersistenceManagerFactory().getDataStoreCache().evictAll(false, NotificationRule.class);
+                EntityCache.getInstance().invalidate(Project.class);
+                EntityCache.getInstance().invalidate(NotificationRule.class);
+                return deleted[0];
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } finally {
+            jdoConnection.close();
+        }
+    }
+
+    /**
+     * Deletes the rows of a table referencing the specified projects in batches. Rows of a
+     * dependant table referencing the deleted rows are deleted first.
+     * @param connection the connection to use
+     * @param table the table having a PROJECT_ID column
+     * @param projectIds the comma separated IDs of the projects
+     * @param batchSize the maximum number of rows deleted per transaction
+     * @param batchDeleted receives the number of rows deleted by each batch
+     * @param dependant optionally, the name of a dependant table and its column referencing the table
+     */
+    private void deleteInBatches(Connection connection, String table, String projectIds, int batchSize,
+                                 Consumer<Integer> batchDeleted, String... dependant) throws SQLException {
+        final String select = "SELECT \"ID\" FROM \"" + table + "\" WHERE \"PROJECT_ID\" IN (" + projectIds + ")";
+        while (true) {
+            final List<Long> batch = new ArrayList<>();
+            try (Statement stmt = connection.createStatement()) {
+                stmt.setMaxRows(batchSize);
+                try (ResultSet rs = stmt.executeQuery(select)) {
+                    while (rs.next()) {
+                        batch.add(rs.getLong(1));
+                    }
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
             }
+            final String ids = StringUtils.join(batch, ", ");
+            int count = 0;
+            if (dependant.length == 2) {
+                count += executeUpdate(connection, "DELETE FROM \"" + dependant[0] + "\" WHERE \"" + dependant[1] + "\" IN (" + ids + ")");
+            }
+            count += executeUpdate(connection, "DELETE FROM \"" + table + "\" WHERE \"ID\" IN (" + ids + ")");
+            connection.commit();
+            batchDeleted.accept(count);
         }
-        pm.getFetchPlan().setDetachmentOptions(FetchPlan.DETACH_LOAD_FIELDS);
-        final Project result = pm.getObjectById(Project.class, project.getId());
-        Event.dispatch(new IndexEvent(IndexEvent.Action.DELETE, pm.detachCopy(result)));
+    }
+
+    /**
+     * Evicts the specified objects from the level 2 cache and invalidates their lookups, after
+     * their relationships have been modified using SQL.
+     */
+    private void evict(Class<?> clazz, Collection<Long> ids) {
+        final List<Object> objectIds = new ArrayList<>();
+        for (final Long id: ids) {
+            objectIds.add(pm.newObjectIdInstance(clazz, id));
+        }
+        pm.getPersistenceManagerFactory().getDataStoreCache().evictAll(objectIds);
+        for (final Object objectId: objectIds) {
+            EntityCache.getInstance().invalidate(clazz, objectId);
+        }
+    }
 
-        deleteAnalysisTrail(project);
-        deleteMetrics(project);
-        deleteDependencies(project);
-        deleteScans(project);
-        deleteBoms(project);
-        delete(project.getProperties());
-        delete(getScans(project));
-        delete(getBoms(project));
-        delete(project.getChildren());
-        delete(project);
+    private int executeUpdate(Connection connection, String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            return stmt.executeUpdate(sql);
+        }
+    }
+
+    private static <T> List<List<T>> partition(List<T> list, int size) {
+        final List<List<T>> partitions = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += size) {
+            partitions.add(list.subList(i, Math.min(i + size, list.size())));
+        }
+        return partitions;
     }
 
     /**
@@ -379,6 +715,7 @@ public class QueryManager extends AlpineQueryManager {
         scan.setExecuted(executed);
         scan.setImported(imported);
         scan.setProject(project);
+        scan.setComponentSnapshot(SnapshotUtil.encode(Collections.emptyList()));
         return persist(scan);
     }
 
@@ -425,6 +762,7 @@ public class QueryManager extends AlpineQueryManager {
         final Bom bom = new Bom();
         bom.setImported(imported);
         bom.setProject(project);
+        bom.setComponentSnapshot(SnapshotUtil.encode(Collections.emptyList()));
         return persist(bom);
     }
 
@@ -461,6 +799,201 @@ public class QueryManager extends AlpineQueryManager {
         }
     }
 
+    /**
+     * Records the components contained in a Bom as a compact snapshot, and records the import
+     * date of the bom as the date the components were last imported.
+     * @param bom the Bom to record the components of
+     * @param componentIds the IDs of the components contained in the bom
+     * @since 3.3.0
+     */
+    public void updateComponentSnapshot(Bom bom, Collection<Long> componentIds) {
+        bom.setComponentSnapshot(SnapshotUtil.encode(componentIds));
+        persist(bom);
+        updateLastImported(componentIds, bom.getImported());
+    }
+
+    /**
+     * Records the components contained in a Scan as a compact snapshot, and records the import
+     * date of the scan as the date the components were last imported.
+     * @param scan the Scan to record the components of
+     * @param componentIds the IDs of the components contained in the scan
+     * @since 3.3.0
+     */
+    public void updateComponentSnapshot(Scan scan, Collection<Long> componentIds) {
+        scan.setComponentSnapshot(SnapshotUtil.encode(componentIds));
+        persist(scan);
+        updateLastImported(componentIds, scan.getImported());
+    }
+
+    /**
+     * Sets the date the specified components were last imported, unless they have been part
+     * of a more recent import already.
+     * @throws JDODataStoreException if the update fails
+     */
+    private void updateLastImported(Collection<Long> componentIds, Date imported) {
+        if (componentIds.isEmpty() || imported == null) {
+            return;
+        }
+        final JDOConnection jdoConnection = pm.getDataStoreConnection();
+        try {
+            final Connection connection = (Connection) jdoConnection.getNativeConnection();
+            for (final List<Long> chunk: partition(new ArrayList<>(componentIds), IDENTITY_CHUNK_SIZE)) {
+                try (PreparedStatement stmt = connection.prepareStatement("UPDATE \"COMPONENT\" SET \"LAST_IMPORTED\" = ? " +
+                        "WHERE \"ID\" IN (" + StringUtils.join(chunk, ", ") + ") " +
+                        "AND (\"LAST_IMPORTED\" IS NULL OR \"LAST_IMPORTED\" < ?)")) {
+                    stmt.setTimestamp(1, new Timestamp(imported.getTime()));
+                    stmt.setTimestamp(2, new Timestamp(imported.getTime()));
+                    stmt.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            throw new JDODataStoreException("Unable to record the import date of " + componentIds.size() + " components", e);
+        } finally {
+            jdoConnection.close();
+        }
+    }
+
+    /**
+     * Deletes all but the most recent imports of every project. Projects which define a history
+     * retention retain that number of imports, all others retain the specified default.
+     * @param clazz the type of import to prune, either Bom or Scan
+     * @param defaultRetention the number of imports to retain by default, or 0 to retain all
+     * @return the number of imports deleted
+     * @throws SQLException if a statement fails, in which case the current batch is rolled back
+     * @since 3.3.0
+     */
+    @SuppressWarnings("unchecked")
+    public long pruneImports(Class<?> clazz, int defaultRetention) throws SQLException {
+        final String[] tables = getImportTables(clazz);
+        final Map<Long, Integer> retentions = new HashMap<>();
+        final Query query = pm.newQuery(Project.class, "historyRetention != null");
+        query.setResult("id, historyRetention");
+        for (final Object[] row: (List<Object[]>) query.execute()) {
+            retentions.put((Long) row[0], (Integer) row[1]);
+        }
+        final JDOConnection jdoConnection = pm.getDataStoreConnection();
+        try {
+            final Connection connection = (Connection) jdoConnection.getNativeConnection();
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                final Map<Long, Integer> projects = new HashMap<>();
+                try (Statement stmt = connection.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT \"PROJECT_ID\", COUNT(*) FROM \"" + tables[0] + "\" GROUP BY \"PROJECT_ID\"")) {
+                    while (rs.next()) {
+                        projects.put(rs.getLong(1), rs.getInt(2));
+                    }
+                }
+                long deleted = 0;
+                for (final Map.Entry<Long, Integer> project: projects.entrySet()) {
+                    final int retention = retentions.getOrDefault(project.getKey(), defaultRetention);
+                    if (retention <= 0 || project.getValue() <= retention) {
+                        continue;
+                    }
+                    final List<Long> expired = new ArrayList<>();
+                    try (PreparedStatement stmt = connection.prepareStatement("SELECT \"ID\" FROM \"" + tables[0]
+                            + "\" WHERE \"PROJECT_ID\" = ? ORDER BY \"IMPORTED\" DESC, \"ID\" DESC")) {
+                        stmt.setLong(1, project.getKey());
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            for (int i = 0; rs.next(); i++) {
+                                if (i >= retention) {
+                                    expired.add(rs.getLong(1));
+                                }
+                            }
+                        }
+                    }
+                    for (final List<Long> chunk: partition(expired, IMPORT_ID_CHUNK_SIZE)) {
+                        final String ids = StringUtils.join(chunk, ", ");
+                        executeUpdate(connection, "DELETE FROM \"" + tables[1] + "\" WHERE \"" + tables[2] + "\" IN (" + ids + ")");
+                        deleted += executeUpdate(connection, "DELETE FROM \"" + tables[0] + "\" WHERE \"ID\" IN (" + ids + ")");
+                        connection.commit();
+                    }
+                }
+                return deleted;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } finally {
+            jdoConnection.close();
+        }
+    }
+
+    /**
+     * Migrates the bindings of a batch of imports recorded before 3.3.0 from the join table to
+     * component snapshots, and removes the migrated rows of the join table.
+     * @param clazz the type of import to migrate, either Bom or Scan
+     * @param batchSize the maximum number of imports to migrate
+     * @return the number of imports migrated, 0 once all imports have been migrated
+     * @throws SQLException if a statement fails, in which case the batch is rolled back
+     * @since 3.3.0
+     */
+    public int migrateComponentSnapshots(Class<?> clazz, int batchSize) throws SQLException {
+        final String[] tables = getImportTables(clazz);
+        final JDOConnection jdoConnection = pm.getDataStoreConnection();
+        try {
+            final Connection connection = (Connection) jdoConnection.getNativeConnection();
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                final Map<Long, List<Long>> bindings = new LinkedHashMap<>();
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.setMaxRows(batchSize);
+                    try (ResultSet rs = stmt.executeQuery("SELECT \"ID\" FROM \"" + tables[0]
+                            + "\" WHERE \"COMPONENT_SNAPSHOT\" IS NULL ORDER BY \"ID\"")) {
+                        while (rs.next()) {
+                            bindings.put(rs.getLong(1), new ArrayList<>());
+                        }
+                    }
+                }
+                if (bindings.isEmpty()) {
+                    return 0;
+                }
+                final String ids = StringUtils.join(bindings.keySet(), ", ");
+                try (Statement stmt = connection.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT \"" + tables[2] + "\", \"COMPONENT_ID\" FROM \""
+                             + tables[1] + "\" WHERE \"" + tables[2] + "\" IN (" + ids + ")")) {
+                    while (rs.next()) {
+                        bindings.get(rs.getLong(1)).add(rs.getLong(2));
+                    }
+                }
+                try (PreparedStatement stmt = connection.prepareStatement("UPDATE \"" + tables[0]
+                        + "\" SET \"COMPONENT_SNAPSHOT\" = ? WHERE \"ID\" = ?")) {
+                    for (final Map.Entry<Long, List<Long>> binding: bindings.entrySet()) {
+                        stmt.setBytes(1, SnapshotUtil.encode(binding.getValue()));
+                        stmt.setLong(2, binding.getKey());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                executeUpdate(connection, "DELETE FROM \"" + tables[1] + "\" WHERE \"" + tables[2] + "\" IN (" + ids + ")");
+                connection.commit();
+                return bindings.size();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } finally {
+            jdoConnection.close();
+        }
+    }
+
+    /**
+     * Returns the table of an import type, its join table and the column of the join table referencing it.
+     */
+    private static String[] getImportTables(Class<?> clazz) {
+        if (Bom.class == clazz) {
+            return new String[] {"BOM", "BOMS_COMPONENTS", "BOM_ID"};
+        } else if (Scan.class == clazz) {
+            return new String[] {"SCAN", "SCANS_COMPONENTS", "SCAN_ID"};
+        }
+        throw new IllegalArgumentException("Unsupported import type: " + clazz.getName());
+    }
+
     /**
      * Returns a list of all Components defined in the datastore.
      * @return a List of Components
@@ -493,28 +1026,183 @@ public class QueryManager extends AlpineQueryManager {
 
     /**
      * Returns a Component by its hash. Supports MD5, SHA-1, SHA-256, SHA-512, SHA3-256, and SHA3-512 hashes.
+     * The hash is looked up in the component identity table.
      * @param hash the hash of the component to retrieve
      * @return a Component, or null if not found
      */
-    @SuppressWarnings("unchecked")
     public Component getComponentByHash(String hash) {
-        if (hash == null) {
+        final String trimmedHash = StringUtils.trimToNull(hash);
+        if (trimmedHash == null) {
             return null;
         }
-        final Query query;
-        if (hash.length() == 32) {
-            query = pm.newQuery(Component.class, "md5 == :hash");
-        } else if (hash.length() == 40) {
-            query = pm.newQuery(Component.class, "sha1 == :hash");
-        } else if (hash.length() == 64) {
-            query = pm.newQuery(Component.class, "sha256 == :hash || sha3_256 == :hash");
-        } else if (hash.length() == 128) {
-            query = pm.newQuery(Component.class, "sha512 == :hash || sha3_512 == :hash");
-        } else {
+        final int length = trimmedHash.length();
+        if (length != 32 && length != 40 && length != 64 && length != 128) {
             return null;
         }
-        final List<Component> result = (List<Component>) query.execute(hash);
-        return result.size() == 0 ? null : result.get(0);
+        final Long componentId = getComponentIds(Collections.singleton(trimmedHash)).get(trimmedHash);
+        if (componentId == null) {
+            return null;
+        }
+        try {
+            return pm.getObjectById(Component.class, componentId);
+        } catch (JDOObjectNotFoundException e) {
+            EntityCache.getInstance().invalidate(ComponentIdentity.class, componentId);
+            return null;
+        }
+    }
+
+    /**
+     * Resolves existing components by their hashes and Package URL. The identities of all of the
+     * components are looked up at once, first in the {@link EntityCache} and then in the component
+     * identity table, and the components they identify are then fetched at once, so that resolving
+     * a BOM takes two queries per thousand identities rather than a query per hash of each
+     * component. Identities are preferred in the order of {@link ComponentIdentity.Type}.
+     * @param components the Components to resolve, typically transient
+     * @return a Map of each Component that could be resolved to the existing Component, keyed by
+     * the identity of the Components passed in
+     * @since 3.3.0
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Component, Component> resolveComponents(Collection<Component> components) {
+        final Map<Component, Map<ComponentIdentity.Type, String>> identities = new IdentityHashMap<>();
+        final Set<String> values = new HashSet<>();
+        for (final Component component: components) {
+            final Map<ComponentIdentity.Type, String> componentIdentities = ComponentIdentity.getIdentities(component);
+            identities.put(component, componentIdentities);
+            values.addAll(componentIdentities.values());
+        }
+        final Map<String, Long> componentIds = getComponentIds(values);
+        final Set<Long> distinctIds = new HashSet<>(componentIds.values());
+        final Map<Long, Component> existing = new HashMap<>();
+        for (final List<Long> chunk: partition(new ArrayList<>(distinctIds), IDENTITY_CHUNK_SIZE)) {
+            final Query query = pm.newQuery(Component.class, ":ids.contains(id)");
+            for (final Component component: (List<Component>) query.execute(chunk)) {
+                existing.put(component.getId(), component);
+            }
+        }
+        // Cached identities of components which no longer exist
+        for (final Long componentId: distinctIds) {
+            if (!existing.containsKey(componentId)) {
+                EntityCache.getInstance().invalidate(ComponentIdentity.class, componentId);
+            }
+        }
+        final Map<Component, Component> resolved = new IdentityHashMap<>();
+        for (final Map.Entry<Component, Map<ComponentIdentity.Type, String>> entry: identities.entrySet()) {
+            for (final String value: entry.getValue().values()) {
+                final Long componentId = componentIds.get(value);
+                final Component component = componentId == null ? null : existing.get(componentId);
+                if (component != null) {
+                    resolved.put(entry.getKey(), component);
+                    break;
+                }
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolves an existing component by its hashes and Package URL.
+     * @param component the Component to resolve, typically transient
+     * @return the existing Component, or null if not found
+     * @see #resolveComponents(Collection)
+     * @since 3.3.0
+     */
+    public Component resolveComponent(Component component) {
+        return resolveComponents(Collections.singletonList(component)).get(component);
+    }
+
+    /**
+     * Returns the IDs of the components identified by the specified values. Values which
+     * identify several components resolve to the oldest of them.
+     * @param values the hashes and canonical Package URLs to look up
+     * @return a Map of each value found to the ID of the Component it identifies
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> getComponentIds(Collection<String> values) {
+        final EntityCache cache = EntityCache.getInstance();
+        final long generation = cache.getGeneration(ComponentIdentity.class);
+        final Map<String, Long> result = new HashMap<>();
+        final List<String> uncached = new ArrayList<>();
+        for (final String value: values) {
+            final Long componentId = (Long) cache.get(ComponentIdentity.class, value);
+            if (componentId != null) {
+                result.put(value, componentId);
+            } else {
+                uncached.add(value);
+            }
+        }
+        for (int i = 0; i < uncached.size(); i += IDENTITY_CHUNK_SIZE) {
+            final List<String> chunk = uncached.subList(i, Math.min(i + IDENTITY_CHUNK_SIZE, uncached.size()));
+            final Query query = pm.newQuery(ComponentIdentity.class, ":values.contains(value)");
+            query.setResult("value, component.id");
+            final Map<String, Long> componentIds = new HashMap<>();
+            for (final Object[] row: (List<Object[]>) query.execute(chunk)) {
+                componentIds.merge((String) row[0], ((Number) row[1]).longValue(), Math::min);
+            }
+            for (final Map.Entry<String, Long> entry: componentIds.entrySet()) {
+                cache.put(ComponentIdentity.class, entry.getKey(), entry.getValue(), generation);
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Persists a Component together with its hashes and Package URL in the component identity
+     * table, within a single transaction. The identities previously recorded for the component
+     * are only replaced when they differ from its current ones.
+     * @param component the Component to persist
+     * @param previousIdentities the identities of the Component as last persisted, or null if
+     * the Component is new
+     * @return the persisted Component
+     * @since 3.3.0
+     */
+    public Component persistComponent(Component component, Map<ComponentIdentity.Type, String> previousIdentities) {
+        final Map<ComponentIdentity.Type, String> identities = ComponentIdentity.getIdentities(component);
+        final boolean changed = !identities.equals(previousIdentities);
+        final Transaction trx = pm.currentTransaction();
+        final Component result;
+        try {
+            trx.begin();
+            result = pm.makePersistent(component);
+            if (changed) {
+                if (previousIdentities != null) {
+                    final Query query = pm.newQuery(ComponentIdentity.class, "component == :component");
+                    query.deletePersistentAll(result);
+                }
+                final List<ComponentIdentity> newIdentities = new ArrayList<>();
+                for (final Map.Entry<ComponentIdentity.Type, String> entry: identities.entrySet()) {
+                    final ComponentIdentity identity = new ComponentIdentity();
+                    identity.setComponent(result);
+                    identity.setType(entry.getKey());
+                    identity.setValue(entry.getValue());
+                    newIdentities.add(identity);
+                }
+                pm.makePersistentAll(newIdentities);
+            }
+            trx.commit();
+        } finally {
+            if (trx.isActive()) {
+                trx.rollback();
+            }
+        }
+        if (changed && previousIdentities != null) {
+            EntityCache.getInstance().invalidate(ComponentIdentity.class, result.getId());
+        }
+        pm.getFetchPlan().setDetachmentOptions(FetchPlan.DETACH_LOAD_FIELDS);
+        pm.refresh(result);
+        return result;
+    }
+
+    /**
+     * Deletes the identities recorded for the specified Component.
+     * @param component the Component to delete the identities of
+     * @since 3.3.0
+     */
+    public void deleteComponentIdentities(Component component) {
+        final Query query = pm.newQuery(ComponentIdentity.class, "component == :component");
+        query.deletePersistentAll(component);
+        EntityCache.getInstance().invalidate(ComponentIdentity.class, component.getId());
     }
 
     /**
@@ -527,10 +1215,29 @@ public class QueryManager extends AlpineQueryManager {
     @SuppressWarnings("unchecked")
     public Component getComponentByAttributes(String group, String name, String version) {
         final Query query = pm.newQuery(Component.class, "group == :group && name == :name && version == :version");
+        query.setRange(0, 1);
         final List<Component> result = (List<Component>) query.execute(group, name, version);
         return result.size() == 0 ? null : result.get(0);
     }
 
+    /**
+     * Returns all Components having the same coordinates (type, namespace, name and version)
+     * as the specified PackageURL, regardless of qualifiers and subpath.
+     * @param purl the PackageURL to match
+     * @return a List of Components, ordered by ID
+     * @since 3.3.0
+     */
+    @SuppressWarnings("unchecked")
+    public List<Component> getComponentsByPurlCoordinates(PackageURL purl) {
+        final String coordinates = PurlUtil.getCoordinates(purl);
+        if (coordinates == null) {
+            return new ArrayList<>();
+        }
+        final Query query = pm.newQuery(Component.class, "purlCoordinates == :coordinates");
+        query.setOrdering("id asc");
+        return (List<Component>) query.execute(coordinates);
+    }
+
     /**
      * Creates a new Component.
      * @param component the Component to persist
@@ -538,8 +1245,8 @@ public class QueryManager extends AlpineQueryManager {
      * @return a new Component
      */
     public Component createComponent(Component component, boolean commitIndex) {
-        final Component result = persist(component);
-        Event.dispatch(new IndexEvent(IndexEvent.Action.CREATE, pm.detachCopy(result)));
+        final Component result = persistComponent(component, null);
+        EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.CREATE, pm.detachCopy(result)));
         commitSearchIndex(commitIndex, Component.class);
         return result;
     }
@@ -552,6 +1259,7 @@ public class QueryManager extends AlpineQueryManager {
      */
     public Component updateComponent(Component transientComponent, boolean commitIndex) {
         final Component component = getObjectByUuid(Component.class, transientComponent.getUuid());
+        final Map<ComponentIdentity.Type, String> previousIdentities = ComponentIdentity.getIdentities(component);
         component.setName(transientComponent.getName());
         component.setVersion(transientComponent.getVersion());
         component.setGroup(transientComponent.getGroup());
@@ -569,8 +1277,8 @@ public class QueryManager extends AlpineQueryManager {
         component.setParent(transientComponent.getParent());
         component.setCpe(transientComponent.getCpe());
         component.setPurl(transientComponent.getPurl());
-        final Component result = persist(component);
-        Event.dispatch(new IndexEvent(IndexEvent.Action.UPDATE, pm.detachCopy(result)));
+        final Component result = persistComponent(component, previousIdentities);
+        EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.UPDATE, pm.detachCopy(result)));
         commitSearchIndex(commitIndex, Component.class);
         return result;
     }
@@ -588,17 +1296,133 @@ public class QueryManager extends AlpineQueryManager {
         }
         pm.getFetchPlan().setDetachmentOptions(FetchPlan.DETACH_LOAD_FIELDS);
         final Component result = pm.getObjectById(Component.class, component.getId());
-        Event.dispatch(new IndexEvent(IndexEvent.Action.DELETE, pm.detachCopy(result)));
+        EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.DELETE, pm.detachCopy(result)));
 
         deleteAnalysisTrail(component);
         deleteMetrics(component);
         deleteDependencies(component);
         deleteScans(component);
         deleteBoms(component);
+        deleteComponentIdentities(component);
         delete(component);
         commitSearchIndex(commitIndex, Component.class);
     }
 
+    /**
+     * Returns components which are no longer in use: components which have been part of a BOM or
+     * scan, but not of one imported on or after the cutoff, and which are not a dependency of any
+     * project and have no analysis decisions and no children. Components which have never been
+     * imported, such as those created through the API, are never considered orphaned. The
+     * components are returned ordered by ID, with only the ID, UUID, group, name and version populated.
+     * @param cutoff components last imported on or after this date are retained
+     * @param afterId only components with an ID greater than this are returned
+     * @param limit the maximum number of components to return
+     * @return a List of transient Component objects
+     * @throws SQLException if the query fails
+     * @since 3.3.0
+     */
+    public List<Component> getOrphanedComponents(Date cutoff, long afterId, int limit) throws SQLException {
+        final String sql = "SELECT \"ID\", \"UUID\", \"GROUP\", \"NAME\", \"VERSION\" FROM \"COMPONENT\" " +
+                "WHERE \"ID\" > ? AND " + ORPHANED_COMPONENT_CONDITION + " ORDER BY \"ID\"";
+        final List<Component> components = new ArrayList<>();
+        final JDOConnection jdoConnection = pm.getDataStoreConnection();
+        try {
+            final Connection connection = (Connection) jdoConnection.getNativeConnection();
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setMaxRows(limit);
+                stmt.setLong(1, afterId);
+                stmt.setTimestamp(2, new Timestamp(cutoff.getTime()));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        final Component component = new Component();
+                        component.setId(rs.getLong(1));
+                        component.setUuid(UUID.fromString(rs.getString(2)));
+                        component.setGroup(rs.getString(3));
+                        component.setName(rs.getString(4));
+                        component.setVersion(rs.getString(5));
+                        components.add(component);
+                    }
+                }
+            }
+        } finally {
+            jdoConnection.close();
+        }
+        return components;
+    }
+
+    /**
+     * Deletes those of the specified components which are still orphaned (see
+     * {@link #getOrphanedComponents(Date, long, int)}) along with their evidence, metrics, and
+     * their associations with BOMs, scans and vulnerabilities in a single transaction. Components
+     * which have been put to use again since they were queried are retained.
+     * @param componentIds the IDs of the components to delete
+     * @param cutoff components last imported on or after this date are retained
+     * @return the IDs of the components deleted
+     * @throws SQLException if a statement fails, in which case nothing is deleted
+     * @since 3.3.0
+     */
+    public List<Long> deleteOrphanedComponents(List<Long> componentIds, Date cutoff) throws SQLException {
+        if (componentIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final String condition = "\"ID\" IN (" + StringUtils.join(componentIds, ", ") + ") AND " + ORPHANED_COMPONENT_CONDITION;
+        final JDOConnection jdoConnection = pm.getDataStoreConnection();
+        try {
+            final Connection connection = (Connection) jdoConnection.getNativeConnection();
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                final List<Long> orphans = new ArrayList<>();
+                try (PreparedStatement stmt = connection.prepareStatement("SELECT \"ID\" FROM \"COMPONENT\" WHERE " + condition)) {
+                    stmt.setTimestamp(1, new Timestamp(cutoff.getTime()));
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            orphans.add(rs.getLong(1));
+                        }
+                    }
+                }
+                if (orphans.isEmpty()) {
+                    connection.commit();
+                    return orphans;
+                }
+                final String ids = StringUtils.join(orphans, ", ");
+                final Set<Long> vulnerabilityIds = new HashSet<>();
+                try (Statement stmt = connection.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT DISTINCT \"VULNERABILITY_ID\" FROM \"COMPONENTS_VULNERABILITIES\" WHERE \"COMPONENT_ID\" IN (" + ids + ")")) {
+                    while (rs.next()) {
+                        vulnerabilityIds.add(rs.getLong(1));
+                    }
+                }
+                for (final String table: new String[] {"EVIDENCE", "COMPONENTMETRICS", "DEPENDENCYMETRICS",
+                        "BOMS_COMPONENTS", "SCANS_COMPONENTS", "COMPONENTS_VULNERABILITIES", "COMPONENTIDENTITY"}) {
+                    executeUpdate(connection, "DELETE FROM \"" + table + "\" WHERE \"COMPONENT_ID\" IN (" + ids + ")");
+                }
+                // Conditions are checked again, a component put to use in the meantime fails the transaction
+                try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM \"COMPONENT\" WHERE \"ID\" IN (" + ids + ") AND "
+                        + ORPHANED_COMPONENT_CONDITION)) {
+                    stmt.setTimestamp(1, new Timestamp(cutoff.getTime()));
+                    if (stmt.executeUpdate() != orphans.size()) {
+                        throw new SQLException("Components of the batch are no longer orphaned");
+                    }
+                }
+                connection.commit();
+                for (final Long componentId: orphans) {
+                    EntityCache.getInstance().invalidate(ComponentIdentity.class, componentId);
+                }
+                // The components of the vulnerabilities have been deleted behind the back of the persistence layer
+                evict(Vulnerability.class, vulnerabilityIds);
+                return orphans;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } finally {
+            jdoConnection.close();
+        }
+    }
+
     /**
      * Creates new evidence for a Component.
      * @param component the Component to create evidence for
@@ -621,6 +1445,33 @@ public class QueryManager extends AlpineQueryManager {
         return persist(evidence);
     }
 
+    /**
+     * Creates evidence for the specified Component in a single transaction, which allows the
+     * inserts to be sent to the database in JDBC statement batches.
+     * @param component the Component to create evidence for
+     * @param evidence the Evidence objects to create
+     * @param replace true to delete the existing evidence of the component, false to append
+     */
+    public void createEvidence(Component component, List<Evidence> evidence, boolean replace) {
+        final Transaction trx = pm.currentTransaction();
+        try {
+            trx.begin();
+            if (replace) {
+                final Query query = pm.newQuery(Evidence.class, "component == :component");
+                query.deletePersistentAll(component);
+            }
+            for (final Evidence e: evidence) {
+                e.setComponent(component);
+            }
+            pm.makePersistentAll(evidence);
+            trx.commit();
+        } finally {
+            if (trx.isActive()) {
+                trx.rollback();
+            }
+        }
+    }
+
     /**
      * Returns a List of all License objects.
      * @return a List of all License objects
@@ -646,9 +1497,11 @@ public class QueryManager extends AlpineQueryManager {
      */
     @SuppressWarnings("unchecked")
     public License getLicense(String licenseId) {
-        final Query query = pm.newQuery(License.class, "licenseId == :licenseId");
-        final List<License> result = (List<License>) query.execute(licenseId);
-        return result.size() == 0 ? null : result.get(0);
+        return getCachedObject(License.class, "licenseId:" + licenseId, () -> {
+            final Query query = pm.newQuery(License.class, "licenseId == :licenseId");
+            final List<License> result = (List<License>) query.execute(licenseId);
+            return result.size() == 0 ? null : result.get(0);
+        });
     }
 
     /**
@@ -659,7 +1512,7 @@ public class QueryManager extends AlpineQueryManager {
      */
     public License createLicense(License license, boolean commitIndex) {
         final License result = persist(license);
-        Event.dispatch(new IndexEvent(IndexEvent.Action.CREATE, pm.detachCopy(result)));
+        EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.CREATE, pm.detachCopy(result)));
         commitSearchIndex(commitIndex, License.class);
         return result;
     }
@@ -690,7 +1543,7 @@ public class QueryManager extends AlpineQueryManager {
             license.setSeeAlso(transientLicense.getSeeAlso());
 
             final License result = persist(license);
-            Event.dispatch(new IndexEvent(IndexEvent.Action.UPDATE, pm.detachCopy(result)));
+            EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.UPDATE, pm.detachCopy(result)));
             commitSearchIndex(commitIndex, License.class);
             return result;
         }
@@ -718,8 +1571,9 @@ public class QueryManager extends AlpineQueryManager {
      * @return a new vulnerability object
      */
     public Vulnerability createVulnerability(Vulnerability vulnerability, boolean commitIndex) {
+        vulnerability.updateEffectiveSeverity();
         final Vulnerability result = persist(vulnerability);
-        Event.dispatch(new IndexEvent(IndexEvent.Action.CREATE, pm.detachCopy(result)));
+        EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.CREATE, pm.detachCopy(result)));
         commitSearchIndex(commitIndex, Vulnerability.class);
         return result;
     }
@@ -765,8 +1619,9 @@ public class QueryManager extends AlpineQueryManager {
             vulnerability.setMatchedAllPreviousCPE(transientVulnerability.getMatchedAllPreviousCPE());
             vulnerability.setMatchedCPE(transientVulnerability.getMatchedCPE());
 
+            vulnerability.updateEffectiveSeverity();
             final Vulnerability result = persist(vulnerability);
-            Event.dispatch(new IndexEvent(IndexEvent.Action.UPDATE, pm.detachCopy(result)));
+            EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.UPDATE, pm.detachCopy(result)));
             commitSearchIndex(commitIndex, Vulnerability.class);
             return result;
         }
@@ -797,10 +1652,12 @@ public class QueryManager extends AlpineQueryManager {
      */
     @SuppressWarnings("unchecked")
     public Vulnerability getVulnerabilityByVulnId(String source, String vulnId) {
-        final Query query = pm.newQuery(Vulnerability.class, "source == :source && vulnId == :vulnId");
-        query.getFetchPlan().addGroup(Vulnerability.FetchGroup.COMPONENTS.name());
-        final List<Vulnerability> result = (List<Vulnerability>) query.execute(source, vulnId);
-        return result.size() == 0 ? null : result.get(0);
+        return getCachedObject(Vulnerability.class, "vulnId:" + source + ":" + vulnId, () -> {
+            final Query query = pm.newQuery(Vulnerability.class, "source == :source && vulnId == :vulnId");
+            query.getFetchPlan().addGroup(Vulnerability.FetchGroup.COMPONENTS.name());
+            final List<Vulnerability> result = (List<Vulnerability>) query.execute(source, vulnId);
+            return result.size() == 0 ? null : result.get(0);
+        });
     }
 
     /**
@@ -828,6 +1685,82 @@ public class QueryManager extends AlpineQueryManager {
         return (List<Vulnerability>) query.execute(Vulnerability.Source.NPM.name(), module);
     }
 
+    /**
+     * Returns the affected module and version ranges of all mirrored NPM advisories. Only the
+     * columns required for matching are retrieved so that the entire advisory database can be
+     * loaded without materializing Vulnerability objects.
+     * @return a list of Object arrays containing vulnId, subTitle, vulnerableVersions and patchedVersions
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getNpmAdvisoryRanges() {
+        final Query query = pm.newQuery(Vulnerability.class, "source == :source");
+        query.setResult("vulnId, subTitle, vulnerableVersions, patchedVersions");
+        return (List<Object[]>) query.execute(Vulnerability.Source.NPM.name());
+    }
+
+    /**
+     * Returns the CPE match criteria of the specified vulnerability.
+     * @param vulnerability the vulnerability to retrieve criteria for
+     * @return a List of VulnerableSoftware objects
+     */
+    @SuppressWarnings("unchecked")
+    public List<VulnerableSoftware> getVulnerableSoftware(Vulnerability vulnerability) {
+        final Query query = pm.newQuery(VulnerableSoftware.class, "vulnerability == :vulnerability");
+        return (List<VulnerableSoftware>) query.execute(vulnerability);
+    }
+
+    /**
+     * Replaces the CPE match criteria of the specified vulnerability in a single transaction.
+     * Existing criteria are left untouched if they are identical to the specified criteria,
+     * which is the case for the majority of vulnerabilities each time a feed is mirrored.
+     * @param vulnerability the vulnerability the criteria belong to
+     * @param vulnerableSoftware the CPE match criteria of the vulnerability
+     * @return true if the criteria were changed, false if not
+     */
+    public boolean synchronizeVulnerableSoftware(Vulnerability vulnerability, List<VulnerableSoftware> vulnerableSoftware) {
+        final List<VulnerableSoftware> existing = getVulnerableSoftware(vulnerability);
+        final Set<String> existingKeys = existing.stream().map(this::getVulnerableSoftwareKey).collect(Collectors.toSet());
+        final Set<String> keys = vulnerableSoftware.stream().map(this::getVulnerableSoftwareKey).collect(Collectors.toSet());
+        if (existing.size() == vulnerableSoftware.size() && existingKeys.equals(keys)) {
+            return false;
+        }
+        final Transaction trx = pm.currentTransaction();
+        try {
+            trx.begin();
+            pm.deletePersistentAll(existing);
+            for (final VulnerableSoftware vs: vulnerableSoftware) {
+                vs.setVulnerability(vulnerability);
+            }
+            pm.makePersistentAll(vulnerableSoftware);
+            trx.commit();
+        } finally {
+            if (trx.isActive()) {
+                trx.rollback();
+            }
+        }
+        return true;
+    }
+
+    private String getVulnerableSoftwareKey(VulnerableSoftware vs) {
+        return String.join("|", vs.getCpe23(), String.valueOf(vs.getVersionStartIncluding()),
+                String.valueOf(vs.getVersionStartExcluding()), String.valueOf(vs.getVersionEndIncluding()),
+                String.valueOf(vs.getVersionEndExcluding()));
+    }
+
+    /**
+     * Returns the CPE match criteria of all vulnerabilities. Only the columns required for
+     * matching are retrieved so that all criteria can be loaded without materializing objects.
+     * @return a list of Object arrays containing the vulnerability id, vendor, product, version,
+     * versionStartIncluding, versionStartExcluding, versionEndIncluding and versionEndExcluding
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getVulnerableSoftwareRanges() {
+        final Query query = pm.newQuery(VulnerableSoftware.class);
+        query.setResult("vulnerability.id, vendor, product, version, versionStartIncluding, "
+                + "versionStartExcluding, versionEndIncluding, versionEndExcluding");
+        return (List<Object[]>) query.execute();
+    }
+
     /**
      * Adds a vulnerability to a component.
      * @param vulnerability the vulnerabillity to add
@@ -905,9 +1838,11 @@ public class QueryManager extends AlpineQueryManager {
      */
     @SuppressWarnings("unchecked")
     public Cwe getCweById(int cweId) {
-        final Query query = pm.newQuery(Cwe.class, "cweId == :cweId");
-        final List<Cwe> result = (List<Cwe>) query.execute(cweId);
-        return result.size() == 0 ? null : result.get(0);
+        return getCachedObject(Cwe.class, "cweId:" + cweId, () -> {
+            final Query query = pm.newQuery(Cwe.class, "cweId == :cweId");
+            final List<Cwe> result = (List<Cwe>) query.execute(cweId);
+            return result.size() == 0 ? null : result.get(0);
+        });
     }
 
     /**
@@ -1093,6 +2028,48 @@ public class QueryManager extends AlpineQueryManager {
         return (List<Dependency>)query.execute(component);
     }
 
+    /**
+     * Returns a List of Dependency on components affected by the specified Vulnerability.
+     * @param vulnerability the Vulnerability to query on
+     * @return a List of Dependency objects
+     */
+    @SuppressWarnings("unchecked")
+    public List<Dependency> getAllDependencies(Vulnerability vulnerability) {
+        final Query query = pm.newQuery(Dependency.class, "component.vulnerabilities.contains(:vulnerability)");
+        query.setOrdering("id asc");
+        query.getFetchPlan().addGroup(Dependency.FetchGroup.ALL.name());
+        return (List<Dependency>)query.execute(vulnerability);
+    }
+
+    /**
+     * Returns the dependencies of the specified projects which are either one of the specified
+     * dependencies or on one of the specified components.
+     * @param projectIds the object IDs of the projects
+     * @param dependencyIds the object IDs of dependencies
+     * @param componentIds the object IDs of components
+     * @return a List of rows containing the object IDs of the dependency, its project and its component
+     * @since 3.3.0
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getDependencyIds(Collection<Long> projectIds, Collection<Long> dependencyIds, Collection<Long> componentIds) {
+        final List<Object[]> rows = new ArrayList<>();
+        if (projectIds.isEmpty()) {
+            return rows;
+        }
+        final List<Long> projects = new ArrayList<>(projectIds);
+        for (final List<Long> chunk: partition(new ArrayList<>(dependencyIds), IDENTITY_CHUNK_SIZE)) {
+            final Query query = pm.newQuery(Dependency.class, ":projects.contains(project.id) && :dependencies.contains(id)");
+            query.setResult("id, project.id, component.id");
+            rows.addAll((List<Object[]>) query.execute(projects, chunk));
+        }
+        for (final List<Long> chunk: partition(new ArrayList<>(componentIds), IDENTITY_CHUNK_SIZE)) {
+            final Query query = pm.newQuery(Dependency.class, ":projects.contains(project.id) && :components.contains(component.id)");
+            query.setResult("id, project.id, component.id");
+            rows.addAll((List<Object[]>) query.execute(projects, chunk));
+        }
+        return rows;
+    }
+
     /**
      * Deletes all dependencies for the specified Project.
      * @param project the Project to delete dependencies of
@@ -1377,6 +2354,49 @@ public class QueryManager extends AlpineQueryManager {
         return generateExcludeSuppressed(null, component);
     }
 
+    /**
+     * Returns the number of non-suppressed vulnerabilities of the specified Component, grouped by severity.
+     * The counts are calculated by the database using the persisted effective severity.
+     * @param component the Component to count vulnerabilities of
+     * @return a Map of Severity to number of vulnerabilities
+     */
+    public Map<Severity, Long> getVulnerabilityCountsBySeverity(Component component) {
+        return getVulnerabilityCountsBySeverity("components.contains(:component)" + generateExcludeSuppressed(component), component);
+    }
+
+    /**
+     * Returns the number of non-suppressed vulnerabilities of the specified Dependency, grouped by severity.
+     * The counts are calculated by the database using the persisted effective severity.
+     * @param dependency the Dependency to count vulnerabilities of
+     * @return a Map of Severity to number of vulnerabilities
+     */
+    public Map<Severity, Long> getVulnerabilityCountsBySeverity(Dependency dependency) {
+        final String filter = "components.contains(:component)" + generateExcludeSuppressed(
+                dependency.getProject(), dependency.getComponent()
+        );
+        return getVulnerabilityCountsBySeverity(filter, dependency.getComponent());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Severity, Long> getVulnerabilityCountsBySeverity(String filter, Component component) {
+        final Map<Severity, Long> counts = new EnumMap<>(Severity.class);
+        final Query query = pm.newQuery(Vulnerability.class, filter);
+        query.setResult("effectiveSeverity, count(this)");
+        query.setGrouping("effectiveSeverity");
+        for (Object[] row: (List<Object[]>) query.execute(component)) {
+            if (row[0] != null) {
+                counts.merge((Severity) row[0], (Long) row[1], Long::sum);
+            } else {
+                // The effective severity has not been persisted yet. Fallback to calculating it
+                final Query nullQuery = pm.newQuery(Vulnerability.class, "(" + filter + ") && effectiveSeverity == null");
+                for (Vulnerability vulnerability: (List<Vulnerability>) nullQuery.execute(component)) {
+                    counts.merge(vulnerability.getSeverity(), 1L, Long::sum);
+                }
+            }
+        }
+        return counts;
+    }
+
     /**
      * Generates partial JDOQL statement excluding suppressed vulnerabilities for this project.
      * @param project the project to query on
@@ -1499,6 +2519,120 @@ public class QueryManager extends AlpineQueryManager {
         return persist(analysisComment);
     }
 
+    /**
+     * Returns the objects with the specified UUIDs, resolved with one query per chunk of UUIDs.
+     * @param clazz the class of the objects
+     * @param uuids the UUIDs of the objects
+     * @param <T> the type of the objects
+     * @return a List of the objects found, in no particular order
+     * @since 3.3.0
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getObjectsByUuid(Class<T> clazz, Collection<UUID> uuids) {
+        final List<T> objects = new ArrayList<>();
+        for (final List<UUID> chunk: partition(new ArrayList<>(new LinkedHashSet<>(uuids)), IDENTITY_CHUNK_SIZE)) {
+            final Query query = pm.newQuery(clazz, ":uuids.contains(uuid)");
+            objects.addAll((List<T>) query.execute(chunk));
+        }
+        return objects;
+    }
+
+    /**
+     * Applies an analysis decision to many findings at once. Existing analyses of the findings are
+     * resolved with one query per chunk of components and vulnerabilities rather than one per finding,
+     * and all changes to the analyses and their comment trails are written in a single transaction.
+     * A change of state and a change of suppression are each recorded in the trail.
+     * @param targets transient Analysis objects identifying the project (null for global), component and vulnerability
+     * @param analysisState the analysis state to apply, or null to leave the state unchanged
+     * @param isSuppressed the suppression to apply, or null to leave the suppression unchanged
+     * @param comment an optional comment to add to the trail of every analysis
+     * @param commenter the name of the principal who made the decision
+     * @param stateChanged receives the Analysis objects whose state changed, including new analyses
+     * @return a List of the Analysis objects whose state or suppression changed
+     */
+    @SuppressWarnings("unchecked")
+    public List<Analysis> makeAnalyses(List<Analysis> targets, AnalysisState analysisState, Boolean isSuppressed,
+                                       String comment, String commenter, List<Analysis> stateChanged) {
+        final Set<Long> componentIds = new LinkedHashSet<>();
+        final Set<Long> vulnerabilityIds = new LinkedHashSet<>();
+        for (final Analysis target: targets) {
+            componentIds.add(target.getComponent().getId());
+            vulnerabilityIds.add(target.getVulnerability().getId());
+        }
+        final Map<String, Analysis> analyses = new HashMap<>();
+        for (final List<Long> components: partition(new ArrayList<>(componentIds), IDENTITY_CHUNK_SIZE)) {
+            for (final List<Long> vulnerabilities: partition(new ArrayList<>(vulnerabilityIds), IDENTITY_CHUNK_SIZE)) {
+                final Query query = pm.newQuery(Analysis.class, ":components.contains(component.id) && :vulnerabilities.contains(vulnerability.id)");
+                for (final Analysis analysis: (List<Analysis>) query.execute(components, vulnerabilities)) {
+                    analyses.put(getAnalysisKey(analysis), analysis);
+                }
+            }
+        }
+        final List<Analysis> changed = new ArrayList<>();
+        final Set<String> processed = new HashSet<>();
+        final Date timestamp = new Date();
+        final Transaction trx = pm.currentTransaction();
+        try {
+            trx.begin();
+            for (final Analysis target: targets) {
+                final String key = getAnalysisKey(target);
+                if (!processed.add(key)) {
+                    continue;
+                }
+                final List<String> trail = new ArrayList<>();
+                Analysis analysis = analyses.get(key);
+                final boolean created = (analysis == null);
+                if (created) {
+                    analysis = target;
+                    analysis.setAnalysisState(AnalysisState.NOT_SET);
+                    analysis = pm.makePersistent(analysis);
+                }
+                boolean change = created;
+                boolean stateChange = created;
+                if (analysisState != null && analysis.getAnalysisState() != analysisState) {
+                    trail.add(analysis.getAnalysisState().name() + " → " + analysisState.name());
+                    analysis.setAnalysisState(analysisState);
+                    change = true;
+                    stateChange = true;
+                }
+                // The suppression is recorded separately, as it may change along with the state
+                if (isSuppressed != null && analysis.isSuppressed() != isSuppressed) {
+                    trail.add((isSuppressed) ? "Suppressed" : "Unsuppressed");
+                    analysis.setSuppressed(isSuppressed);
+                    change = true;
+                }
+                if (stateChange) {
+                    stateChanged.add(analysis);
+                }
+                if (comment != null) {
+                    trail.add(comment);
+                }
+                for (final String message: trail) {
+                    final AnalysisComment analysisComment = new AnalysisComment();
+                    analysisComment.setAnalysis(analysis);
+                    analysisComment.setTimestamp(timestamp);
+                    analysisComment.setComment(message);
+                    analysisComment.setCommenter(commenter);
+                    pm.makePersistent(analysisComment);
+                }
+                if (change) {
+                    changed.add(analysis);
+                }
+            }
+            trx.commit();
+        } finally {
+            if (trx.isActive()) {
+                trx.rollback();
+            }
+        }
+        return changed;
+    }
+
+    private String getAnalysisKey(Analysis analysis) {
+        final long projectId = (analysis.getProject() != null) ? analysis.getProject().getId() : 0;
+        return projectId + ":" + analysis.getComponent().getId() + ":" + analysis.getVulnerability().getId();
+    }
+
     /**
      * Deleted all analysis and comments associated for the specified Component.
      * @param component the Component to delete analysis for
@@ -1527,13 +2661,17 @@ public class QueryManager extends AlpineQueryManager {
         Query query = pm.newQuery(JDOQuery.SQL_QUERY_LANGUAGE, Finding.QUERY);
         query.setParameters(project.getId());
         List<Object[]> list = query.executeList();
+        // Globally suppressed findings are resolved at once rather than looked up for every finding
+        final Query suppressedQuery = pm.newQuery(Analysis.class, "project == null && suppressed == true");
+        suppressedQuery.setResult("component.uuid, vulnerability.uuid");
+        final Set<String> suppressed = new HashSet<>();
+        for (final Object[] row: (List<Object[]>) suppressedQuery.execute()) {
+            suppressed.add(row[0] + ":" + row[1]);
+        }
         List<Finding> findings = new ArrayList<>();
         for (Object[] o: list) {
             Finding finding = new Finding(o);
-            Component component = getObjectByUuid(Component.class, (String)finding.getComponentUuid());
-            Vulnerability vulnerability = getObjectByUuid(Vulnerability.class, (String)finding.getVulnUuid());
-            Analysis analysis = getAnalysis(null, component, vulnerability);
-            if (analysis == null || !analysis.isSuppressed()) { // do not add globally suppressed findings
+            if (!suppressed.contains(finding.getComponentUuid() + ":" + finding.getVulnUuid())) { // do not add globally suppressed findings
                 findings.add(finding);
             }
         }
@@ -1559,7 +2697,8 @@ public class QueryManager extends AlpineQueryManager {
     public PortfolioMetrics getMostRecentPortfolioMetrics() {
         final Query query = pm.newQuery(PortfolioMetrics.class);
         query.setOrdering("lastOccurrence desc");
-        final List<PortfolioMetrics> result = execute(query).getList(PortfolioMetrics.class);
+        query.setRange(0, 1);
+        final List<PortfolioMetrics> result = (List<PortfolioMetrics>) query.execute();
         return result.size() == 0 ? null : result.get(0);
     }
 
@@ -1594,7 +2733,8 @@ public class QueryManager extends AlpineQueryManager {
     public ProjectMetrics getMostRecentProjectMetrics(Project project) {
         final Query query = pm.newQuery(ProjectMetrics.class, "project == :project");
         query.setOrdering("lastOccurrence desc");
-        final List<ProjectMetrics> result = execute(query, project).getList(ProjectMetrics.class);
+        query.setRange(0, 1);
+        final List<ProjectMetrics> result = (List<ProjectMetrics>) query.execute(project);
         return result.size() == 0 ? null : result.get(0);
     }
 
@@ -1621,6 +2761,123 @@ public class QueryManager extends AlpineQueryManager {
         return (List<ProjectMetrics>)query.execute(project, since);
     }
 
+    /**
+     * Retrieves PortfolioMetrics since the specified date, downsampled into buckets of the specified
+     * size. The aggregation is performed by the database.
+     * @param since the Date to start retrieving metrics from
+     * @param bucket the size of the buckets
+     * @param aggregate the function used to aggregate metrics within a bucket
+     * @return a MetricsSeries
+     */
+    public MetricsSeries getPortfolioMetricsSeries(Date since, MetricsSeries.Bucket bucket, MetricsSeries.Aggregate aggregate) {
+        final MetricsSeries series = new MetricsSeries("portfolio", PORTFOLIO_SERIES_COLUMNS, aggregate);
+        for (final Object[] row: getMetricsSeriesRows(PortfolioMetrics.class, "lastOccurrence >= :since",
+                null, PORTFOLIO_SERIES_COLUMNS, bucket, aggregate, since)) {
+            addToMetricsSeries(series, row, 0, bucket);
+        }
+        return series;
+    }
+
+    /**
+     * Retrieves ProjectMetrics of the specified projects since the specified date, downsampled into
+     * buckets of the specified size. All projects are aggregated by the database in a single query.
+     * @param projects the Projects to retrieve metrics for
+     * @param since the Date to start retrieving metrics from
+     * @param bucket the size of the buckets
+     * @param aggregate the function used to aggregate metrics within a bucket
+     * @return a List of MetricsSeries, one per project, in the order of the specified projects
+     */
+    public List<MetricsSeries> getProjectMetricsSeries(List<Project> projects, Date since,
+                                                       MetricsSeries.Bucket bucket, MetricsSeries.Aggregate aggregate) {
+        final Map<Long, MetricsSeries> seriesById = new LinkedHashMap<>();
+        for (final Project project: projects) {
+            seriesById.put(project.getId(), new MetricsSeries(project.getUuid().toString(), PROJECT_SERIES_COLUMNS, aggregate));
+        }
+        if (projects.isEmpty()) {
+            return new ArrayList<>();
+        }
+        for (final Object[] row: getMetricsSeriesRows(ProjectMetrics.class, ":projects.contains(project) && lastOccurrence >= :since",
+                "project.id", PROJECT_SERIES_COLUMNS, bucket, aggregate, projects, since)) {
+            final MetricsSeries series = seriesById.get(((Number) row[0]).longValue());
+            if (series != null) {
+                addToMetricsSeries(series, row, 1, bucket);
+            }
+        }
+        return new ArrayList<>(seriesById.values());
+    }
+
+    /**
+     * Returns a cheap fingerprint of the PortfolioMetrics since the specified date. The fingerprint
+     * changes whenever metrics are recorded, extended or compacted.
+     * @param since the Date to start from
+     * @return a fingerprint
+     */
+    public String getPortfolioMetricsFingerprint(Date since) {
+        return getMetricsFingerprint(PortfolioMetrics.class, "lastOccurrence >= :since", since);
+    }
+
+    /**
+     * Returns a cheap fingerprint of the ProjectMetrics of the specified projects since the specified
+     * date. The fingerprint changes whenever metrics are recorded, extended or compacted.
+     * @param projects the Projects
+     * @param since the Date to start from
+     * @return a fingerprint
+     */
+    public String getProjectMetricsFingerprint(List<Project> projects, Date since) {
+        if (projects.isEmpty()) {
+            return "0:0";
+        }
+        return getMetricsFingerprint(ProjectMetrics.class, ":projects.contains(project) && lastOccurrence >= :since", projects, since);
+    }
+
+    private String getMetricsFingerprint(Class<?> clazz, String filter, Object... parameters) {
+        final Query query = pm.newQuery(clazz, filter);
+        query.setResult("count(this), max(lastOccurrence)");
+        final Object[] result = (Object[]) query.executeWithArray(parameters);
+        final Date last = (Date) result[1];
+        return result[0] + ":" + ((last != null) ? last.getTime() : 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> getMetricsSeriesRows(Class<?> clazz, String filter, String subject, List<String> columns,
+                                                MetricsSeries.Bucket bucket, MetricsSeries.Aggregate aggregate,
+                                                Object... parameters) {
+        // Weeks are not portable across datastores, so they are grouped by day and folded by MetricsSeries
+        final List<String> grouping = new ArrayList<>();
+        if (subject != null) {
+            grouping.add(subject);
+        }
+        grouping.addAll(Arrays.asList("lastOccurrence.getYear()", "lastOccurrence.getMonth()", "lastOccurrence.getDay()"));
+        if (bucket == MetricsSeries.Bucket.HOUR) {
+            grouping.add("lastOccurrence.getHour()");
+        }
+        final List<String> result = new ArrayList<>(grouping);
+        result.add("count(this)");
+        for (final String column: columns) {
+            result.add(aggregate.of(column));
+        }
+        final Query query = pm.newQuery(clazz, filter);
+        query.setResult(String.join(", ", result));
+        query.setGrouping(String.join(", ", grouping));
+        query.setOrdering(grouping.stream().map(expression -> expression + " asc").collect(Collectors.joining(", ")));
+        return (List<Object[]>) query.executeWithArray(parameters);
+    }
+
+    private void addToMetricsSeries(MetricsSeries series, Object[] row, int offset, MetricsSeries.Bucket bucket) {
+        final boolean hourly = bucket == MetricsSeries.Bucket.HOUR;
+        final long timestamp = bucket.start(
+                ((Number) row[offset]).intValue(),
+                ((Number) row[offset + 1]).intValue(),
+                ((Number) row[offset + 2]).intValue(),
+                hourly ? ((Number) row[offset + 3]).intValue() : 0);
+        final int countIndex = offset + (hourly ? 4 : 3);
+        final Number[] values = new Number[row.length - countIndex - 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (Number) row[countIndex + 1 + i];
+        }
+        series.add(timestamp, ((Number) row[countIndex]).longValue(), values);
+    }
+
     /**
      * Retrieves the most recent ComponentMetrics.
      * @param component the Component to retrieve metrics for
@@ -1630,7 +2887,8 @@ public class QueryManager extends AlpineQueryManager {
     public ComponentMetrics getMostRecentComponentMetrics(Component component) {
         final Query query = pm.newQuery(ComponentMetrics.class, "component == :component");
         query.setOrdering("lastOccurrence desc");
-        final List<ComponentMetrics> result = execute(query, component).getList(ComponentMetrics.class);
+        query.setRange(0, 1);
+        final List<ComponentMetrics> result = (List<ComponentMetrics>) query.execute(component);
         return result.size() == 0 ? null : result.get(0);
     }
 
@@ -1666,7 +2924,8 @@ public class QueryManager extends AlpineQueryManager {
     public DependencyMetrics getMostRecentDependencyMetrics(Dependency dependency) {
         final Query query = pm.newQuery(DependencyMetrics.class, "project == :project && component == :component");
         query.setOrdering("lastOccurrence desc");
-        final List<DependencyMetrics> result = execute(query, dependency.getProject(), dependency.getComponent()).getList(DependencyMetrics.class);
+        query.setRange(0, 1);
+        final List<DependencyMetrics> result = (List<DependencyMetrics>) query.execute(dependency.getProject(), dependency.getComponent());
         return result.size() == 0 ? null : result.get(0);
     }
 
@@ -1693,6 +2952,134 @@ public class QueryManager extends AlpineQueryManager {
         return (List<DependencyMetrics>)query.execute(dependency.getProject(), dependency.getComponent(), since);
     }
 
+    /**
+     * Returns the date of the oldest metrics record of the specified type.
+     * @param clazz the type of metrics (PortfolioMetrics, ProjectMetrics, ComponentMetrics, or DependencyMetrics)
+     * @return the oldest lastOccurrence, or null if no metrics exist
+     */
+    public Date getOldestMetricsOccurrence(Class<?> clazz) {
+        final Query query = pm.newQuery(clazz);
+        query.setResult("min(lastOccurrence)");
+        return (Date) query.execute();
+    }
+
+    /**
+     * Compacts PortfolioMetrics last occurring within the specified period.
+     * @see #compactMetrics(Class, String, Function, Function, BiConsumer, Date, Date, int)
+     */
+    public long compactPortfolioMetrics(Date start, Date end, int batchSize) {
+        return compactMetrics(PortfolioMetrics.class, null, m -> "portfolio",
+                PortfolioMetrics::getFirstOccurrence, PortfolioMetrics::setFirstOccurrence, start, end, batchSize);
+    }
+
+    /**
+     * Compacts ProjectMetrics last occurring within the specified period.
+     * @see #compactMetrics(Class, String, Function, Function, BiConsumer, Date, Date, int)
+     */
+    public long compactProjectMetrics(Date start, Date end, int batchSize) {
+        return compactMetrics(ProjectMetrics.class, "project.id asc", m -> m.getProject().getId(),
+                ProjectMetrics::getFirstOccurrence, ProjectMetrics::setFirstOccurrence, start, end, batchSize);
+    }
+
+    /**
+     * Compacts ComponentMetrics last occurring within the specified period.
+     * @see #compactMetrics(Class, String, Function, Function, BiConsumer, Date, Date, int)
+     */
+    public long compactComponentMetrics(Date start, Date end, int batchSize) {
+        return compactMetrics(ComponentMetrics.class, "component.id asc", m -> m.getComponent().getId(),
+                ComponentMetrics::getFirstOccurrence, ComponentMetrics::setFirstOccurrence, start, end, batchSize);
+    }
+
+    /**
+     * Compacts DependencyMetrics last occurring within the specified period.
+     * @see #compactMetrics(Class, String, Function, Function, BiConsumer, Date, Date, int)
+     */
+    public long compactDependencyMetrics(Date start, Date end, int batchSize) {
+        return compactMetrics(DependencyMetrics.class, "project.id asc, component.id asc", m -> m.getProject().getId() + ":" + m.getComponent().getId(),
+                DependencyMetrics::getFirstOccurrence, DependencyMetrics::setFirstOccurrence, start, end, batchSize);
+    }
+
+    /**
+     * Compacts metrics last occurring within the specified period, so that a single record
+     * remains per measured object. The remaining record is the most recent one (holding the
+     * counters as they were at the end of the period) and is extended to begin at the first
+     * occurrence of the records it replaces. Records are processed in batches, each in its
+     * own transaction, so that tables are never locked for long.
+     * @param clazz the type of metrics
+     * @param objectOrdering the ordering which groups records of the same measured object
+     * @param objectKey returns a key identifying the measured object of a record
+     * @param firstOccurrence returns the first occurrence of a record
+     * @param setFirstOccurrence sets the first occurrence of a record
+     * @param start the start of the period (inclusive)
+     * @param end the end of the period (exclusive)
+     * @param batchSize the maximum number of records processed per transaction
+     * @return the number of records removed
+     */
+    @SuppressWarnings("unchecked")
+    private <T> long compactMetrics(Class<T> clazz, String objectOrdering, Function<T, Object> objectKey,
+                                    Function<T, Date> firstOccurrence, BiConsumer<T, Date> setFirstOccurrence,
+                                    Date start, Date end, int batchSize) {
+        // At least two records are required per batch to make progress on a single object
+        final int limit = Math.max(2, batchSize);
+        long removed = 0;
+        long offset = 0;
+        while (true) {
+            final Query query = pm.newQuery(clazz, "lastOccurrence >= :start && lastOccurrence < :end");
+            query.setOrdering((objectOrdering != null ? objectOrdering + ", " : "") + "lastOccurrence asc, id asc");
+            query.setRange(offset, offset + limit);
+            final List<T> batch = new ArrayList<>((List<T>) query.execute(start, end));
+            if (batch.isEmpty()) {
+                return removed;
+            }
+            // Group the records of each measured object. As the batch may end part way through
+            // the records of an object, the last group is left for the next batch (unless it is
+            // the only one).
+            final List<List<T>> groups = new ArrayList<>();
+            Object previousKey = null;
+            for (T metrics: batch) {
+                final Object key = objectKey.apply(metrics);
+                if (groups.isEmpty() || !key.equals(previousKey)) {
+                    groups.add(new ArrayList<>());
+                }
+                groups.get(groups.size() - 1).add(metrics);
+                previousKey = key;
+            }
+            final boolean lastBatch = batch.size() < limit;
+            if (!lastBatch && groups.size() > 1) {
+                groups.remove(groups.size() - 1);
+            }
+            final List<T> obsolete = new ArrayList<>();
+            final Transaction trx = pm.currentTransaction();
+            try {
+                trx.begin();
+                for (List<T> group: groups) {
+                    final T survivor = group.get(group.size() - 1);
+                    final Date first = firstOccurrence.apply(group.get(0));
+                    if (first.before(firstOccurrence.apply(survivor))) {
+                        setFirstOccurrence.accept(survivor, first);
+                    }
+                    obsolete.addAll(group.subList(0, group.size() - 1));
+                }
+                pm.deletePersistentAll(obsolete);
+                trx.commit();
+            } finally {
+                if (trx.isActive()) {
+                    trx.rollback();
+                }
+            }
+            removed += obsolete.size();
+            if (lastBatch) {
+                return removed;
+            }
+            if (groups.size() > 1) {
+                // The survivors of this batch remain in front of the next batch
+                offset += groups.size();
+            }
+            // Otherwise, the batch only contained (part of) the records of one object. Its survivor
+            // is compacted together with the remaining records of the object by the next batch.
+        }
+    }
+
     /**
      * Synchronizes VulnerabilityMetrics.
      */
@@ -1795,9 +3182,11 @@ public class QueryManager extends AlpineQueryManager {
      */
     @SuppressWarnings("unchecked")
     public List<Repository> getAllRepositoriesOrdered(RepositoryType type) {
-        final Query query = pm.newQuery(Repository.class, "type == :type");
-        query.setOrdering("resolutionOrder asc");
-        return (List<Repository>)query.execute(type);
+        return getCachedList(Repository.class, "ordered:" + type, () -> {
+            final Query query = pm.newQuery(Repository.class, "type == :type");
+            query.setOrdering("resolutionOrder asc");
+            return (List<Repository>) query.execute(type);
+        });
     }
 
     /**
@@ -1842,6 +3231,17 @@ public class QueryManager extends AlpineQueryManager {
         return result.size() == 0 ? null : result.get(0);
     }
 
+    /**
+     * Returns a list of all RepositoryMetaComponent objects.
+     * This method if designed NOT to provide paginated results.
+     * @return a List of RepositoryMetaComponent objects
+     */
+    @SuppressWarnings("unchecked")
+    public List<RepositoryMetaComponent> getAllRepositoryMetaComponents() {
+        final Query query = pm.newQuery(RepositoryMetaComponent.class);
+        return (List<RepositoryMetaComponent>) query.execute();
+    }
+
     /**
      * Synchronizes a RepositoryMetaComponent, updating it if it needs updating, or creating it if it doesn't exist.
      * @param repositoryMetaComponent the RepositoryMetaComponent object to synchronize
@@ -1876,6 +3276,9 @@ public class QueryManager extends AlpineQueryManager {
             metaComponent.setLatestVersion(transientRepositoryMetaComponent.getLatestVersion());
             metaComponent.setName(transientRepositoryMetaComponent.getName());
             metaComponent.setPublished(transientRepositoryMetaComponent.getPublished());
+            metaComponent.setMetadataUrl(transientRepositoryMetaComponent.getMetadataUrl());
+            metaComponent.setEtag(transientRepositoryMetaComponent.getEtag());
+            metaComponent.setLastModified(transientRepositoryMetaComponent.getLastModified());
             return persist(metaComponent);
         }
         return null;
@@ -1931,6 +3334,31 @@ public class QueryManager extends AlpineQueryManager {
         return execute(query);
     }
 
+    /**
+     * Returns the enabled notification rules of the specified scope which apply to notifications
+     * of the specified level. A rule applies to notifications of its own or a more severe level.
+     * @param scope the scope of the notification
+     * @param level the level of the notification
+     * @return a List of NotificationRules
+     * @since 3.3.0
+     */
+    @SuppressWarnings("unchecked")
+    public List<NotificationRule> getEnabledNotificationRules(NotificationScope scope, NotificationLevel level) {
+        return getCachedList(NotificationRule.class, "enabled:" + scope + ":" + level, () -> {
+            final StringBuilder sb = new StringBuilder();
+            if (NotificationLevel.INFORMATIONAL == level) {
+                sb.append("(notificationLevel == 'INFORMATIONAL' || notificationLevel == 'WARNING' || notificationLevel == 'ERROR') && ");
+            } else if (NotificationLevel.WARNING == level) {
+                sb.append("(notificationLevel == 'WARNING' || notificationLevel == 'ERROR') && ");
+            } else if (NotificationLevel.ERROR == level) {
+                sb.append("notificationLevel == 'ERROR' && ");
+            }
+            sb.append("enabled == true && scope == :scope");
+            final Query query = pm.newQuery(NotificationRule.class, sb.toString());
+            return (List<NotificationRule>) query.execute(scope);
+        });
+    }
+
     /**
      * Retrieves all NotificationPublishers.
      * This method if designed NOT to provide paginated results.
@@ -1951,9 +3379,11 @@ public class QueryManager extends AlpineQueryManager {
      */
     @SuppressWarnings("unchecked")
     public NotificationPublisher getNotificationPublisher(final String name) {
-        final Query query = pm.newQuery(NotificationPublisher.class, "name == :name");
-        final List<NotificationPublisher> result = (List<NotificationPublisher>) query.execute(name);
-        return result.size() == 0 ? null : result.get(0);
+        return getCachedObject(NotificationPublisher.class, "name:" + name, () -> {
+            final Query query = pm.newQuery(NotificationPublisher.class, "name == :name");
+            final List<NotificationPublisher> result = (List<NotificationPublisher>) query.execute(name);
+            return result.size() == 0 ? null : result.get(0);
+        });
     }
 
     /**
@@ -1973,9 +3403,11 @@ public class QueryManager extends AlpineQueryManager {
      */
     @SuppressWarnings("unchecked")
     public NotificationPublisher getDefaultNotificationPublisher(final String clazz) {
-        final Query query = pm.newQuery(NotificationPublisher.class, "publisherClass == :publisherClass && defaultPublisher == true");
-        final List<NotificationPublisher> result = (List<NotificationPublisher>) query.execute(clazz);
-        return result.size() == 0 ? null : result.get(0);
+        return getCachedObject(NotificationPublisher.class, "default:" + clazz, () -> {
+            final Query query = pm.newQuery(NotificationPublisher.class, "publisherClass == :publisherClass && defaultPublisher == true");
+            final List<NotificationPublisher> result = (List<NotificationPublisher>) query.execute(clazz);
+            return result.size() == 0 ? null : result.get(0);
+        });
     }
 
     /**
@@ -2045,7 +3477,8 @@ public class QueryManager extends AlpineQueryManager {
     }
 
     /**
-     * Binds the two objects together in a corresponding join table.
+     * Binds the two objects together in a corresponding join table. Imports record their
+     * components with {@link #updateComponentSnapshot(Scan, Collection)} instead.
      * @param scan a Scan object
      * @param component a Component object
      */
@@ -2060,7 +3493,8 @@ public class QueryManager extends AlpineQueryManager {
     }
 
     /**
-     * Binds the two objects together in a corresponding join table.
+     * Binds the two objects together in a corresponding join table. Imports record their
+     * components with {@link #updateComponentSnapshot(Bom, Collection)} instead.
      * @param bom a Bom object
      * @param component a Component object
      */
@@ -2081,7 +3515,7 @@ public class QueryManager extends AlpineQueryManager {
      */
     public void commitSearchIndex(boolean commitIndex, Class clazz) {
         if (commitIndex) {
-            Event.dispatch(new IndexEvent(IndexEvent.Action.COMMIT, clazz));
+            EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.COMMIT, clazz));
         }
     }
 
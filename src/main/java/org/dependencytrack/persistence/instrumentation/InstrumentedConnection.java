@@ -0,0 +1,129 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence.instrumentation;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps JDBC connections so that the execution of their statements is recorded in
+ * {@link QueryStatistics}. All other calls are passed through unmodified.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+final class InstrumentedConnection implements InvocationHandler {
+
+    private final Connection connection;
+
+    private InstrumentedConnection(Connection connection) {
+        this.connection = connection;
+    }
+
+    static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(InstrumentedConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new InstrumentedConnection(connection));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        final Object result = delegate(connection, method, args);
+        if (result instanceof Statement) {
+            final String sql = (args != null && args.length > 0 && args[0] instanceof String) ? (String) args[0] : null;
+            final Class<?> type;
+            if (result instanceof CallableStatement) {
+                type = CallableStatement.class;
+            } else if (result instanceof PreparedStatement) {
+                type = PreparedStatement.class;
+            } else {
+                type = Statement.class;
+            }
+            return Proxy.newProxyInstance(InstrumentedConnection.class.getClassLoader(),
+                    new Class<?>[]{type}, new StatementHandler((Statement) result, (Connection) proxy, sql));
+        }
+        return result;
+    }
+
+    private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Times the execution of a statement. The SQL of prepared statements is known when the
+     * statement is created, while the SQL of plain statements is passed on execution.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final Connection connection;
+        private final String sql;
+        private final List<String> batch = new ArrayList<>();
+
+        private StatementHandler(Statement statement, Connection connection, String sql) {
+            this.statement = statement;
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final String name = method.getName();
+            if ("getConnection".equals(name)) {
+                return connection;
+            }
+            if ("addBatch".equals(name) && args != null && args.length == 1) {
+                batch.add((String) args[0]);
+            } else if ("clearBatch".equals(name)) {
+                batch.clear();
+            }
+            if (!name.startsWith("execute")) {
+                return delegate(statement, method, args);
+            }
+            final long start = System.nanoTime();
+            try {
+                return delegate(statement, method, args);
+            } finally {
+                final long nanos = System.nanoTime() - start;
+                if (args != null && args.length > 0 && args[0] instanceof String) {
+                    QueryStatistics.record((String) args[0], nanos);
+                } else if (sql != null) {
+                    QueryStatistics.record(sql, nanos);
+                } else if (!batch.isEmpty()) {
+                    // A batch of plain statements is recorded as a single execution of its first statement
+                    QueryStatistics.record(batch.get(0), nanos);
+                }
+                if (name.startsWith("executeBatch") || name.startsWith("executeLargeBatch")) {
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+}
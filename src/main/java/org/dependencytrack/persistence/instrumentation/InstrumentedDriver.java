@@ -0,0 +1,105 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence.instrumentation;
+
+import alpine.logging.Logger;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+
+/**
+ * A JDBC driver which delegates to the driver of the underlying database and records the
+ * execution of every statement in {@link QueryStatistics}. Instrumentation is enabled by
+ * specifying this class as the JDBC driver and prefixing the JDBC URL of the database with
+ * <code>jdbc:instrumented:</code>, for example:
+ *
+ * <pre>
+ * alpine.database.driver=org.dependencytrack.persistence.instrumentation.InstrumentedDriver
+ * alpine.database.url=jdbc:instrumented:h2:~/.dependency-track/db
+ * </pre>
+ *
+ * The driver of the underlying database must be available on the classpath.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public class InstrumentedDriver implements Driver {
+
+    private static final Logger LOGGER = Logger.getLogger(InstrumentedDriver.class);
+    static final String URL_PREFIX = "jdbc:instrumented:";
+
+    static {
+        try {
+            DriverManager.registerDriver(new InstrumentedDriver());
+            QueryStatistics.enable();
+            LOGGER.info("Query instrumentation is enabled");
+        } catch (SQLException e) {
+            LOGGER.error("Unable to register the instrumented JDBC driver", e);
+        }
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        final String delegateUrl = getDelegateUrl(url);
+        final Connection connection = DriverManager.getDriver(delegateUrl).connect(delegateUrl, info);
+        return connection == null ? null : InstrumentedConnection.wrap(connection);
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+        final String delegateUrl = getDelegateUrl(url);
+        return DriverManager.getDriver(delegateUrl).getPropertyInfo(delegateUrl, info);
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    static String getDelegateUrl(String url) {
+        return "jdbc:" + url.substring(URL_PREFIX.length());
+    }
+
+}
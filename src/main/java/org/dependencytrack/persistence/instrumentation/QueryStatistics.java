@@ -0,0 +1,315 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence.instrumentation;
+
+import alpine.Config;
+import alpine.logging.Logger;
+import org.dependencytrack.DependencyTrackConfigKey;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the number of SQL statements and the time spent executing them for each unit of
+ * work (a REST request or the processing of an event by a subscriber). Statements having the
+ * same fingerprint that are executed more often than the repeat threshold within a single unit
+ * of work are reported as N+1 query candidates. Statements exceeding the slow threshold are
+ * logged with their fingerprint.
+ *
+ * The number of distinct units of work is bounded, since request paths are supplied by clients.
+ * Once the bound is reached, the statistics of units of work not seen before are aggregated under
+ * a single name.
+ *
+ * Statistics are only collected when the database is accessed through the {@link InstrumentedDriver}.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class QueryStatistics {
+
+    private static final Logger LOGGER = Logger.getLogger(QueryStatistics.class);
+    private static final QueryStatistics INSTANCE = new QueryStatistics(
+            Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.QUERY_INSTRUMENTATION_SLOW_MILLIS),
+            Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.QUERY_INSTRUMENTATION_REPEAT_THRESHOLD));
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    private static final Scope NOOP = new Scope(null, null);
+    static final String UNSCOPED = "unscoped";
+    static final String OTHER = "other";
+    static final int MAX_SCOPES = 500;
+
+    private static volatile boolean enabled;
+
+    private final long slowThresholdNanos;
+    private final int repeatThreshold;
+    private final Map<String, ScopeStatistics> scopes = new ConcurrentHashMap<>();
+    private final Map<String, CandidateStatistics> candidates = new ConcurrentHashMap<>();
+
+    QueryStatistics(int slowThresholdMillis, int repeatThreshold) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    public static QueryStatistics getInstance() {
+        return INSTANCE;
+    }
+
+    static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Returns whether or not statements are being instrumented.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Begins a unit of work on the current thread. Statements executed by the current thread
+     * are attributed to the unit of work until the returned scope is closed. When a unit of
+     * work is already in progress on the current thread, the statements remain attributed to it.
+     * @param name the name of the unit of work
+     * @return a Scope to close when the unit of work is complete
+     */
+    public static Scope begin(String name) {
+        if (!enabled || CURRENT.get() != null) {
+            return NOOP;
+        }
+        final Scope scope = new Scope(INSTANCE, name);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Records the execution of a statement by the current thread.
+     * @param sql the SQL of the statement
+     * @param nanos the execution time in nanoseconds
+     */
+    static void record(String sql, long nanos) {
+        INSTANCE.record(CURRENT.get(), sql, nanos);
+    }
+
+    void record(Scope scope, String sql, long nanos) {
+        final String fingerprint = SqlFingerprint.of(sql);
+        if (scope != null) {
+            scope.record(fingerprint, nanos);
+        } else {
+            getScopeStatistics(UNSCOPED).record(1, nanos, false);
+        }
+        if (nanos >= slowThresholdNanos) {
+            LOGGER.warn("Slow query (" + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms in "
+                    + (scope != null ? scope.name : UNSCOPED) + "): " + fingerprint);
+        }
+    }
+
+    void complete(Scope scope) {
+        final String name = getScopeName(scope.name);
+        boolean candidate = false;
+        for (final Map.Entry<String, int[]> entry: scope.executions.entrySet()) {
+            final int count = entry.getValue()[0];
+            if (count >= repeatThreshold) {
+                candidate = true;
+                candidates.computeIfAbsent(name + "|" + entry.getKey(),
+                        k -> new CandidateStatistics(name, entry.getKey())).record(count);
+                LOGGER.warn("Possible N+1 query in " + scope.name + ": " + count + " executions of " + entry.getKey());
+            }
+        }
+        getScopeStatistics(name).record(scope.statements, scope.nanos, candidate);
+    }
+
+    /**
+     * Returns the name under which the statistics of a unit of work are aggregated.
+     */
+    private String getScopeName(String name) {
+        if (scopes.size() >= MAX_SCOPES && !scopes.containsKey(name)) {
+            return OTHER;
+        }
+        return name;
+    }
+
+    private ScopeStatistics getScopeStatistics(String name) {
+        return scopes.computeIfAbsent(name, ScopeStatistics::new);
+    }
+
+    /**
+     * Returns the statistics of each unit of work, ordered by the time spent executing statements.
+     */
+    public List<ScopeStatistics> getScopes() {
+        final List<ScopeStatistics> list = new ArrayList<>(scopes.values());
+        list.sort(Comparator.comparingLong(ScopeStatistics::getTime).reversed());
+        return list;
+    }
+
+    /**
+     * Returns the N+1 query candidates, ordered by the highest number of repeated executions.
+     */
+    public List<CandidateStatistics> getCandidates() {
+        final List<CandidateStatistics> list = new ArrayList<>(candidates.values());
+        list.sort(Comparator.comparingLong(CandidateStatistics::getMaxExecutions).reversed());
+        return list;
+    }
+
+    /**
+     * Discards all statistics collected so far.
+     */
+    public void reset() {
+        scopes.clear();
+        candidates.clear();
+    }
+
+    /**
+     * A unit of work in progress on a single thread.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final QueryStatistics statistics;
+        private final String name;
+        private final Map<String, int[]> executions = new HashMap<>();
+        private int statements;
+        private long nanos;
+
+        Scope(QueryStatistics statistics, String name) {
+            this.statistics = statistics;
+            this.name = name;
+        }
+
+        void record(String fingerprint, long nanos) {
+            executions.computeIfAbsent(fingerprint, k -> new int[1])[0]++;
+            this.statements++;
+            this.nanos += nanos;
+        }
+
+        @Override
+        public void close() {
+            if (statistics == null) {
+                return;
+            }
+            if (CURRENT.get() == this) {
+                CURRENT.remove();
+            }
+            statistics.complete(this);
+        }
+    }
+
+    /**
+     * Aggregated statistics of all completed units of work having the same name.
+     */
+    public static final class ScopeStatistics {
+
+        private final String name;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder candidateInvocations = new LongAdder();
+        private final AtomicLong maxStatements = new AtomicLong();
+
+        ScopeStatistics(String name) {
+            this.name = name;
+        }
+
+        void record(int statements, long nanos, boolean candidate) {
+            this.invocations.increment();
+            this.statements.add(statements);
+            this.nanos.add(nanos);
+            if (candidate) {
+                this.candidateInvocations.increment();
+            }
+            this.maxStatements.accumulateAndGet(statements, Math::max);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getInvocations() {
+            return invocations.sum();
+        }
+
+        public long getStatements() {
+            return statements.sum();
+        }
+
+        public long getMaxStatements() {
+            return maxStatements.get();
+        }
+
+        /**
+         * Returns the total time spent executing statements in milliseconds.
+         */
+        public long getTime() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
+        }
+
+        /**
+         * Returns the number of invocations in which N+1 query candidates were detected.
+         */
+        public long getCandidateInvocations() {
+            return candidateInvocations.sum();
+        }
+    }
+
+    /**
+     * A statement repeatedly executed within a single unit of work.
+     */
+    public static final class CandidateStatistics {
+
+        private final String scope;
+        private final String fingerprint;
+        private final LongAdder occurrences = new LongAdder();
+        private final AtomicLong maxExecutions = new AtomicLong();
+
+        CandidateStatistics(String scope, String fingerprint) {
+            this.scope = scope;
+            this.fingerprint = fingerprint;
+        }
+
+        void record(int executions) {
+            occurrences.increment();
+            maxExecutions.accumulateAndGet(executions, Math::max);
+        }
+
+        public String getScope() {
+            return scope;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * Returns the number of units of work in which the statement was repeatedly executed.
+         */
+        public long getOccurrences() {
+            return occurrences.sum();
+        }
+
+        /**
+         * Returns the highest number of executions of the statement within a single unit of work.
+         */
+        public long getMaxExecutions() {
+            return maxExecutions.get();
+        }
+    }
+
+}
@@ -32,14 +32,20 @@ import io.swagger.annotations.ApiResponses;
 import io.swagger.annotations.Authorization;
 import org.apache.commons.lang.StringUtils;
 import org.dependencytrack.auth.Permissions;
+import org.dependencytrack.event.EventPipeline;
+import org.dependencytrack.event.MetricsUpdateEvent;
 import org.dependencytrack.model.Analysis;
 import org.dependencytrack.model.AnalysisState;
 import org.dependencytrack.model.Component;
+import org.dependencytrack.model.Dependency;
 import org.dependencytrack.model.Project;
 import org.dependencytrack.model.Vulnerability;
 import org.dependencytrack.persistence.QueryManager;
 import org.dependencytrack.resources.v1.vo.AnalysisRequest;
+import org.dependencytrack.resources.v1.vo.BulkAnalysisRequest;
 import org.dependencytrack.util.NotificationUtil;
+import javax.json.Json;
+import javax.json.JsonObject;
 import javax.validation.Validator;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
@@ -49,6 +55,16 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * JAX-RS resources for processing analysis decisions.
@@ -137,6 +153,46 @@ public class AnalysisResource extends AlpineResource {
         return performAnalysis(request, false);
     }
 
+    @Path("/bulk")
+    @PUT
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "Records an analysis decision for many findings at once",
+            notes = "Findings are selected by a vulnerability across all components, a component across all projects, " +
+                    "both, or an explicit list of targets. The selection can be restricted to a list of projects. " +
+                    "All changes are applied in a single transaction and a single notification is dispatched."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(code = 400, message = "No findings were selected"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 404, message = "The project, component, or vulnerability could not be found")
+    })
+    @PermissionRequired(Permissions.Constants.VULNERABILITY_ANALYSIS)
+    public Response updateAnalyses(BulkAnalysisRequest request) {
+        return performBulkAnalysis(request, false);
+    }
+
+    @Path("/bulk/global")
+    @PUT
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "Records a global analysis decision for many findings at once",
+            notes = "Findings are selected by a vulnerability across all components, a component, both, or an " +
+                    "explicit list of targets. All changes are applied in a single transaction and a single " +
+                    "notification is dispatched."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(code = 400, message = "No findings were selected"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 404, message = "The component or vulnerability could not be found")
+    })
+    @PermissionRequired({Permissions.Constants.PORTFOLIO_MANAGEMENT, Permissions.Constants.VULNERABILITY_ANALYSIS})
+    public Response updateGlobalAnalyses(BulkAnalysisRequest request) {
+        return performBulkAnalysis(request, true);
+    }
+
     private Response performAnalysis(AnalysisRequest request, boolean global) {
         final Validator validator = getValidator();
         failOnValidationError(
@@ -201,4 +257,145 @@ public class AnalysisResource extends AlpineResource {
         }
     }
 
+    private Response performBulkAnalysis(BulkAnalysisRequest request, boolean global) {
+        final Validator validator = getValidator();
+        failOnValidationError(
+                validator.validateProperty(request, "component"),
+                validator.validateProperty(request, "vulnerability"),
+                validator.validateProperty(request, "comment")
+        );
+        final List<ValidationTask> validationTasks = new ArrayList<>();
+        for (final String project: request.getProjects()) {
+            validationTasks.add(new ValidationTask(RegexSequence.Pattern.UUID, project, "Project is not a valid UUID"));
+        }
+        for (final BulkAnalysisRequest.Target target: request.getTargets()) {
+            validationTasks.add(new ValidationTask(RegexSequence.Pattern.UUID, target.getProject(), "Project is not a valid UUID", !global));
+            validationTasks.add(new ValidationTask(RegexSequence.Pattern.UUID, target.getComponent(), "Component is not a valid UUID"));
+            validationTasks.add(new ValidationTask(RegexSequence.Pattern.UUID, target.getVulnerability(), "Vulnerability is not a valid UUID"));
+        }
+        failOnValidationError(validationTasks.toArray(new ValidationTask[0]));
+        if (request.getTargets().isEmpty() && request.getComponent() == null && request.getVulnerability() == null) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("A component, a vulnerability, or a list of targets must be specified.").build();
+        }
+        try (QueryManager qm = new QueryManager()) {
+            // Targets are keyed by finding, as several dependencies may resolve to the same global finding
+            final Map<String, Analysis> targets = new LinkedHashMap<>();
+            if (!request.getTargets().isEmpty()) {
+                final Set<UUID> projectUuids = new HashSet<>();
+                final Set<UUID> componentUuids = new HashSet<>();
+                final Set<UUID> vulnerabilityUuids = new HashSet<>();
+                for (final BulkAnalysisRequest.Target target: request.getTargets()) {
+                    if (!global) {
+                        projectUuids.add(UUID.fromString(target.getProject()));
+                    }
+                    componentUuids.add(UUID.fromString(target.getComponent()));
+                    vulnerabilityUuids.add(UUID.fromString(target.getVulnerability()));
+                }
+                final Map<UUID, Project> projects = qm.getObjectsByUuid(Project.class, projectUuids).stream()
+                        .collect(Collectors.toMap(Project::getUuid, Function.identity()));
+                final Map<UUID, Component> components = qm.getObjectsByUuid(Component.class, componentUuids).stream()
+                        .collect(Collectors.toMap(Component::getUuid, Function.identity()));
+                final Map<UUID, Vulnerability> vulnerabilities = qm.getObjectsByUuid(Vulnerability.class, vulnerabilityUuids).stream()
+                        .collect(Collectors.toMap(Vulnerability::getUuid, Function.identity()));
+                for (final BulkAnalysisRequest.Target target: request.getTargets()) {
+                    Project project = null;
+                    if (!global) {
+                        project = projects.get(UUID.fromString(target.getProject()));
+                        if (project == null) {
+                            return Response.status(Response.Status.NOT_FOUND).entity("The project could not be found.").build();
+                        }
+                    }
+                    final Component component = components.get(UUID.fromString(target.getComponent()));
+                    if (component == null) {
+                        return Response.status(Response.Status.NOT_FOUND).entity("The component could not be found.").build();
+                    }
+                    final Vulnerability vulnerability = vulnerabilities.get(UUID.fromString(target.getVulnerability()));
+                    if (vulnerability == null) {
+                        return Response.status(Response.Status.NOT_FOUND).entity("The vulnerability could not be found.").build();
+                    }
+                    addAnalysisTarget(targets, project, component, vulnerability);
+                }
+            } else {
+                Component component = null;
+                if (request.getComponent() != null) {
+                    component = qm.getObjectByUuid(Component.class, request.getComponent());
+                    if (component == null) {
+                        return Response.status(Response.Status.NOT_FOUND).entity("The component could not be found.").build();
+                    }
+                }
+                Vulnerability vulnerability = null;
+                if (request.getVulnerability() != null) {
+                    vulnerability = qm.getObjectByUuid(Vulnerability.class, request.getVulnerability());
+                    if (vulnerability == null) {
+                        return Response.status(Response.Status.NOT_FOUND).entity("The vulnerability could not be found.").build();
+                    }
+                }
+                final List<Vulnerability> vulnerabilities;
+                if (vulnerability == null) {
+                    vulnerabilities = qm.getAllVulnerabilities(component, true);
+                } else if (component == null || qm.contains(vulnerability, component)) {
+                    vulnerabilities = Collections.singletonList(vulnerability);
+                } else {
+                    vulnerabilities = Collections.emptyList();
+                }
+                final List<Dependency> dependencies = (component != null)
+                        ? qm.getAllDependencies(component) : qm.getAllDependencies(vulnerability);
+                final Set<String> projects = new HashSet<>(request.getProjects());
+                for (final Dependency dependency: dependencies) {
+                    // Global decisions apply to all projects, so the selection is only restricted to projects otherwise
+                    if (!global && !projects.isEmpty() && !projects.contains(dependency.getProject().getUuid().toString())) {
+                        continue;
+                    }
+                    for (final Vulnerability v: vulnerabilities) {
+                        addAnalysisTarget(targets, (global) ? null : dependency.getProject(), dependency.getComponent(), v);
+                    }
+                }
+            }
+
+            String commenter = null;
+            if (getPrincipal() instanceof LdapUser || getPrincipal() instanceof ManagedUser) {
+                commenter = ((UserPrincipal) getPrincipal()).getUsername();
+            }
+            final List<Analysis> stateChanged = new ArrayList<>();
+            final List<Analysis> changed = qm.makeAnalyses(new ArrayList<>(targets.values()), request.getAnalysisState(), request.isSuppressed(),
+                    StringUtils.trimToNull(request.getComment()), commenter, stateChanged);
+
+            final Set<Project> affectedProjects = new HashSet<>();
+            final Set<Component> globalComponents = new HashSet<>();
+            for (final Analysis analysis: changed) {
+                if (analysis.getProject() != null) {
+                    affectedProjects.add(analysis.getProject());
+                } else {
+                    globalComponents.add(analysis.getComponent());
+                }
+            }
+            for (final Component component: globalComponents) {
+                for (final Dependency dependency: qm.getAllDependencies(component)) {
+                    affectedProjects.add(dependency.getProject());
+                }
+            }
+            NotificationUtil.analyzeNotificationCriteria(qm, changed, affectedProjects, !stateChanged.isEmpty());
+            for (final Project project: affectedProjects) {
+                EventPipeline.getInstance().dispatch(new MetricsUpdateEvent(project));
+            }
+            final JsonObject result = Json.createObjectBuilder()
+                    .add("findings", targets.size())
+                    .add("changed", changed.size())
+                    .add("projects", affectedProjects.size())
+                    .build();
+            return Response.ok(result.toString()).build();
+        }
+    }
+
+    private void addAnalysisTarget(Map<String, Analysis> targets, Project project, Component component, Vulnerability vulnerability) {
+        final String key = ((project != null) ? project.getUuid() + ":" : "") + component.getUuid() + ":" + vulnerability.getUuid();
+        targets.computeIfAbsent(key, k -> {
+            final Analysis analysis = new Analysis();
+            analysis.setProject(project);
+            analysis.setComponent(component);
+            analysis.setVulnerability(vulnerability);
+            return analysis;
+        });
+    }
+
 }
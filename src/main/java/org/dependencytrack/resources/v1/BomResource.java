@@ -18,7 +18,6 @@
 package org.dependencytrack.resources.v1;
 
 import alpine.auth.PermissionRequired;
-import alpine.event.framework.Event;
 import alpine.logging.Logger;
 import alpine.resources.AlpineResource;
 import io.swagger.annotations.Api;
@@ -31,6 +30,7 @@ import org.apache.commons.io.IOUtils;
 import org.cyclonedx.BomGenerator;
 import org.dependencytrack.auth.Permissions;
 import org.dependencytrack.event.BomUploadEvent;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.model.Dependency;
 import org.dependencytrack.model.Project;
@@ -175,7 +175,8 @@ public class BomResource extends AlpineResource {
     )
     @ApiResponses(value = {
             @ApiResponse(code = 401, message = "Unauthorized"),
-            @ApiResponse(code = 404, message = "The project could not be found")
+            @ApiResponse(code = 404, message = "The project could not be found"),
+            @ApiResponse(code = 503, message = "Too many uploads are awaiting processing")
     })
     @PermissionRequired(Permissions.Constants.BOM_UPLOAD)
     public Response uploadBom(BomSubmitRequest request) {
@@ -218,7 +219,8 @@ public class BomResource extends AlpineResource {
     )
     @ApiResponses(value = {
             @ApiResponse(code = 401, message = "Unauthorized"),
-            @ApiResponse(code = 404, message = "The project could not be found")
+            @ApiResponse(code = 404, message = "The project could not be found"),
+            @ApiResponse(code = 503, message = "Too many uploads are awaiting processing")
     })
     @PermissionRequired(Permissions.Constants.BOM_UPLOAD)
     public Response uploadBom(@FormDataParam("project") String projectUuid,
@@ -252,9 +254,12 @@ public class BomResource extends AlpineResource {
      * Common logic that processes a BoM given a project and encoded payload.
      */
     private Response process(Project project, String encodedBomData) {
+        if (EventPipeline.getInstance().isSaturated(BomUploadEvent.class)) {
+            return serviceUnavailable();
+        }
         if (project != null) {
             final byte[] decoded = Base64.getDecoder().decode(encodedBomData);
-            Event.dispatch(new BomUploadEvent(project.getUuid(), decoded));
+            EventPipeline.getInstance().dispatch(new BomUploadEvent(project.getUuid(), decoded));
             return Response.ok().build();
         } else {
             return Response.status(Response.Status.NOT_FOUND).entity("The project could not be found.").build();
@@ -265,6 +270,9 @@ public class BomResource extends AlpineResource {
      * Common logic that processes a BoM given a project and list of multi-party form objects containing decoded payloads.
      */
     private Response process(Project project, List<FormDataBodyPart> artifactParts) {
+        if (EventPipeline.getInstance().isSaturated(BomUploadEvent.class)) {
+            return serviceUnavailable();
+        }
         for (FormDataBodyPart artifactPart: artifactParts) {
             BodyPartEntity bodyPartEntity = (BodyPartEntity) artifactPart.getEntity();
             if (project != null) {
@@ -272,7 +280,7 @@ public class BomResource extends AlpineResource {
                     final byte[] content = IOUtils.toByteArray(bodyPartEntity.getInputStream());
                     // todo: make option to combine all the bom data so components are reconciled in a single pass.
                     // todo: https://github.com/DependencyTrack/dependency-track/issues/130
-                    Event.dispatch(new BomUploadEvent(project.getUuid(), content));
+                    EventPipeline.getInstance().dispatch(new BomUploadEvent(project.getUuid(), content));
                 } catch (IOException e) {
                     return Response.status(Response.Status.BAD_REQUEST).build();
                 }
@@ -283,4 +291,14 @@ public class BomResource extends AlpineResource {
         return Response.ok().build();
     }
 
+    /**
+     * Returns a response asking the client to retry later, as the upload processing queue is full.
+     */
+    private Response serviceUnavailable() {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", EventPipeline.RETRY_AFTER_SECONDS)
+                .entity("Too many BoM uploads are awaiting processing. Retry later.")
+                .build();
+    }
+
 }
@@ -18,7 +18,6 @@
 package org.dependencytrack.resources.v1;
 
 import alpine.auth.PermissionRequired;
-import alpine.event.framework.Event;
 import alpine.persistence.PaginatedResult;
 import alpine.resources.AlpineResource;
 import alpine.validation.RegexSequence;
@@ -32,6 +31,7 @@ import io.swagger.annotations.Authorization;
 import io.swagger.annotations.ResponseHeader;
 import org.apache.commons.lang.StringUtils;
 import org.dependencytrack.auth.Permissions;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.event.RepositoryMetaEvent;
 import org.dependencytrack.event.VulnerabilityAnalysisEvent;
 import org.dependencytrack.model.Component;
@@ -196,8 +196,8 @@ public class ComponentResource extends AlpineResource {
             component.setParent(parent);
 
             component = qm.createComponent(component, true);
-            Event.dispatch(new VulnerabilityAnalysisEvent(component));
-            Event.dispatch(new RepositoryMetaEvent(component));
+            EventPipeline.getInstance().dispatch(new VulnerabilityAnalysisEvent(component));
+            EventPipeline.getInstance().dispatch(new RepositoryMetaEvent(component));
             return Response.status(Response.Status.CREATED).entity(component).build();
         }
     }
@@ -266,7 +266,7 @@ public class ComponentResource extends AlpineResource {
                 }
 
                 component = qm.updateComponent(component, true);
-                Event.dispatch(new VulnerabilityAnalysisEvent(component));
+                EventPipeline.getInstance().dispatch(new VulnerabilityAnalysisEvent(component));
                 return Response.ok(component).build();
             } else {
                 return Response.status(Response.Status.NOT_FOUND).entity("The UUID of the component could not be found.").build();
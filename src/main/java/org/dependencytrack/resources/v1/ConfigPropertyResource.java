@@ -30,6 +30,7 @@ import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import io.swagger.annotations.Authorization;
 import org.dependencytrack.auth.Permissions;
+import org.dependencytrack.persistence.ConfigPropertyCache;
 import org.dependencytrack.persistence.QueryManager;
 import javax.validation.Validator;
 import javax.ws.rs.Consumes;
@@ -152,6 +153,7 @@ public class ConfigPropertyResource extends AlpineResource {
                 }
 
                 configProperty = qm.persist(configProperty);
+                ConfigPropertyCache.getInstance().invalidate();
                 return Response.ok(configProperty).build();
             } else {
                 return Response.status(Response.Status.NOT_FOUND).entity("The config property could not be found.").build();
@@ -0,0 +1,77 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.resources.v1;
+
+import alpine.auth.PermissionRequired;
+import alpine.resources.AlpineResource;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import io.swagger.annotations.Authorization;
+import org.dependencytrack.auth.Permissions;
+import org.dependencytrack.tasks.Job;
+import org.dependencytrack.tasks.JobRegistry;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.UUID;
+
+/**
+ * JAX-RS resources for retrieving the status of background jobs.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+@Path("/v1/job")
+@Api(value = "job", authorizations = @Authorization(value = "X-Api-Key"))
+public class JobResource extends AlpineResource {
+
+    @GET
+    @Path("/{uuid}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "Returns the status of a specific job",
+            response = Job.class
+    )
+    @ApiResponses(value = {
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 404, message = "The job could not be found")
+    })
+    @PermissionRequired(Permissions.Constants.PORTFOLIO_MANAGEMENT)
+    public Response getJob(
+            @ApiParam(value = "The UUID of the job", required = true)
+            @PathParam("uuid") String uuid) {
+        final UUID jobUuid;
+        try {
+            jobUuid = UUID.fromString(uuid);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity("The job could not be found.").build();
+        }
+        final Job job = JobRegistry.getInstance().get(jobUuid);
+        if (job == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity("The job could not be found.").build();
+        }
+        return Response.ok(job).build();
+    }
+
+}
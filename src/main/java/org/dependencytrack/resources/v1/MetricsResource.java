@@ -18,7 +18,6 @@
 package org.dependencytrack.resources.v1;
 
 import alpine.auth.PermissionRequired;
-import alpine.event.framework.Event;
 import alpine.resources.AlpineResource;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -26,9 +25,12 @@ import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import io.swagger.annotations.Authorization;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.time.DateUtils;
 import org.dependencytrack.auth.Permissions;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.event.MetricsUpdateEvent;
+import org.dependencytrack.metrics.MetricsSeries;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.model.ComponentMetrics;
 import org.dependencytrack.model.Dependency;
@@ -38,14 +40,26 @@ import org.dependencytrack.model.Project;
 import org.dependencytrack.model.ProjectMetrics;
 import org.dependencytrack.model.VulnerabilityMetrics;
 import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.persistence.instrumentation.QueryStatistics;
 import org.dependencytrack.util.DateUtil;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 /**
@@ -77,6 +91,22 @@ public class MetricsResource extends AlpineResource {
         }
     }
 
+    @GET
+    @Path("/queries")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "Returns the number of SQL statements executed and the time spent executing them for each REST request and event subscriber, along with possible N+1 queries",
+            notes = "Statistics are only collected when query instrumentation is enabled",
+            response = QueryStatistics.class
+    )
+    @ApiResponses(value = {
+            @ApiResponse(code = 401, message = "Unauthorized")
+    })
+    @PermissionRequired(Permissions.Constants.SYSTEM_CONFIGURATION)
+    public Response getQueryStatistics() {
+        return Response.ok(QueryStatistics.getInstance()).build();
+    }
+
     @GET
     @Path("/portfolio/current")
     @Produces(MediaType.APPLICATION_JSON)
@@ -145,6 +175,49 @@ public class MetricsResource extends AlpineResource {
         }
     }
 
+    @GET
+    @Path("/portfolio/series")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "Returns downsampled historical metrics for the entire portfolio",
+            notes = "Metrics are grouped into hour, day or week buckets and aggregated by the database. " +
+                    "The response is columnar: one array of bucket timestamps and one array of values per metric. " +
+                    "Buckets without recorded metrics are omitted. Date format must be YYYYMMDD"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(code = 304, message = "Not Modified"),
+            @ApiResponse(code = 400, message = "Bad Request"),
+            @ApiResponse(code = 401, message = "Unauthorized")
+    })
+    @PermissionRequired(Permissions.Constants.VIEW_PORTFOLIO)
+    public Response getPortfolioMetricsSeries(
+            @ApiParam(value = "The start date to retrieve metrics for. Takes precedence over days")
+            @QueryParam("since") String date,
+            @ApiParam(value = "The number of days back to retrieve metrics for", defaultValue = "30")
+            @QueryParam("days") @DefaultValue("30") int days,
+            @ApiParam(value = "The size of the buckets", allowableValues = "HOUR, DAY, WEEK", defaultValue = "DAY")
+            @QueryParam("bucket") @DefaultValue("DAY") String bucket,
+            @ApiParam(value = "The function used to aggregate metrics within a bucket", allowableValues = "MIN, MAX, AVG", defaultValue = "MAX")
+            @QueryParam("aggregate") @DefaultValue("MAX") String aggregate,
+            @Context Request request) {
+
+        final Date since = (date != null) ? DateUtil.parseShortDate(date) : DateUtils.addDays(new Date(), -days);
+        final MetricsSeries.Bucket seriesBucket = parseEnum(MetricsSeries.Bucket.class, bucket);
+        final MetricsSeries.Aggregate seriesAggregate = parseEnum(MetricsSeries.Aggregate.class, aggregate);
+        if (since == null || seriesBucket == null || seriesAggregate == null) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("The specified date, bucket or aggregate is incorrect.").build();
+        }
+        try (QueryManager qm = new QueryManager()) {
+            final EntityTag etag = createSeriesEntityTag(qm.getPortfolioMetricsFingerprint(since), since, seriesBucket, seriesAggregate);
+            final Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+            if (notModified != null) {
+                return notModified.build();
+            }
+            final MetricsSeries series = qm.getPortfolioMetricsSeries(since, seriesBucket, seriesAggregate);
+            return Response.ok(createSeriesResponse(Collections.singletonList(series), seriesBucket, seriesAggregate).toString()).tag(etag).build();
+        }
+    }
+
     @GET
     @Path("/portfolio/refresh")
     @Produces(MediaType.APPLICATION_JSON)
@@ -157,7 +230,7 @@ public class MetricsResource extends AlpineResource {
     })
     @PermissionRequired(Permissions.Constants.PORTFOLIO_MANAGEMENT)
     public Response RefreshPortfolioMetrics() {
-        Event.dispatch(new MetricsUpdateEvent(MetricsUpdateEvent.Type.PORTFOLIO));
+        EventPipeline.getInstance().dispatch(new MetricsUpdateEvent(MetricsUpdateEvent.Type.PORTFOLIO));
         return Response.ok().build();
     }
 
@@ -251,7 +324,7 @@ public class MetricsResource extends AlpineResource {
         try (QueryManager qm = new QueryManager()) {
             final Project project = qm.getObjectByUuid(Project.class, uuid);
             if (project != null) {
-                Event.dispatch(new MetricsUpdateEvent(project));
+                EventPipeline.getInstance().dispatch(new MetricsUpdateEvent(project));
                 return Response.ok().build();
             } else {
                 return Response.status(Response.Status.NOT_FOUND).entity("The project could not be found.").build();
@@ -259,6 +332,62 @@ public class MetricsResource extends AlpineResource {
         }
     }
 
+    @GET
+    @Path("/project/series")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "Returns downsampled historical metrics for one or more projects",
+            notes = "Metrics of all specified projects are grouped into hour, day or week buckets and aggregated by " +
+                    "the database in a single query. The response is columnar: per project, one array of bucket " +
+                    "timestamps and one array of values per metric. Buckets without recorded metrics are omitted. " +
+                    "Date format must be YYYYMMDD"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(code = 304, message = "Not Modified"),
+            @ApiResponse(code = 400, message = "Bad Request"),
+            @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 404, message = "The project could not be found")
+    })
+    @PermissionRequired(Permissions.Constants.VIEW_PORTFOLIO)
+    public Response getProjectMetricsSeries(
+            @ApiParam(value = "The UUIDs of the projects to retrieve metrics for", required = true)
+            @QueryParam("uuid") List<String> uuids,
+            @ApiParam(value = "The start date to retrieve metrics for. Takes precedence over days")
+            @QueryParam("since") String date,
+            @ApiParam(value = "The number of days back to retrieve metrics for", defaultValue = "30")
+            @QueryParam("days") @DefaultValue("30") int days,
+            @ApiParam(value = "The size of the buckets", allowableValues = "HOUR, DAY, WEEK", defaultValue = "DAY")
+            @QueryParam("bucket") @DefaultValue("DAY") String bucket,
+            @ApiParam(value = "The function used to aggregate metrics within a bucket", allowableValues = "MIN, MAX, AVG", defaultValue = "MAX")
+            @QueryParam("aggregate") @DefaultValue("MAX") String aggregate,
+            @Context Request request) {
+
+        final Date since = (date != null) ? DateUtil.parseShortDate(date) : DateUtils.addDays(new Date(), -days);
+        final MetricsSeries.Bucket seriesBucket = parseEnum(MetricsSeries.Bucket.class, bucket);
+        final MetricsSeries.Aggregate seriesAggregate = parseEnum(MetricsSeries.Aggregate.class, aggregate);
+        if (uuids == null || uuids.isEmpty() || since == null || seriesBucket == null || seriesAggregate == null) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("The specified projects, date, bucket or aggregate is incorrect.").build();
+        }
+        try (QueryManager qm = new QueryManager()) {
+            final List<Project> projects = new ArrayList<>();
+            for (final String uuid: new LinkedHashSet<>(uuids)) {
+                final Project project = qm.getObjectByUuid(Project.class, uuid);
+                if (project == null) {
+                    return Response.status(Response.Status.NOT_FOUND).entity("The project could not be found.").build();
+                }
+                projects.add(project);
+            }
+            final EntityTag etag = createSeriesEntityTag(qm.getProjectMetricsFingerprint(projects, since) + ":" + uuids,
+                    since, seriesBucket, seriesAggregate);
+            final Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+            if (notModified != null) {
+                return notModified.build();
+            }
+            final List<MetricsSeries> series = qm.getProjectMetricsSeries(projects, since, seriesBucket, seriesAggregate);
+            return Response.ok(createSeriesResponse(series, seriesBucket, seriesAggregate).toString()).tag(etag).build();
+        }
+    }
+
     @GET
     @Path("/component/{uuid}/current")
     @Produces(MediaType.APPLICATION_JSON)
@@ -352,7 +481,7 @@ public class MetricsResource extends AlpineResource {
         try (QueryManager qm = new QueryManager()) {
             final Component component = qm.getObjectByUuid(Component.class, uuid);
             if (component != null) {
-                Event.dispatch(new MetricsUpdateEvent(component));
+                EventPipeline.getInstance().dispatch(new MetricsUpdateEvent(component));
                 return Response.ok().build();
             } else {
                 return Response.status(Response.Status.NOT_FOUND).entity("The component could not be found.").build();
@@ -465,7 +594,7 @@ public class MetricsResource extends AlpineResource {
             final Component component = qm.getObjectByUuid(Component.class, componentUuid);
             final Dependency dependency = qm.getDependency(project, component);
             if (dependency != null) {
-                Event.dispatch(new MetricsUpdateEvent(dependency));
+                EventPipeline.getInstance().dispatch(new MetricsUpdateEvent(dependency));
                 return Response.ok().build();
             } else {
                 return Response.status(Response.Status.NOT_FOUND).entity("The dependency could not be found.").build();
@@ -529,4 +658,33 @@ public class MetricsResource extends AlpineResource {
             }
         }
     }
+
+    /**
+     * Creates an entity tag of a metrics series. The tag is derived from a cheap fingerprint of the
+     * underlying metrics rather than the response itself, so unchanged series are revalidated without
+     * being aggregated.
+     */
+    private EntityTag createSeriesEntityTag(String fingerprint, Date since, MetricsSeries.Bucket bucket, MetricsSeries.Aggregate aggregate) {
+        // The start of the range is truncated to the minute so repeated relative requests share a tag
+        final long minute = since.getTime() / 60000;
+        return new EntityTag(DigestUtils.sha1Hex(fingerprint + ":" + minute + ":" + bucket + ":" + aggregate));
+    }
+
+    private JsonObject createSeriesResponse(List<MetricsSeries> series, MetricsSeries.Bucket bucket, MetricsSeries.Aggregate aggregate) {
+        final JsonArrayBuilder seriesArray = Json.createArrayBuilder();
+        series.forEach(s -> seriesArray.add(s.toJson()));
+        return Json.createObjectBuilder()
+                .add("bucket", bucket.name())
+                .add("aggregate", aggregate.name())
+                .add("series", seriesArray)
+                .build();
+    }
+
+    private static <T extends Enum<T>> T parseEnum(Class<T> clazz, String value) {
+        try {
+            return Enum.valueOf(clazz, value.toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.resources.v1;
+
+import alpine.auth.PermissionRequired;
+import alpine.resources.AlpineResource;
+import io.prometheus.client.exporter.common.TextFormat;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import io.swagger.annotations.Authorization;
+import org.dependencytrack.auth.Permissions;
+import org.dependencytrack.metrics.OperationalMetrics;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JAX-RS resource exposing operational metrics in the Prometheus text format.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+@Path("/v1/operational")
+@Api(value = "operational", authorizations = @Authorization(value = "X-Api-Key"))
+public class OperationalMetricsResource extends AlpineResource {
+
+    @GET
+    @Path("/metrics")
+    @Produces(TextFormat.CONTENT_TYPE_004)
+    @ApiOperation(
+            value = "Returns operational metrics of tasks, event queues, HTTP client pools, search indexes and the JVM",
+            notes = "The metrics are returned in the Prometheus text format"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(code = 401, message = "Unauthorized")
+    })
+    @PermissionRequired(Permissions.Constants.SYSTEM_CONFIGURATION)
+    public Response getMetrics() {
+        final StreamingOutput stream = output -> {
+            final Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            TextFormat.write004(writer, OperationalMetrics.getRegistry().metricFamilySamples());
+            writer.flush();
+        };
+        return Response.ok(stream).build();
+    }
+
+}
@@ -29,9 +29,14 @@ import io.swagger.annotations.Authorization;
 import io.swagger.annotations.ResponseHeader;
 import org.apache.commons.lang.StringUtils;
 import org.dependencytrack.auth.Permissions;
+import org.dependencytrack.event.EventPipeline;
+import org.dependencytrack.event.ProjectDeletionEvent;
 import org.dependencytrack.model.Project;
 import org.dependencytrack.model.Tag;
 import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.tasks.Job;
+import org.dependencytrack.tasks.JobRegistry;
+import org.dependencytrack.tasks.ProjectDeletionTask;
 import javax.validation.Validator;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -44,6 +49,9 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * JAX-RS resources for processing projects.
@@ -124,6 +132,44 @@ public class ProjectResource extends AlpineResource {
         }
     }
 
+    @GET
+    @Path("/tag")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "Returns a list of all projects by tags",
+            notes = "Tag names are matched case-insensitively",
+            response = Project.class,
+            responseContainer = "List",
+            responseHeaders = @ResponseHeader(name = TOTAL_COUNT_HEADER, response = Long.class, description = "The total number of projects with the tags")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(code = 400, message = "Invalid match mode"),
+            @ApiResponse(code = 401, message = "Unauthorized")
+    })
+    @PermissionRequired(Permissions.Constants.VIEW_PORTFOLIO)
+    public Response getProjectsByTags(
+            @ApiParam(value = "The tags to query on", required = true)
+            @QueryParam("tag") List<String> tagStrings,
+            @ApiParam(value = "Whether projects must have all of the tags or any of them", allowableValues = "all, any", defaultValue = "all")
+            @QueryParam("match") String match) {
+        final boolean matchAll;
+        if (match == null || "all".equalsIgnoreCase(match)) {
+            matchAll = true;
+        } else if ("any".equalsIgnoreCase(match)) {
+            matchAll = false;
+        } else {
+            return Response.status(Response.Status.BAD_REQUEST).entity("The match mode must be either all or any.").build();
+        }
+        try (QueryManager qm = new QueryManager(getAlpineRequest())) {
+            final List<Tag> tags = qm.getTagsByName(tagStrings);
+            final long requested = tagStrings.stream().map(Tag::normalize).filter(Objects::nonNull).distinct().count();
+            final PaginatedResult result = (matchAll && tags.size() < requested)
+                    ? qm.getProjects(Collections.emptyList(), true)
+                    : qm.getProjects(tags, matchAll);
+            return Response.ok(result.getObjects()).header(TOTAL_COUNT_HEADER, result.getTotal()).build();
+        }
+    }
+
     @PUT
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
@@ -188,7 +234,8 @@ public class ProjectResource extends AlpineResource {
                 validator.validateProperty(jsonProject, "name"),
                 validator.validateProperty(jsonProject, "description"),
                 validator.validateProperty(jsonProject, "version"),
-                validator.validateProperty(jsonProject, "purl")
+                validator.validateProperty(jsonProject, "purl"),
+                validator.validateProperty(jsonProject, "historyRetention")
         );
 
         try (QueryManager qm = new QueryManager()) {
@@ -209,6 +256,7 @@ public class ProjectResource extends AlpineResource {
                             version,
                             jsonProject.getTags(),
                             StringUtils.trimToNull(jsonProject.getPurl()),
+                            jsonProject.getHistoryRetention(),
                             true);
                     return Response.ok(project).build();
                 } else {
@@ -226,7 +274,9 @@ public class ProjectResource extends AlpineResource {
     @Produces(MediaType.APPLICATION_JSON)
     @ApiOperation(
             value = "Deletes a project",
-            code = 204
+            notes = "The project, its children, and all objects dependant on them are deleted in the background. The status of the deletion can be retrieved from /v1/job/{uuid}.",
+            response = Job.class,
+            code = 202
     )
     @ApiResponses(value = {
             @ApiResponse(code = 401, message = "Unauthorized"),
@@ -237,10 +287,23 @@ public class ProjectResource extends AlpineResource {
             @ApiParam(value = "The UUID of the project to delete", required = true)
             @PathParam("uuid") String uuid) {
         try (QueryManager qm = new QueryManager()) {
-            final Project project = qm.getObjectByUuid(Project.class, uuid, Project.FetchGroup.ALL.name());
+            final Project project = qm.getObjectByUuid(Project.class, uuid);
             if (project != null) {
-                qm.recursivelyDelete(project);
-                return Response.status(Response.Status.NO_CONTENT).build();
+                final JobRegistry registry = JobRegistry.getInstance();
+                Job job;
+                synchronized (registry) {
+                    job = registry.getUnfinished(ProjectDeletionTask.JOB_TYPE, project.getUuid().toString());
+                    if (job == null) {
+                        job = registry.create(ProjectDeletionTask.JOB_TYPE, project.getUuid().toString());
+                        try {
+                            EventPipeline.getInstance().dispatch(new ProjectDeletionEvent(project.getUuid(), job.getUuid()));
+                        } catch (RuntimeException e) {
+                            job.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+                            throw e;
+                        }
+                    }
+                }
+                return Response.status(Response.Status.ACCEPTED).entity(job).build();
             } else {
                 return Response.status(Response.Status.NOT_FOUND).entity("The UUID of the project could not be found.").build();
             }
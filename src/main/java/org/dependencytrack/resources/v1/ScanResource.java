@@ -18,7 +18,6 @@
 package org.dependencytrack.resources.v1;
 
 import alpine.auth.PermissionRequired;
-import alpine.event.framework.Event;
 import alpine.resources.AlpineResource;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -27,6 +26,7 @@ import io.swagger.annotations.ApiResponses;
 import io.swagger.annotations.Authorization;
 import org.apache.commons.io.IOUtils;
 import org.dependencytrack.auth.Permissions;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.event.ScanUploadEvent;
 import org.dependencytrack.model.Project;
 import org.dependencytrack.persistence.QueryManager;
@@ -67,7 +67,8 @@ public class ScanResource extends AlpineResource {
     )
     @ApiResponses(value = {
             @ApiResponse(code = 401, message = "Unauthorized"),
-            @ApiResponse(code = 404, message = "The project could not be found")
+            @ApiResponse(code = 404, message = "The project could not be found"),
+            @ApiResponse(code = 503, message = "Too many uploads are awaiting processing")
     })
     @PermissionRequired(Permissions.Constants.SCAN_UPLOAD)
     public Response uploadScan(ScanSubmitRequest request) {
@@ -110,7 +111,8 @@ public class ScanResource extends AlpineResource {
     )
     @ApiResponses(value = {
             @ApiResponse(code = 401, message = "Unauthorized"),
-            @ApiResponse(code = 404, message = "The project could not be found")
+            @ApiResponse(code = 404, message = "The project could not be found"),
+            @ApiResponse(code = 503, message = "Too many uploads are awaiting processing")
     })
     @PermissionRequired(Permissions.Constants.SCAN_UPLOAD)
     public Response uploadScan(@FormDataParam("project") String projectUuid,
@@ -145,9 +147,12 @@ public class ScanResource extends AlpineResource {
      * Common logic that processes a scan given a project and encoded payload.
      */
     private Response process(Project project, String encodedScanData) {
+        if (EventPipeline.getInstance().isSaturated(ScanUploadEvent.class)) {
+            return serviceUnavailable();
+        }
         if (project != null) {
             final byte[] decodedScan = Base64.getDecoder().decode(encodedScanData);
-            Event.dispatch(new ScanUploadEvent(project.getUuid(), decodedScan));
+            EventPipeline.getInstance().dispatch(new ScanUploadEvent(project.getUuid(), decodedScan));
             return Response.ok().build();
         } else {
             return Response.status(Response.Status.NOT_FOUND).entity("The project could not be found.").build();
@@ -158,6 +163,9 @@ public class ScanResource extends AlpineResource {
      * Common logic that processes a scan given a project and list of multi-party form objects containing decoded payloads.
      */
     private Response process(Project project, List<FormDataBodyPart> artifactParts) {
+        if (EventPipeline.getInstance().isSaturated(ScanUploadEvent.class)) {
+            return serviceUnavailable();
+        }
         for (FormDataBodyPart artifactPart: artifactParts) {
             BodyPartEntity bodyPartEntity = (BodyPartEntity) artifactPart.getEntity();
             if (project != null) {
@@ -165,7 +173,7 @@ public class ScanResource extends AlpineResource {
                     final byte[] content = IOUtils.toByteArray(bodyPartEntity.getInputStream());
                     // todo: make option to combine all the scan data so components are reconciled in a single pass.
                     // todo: https://github.com/DependencyTrack/dependency-track/issues/130
-                    Event.dispatch(new ScanUploadEvent(project.getUuid(), content));
+                    EventPipeline.getInstance().dispatch(new ScanUploadEvent(project.getUuid(), content));
                 } catch (IOException e) {
                     return Response.status(Response.Status.BAD_REQUEST).build();
                 }
@@ -176,4 +184,14 @@ public class ScanResource extends AlpineResource {
         return Response.ok().build();
     }
 
+    /**
+     * Returns a response asking the client to retry later, as the upload processing queue is full.
+     */
+    private Response serviceUnavailable() {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", EventPipeline.RETRY_AFTER_SECONDS)
+                .entity("Too many scan uploads are awaiting processing. Retry later.")
+                .build();
+    }
+
 }
@@ -0,0 +1,137 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.resources.v1.vo;
+
+import alpine.validation.RegexSequence;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.dependencytrack.model.AnalysisState;
+import javax.validation.constraints.Pattern;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Defines a custom request object used when applying an analysis decision to many findings at once.
+ * Findings are selected either by a vulnerability, a component, or both (optionally restricted to a
+ * list of projects), or by an explicit list of targets.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public class BulkAnalysisRequest {
+
+    @Pattern(regexp = "^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$", message = "The component must be a valid 36 character UUID")
+    private String component;
+
+    @Pattern(regexp = "^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$", message = "The vulnerability must be a valid 36 character UUID")
+    private String vulnerability;
+
+    private List<String> projects;
+
+    private List<Target> targets;
+
+    @Pattern(regexp = RegexSequence.Definition.PRINTABLE_CHARS_PLUS, message = "The comment may only contain printable characters")
+    private String comment;
+
+    private AnalysisState analysisState;
+
+    private Boolean suppressed; // Optional. If not specified, the suppression of existing analyses is left unchanged.
+
+    @JsonCreator
+    public BulkAnalysisRequest(@JsonProperty(value = "component") String component,
+                               @JsonProperty(value = "vulnerability") String vulnerability,
+                               @JsonProperty(value = "projects") List<String> projects,
+                               @JsonProperty(value = "targets") List<Target> targets,
+                               @JsonProperty(value = "analysisState") AnalysisState analysisState,
+                               @JsonProperty(value = "comment") String comment,
+                               @JsonProperty(value = "isSuppressed") Boolean suppressed) {
+        this.component = component;
+        this.vulnerability = vulnerability;
+        this.projects = projects;
+        this.targets = targets;
+        this.analysisState = analysisState;
+        this.comment = comment;
+        this.suppressed = suppressed;
+    }
+
+    public String getComponent() {
+        return component;
+    }
+
+    public String getVulnerability() {
+        return vulnerability;
+    }
+
+    public List<String> getProjects() {
+        return (projects != null) ? projects : Collections.emptyList();
+    }
+
+    public List<Target> getTargets() {
+        return (targets != null) ? targets : Collections.emptyList();
+    }
+
+    /**
+     * Returns the analysis state to apply. Unlike {@link AnalysisRequest}, an unspecified state
+     * leaves the state of existing analyses unchanged.
+     * @return the AnalysisState, or null if not specified
+     */
+    public AnalysisState getAnalysisState() {
+        return analysisState;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public Boolean isSuppressed() {
+        return suppressed;
+    }
+
+    /**
+     * Identifies a single finding when findings are selected explicitly.
+     */
+    public static class Target {
+
+        private String project;
+
+        private String component;
+
+        private String vulnerability;
+
+        @JsonCreator
+        public Target(@JsonProperty(value = "project") String project,
+                      @JsonProperty(value = "component", required = true) String component,
+                      @JsonProperty(value = "vulnerability", required = true) String vulnerability) {
+            this.project = project;
+            this.component = component;
+            this.vulnerability = vulnerability;
+        }
+
+        public String getProject() {
+            return project;
+        }
+
+        public String getComponent() {
+            return component;
+        }
+
+        public String getVulnerability() {
+            return vulnerability;
+        }
+    }
+}
@@ -57,6 +57,16 @@ public final class ComponentIndexer extends IndexManager implements ObjectIndexe
         return IndexConstants.COMPONENT_SEARCH_FIELDS;
     }
 
+    @Override
+    public String[] getNgramFields() {
+        return IndexConstants.COMPONENT_NGRAM_FIELDS;
+    }
+
+    @Override
+    public String[] getDisplayFields() {
+        return IndexConstants.COMPONENT_DISPLAY_FIELDS;
+    }
+
     /**
      * Adds a Component object to a Lucene index.
      *
@@ -70,6 +80,8 @@ public final class ComponentIndexer extends IndexManager implements ObjectIndexe
         addField(doc, IndexConstants.COMPONENT_VERSION, component.getVersion(), Field.Store.YES, false);
         addField(doc, IndexConstants.COMPONENT_SHA1, component.getSha1(), Field.Store.YES, true);
         addField(doc, IndexConstants.COMPONENT_DESCRIPTION, component.getDescription(), Field.Store.YES, true);
+        addNgramField(doc, IndexConstants.COMPONENT_NAME, component.getName());
+        addNgramField(doc, IndexConstants.COMPONENT_GROUP, component.getGroup());
 
         try {
             getIndexWriter().addDocument(doc);
@@ -35,6 +35,12 @@ public final class IndexConstants {
     static final String[] PROJECT_SEARCH_FIELDS = {
             PROJECT_UUID, PROJECT_NAME, PROJECT_VERSION, PROJECT_PROPERTIES, PROJECT_DESCRIPTION
     };
+    static final String[] PROJECT_NGRAM_FIELDS = {
+            PROJECT_NAME
+    };
+    static final String[] PROJECT_DISPLAY_FIELDS = {
+            PROJECT_UUID, PROJECT_NAME, PROJECT_VERSION
+    };
 
     static final String COMPONENT_UUID = "uuid";
     static final String COMPONENT_NAME = "name";
@@ -45,6 +51,12 @@ public final class IndexConstants {
     static final String[] COMPONENT_SEARCH_FIELDS = {
             COMPONENT_UUID, COMPONENT_NAME, COMPONENT_GROUP, COMPONENT_VERSION, COMPONENT_SHA1, COMPONENT_DESCRIPTION
     };
+    static final String[] COMPONENT_NGRAM_FIELDS = {
+            COMPONENT_NAME, COMPONENT_GROUP
+    };
+    static final String[] COMPONENT_DISPLAY_FIELDS = {
+            COMPONENT_UUID, COMPONENT_NAME, COMPONENT_GROUP, COMPONENT_VERSION
+    };
 
     static final String VULNERABILITY_UUID = "uuid";
     static final String VULNERABILITY_VULNID = "vulnId";
@@ -53,6 +65,12 @@ public final class IndexConstants {
     static final String[] VULNERABILITY_SEARCH_FIELDS = {
             VULNERABILITY_UUID, VULNERABILITY_VULNID, VULNERABILITY_DESCRIPTION
     };
+    static final String[] VULNERABILITY_NGRAM_FIELDS = {
+            VULNERABILITY_VULNID
+    };
+    static final String[] VULNERABILITY_DISPLAY_FIELDS = {
+            VULNERABILITY_UUID, VULNERABILITY_VULNID, VULNERABILITY_SOURCE
+    };
 
     static final String LICENSE_UUID = "uuid";
     static final String LICENSE_LICENSEID = "licenseId";
@@ -60,6 +78,21 @@ public final class IndexConstants {
     static final String[] LICENSE_SEARCH_FIELDS = {
             LICENSE_UUID, LICENSE_LICENSEID, LICENSE_NAME
     };
+    static final String[] LICENSE_NGRAM_FIELDS = {
+            LICENSE_LICENSEID, LICENSE_NAME
+    };
+    static final String[] LICENSE_DISPLAY_FIELDS = {
+            LICENSE_UUID, LICENSE_LICENSEID, LICENSE_NAME
+    };
+
+    /**
+     * N-gram fields are unstored copies of a source field, named with this suffix,
+     * which are used for substring matching. Substrings shorter than the minimum
+     * gram size are only matched by exact and prefix queries.
+     */
+    static final String NGRAM_FIELD_SUFFIX = "_ngram";
+    static final int NGRAM_MIN_SIZE = 3;
+    static final int NGRAM_MAX_SIZE = 20;
 
     /**
      * Field constants highlighting boost factors in performing search
@@ -96,6 +129,15 @@ public final class IndexConstants {
 
     private static HashMap<String, Float> searchBoosts = new HashMap<>();
 
+    /**
+     * Returns the name of the n-gram field for the specified source field.
+     * @param fieldName the name of the source field
+     * @return the name of the n-gram field
+     */
+    static String getNgramFieldName(String fieldName) {
+        return fieldName + NGRAM_FIELD_SUFFIX;
+    }
+
     public static HashMap<String, Float> getBoostMap() {
         if (searchBoosts.isEmpty()) {
             searchBoosts.put(PROJECT_UUID, BOOST_PROJECT_UUID);
@@ -21,8 +21,10 @@ import alpine.Config;
 import alpine.logging.Logger;
 import alpine.notification.Notification;
 import alpine.notification.NotificationLevel;
+import io.prometheus.client.Histogram;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
@@ -30,7 +32,6 @@ import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.DirectoryReader;
-import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.Term;
@@ -38,17 +39,22 @@ import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.SimpleFSDirectory;
+import org.dependencytrack.DependencyTrackConfigKey;
+import org.dependencytrack.metrics.OperationalMetrics;
 import org.dependencytrack.notification.NotificationConstants;
 import org.dependencytrack.notification.NotificationGroup;
 import org.dependencytrack.notification.NotificationScope;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The IndexManager is an abstract class that provides wrappers and convenience methods
@@ -60,10 +66,12 @@ import java.util.List;
 public abstract class IndexManager implements AutoCloseable {
 
     private static final Logger LOGGER = Logger.getLogger(IndexManager.class);
+    private static final int RESULT_CACHE_SIZE = Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.SEARCH_RESULT_CACHE_SIZE);
     private IndexWriter iwriter = null;
-    private IndexSearcher isearcher = null;
+    private SearcherManager searcherManager = null;
     private MultiFieldQueryParser qparser = null;
     private IndexType indexType;
+    private final SearchResultCache resultCache = new SearchResultCache(RESULT_CACHE_SIZE);
 
     /**
      * This methods should be overwritten.
@@ -74,6 +82,26 @@ public abstract class IndexManager implements AutoCloseable {
         return new String[]{};
     }
 
+    /**
+     * This method should be overwritten by indexes which support substring matching.
+     * @return an array of all fields that are additionally indexed as n-grams
+     * @since 3.3.0
+     */
+    public String[] getNgramFields() {
+        return new String[]{};
+    }
+
+    /**
+     * This method should be overwritten by indexes which store fields that are not
+     * returned in search results. Only the fields returned here are loaded from
+     * matching documents.
+     * @return an array of all fields that are returned in search results
+     * @since 3.3.0
+     */
+    public String[] getDisplayFields() {
+        return getSearchFields();
+    }
+
     /**
      * Defines the type of supported indexes.
      * @since 3.0.0
@@ -135,8 +163,7 @@ public abstract class IndexManager implements AutoCloseable {
      * @since 3.0.0
      */
     protected void openIndex() throws IOException {
-        final Analyzer analyzer = new StandardAnalyzer();
-        final IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        final IndexWriterConfig config = new IndexWriterConfig(createAnalyzer());
         config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
         iwriter = new IndexWriter(getDirectory(), config);
     }
@@ -155,17 +182,78 @@ public abstract class IndexManager implements AutoCloseable {
     }
 
     /**
-     * Returns an IndexSearcher by opening the index directory first, if necessary.
+     * Creates the Analyzer used when writing documents. Fields returned by
+     * {@link #getNgramFields()} are copied to n-gram fields which are analyzed
+     * by a {@link NGramAnalyzer}. All other fields use the {@link StandardAnalyzer}.
+     * @return an Analyzer
+     * @since 3.3.0
+     */
+    private Analyzer createAnalyzer() {
+        final Map<String, Analyzer> ngramAnalyzers = new HashMap<>();
+        for (String field: getNgramFields()) {
+            ngramAnalyzers.put(IndexConstants.getNgramFieldName(field),
+                    new NGramAnalyzer(IndexConstants.NGRAM_MIN_SIZE, IndexConstants.NGRAM_MAX_SIZE));
+        }
+        return new PerFieldAnalyzerWrapper(new StandardAnalyzer(), ngramAnalyzers);
+    }
+
+    /**
+     * Returns a SearcherManager by opening the index directory first, if necessary.
+     * @return a SearcherManager
+     * @throws IOException when the index directory cannot be opened
+     * @since 3.3.0
+     */
+    private synchronized SearcherManager getSearcherManager() throws IOException {
+        if (searcherManager == null) {
+            searcherManager = new SearcherManager(getDirectory(), null);
+        }
+        return searcherManager;
+    }
+
+    /**
+     * Acquires an IndexSearcher reflecting the last commit of the index. Every
+     * searcher acquired must be released using {@link #releaseIndexSearcher(IndexSearcher)}.
      * @return an IndexSearcher
      * @throws IOException when the index directory cannot be opened
-     * @since 3.0.0
+     * @since 3.3.0
+     */
+    protected IndexSearcher acquireIndexSearcher() throws IOException {
+        return getSearcherManager().acquire();
+    }
+
+    /**
+     * Releases an IndexSearcher previously acquired.
+     * @param searcher the IndexSearcher to release
+     * @since 3.3.0
      */
-    protected IndexSearcher getIndexSearcher() throws IOException {
-        if (isearcher == null) {
-            final IndexReader reader = DirectoryReader.open(getDirectory());
-            isearcher = new IndexSearcher(reader);
+    protected void releaseIndexSearcher(IndexSearcher searcher) {
+        if (searcher == null) {
+            return;
+        }
+        try {
+            getSearcherManager().release(searcher);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to release index searcher", e);
         }
-        return isearcher;
+    }
+
+    /**
+     * Returns the generation of the index that the specified IndexSearcher reflects.
+     * @param searcher the IndexSearcher
+     * @return the version of the underlying index reader
+     * @since 3.3.0
+     */
+    protected long getGeneration(IndexSearcher searcher) {
+        return ((DirectoryReader) searcher.getIndexReader()).getVersion();
+    }
+
+    /**
+     * Returns the cache of recent search results for this index.
+     * @return a SearchResultCache
+     * @since 3.3.0
+     */
+    SearchResultCache getResultCache() {
+        return resultCache;
     }
 
     /**
@@ -183,12 +271,19 @@ public abstract class IndexManager implements AutoCloseable {
     }
 
     /**
-     * Commits changes to the index and closes the IndexWriter.
+     * Commits changes to the index, refreshes searchers and discards cached search results.
      * @since 3.0.0
      */
     public void commit() {
+        final Histogram.Timer timer = OperationalMetrics.INDEX_COMMIT_DURATION.labels(indexType.name().toLowerCase()).startTimer();
         try {
             getIndexWriter().commit();
+            resultCache.clear();
+            synchronized (this) {
+                if (searcherManager != null) {
+                    searcherManager.maybeRefresh();
+                }
+            }
         } catch (IOException e) {
             LOGGER.error("Error committing index", e);
             Notification.dispatch(new Notification()
@@ -198,6 +293,29 @@ public abstract class IndexManager implements AutoCloseable {
                     .content("Error committing index. Check log for details. " + e.getMessage())
                     .level(NotificationLevel.ERROR)
             );
+        } finally {
+            timer.observeDuration();
+        }
+    }
+
+    /**
+     * Returns the number of documents in the index, including changes which have not yet been committed.
+     * @return the number of documents
+     * @throws IOException when the index cannot be read
+     * @since 3.3.0
+     */
+    int getDocumentCount() throws IOException {
+        synchronized (this) {
+            if (iwriter != null) {
+                return iwriter.numDocs();
+            }
+        }
+        IndexSearcher searcher = null;
+        try {
+            searcher = acquireIndexSearcher();
+            return searcher.getIndexReader().numDocs();
+        } finally {
+            releaseIndexSearcher(searcher);
         }
     }
 
@@ -237,6 +355,21 @@ public abstract class IndexManager implements AutoCloseable {
         doc.add(field);
     }
 
+    /**
+     * Adds an unstored n-gram copy of a Field to a Document. The n-grams are only
+     * created if the source field is returned by {@link #getNgramFields()}.
+     * @param doc the Lucene Document to add a field to
+     * @param name the name of the source field
+     * @param value the value of the source field
+     * @since 3.3.0
+     */
+    protected void addNgramField(Document doc, String name, String value) {
+        if (StringUtils.isBlank(value)) {
+            return;
+        }
+        doc.add(new TextField(IndexConstants.getNgramFieldName(name), value, Field.Store.NO));
+    }
+
     /**
      * Updates a Field in a Document.
      * @param doc the Lucene Document to update the field in
@@ -261,12 +394,14 @@ public abstract class IndexManager implements AutoCloseable {
      */
     protected Document getDocument(String fieldName, String uuid) {
         final List<Document> list = new ArrayList<>();
+        IndexSearcher searcher = null;
         try {
+            searcher = acquireIndexSearcher();
             final TermQuery query = new TermQuery(new Term(fieldName, uuid));
-            final TopDocs results = getIndexSearcher().search(query, 1000000);
+            final TopDocs results = searcher.search(query, 1000000);
             final ScoreDoc[] hits = results.scoreDocs;
             for (ScoreDoc hit : hits) {
-                list.add(getIndexSearcher().doc(hit.doc));
+                list.add(searcher.doc(hit.doc));
             }
         } catch (CorruptIndexException e) {
             LOGGER.error("Corrupted Lucene index detected", e);
@@ -286,6 +421,8 @@ public abstract class IndexManager implements AutoCloseable {
                     .content("An I/O exception occurred while searching Lucene index. Check log for details. " + e.getMessage())
                     .level(NotificationLevel.ERROR)
             );
+        } finally {
+            releaseIndexSearcher(searcher);
         }
         if (list.size() > 0) {
             return list.get(0); // There should only be one document
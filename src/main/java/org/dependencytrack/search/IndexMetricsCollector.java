@@ -0,0 +1,56 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.search;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.GaugeMetricFamily;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects the number of documents in each search index. Indexes which have not
+ * been created yet are not reported.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class IndexMetricsCollector extends Collector {
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        final GaugeMetricFamily documents = new GaugeMetricFamily("dtrack_index_documents",
+                "Number of documents in the index", Collections.singletonList("index"));
+        final List<IndexManager> indexManagers = Arrays.asList(ProjectIndexer.getInstance(),
+                ComponentIndexer.getInstance(), VulnerabilityIndexer.getInstance(), LicenseIndexer.getInstance());
+        for (final IndexManager indexManager: indexManagers) {
+            try {
+                documents.addMetric(Collections.singletonList(indexManager.getIndexType().name().toLowerCase()),
+                        indexManager.getDocumentCount());
+            } catch (IOException e) {
+                // The index does not exist or cannot be read
+            }
+        }
+        final List<MetricFamilySamples> mfs = new ArrayList<>();
+        mfs.add(documents);
+        return mfs;
+    }
+
+}
@@ -56,6 +56,16 @@ public final class LicenseIndexer extends IndexManager implements ObjectIndexer<
         return IndexConstants.LICENSE_SEARCH_FIELDS;
     }
 
+    @Override
+    public String[] getNgramFields() {
+        return IndexConstants.LICENSE_NGRAM_FIELDS;
+    }
+
+    @Override
+    public String[] getDisplayFields() {
+        return IndexConstants.LICENSE_DISPLAY_FIELDS;
+    }
+
     /**
      * Adds a License object to a Lucene index.
      *
@@ -66,6 +76,8 @@ public final class LicenseIndexer extends IndexManager implements ObjectIndexer<
         addField(doc, IndexConstants.LICENSE_UUID, license.getUuid().toString(), Field.Store.YES, false);
         addField(doc, IndexConstants.LICENSE_LICENSEID, license.getLicenseId(), Field.Store.YES, true);
         addField(doc, IndexConstants.LICENSE_NAME, license.getName(), Field.Store.YES, true);
+        addNgramField(doc, IndexConstants.LICENSE_LICENSEID, license.getLicenseId());
+        addNgramField(doc, IndexConstants.LICENSE_NAME, license.getName());
 
         try {
             getIndexWriter().addDocument(doc);
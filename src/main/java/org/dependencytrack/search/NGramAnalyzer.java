@@ -0,0 +1,56 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.KeywordTokenizer;
+import org.apache.lucene.analysis.core.LowerCaseFilter;
+import org.apache.lucene.analysis.ngram.NGramTokenFilter;
+
+/**
+ * Analyzer which breaks the entire (lower-cased) value of a field into n-grams.
+ * Fields analyzed this way support substring matching through simple term
+ * queries, which avoids the full term dictionary scan a leading wildcard requires.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+final class NGramAnalyzer extends Analyzer {
+
+    private final int minGram;
+    private final int maxGram;
+
+    NGramAnalyzer(int minGram, int maxGram) {
+        this.minGram = minGram;
+        this.maxGram = maxGram;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+        final Tokenizer source = new KeywordTokenizer();
+        TokenStream filter = new LowerCaseFilter(source);
+        filter = new NGramTokenFilter(filter, minGram, maxGram);
+        return new TokenStreamComponents(source, filter);
+    }
+
+}
@@ -56,6 +56,16 @@ public final class ProjectIndexer extends IndexManager implements ObjectIndexer<
         return IndexConstants.PROJECT_SEARCH_FIELDS;
     }
 
+    @Override
+    public String[] getNgramFields() {
+        return IndexConstants.PROJECT_NGRAM_FIELDS;
+    }
+
+    @Override
+    public String[] getDisplayFields() {
+        return IndexConstants.PROJECT_DISPLAY_FIELDS;
+    }
+
     /**
      * Adds a Project object to a Lucene index.
      *
@@ -67,6 +77,7 @@ public final class ProjectIndexer extends IndexManager implements ObjectIndexer<
         addField(doc, IndexConstants.PROJECT_NAME, project.getName(), Field.Store.YES, true);
         addField(doc, IndexConstants.PROJECT_VERSION, project.getVersion(), Field.Store.YES, false);
         addField(doc, IndexConstants.PROJECT_DESCRIPTION, project.getDescription(), Field.Store.YES, true);
+        addNgramField(doc, IndexConstants.PROJECT_NAME, project.getName());
 
         /*
         // There's going to potentially be confidential information in the project properties. Do not index.
@@ -24,18 +24,27 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.dependencytrack.notification.NotificationConstants;
 import org.dependencytrack.notification.NotificationGroup;
 import org.dependencytrack.notification.NotificationScope;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 
 /**
@@ -67,38 +76,38 @@ public class SearchManager {
 
     public SearchResult searchIndex(IndexManager indexManager, String queryString, int limit) {
         final SearchResult searchResult = new SearchResult();
-        final List<Map<String, String>> resultSet = new ArrayList<>();
+        final String resultKey = indexManager.getIndexType().name().toLowerCase();
+        IndexSearcher searcher = null;
         try {
-            final StringBuilder sb = new StringBuilder();
-            sb.append(queryString);
-            sb.append("^100");
-            sb.append(" OR ");
-            sb.append(queryString);
-            sb.append("*");
-            sb.append("^5");
-            sb.append(" OR ");
-            sb.append("*");
-            sb.append(queryString);
-            sb.append("*");
+            searcher = indexManager.acquireIndexSearcher();
+            final String cacheKey = SearchResultCache.createKey(indexManager.getGeneration(searcher), queryString, limit);
+            List<Map<String, String>> resultSet = indexManager.getResultCache().get(cacheKey);
+            if (resultSet == null) {
+                final Query query = buildQuery(indexManager, searcher, queryString);
+                final TopDocs results = searcher.search(query, limit);
 
-            final Query query = indexManager.getQueryParser().parse(sb.toString());
-            final TopDocs results = indexManager.getIndexSearcher().search(query, limit);
-
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("Searching for: " + queryString + " - Total Hits: " + results.totalHits);
-            }
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Searching for: " + queryString + " - Total Hits: " + results.totalHits);
+                }
 
-            for (ScoreDoc scoreDoc: results.scoreDocs) {
-                final Document doc = indexManager.getIndexSearcher().doc(scoreDoc.doc);
-                final Map<String, String> fields = new HashMap<>();
-                for (IndexableField field: doc.getFields()) {
-                    if (StringUtils.isNotBlank(field.stringValue())) {
-                        fields.put(field.name(), field.stringValue());
+                final Set<String> fieldsToLoad = new HashSet<>(Arrays.asList(indexManager.getDisplayFields()));
+                final List<Map<String, String>> documents = new ArrayList<>();
+                for (ScoreDoc scoreDoc: results.scoreDocs) {
+                    final Document doc = searcher.doc(scoreDoc.doc, fieldsToLoad);
+                    final Map<String, String> fields = new HashMap<>();
+                    for (IndexableField field: doc.getFields()) {
+                        if (StringUtils.isNotBlank(field.stringValue())) {
+                            fields.put(field.name(), field.stringValue());
+                        }
                     }
+                    documents.add(Collections.unmodifiableMap(fields));
                 }
-                resultSet.add(fields);
+                resultSet = Collections.unmodifiableList(documents);
+                indexManager.getResultCache().put(cacheKey, resultSet);
+            } else if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Searching for: " + queryString + " - Served from cache");
             }
-            searchResult.addResultSet(indexManager.getIndexType().name().toLowerCase(), resultSet);
+            searchResult.addResultSet(resultKey, resultSet);
         } catch (ParseException e) {
             LOGGER.error("Failed to parse search string", e);
             Notification.dispatch(new Notification()
@@ -126,10 +135,55 @@ public class SearchManager {
                     .content("An I/O Exception occurred while searching Lucene index. Check log for details. " + e.getMessage())
                     .level(NotificationLevel.ERROR)
             );
+        } finally {
+            indexManager.releaseIndexSearcher(searcher);
         }
 
         indexManager.close();
         return searchResult;
     }
 
+    /**
+     * Builds the query for the specified query string. Exact matches are boosted the most,
+     * followed by prefix matches. Substring matches are performed against the n-gram fields
+     * of the index. Indexes written prior to the introduction of n-gram fields fall back
+     * to a (considerably more expensive) leading wildcard query until they are rebuilt.
+     */
+    private Query buildQuery(IndexManager indexManager, IndexSearcher searcher, String queryString)
+            throws ParseException, IOException {
+        final BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        builder.add(indexManager.getQueryParser().parse(queryString + "^100 OR " + queryString + "*^5"), BooleanClause.Occur.SHOULD);
+        if (hasNgramFields(indexManager, searcher)) {
+            for (String token: StringUtils.split(queryString.toLowerCase())) {
+                if (token.length() < IndexConstants.NGRAM_MIN_SIZE) {
+                    continue;
+                }
+                final String gram = StringUtils.left(token, IndexConstants.NGRAM_MAX_SIZE);
+                for (String field: indexManager.getNgramFields()) {
+                    final TermQuery termQuery = new TermQuery(new Term(IndexConstants.getNgramFieldName(field), gram));
+                    final Float boost = IndexConstants.getBoostMap().get(field);
+                    if (boost != null) {
+                        termQuery.setBoost(boost);
+                    }
+                    builder.add(termQuery, BooleanClause.Occur.SHOULD);
+                }
+            }
+        } else {
+            builder.add(indexManager.getQueryParser().parse("*" + queryString + "*"), BooleanClause.Occur.SHOULD);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Determines if the documents in the index contain n-gram fields.
+     */
+    private boolean hasNgramFields(IndexManager indexManager, IndexSearcher searcher) throws IOException {
+        for (String field: indexManager.getNgramFields()) {
+            if (searcher.getIndexReader().getDocCount(IndexConstants.getNgramFieldName(field)) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
@@ -0,0 +1,69 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.search;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A small, thread-safe LRU cache of recent search results for a single index.
+ * Entries are keyed by the query, the result limit and the generation (version)
+ * of the index reader that produced them, and the cache is cleared whenever the
+ * index is committed.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+final class SearchResultCache {
+
+    private final Map<String, List<Map<String, String>>> cache;
+
+    SearchResultCache(final int maxEntries) {
+        this.cache = new LinkedHashMap<String, List<Map<String, String>>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<Map<String, String>>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Creates the key used to cache a result set.
+     * @param generation the version of the index reader used to search
+     * @param queryString the query string
+     * @param limit the maximum number of results
+     * @return a cache key
+     */
+    static String createKey(long generation, String queryString, int limit) {
+        return generation + ":" + limit + ":" + queryString;
+    }
+
+    synchronized List<Map<String, String>> get(String key) {
+        return cache.get(key);
+    }
+
+    synchronized void put(String key, List<Map<String, String>> resultSet) {
+        cache.put(key, resultSet);
+    }
+
+    synchronized void clear() {
+        cache.clear();
+    }
+
+}
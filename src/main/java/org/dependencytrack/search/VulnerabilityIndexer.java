@@ -56,6 +56,16 @@ public final class VulnerabilityIndexer extends IndexManager implements ObjectIn
         return IndexConstants.VULNERABILITY_SEARCH_FIELDS;
     }
 
+    @Override
+    public String[] getNgramFields() {
+        return IndexConstants.VULNERABILITY_NGRAM_FIELDS;
+    }
+
+    @Override
+    public String[] getDisplayFields() {
+        return IndexConstants.VULNERABILITY_DISPLAY_FIELDS;
+    }
+
     /**
      * Adds a Vulnerability object to a Lucene index.
      *
@@ -67,6 +77,7 @@ public final class VulnerabilityIndexer extends IndexManager implements ObjectIn
         addField(doc, IndexConstants.VULNERABILITY_VULNID, vulnerability.getVulnId(), Field.Store.YES, true);
         addField(doc, IndexConstants.VULNERABILITY_DESCRIPTION, vulnerability.getDescription(), Field.Store.YES, true);
         addField(doc, IndexConstants.VULNERABILITY_SOURCE, vulnerability.getSource(), Field.Store.YES, false);
+        addNgramField(doc, IndexConstants.VULNERABILITY_VULNID, vulnerability.getVulnId());
 
         try {
             getIndexWriter().addDocument(doc);
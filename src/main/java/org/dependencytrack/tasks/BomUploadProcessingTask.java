@@ -22,10 +22,12 @@ import alpine.event.framework.Subscriber;
 import alpine.logging.Logger;
 import org.cyclonedx.BomParser;
 import org.dependencytrack.event.BomUploadEvent;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.event.RepositoryMetaEvent;
 import org.dependencytrack.event.VulnerabilityAnalysisEvent;
 import org.dependencytrack.model.Bom;
 import org.dependencytrack.model.Component;
+import org.dependencytrack.model.ComponentIdentity;
 import org.dependencytrack.model.Project;
 import org.dependencytrack.parser.cyclonedx.util.ModelConverter;
 import org.dependencytrack.parser.dependencycheck.resolver.ComponentResolver;
@@ -34,8 +36,11 @@ import org.dependencytrack.persistence.QueryManager;
 import org.dependencytrack.util.CompressUtil;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Subscriber task that performs processing of bill-of-material (bom)
@@ -75,13 +80,18 @@ public class BomUploadProcessingTask implements Subscriber {
                 }
                 final Date date = new Date();
                 final Bom bom = qm.createBom(project, date);
+                final ComponentResolver cr = new ComponentResolver(qm);
+                final List<Component> bomComponents = new ArrayList<>();
+                flatten(components, bomComponents);
+                final Map<Component, Component> resolvedComponents = cr.resolve(bomComponents);
                 for (Component component: components) {
-                    processComponent(qm, bom, project, component, flattenedComponents);
+                    processComponent(qm, cr, resolvedComponents, project, component, flattenedComponents);
                 }
+                qm.updateComponentSnapshot(bom, flattenedComponents.stream().map(Component::getId).collect(Collectors.toList()));
 
                 qm.reconcileDependencies(project, existingProjectDependencies, flattenedComponents);
                 qm.updateLastBomImport(project, date);
-                Event.dispatch(new VulnerabilityAnalysisEvent(flattenedComponents).project(project));
+                EventPipeline.getInstance().dispatch(new VulnerabilityAnalysisEvent(flattenedComponents).project(project));
             } catch (Exception ex) {
                 LOGGER.error("Error while processing bom", ex);
             } finally {
@@ -91,11 +101,16 @@ public class BomUploadProcessingTask implements Subscriber {
         }
     }
 
-    private void processComponent(QueryManager qm, Bom bom, Project project, Component component, List<Component> flattenedComponents) {
-        final ComponentResolver cr = new ComponentResolver(qm);
-        final Component resolvedComponent = cr.resolve(component);
+    private void processComponent(QueryManager qm, ComponentResolver cr, Map<Component, Component> resolvedComponents,
+                                  Project project, Component component, List<Component> flattenedComponents) {
+        // Components not resolved up front may still match one created earlier in the same bom
+        Component resolvedComponent = resolvedComponents.get(component);
+        if (resolvedComponent == null) {
+            resolvedComponent = cr.resolve(component);
+        }
         if (resolvedComponent != null) {
             final long oid = resolvedComponent.getId();
+            final Map<ComponentIdentity.Type, String> previousIdentities = ComponentIdentity.getIdentities(resolvedComponent);
             resolvedComponent.setName(component.getName());
             resolvedComponent.setGroup(component.getGroup());
             resolvedComponent.setVersion(component.getVersion());
@@ -112,9 +127,8 @@ public class BomUploadProcessingTask implements Subscriber {
             resolvedComponent.setExtension(component.getExtension());
             resolvedComponent.setLicense(component.getLicense());
             resolvedComponent.setResolvedLicense(component.getResolvedLicense());
-            qm.persist(resolvedComponent);
+            qm.persistComponent(resolvedComponent, previousIdentities);
             bind(qm, project, resolvedComponent);
-            qm.bind(bom, resolvedComponent);
             // IMPORTANT: refreshing the object by querying for it again is critical.
             flattenedComponents.add(qm.getObjectById(Component.class, oid));
         } else {
@@ -122,14 +136,25 @@ public class BomUploadProcessingTask implements Subscriber {
 
             final long oid = component.getId();
             bind(qm, project, component);
-            qm.bind(bom, component);
             // Refreshing the object by querying for it again is preventative
             flattenedComponents.add(qm.getObjectById(Component.class, oid));
-            Event.dispatch(new RepositoryMetaEvent(component));
+            EventPipeline.getInstance().dispatch(new RepositoryMetaEvent(component));
         }
         if (component.getChildren() != null) {
             for (Component child: component.getChildren()) {
-                processComponent(qm, bom, project, child, flattenedComponents);
+                processComponent(qm, cr, resolvedComponents, project, child, flattenedComponents);
+            }
+        }
+    }
+
+    /**
+     * Recursively collect components and all children.
+     */
+    private void flatten(Collection<Component> components, List<Component> flattened) {
+        for (Component component: components) {
+            flattened.add(component);
+            if (component.getChildren() != null) {
+                flatten(component.getChildren(), flattened);
             }
         }
     }
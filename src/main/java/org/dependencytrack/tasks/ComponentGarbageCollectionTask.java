@@ -0,0 +1,125 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks;
+
+import alpine.Config;
+import alpine.event.framework.Event;
+import alpine.event.framework.Subscriber;
+import alpine.logging.Logger;
+import org.dependencytrack.DependencyTrackConfigKey;
+import org.dependencytrack.event.ComponentGarbageCollectionEvent;
+import org.dependencytrack.event.EventPipeline;
+import org.dependencytrack.event.IndexEvent;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.persistence.QueryManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Subscriber task that deletes components which are no longer in use.
+ *
+ * Components created from BOMs and scans remain after the last dependency on them has been
+ * removed, and would otherwise still be processed by every portfolio-wide analysis and metrics
+ * update. A component is collected once it is not a dependency of any project, has no analysis
+ * decisions and no children, and has not been part of a BOM or scan imported within the grace
+ * period. Components which have never been part of an import, such as those created through the
+ * API, are never collected. In dry-run mode the components which would be collected are only reported.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public class ComponentGarbageCollectionTask implements Subscriber {
+
+    private static final Logger LOGGER = Logger.getLogger(ComponentGarbageCollectionTask.class);
+    private static final int GRACE_PERIOD_DAYS = Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.COMPONENT_GC_GRACE_PERIOD_DAYS);
+    private static final int BATCH_SIZE = Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.COMPONENT_GC_BATCH_SIZE);
+    private static final boolean DRY_RUN = Config.getInstance().getPropertyAsBoolean(DependencyTrackConfigKey.COMPONENT_GC_DRY_RUN);
+
+    /**
+     * {@inheritDoc}
+     */
+    public void inform(Event e) {
+        if (e instanceof ComponentGarbageCollectionEvent) {
+            if (GRACE_PERIOD_DAYS <= 0) {
+                return;
+            }
+            LOGGER.info("Starting component garbage collection task" + (DRY_RUN ? " (dry-run)" : ""));
+            final Date cutoff = Date.from(LocalDate.now().minusDays(GRACE_PERIOD_DAYS).atStartOfDay(ZoneId.systemDefault()).toInstant());
+            try (QueryManager qm = new QueryManager()) {
+                final long collected = collect(qm, cutoff);
+                if (DRY_RUN) {
+                    LOGGER.info("Component garbage collection complete (dry-run). " + collected + " component(s) would have been deleted");
+                } else {
+                    LOGGER.info("Component garbage collection complete. Deleted " + collected + " component(s)");
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes (or in dry-run mode, reports) orphaned components in batches.
+     * @return the number of components collected
+     */
+    long collect(QueryManager qm, Date cutoff) {
+        long collected = 0;
+        long afterId = 0;
+        while (true) {
+            final List<Component> batch;
+            try {
+                batch = qm.getOrphanedComponents(cutoff, afterId, BATCH_SIZE);
+            } catch (SQLException ex) {
+                LOGGER.error("An error occurred while querying orphaned components", ex);
+                break;
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+            if (DRY_RUN) {
+                for (final Component component: batch) {
+                    LOGGER.info("Orphaned component: " + component + " (" + component.getUuid() + ")");
+                }
+                collected += batch.size();
+                continue;
+            }
+            final List<Long> ids = new ArrayList<>();
+            batch.forEach(component -> ids.add(component.getId()));
+            final List<Long> deleted;
+            try {
+                deleted = qm.deleteOrphanedComponents(ids, cutoff);
+            } catch (SQLException ex) {
+                // A component of the batch has been put to use again while it was being deleted
+                LOGGER.warn("Unable to delete a batch of " + ids.size() + " orphaned components. They will be reconsidered in the next run", ex);
+                continue;
+            }
+            for (final Component component: batch) {
+                if (deleted.contains(component.getId())) {
+                    EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.DELETE, component));
+                }
+            }
+            EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Component.class));
+            collected += deleted.size();
+        }
+        return collected;
+    }
+
+}
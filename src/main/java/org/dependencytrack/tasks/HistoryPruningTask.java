@@ -0,0 +1,71 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks;
+
+import alpine.Config;
+import alpine.event.framework.Event;
+import alpine.event.framework.Subscriber;
+import alpine.logging.Logger;
+import org.dependencytrack.DependencyTrackConfigKey;
+import org.dependencytrack.event.HistoryPruningEvent;
+import org.dependencytrack.model.Bom;
+import org.dependencytrack.model.Scan;
+import org.dependencytrack.persistence.QueryManager;
+import java.sql.SQLException;
+
+/**
+ * Subscriber task that prunes the BOM and scan import history of projects.
+ *
+ * When a retention is configured, globally or for a project, only the most recent imports of
+ * each project are retained. Afterwards, the component bindings of the remaining imports
+ * recorded before 3.3.0 are migrated from the join tables to component snapshots in batches,
+ * each in its own transaction.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public class HistoryPruningTask implements Subscriber {
+
+    private static final Logger LOGGER = Logger.getLogger(HistoryPruningTask.class);
+    private static final int RETENTION = Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.HISTORY_RETENTION_IMPORTS);
+    private static final int BATCH_SIZE = Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.HISTORY_MIGRATION_BATCH_SIZE);
+
+    /**
+     * {@inheritDoc}
+     */
+    public void inform(Event e) {
+        if (e instanceof HistoryPruningEvent) {
+            LOGGER.info("Starting history pruning task");
+            try (QueryManager qm = new QueryManager()) {
+                long pruned = 0;
+                long migrated = 0;
+                for (final Class<?> clazz: new Class<?>[] {Bom.class, Scan.class}) {
+                    pruned += qm.pruneImports(clazz, RETENTION);
+                    int count;
+                    while ((count = qm.migrateComponentSnapshots(clazz, BATCH_SIZE)) > 0) {
+                        migrated += count;
+                    }
+                }
+                LOGGER.info("History pruning complete. Removed " + pruned + " import(s) and migrated " + migrated + " import(s) to snapshots");
+            } catch (SQLException ex) {
+                LOGGER.error("An error occurred while pruning the import history", ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * The status of a long running operation performed in the background on behalf of a client.
+ * Jobs are held in memory by the {@link JobRegistry} and are not persisted.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class Job {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final UUID uuid = UUID.randomUUID();
+    private final String type;
+    private final String subject;
+    private final Date created = new Date();
+    private volatile Status status = Status.QUEUED;
+    private volatile String progress;
+    private volatile Date started;
+    private volatile Date finished;
+    private volatile String failure;
+
+    Job(String type, String subject) {
+        this.type = type;
+        this.subject = subject;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Returns the kind of operation performed by the job.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns the identifier of the object the job operates on.
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns a description of the progress made so far.
+     */
+    public String getProgress() {
+        return progress;
+    }
+
+    public Date getCreated() {
+        return created;
+    }
+
+    public Date getStarted() {
+        return started;
+    }
+
+    public Date getFinished() {
+        return finished;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public boolean isDone() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public void start() {
+        this.started = new Date();
+        this.status = Status.RUNNING;
+    }
+
+    public void progress(String progress) {
+        this.progress = progress;
+    }
+
+    public void complete() {
+        this.finished = new Date();
+        this.status = Status.COMPLETED;
+    }
+
+    public void fail(String failure) {
+        this.failure = failure;
+        this.finished = new Date();
+        this.status = Status.FAILED;
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A Singleton holding the status of recent {@link Job}s. Jobs which are done are discarded
+ * once the number of retained jobs exceeds a fixed limit, oldest first.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class JobRegistry {
+
+    private static final JobRegistry INSTANCE = new JobRegistry();
+    private static final int MAX_JOBS = 1000;
+
+    private final Map<UUID, Job> jobs = new LinkedHashMap<>();
+
+    /**
+     * Private constructor.
+     */
+    private JobRegistry() { }
+
+    public static JobRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates a new job, unless a job of the same type operating on the same subject has not
+     * finished yet, in which case the existing job is returned.
+     * @param type the kind of operation performed by the job
+     * @param subject the identifier of the object the job operates on
+     * @return a Job
+     */
+    public synchronized Job create(String type, String subject) {
+        final Job existing = getUnfinished(type, subject);
+        if (existing != null) {
+            return existing;
+        }
+        final Job job = new Job(type, subject);
+        jobs.put(job.getUuid(), job);
+        evict();
+        return job;
+    }
+
+    /**
+     * Returns the job with the specified UUID.
+     * @param uuid the UUID of the job
+     * @return a Job, or null if the job does not exist or has been discarded
+     */
+    public synchronized Job get(UUID uuid) {
+        return jobs.get(uuid);
+    }
+
+    /**
+     * Returns the job of the specified type operating on the specified subject which has not finished yet.
+     * @param type the kind of operation performed by the job
+     * @param subject the identifier of the object the job operates on
+     * @return a Job, or null if no such job is queued or running
+     */
+    public synchronized Job getUnfinished(String type, String subject) {
+        for (final Job job: jobs.values()) {
+            if (!job.isDone() && job.getType().equals(type) && job.getSubject().equals(subject)) {
+                return job;
+            }
+        }
+        return null;
+    }
+
+    private void evict() {
+        final Iterator<Job> iterator = jobs.values().iterator();
+        while (jobs.size() > MAX_JOBS && iterator.hasNext()) {
+            if (iterator.next().isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+}
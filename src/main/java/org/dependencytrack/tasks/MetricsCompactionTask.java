@@ -0,0 +1,137 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks;
+
+import alpine.Config;
+import alpine.event.framework.Event;
+import alpine.event.framework.Subscriber;
+import alpine.logging.Logger;
+import alpine.model.ConfigProperty;
+import org.dependencytrack.DependencyTrackConfigKey;
+import org.dependencytrack.event.MetricsCompactionEvent;
+import org.dependencytrack.model.ComponentMetrics;
+import org.dependencytrack.model.ConfigPropertyConstants;
+import org.dependencytrack.model.DependencyMetrics;
+import org.dependencytrack.model.PortfolioMetrics;
+import org.dependencytrack.model.ProjectMetrics;
+import org.dependencytrack.persistence.QueryManager;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Date;
+
+/**
+ * Subscriber task that compacts historical portfolio, project, component, and dependency metrics.
+ *
+ * Metrics are recorded whenever a counter changes. Metrics older than the raw retention period
+ * are compacted to (at most) one record per day, and metrics older than the daily retention
+ * period are compacted to one record per week. The remaining record of each day or week holds
+ * the counters as they were at the end of it, so the compacted metrics are read the same way
+ * as the raw metrics are.
+ *
+ * Each run only processes the days and weeks which have aged into a tier since the previous run.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public class MetricsCompactionTask implements Subscriber {
+
+    private static final Logger LOGGER = Logger.getLogger(MetricsCompactionTask.class);
+    private static final int RAW_RETENTION_DAYS = Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.METRICS_RETENTION_RAW_DAYS);
+    private static final int DAILY_RETENTION_DAYS = Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.METRICS_RETENTION_DAILY_DAYS);
+    private static final int BATCH_SIZE = Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.METRICS_COMPACTION_BATCH_SIZE);
+
+    /**
+     * {@inheritDoc}
+     */
+    public void inform(Event e) {
+        if (e instanceof MetricsCompactionEvent) {
+            if (RAW_RETENTION_DAYS <= 0) {
+                return;
+            }
+            LOGGER.info("Starting metrics compaction task");
+            final LocalDate today = LocalDate.now();
+            final LocalDate dailyCutoff = today.minusDays(RAW_RETENTION_DAYS);
+            final LocalDate weeklyCutoff = today.minusDays(Math.max(DAILY_RETENTION_DAYS, RAW_RETENTION_DAYS))
+                    .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            try (QueryManager qm = new QueryManager()) {
+                long removed = compact(qm, ConfigPropertyConstants.METRICS_COMPACTION_DAILY_WATERMARK, dailyCutoff, 1);
+                removed += compact(qm, ConfigPropertyConstants.METRICS_COMPACTION_WEEKLY_WATERMARK, weeklyCutoff, 7);
+                LOGGER.info("Metrics compaction complete. Removed " + removed + " record(s)");
+            }
+        }
+    }
+
+    /**
+     * Compacts all metrics between the watermark of the previous run and the cutoff into periods
+     * of the specified number of days, then advances the watermark to the cutoff.
+     * @return the number of records removed
+     */
+    private long compact(QueryManager qm, ConfigPropertyConstants watermarkProperty, LocalDate cutoff, int days) {
+        final ConfigProperty watermark = qm.getConfigProperty(watermarkProperty.getGroupName(), watermarkProperty.getPropertyName());
+        final LocalDate start = getStart(qm, watermark, days);
+        long removed = 0;
+        if (start != null) {
+            for (LocalDate period = start; period.isBefore(cutoff); period = period.plusDays(days)) {
+                final Date periodStart = toDate(period);
+                final Date periodEnd = toDate(period.plusDays(days));
+                removed += qm.compactPortfolioMetrics(periodStart, periodEnd, BATCH_SIZE);
+                removed += qm.compactProjectMetrics(periodStart, periodEnd, BATCH_SIZE);
+                removed += qm.compactComponentMetrics(periodStart, periodEnd, BATCH_SIZE);
+                removed += qm.compactDependencyMetrics(periodStart, periodEnd, BATCH_SIZE);
+            }
+        }
+        final String value = String.valueOf(toDate(cutoff).getTime());
+        if (watermark == null) {
+            qm.createConfigProperty(watermarkProperty.getGroupName(), watermarkProperty.getPropertyName(),
+                    value, watermarkProperty.getPropertyType(), watermarkProperty.getDescription());
+        } else {
+            watermark.setPropertyValue(value);
+            qm.persist(watermark);
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the first period to compact. This is the watermark of the previous run or, if the
+     * task has not run before, the period of the oldest metrics.
+     */
+    private LocalDate getStart(QueryManager qm, ConfigProperty watermark, int days) {
+        if (watermark != null && watermark.getPropertyValue() != null) {
+            return new Date(Long.parseLong(watermark.getPropertyValue())).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        }
+        Date oldest = null;
+        for (Class<?> clazz: new Class<?>[] {PortfolioMetrics.class, ProjectMetrics.class, ComponentMetrics.class, DependencyMetrics.class}) {
+            final Date date = qm.getOldestMetricsOccurrence(clazz);
+            if (date != null && (oldest == null || date.before(oldest))) {
+                oldest = date;
+            }
+        }
+        if (oldest == null) {
+            return null;
+        }
+        final LocalDate date = oldest.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        return days == 7 ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : date;
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+}
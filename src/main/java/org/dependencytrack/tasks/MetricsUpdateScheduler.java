@@ -0,0 +1,249 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks;
+
+import alpine.Config;
+import alpine.logging.Logger;
+import org.dependencytrack.DependencyTrackConfigKey;
+import org.dependencytrack.event.MetricsUpdateEvent;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.Dependency;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.persistence.QueryManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Singleton which coalesces metrics updates. Updates are held for a debounce window,
+ * during which duplicate updates of the same type and target are merged, and updates of
+ * projects, components, and dependencies are dropped when an update of the portfolio
+ * (which recalculates them anyway) is pending. Once the window has passed, updates of
+ * dependencies and components of projects with a pending update are folded into the update
+ * of their project. Updates are then performed one at a time, in the order they were first
+ * requested. Updates requested while another is being performed are held and coalesced
+ * until it completes.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class MetricsUpdateScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(MetricsUpdateScheduler.class);
+    private static final MetricsUpdateScheduler INSTANCE = new MetricsUpdateScheduler();
+    private static final String PORTFOLIO_KEY = MetricsUpdateEvent.Type.PORTFOLIO.name();
+
+    private final long debounceMillis;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "MetricsUpdateScheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Pending updates keyed by type and target, in the order they were first requested
+    private final Map<String, MetricsUpdateEvent> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+    private long coalesced;
+
+    /**
+     * Private constructor.
+     */
+    private MetricsUpdateScheduler() {
+        this(Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.METRICS_UPDATE_DEBOUNCE_MILLIS));
+    }
+
+    /**
+     * Constructor is package-private so that tests may create isolated schedulers.
+     * @param debounceMillis the number of milliseconds updates are held for
+     */
+    MetricsUpdateScheduler(long debounceMillis) {
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Return an instance of the MetricsUpdateScheduler instance.
+     * @return a MetricsUpdateScheduler instance
+     */
+    public static MetricsUpdateScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Schedules a metrics update, unless an equivalent update is already pending.
+     * @param event the MetricsUpdateEvent to schedule
+     */
+    public synchronized void schedule(MetricsUpdateEvent event) {
+        final String key = createKey(event);
+        if (pending.containsKey(key) || (pending.containsKey(PORTFOLIO_KEY) && isIncludedInPortfolio(event))) {
+            coalesced++;
+        } else {
+            if (MetricsUpdateEvent.Type.PORTFOLIO == event.getType()) {
+                // Projects, components, and dependencies are recalculated by the portfolio update
+                final Iterator<MetricsUpdateEvent> iterator = pending.values().iterator();
+                while (iterator.hasNext()) {
+                    if (isIncludedInPortfolio(iterator.next())) {
+                        iterator.remove();
+                        coalesced++;
+                    }
+                }
+            }
+            pending.put(key, event);
+        }
+        if (!flushScheduled) {
+            flushScheduled = true;
+            executor.schedule(this::flush, debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Performs all pending updates.
+     */
+    private void flush() {
+        final List<MetricsUpdateEvent> events;
+        final long coalescedCount;
+        synchronized (this) {
+            events = new ArrayList<>(pending.values());
+            coalescedCount = coalesced;
+            pending.clear();
+            coalesced = 0;
+            flushScheduled = false;
+        }
+        final List<Update> updates = fold(events);
+        final long requested = events.size() + coalescedCount;
+        if (requested > updates.size()) {
+            LOGGER.info("Coalesced " + requested + " metrics update request(s) into " + updates.size() + " update(s)");
+        }
+        final MetricsUpdateTask task = new MetricsUpdateTask();
+        for (Update update: updates) {
+            try {
+                task.update(update.getEvent(), update.getComponentIds());
+            } catch (RuntimeException e) {
+                LOGGER.error("An error occurred while updating metrics", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the pending updates, in the order they were first requested.
+     * @return a List of MetricsUpdateEvent
+     */
+    synchronized List<MetricsUpdateEvent> getPending() {
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * Folds updates of dependencies and components into the updates of their projects. A project
+     * update recalculates the metrics of all of its dependencies, so those updates are dropped.
+     * Components are instead updated along with the first project they are a dependency of.
+     * @param events the updates to fold
+     * @return the updates to perform, in the order they were first requested
+     */
+    static List<Update> fold(List<MetricsUpdateEvent> events) {
+        final List<Update> updates = new ArrayList<>();
+        final Map<Long, Update> projects = new HashMap<>();
+        final Map<Long, MetricsUpdateEvent> components = new HashMap<>();
+        final Map<Long, MetricsUpdateEvent> dependencies = new HashMap<>();
+        for (final MetricsUpdateEvent event: events) {
+            final Update update = new Update(event);
+            updates.add(update);
+            final Object target = event.getTarget();
+            if (target instanceof Project) {
+                projects.put(((Project) target).getId(), update);
+            } else if (target instanceof Component) {
+                components.put(((Component) target).getId(), event);
+            } else if (target instanceof Dependency) {
+                dependencies.put(((Dependency) target).getId(), event);
+            }
+        }
+        if (projects.isEmpty() || (components.isEmpty() && dependencies.isEmpty())) {
+            return updates;
+        }
+        final Set<MetricsUpdateEvent> folded = new HashSet<>();
+        try (QueryManager qm = new QueryManager()) {
+            for (final Object[] row: qm.getDependencyIds(projects.keySet(), dependencies.keySet(), components.keySet())) {
+                final MetricsUpdateEvent dependency = dependencies.get((Long) row[0]);
+                if (dependency != null) {
+                    folded.add(dependency);
+                }
+                final MetricsUpdateEvent component = components.get((Long) row[2]);
+                if (component != null && folded.add(component)) {
+                    projects.get((Long) row[1]).componentIds.add((Long) row[2]);
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to fold metrics updates into the updates of their projects", e);
+            return updates;
+        }
+        updates.removeIf(update -> folded.contains(update.getEvent()));
+        return updates;
+    }
+
+    /**
+     * Shuts down the scheduler. Pending updates are discarded.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static boolean isIncludedInPortfolio(MetricsUpdateEvent event) {
+        return MetricsUpdateEvent.Type.PROJECT == event.getType()
+                || MetricsUpdateEvent.Type.COMPONENT == event.getType()
+                || MetricsUpdateEvent.Type.DEPENDENCY == event.getType();
+    }
+
+    private static String createKey(MetricsUpdateEvent event) {
+        final Object target = event.getTarget();
+        if (target instanceof Project) {
+            return event.getType().name() + ":" + ((Project) target).getId();
+        } else if (target instanceof Component) {
+            return event.getType().name() + ":" + ((Component) target).getId();
+        } else if (target instanceof Dependency) {
+            return event.getType().name() + ":" + ((Dependency) target).getId();
+        }
+        return event.getType().name();
+    }
+
+    /**
+     * A metrics update to perform, along with the components folded into it.
+     */
+    static final class Update {
+        private final MetricsUpdateEvent event;
+        private final Set<Long> componentIds = new HashSet<>();
+
+        private Update(MetricsUpdateEvent event) {
+            this.event = event;
+        }
+
+        MetricsUpdateEvent getEvent() {
+            return event;
+        }
+
+        Set<Long> getComponentIds() {
+            return componentIds;
+        }
+    }
+
+}
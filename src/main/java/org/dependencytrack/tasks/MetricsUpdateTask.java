@@ -40,8 +40,12 @@ import org.dependencytrack.persistence.QueryManager;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static java.lang.Math.toIntExact;
 
@@ -60,26 +64,43 @@ public class MetricsUpdateTask implements Subscriber {
      */
     public void inform(Event e) {
         if (e instanceof MetricsUpdateEvent) {
-            final MetricsUpdateEvent event = (MetricsUpdateEvent) e;
-
-            LOGGER.debug("Starting metrics update task");
-            try (QueryManager qm = new QueryManager()) {
-                if (MetricsUpdateEvent.Type.PORTFOLIO == event.getType()) {
-                    updatePortfolioMetrics(qm);
-                } else if (event.getTarget() instanceof Project) {
-                    updateProjectMetrics(qm, ((Project) event.getTarget()).getId());
-                } else if (event.getTarget() instanceof Component) {
-                    updateComponentMetrics(qm, ((Component) event.getTarget()).getId());
-                } else if (event.getTarget() instanceof Dependency) {
-                    updateDependencyMetrics(qm, ((Dependency) event.getTarget()).getId());
-                } else if (MetricsUpdateEvent.Type.VULNERABILITY == event.getType()) {
-                    updateVulnerabilitiesMetrics(qm);
-                }
-            } catch (Exception ex) {
-                LOGGER.error(ex.getMessage());
+            // Updates are coalesced and performed by the scheduler
+            MetricsUpdateScheduler.getInstance().schedule((MetricsUpdateEvent) e);
+        }
+    }
+
+    /**
+     * Performs the metrics update described by the event.
+     * @param event the MetricsUpdateEvent
+     */
+    void update(MetricsUpdateEvent event) {
+        update(event, Collections.emptySet());
+    }
+
+    /**
+     * Performs the metrics update described by the event. When the event targets a project,
+     * the metrics of the specified components are updated along with those of the project.
+     * @param event the MetricsUpdateEvent
+     * @param componentIds the object IDs of components to update along with the project
+     */
+    void update(MetricsUpdateEvent event, Set<Long> componentIds) {
+        LOGGER.debug("Starting metrics update task");
+        try (QueryManager qm = new QueryManager()) {
+            if (MetricsUpdateEvent.Type.PORTFOLIO == event.getType()) {
+                updatePortfolioMetrics(qm);
+            } else if (event.getTarget() instanceof Project) {
+                updateProjectMetrics(qm, ((Project) event.getTarget()).getId(), componentIds);
+            } else if (event.getTarget() instanceof Component) {
+                updateComponentMetrics(qm, ((Component) event.getTarget()).getId());
+            } else if (event.getTarget() instanceof Dependency) {
+                updateDependencyMetrics(qm, ((Dependency) event.getTarget()).getId());
+            } else if (MetricsUpdateEvent.Type.VULNERABILITY == event.getType()) {
+                updateVulnerabilitiesMetrics(qm);
             }
-            LOGGER.debug("Metrics update complete");
+        } catch (Exception ex) {
+            LOGGER.error(ex.getMessage());
         }
+        LOGGER.debug("Metrics update complete");
     }
 
     /**
@@ -200,6 +221,17 @@ public class MetricsUpdateTask implements Subscriber {
      * @return MetricCounters
      */
     private MetricCounters updateProjectMetrics(QueryManager qm, long oid) {
+        return updateProjectMetrics(qm, oid, Collections.emptySet());
+    }
+
+    /**
+     * Performs metric updates on a specific project and the specified components.
+     * @param qm a QueryManager instance
+     * @param oid the object ID of the project
+     * @param componentIds the object IDs of components to update along with the project
+     * @return MetricCounters
+     */
+    private MetricCounters updateProjectMetrics(QueryManager qm, long oid, Set<Long> componentIds) {
         Project project = qm.getObjectById(Project.class, oid);
         LOGGER.info("Executing metrics update on project: " + project.getUuid());
         final Date measuredAt = new Date();
@@ -212,11 +244,17 @@ public class MetricsUpdateTask implements Subscriber {
         // Retrieve all component dependencies for the project
         final List<Dependency> dependencies = qm.getAllDependencies(project);
 
+        // Components whose metrics are updated along with the project
+        final Set<Long> remainingComponentIds = new HashSet<>(componentIds);
+
         // Iterate through all dependencies
         for (Dependency dependency: dependencies) {
 
             // Get the component
             final Component component = dependency.getComponent();
+            if (remainingComponentIds.remove(component.getId())) {
+                updateComponentMetrics(qm, component.getId());
+            }
 
             // Update the dependency metrics
             final MetricCounters dependencyMetrics = updateDependencyMetrics(qm, dependency.getId());
@@ -225,6 +263,11 @@ public class MetricsUpdateTask implements Subscriber {
             countersList.add(dependencyMetrics);
         }
 
+        // Components which are no longer dependencies of the project are updated all the same
+        for (long componentId: remainingComponentIds) {
+            updateComponentMetrics(qm, componentId);
+        }
+
         // Iterate through the metrics from all components that are dependencies of the project
         for (MetricCounters depMetric: countersList) {
             // Add individual component metrics to the overall project metrics
@@ -284,10 +327,8 @@ public class MetricsUpdateTask implements Subscriber {
         final Date measuredAt = new Date();
 
         final MetricCounters counters = new MetricCounters();
-        // Retrieve the non-suppressed vulnerabilities for the component
-        for (Vulnerability vuln: qm.getAllVulnerabilities(component)) {
-            counters.updateSeverity(vuln.getSeverity());
-        }
+        // Count the non-suppressed vulnerabilities for the component
+        counters.updateSeverities(qm.getVulnerabilityCountsBySeverity(component));
         counters.suppressions = toIntExact(qm.getSuppressedCount(component));
 
         // Query for an existing ComponentMetrics
@@ -333,10 +374,8 @@ public class MetricsUpdateTask implements Subscriber {
         final Project project = dependency.getProject();
         final Component component = dependency.getComponent();
 
-        // Retrieve the non-suppressed vulnerabilities for the component
-        for (Vulnerability vuln: qm.getAllVulnerabilities(dependency)) {
-            counters.updateSeverity(vuln.getSeverity());
-        }
+        // Count the non-suppressed vulnerabilities for the component
+        counters.updateSeverities(qm.getVulnerabilityCountsBySeverity(dependency));
         counters.suppressions = toIntExact(qm.getSuppressedCount(project, component));
 
         // Query for an existing DependencyMetrics
@@ -450,19 +489,14 @@ public class MetricsUpdateTask implements Subscriber {
         private int projects, vulnerableProjects, components, vulnerableComponents, dependencies, vulnerableDependencies, vulnerabilities, suppressions;
 
         /**
-         * Increments critical, high, medium, low counters based on the specified severity.
-         * @param severity the severity to update counters on
+         * Increments critical, high, medium, low counters based on the specified number of vulnerabilities per severity.
+         * @param counts the number of vulnerabilities per severity
          */
-        private void updateSeverity(Severity severity) {
-            if (Severity.CRITICAL == severity) {
-                critical++;
-            } else if (Severity.HIGH == severity) {
-                high++;
-            } else if (Severity.MEDIUM == severity) {
-                medium++;
-            } else if (Severity.LOW == severity) {
-                low++;
-            }
+        private void updateSeverities(Map<Severity, Long> counts) {
+            critical += toIntExact(counts.getOrDefault(Severity.CRITICAL, 0L));
+            high += toIntExact(counts.getOrDefault(Severity.HIGH, 0L));
+            medium += toIntExact(counts.getOrDefault(Severity.MEDIUM, 0L));
+            low += toIntExact(counts.getOrDefault(Severity.LOW, 0L));
         }
 
         /**
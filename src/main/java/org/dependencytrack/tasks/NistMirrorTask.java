@@ -32,6 +32,7 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.dependencytrack.event.DependencyCheckEvent;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.event.NistMirrorEvent;
 import org.dependencytrack.notification.NotificationConstants;
 import org.dependencytrack.notification.NotificationGroup;
@@ -83,7 +84,7 @@ public class NistMirrorTask implements LoggableSubscriber {
             LOGGER.info("NIST mirroring complete");
 
             // Publish a Dependency-Check UPDATE ONLY event to update its data directory.
-            Event.dispatch(new DependencyCheckEvent(DependencyCheckEvent.Action.UPDATE_ONLY));
+            EventPipeline.getInstance().dispatch(new DependencyCheckEvent(DependencyCheckEvent.Action.UPDATE_ONLY));
         }
     }
 
@@ -27,6 +27,7 @@ import io.github.openunirest.http.JsonNode;
 import io.github.openunirest.http.Unirest;
 import io.github.openunirest.http.exceptions.UnirestException;
 import org.apache.commons.lang3.StringUtils;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.event.IndexEvent;
 import org.dependencytrack.event.NpmAdvisoryMirrorEvent;
 import org.dependencytrack.model.Cwe;
@@ -40,6 +41,7 @@ import org.dependencytrack.parser.npm.NpmAdvisoriesParser;
 import org.dependencytrack.parser.npm.model.Advisory;
 import org.dependencytrack.parser.npm.model.AdvisoryResults;
 import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.tasks.scanners.NpmAdvisoryIndex;
 import org.dependencytrack.util.HttpClientFactory;
 import java.time.OffsetDateTime;
 import java.util.Date;
@@ -126,10 +128,11 @@ public class NpmAdvisoryMirrorTask implements LoggableSubscriber {
         LOGGER.info("Updating datasource with NPM advisories");
         try (QueryManager qm = new QueryManager()) {
             for (Advisory advisory: results.getAdvisories()) {
-                qm.synchronizeVulnerability(mapAdvisoryToVulnerability(qm, advisory), false);
+                final Vulnerability vulnerability = qm.synchronizeVulnerability(mapAdvisoryToVulnerability(qm, advisory), false);
+                NpmAdvisoryIndex.getInstance().update(vulnerability);
             }
         }
-        Event.dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Vulnerability.class));
+        EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Vulnerability.class));
     }
 
     /**
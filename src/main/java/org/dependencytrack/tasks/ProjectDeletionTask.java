@@ -0,0 +1,97 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks;
+
+import alpine.Config;
+import alpine.event.framework.Event;
+import alpine.event.framework.Subscriber;
+import alpine.logging.Logger;
+import org.dependencytrack.DependencyTrackConfigKey;
+import org.dependencytrack.event.EventPipeline;
+import org.dependencytrack.event.IndexEvent;
+import org.dependencytrack.event.ProjectDeletionEvent;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.persistence.QueryManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Subscriber task that deletes a project, its children, and all objects dependant on them.
+ * Progress is reported through the {@link Job} the deletion was requested with.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public class ProjectDeletionTask implements Subscriber {
+
+    public static final String JOB_TYPE = "PROJECT_DELETION";
+
+    private static final Logger LOGGER = Logger.getLogger(ProjectDeletionTask.class);
+    private static final int BATCH_SIZE = Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.PROJECT_DELETION_BATCH_SIZE);
+
+    /**
+     * {@inheritDoc}
+     */
+    public void inform(Event e) {
+        if (e instanceof ProjectDeletionEvent) {
+            final ProjectDeletionEvent event = (ProjectDeletionEvent) e;
+            Job job = JobRegistry.getInstance().get(event.getJobUuid());
+            if (job == null) {
+                job = JobRegistry.getInstance().create(JOB_TYPE, event.getProjectUuid().toString());
+            }
+            job.start();
+            try {
+                delete(event.getProjectUuid(), job);
+                job.complete();
+            } catch (Exception ex) {
+                // Any failure must finish the job, as unfinished jobs prevent the deletion from being requested again
+                LOGGER.error("An error occurred while deleting project " + event.getProjectUuid(), ex);
+                job.fail(ex.getMessage() != null ? ex.getMessage() : ex.getClass().getName());
+            }
+        }
+    }
+
+    /**
+     * Deletes the project with the specified UUID along with its children, and removes them
+     * from the search index.
+     */
+    void delete(UUID projectUuid, Job job) throws SQLException {
+        try (QueryManager qm = new QueryManager()) {
+            final Project project = qm.getObjectByUuid(Project.class, projectUuid);
+            if (project == null) {
+                job.progress("The project does not exist");
+                return;
+            }
+            LOGGER.info("Deleting project " + project.getName() + " (" + projectUuid + ")");
+            final List<Map<Long, UUID>> hierarchy = qm.getProjectHierarchy(project);
+            final long deleted = qm.deleteProjects(hierarchy, BATCH_SIZE, job::progress);
+            for (final Map<Long, UUID> level: hierarchy) {
+                for (final UUID uuid: level.values()) {
+                    final Project removed = new Project();
+                    removed.setUuid(uuid);
+                    EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.DELETE, removed));
+                }
+            }
+            EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Project.class));
+            LOGGER.info("Deleted project " + projectUuid + " (" + deleted + " records)");
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ import alpine.event.framework.Event;
 import alpine.event.framework.Subscriber;
 import alpine.logging.Logger;
 import com.github.packageurl.PackageURL;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.event.RepositoryMetaEvent;
 import org.dependencytrack.event.ScanUploadEvent;
 import org.dependencytrack.event.VulnerabilityAnalysisEvent;
@@ -30,9 +31,9 @@ import org.dependencytrack.model.Project;
 import org.dependencytrack.model.Scan;
 import org.dependencytrack.model.Vulnerability;
 import org.dependencytrack.parser.dependencycheck.DependencyCheckParser;
-import org.dependencytrack.parser.dependencycheck.model.Analysis;
 import org.dependencytrack.parser.dependencycheck.model.Dependency;
 import org.dependencytrack.parser.dependencycheck.model.Evidence;
+import org.dependencytrack.parser.dependencycheck.model.ProjectInfo;
 import org.dependencytrack.parser.dependencycheck.resolver.ComponentGroupResolver;
 import org.dependencytrack.parser.dependencycheck.resolver.ComponentNameResolver;
 import org.dependencytrack.parser.dependencycheck.resolver.ComponentResolver;
@@ -44,7 +45,12 @@ import org.dependencytrack.util.CompressUtil;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Subscriber task that performs processing of a Dependency-Check scan
@@ -59,6 +65,8 @@ public class ScanUploadProcessingTask implements Subscriber {
 
     private Scan scan;
     private List<Component> components = new ArrayList<>();
+    private final Map<String, Vulnerability> vulnerabilities = new HashMap<>();
+    private final Set<Long> evidenceReplaced = new HashSet<>();
     private QueryManager qm;
 
     /**
@@ -71,22 +79,39 @@ public class ScanUploadProcessingTask implements Subscriber {
             final File file = event.getFile();
             final byte[] scanData = CompressUtil.optionallyDecompress(event.getScan());
             try {
-                final Analysis analysis = (file != null)
-                        ? new DependencyCheckParser().parse(file)
-                        : new DependencyCheckParser().parse(scanData);
                 qm = new QueryManager();
                 final Project project = qm.getObjectByUuid(Project.class, event.getProjectUuid());
                 final Date date = new Date();
-                scan = qm.createScan(project, analysis.getProjectInfo().getReportDate(), date);
+                // Dependencies are processed as they are read from the report, so only one is held in memory at a time
+                final DependencyCheckParser.Handler handler = new DependencyCheckParser.Handler() {
+                    @Override
+                    public void handle(ProjectInfo projectInfo) {
+                        final Date executed = projectInfo.getReportDate();
+                        scan = qm.createScan(project, (executed != null) ? executed : date, date);
+                    }
 
-                for (Dependency dependency : analysis.getDependencies()) {
-                    processDependency(dependency);
+                    @Override
+                    public void handle(Dependency dependency) {
+                        if (scan == null) {
+                            scan = qm.createScan(project, date, date); // the report did not specify when it was executed
+                        }
+                        processDependency(dependency);
+                    }
+                };
+                if (file != null) {
+                    new DependencyCheckParser().parse(file, handler);
+                } else {
+                    new DependencyCheckParser().parse(scanData, handler);
                 }
+                if (scan == null) {
+                    scan = qm.createScan(project, date, date);
+                }
+                qm.updateComponentSnapshot(scan, components.stream().map(Component::getId).collect(Collectors.toList()));
 
                 qm.reconcileDependencies(project, components);
                 qm.updateLastScanImport(project, date);
 
-                Event.dispatch(new VulnerabilityAnalysisEvent(components).project(project));
+                EventPipeline.getInstance().dispatch(new VulnerabilityAnalysisEvent(components).project(project));
             } catch (Exception ex) {
                 LOGGER.error("Error while processing scan result", ex);
             } finally {
@@ -112,7 +137,7 @@ public class ScanUploadProcessingTask implements Subscriber {
             component = new Component();
             resolveMetadata(component, dependency, resolvedLicense);
             component = qm.createComponent(component, false);
-            Event.dispatch(new RepositoryMetaEvent(component));
+            EventPipeline.getInstance().dispatch(new RepositoryMetaEvent(component));
         } else {
             resolveMetadata(component, dependency, resolvedLicense);
             component = qm.updateComponent(component, false);
@@ -126,21 +151,22 @@ public class ScanUploadProcessingTask implements Subscriber {
                  * the same as the source identified in ODT. Defaults to NVD since older versions of
                  * ODC did not support the 'source' attribute and only used the NVD.
                  */
-                Vulnerability.Source source = Vulnerability.Source.NVD;
-                if (dcvuln.getSource() != null) {
+                final Vulnerability.Source source;
+                if (dcvuln.getSource() == null) {
+                    source = Vulnerability.Source.NVD;
+                } else if (dcvuln.getSource().equals("NSP")) {
                     // NPM purchased and shutdown NSP. Need to support older ODC versions with NSP source
                     // values in addition to modern versions with NPM specified as the source.
-                    if (dcvuln.getSource().equals("NSP")) {
-                        source = Vulnerability.Source.NPM;
-                    } else {
-                        source = Vulnerability.Source.valueOf(dcvuln.getSource().toUpperCase());
-                    }
+                    source = Vulnerability.Source.NPM;
+                } else {
+                    source = Vulnerability.Source.valueOf(dcvuln.getSource().toUpperCase());
                 }
 
                 /*
                  * Check to see if the vulnerability already exists. If so, bind it to the component.
                  */
-                final org.dependencytrack.model.Vulnerability dtvuln = qm.getVulnerabilityByVulnId(source, dcvuln.getName());
+                final org.dependencytrack.model.Vulnerability dtvuln = vulnerabilities.computeIfAbsent(
+                        source.name() + ":" + dcvuln.getName(), key -> qm.getVulnerabilityByVulnId(source, dcvuln.getName()));
                 if (dtvuln != null) {
                     qm.addVulnerability(dtvuln, component);
                 }
@@ -148,13 +174,21 @@ public class ScanUploadProcessingTask implements Subscriber {
         }
 
         components.add(component);
-        qm.bind(scan, component);
 
         if (dependency.getEvidenceCollected() != null) {
-            for (Evidence evidence : dependency.getEvidenceCollected()) {
-                qm.createEvidence(component, evidence.getType(), evidence.getConfidenceScore(evidence.getConfidenceType()), evidence
-                        .getSource(), evidence.getName(), evidence.getValue());
+            final List<org.dependencytrack.model.Evidence> evidence = new ArrayList<>();
+            for (Evidence dcevidence : dependency.getEvidenceCollected()) {
+                final org.dependencytrack.model.Evidence dtevidence = new org.dependencytrack.model.Evidence();
+                dtevidence.setType(dcevidence.getType());
+                dtevidence.setConfidence(dcevidence.getConfidenceScore(dcevidence.getConfidenceType()));
+                dtevidence.setSource(dcevidence.getSource());
+                dtevidence.setName(dcevidence.getName());
+                dtevidence.setValue(dcevidence.getValue());
+                evidence.add(dtevidence);
             }
+            // Evidence from previous uploads is replaced. A component may occur more than once in the same
+            // report, in which case the evidence of each occurrence is retained.
+            qm.createEvidence(component, evidence, evidenceReplaced.add(component.getId()));
         }
 
         if (dependency.getRelatedDependencies() != null) {
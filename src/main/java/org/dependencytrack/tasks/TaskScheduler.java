@@ -19,6 +19,9 @@ package org.dependencytrack.tasks;
 
 import alpine.event.LdapSyncEvent;
 import alpine.tasks.AlpineTaskScheduler;
+import org.dependencytrack.event.ComponentGarbageCollectionEvent;
+import org.dependencytrack.event.HistoryPruningEvent;
+import org.dependencytrack.event.MetricsCompactionEvent;
 import org.dependencytrack.event.MetricsUpdateEvent;
 import org.dependencytrack.event.NistMirrorEvent;
 import org.dependencytrack.event.NpmAdvisoryMirrorEvent;
@@ -60,6 +63,16 @@ public final class TaskScheduler extends AlpineTaskScheduler {
         // Creates a new event that executes every 1 hour (3600000) after an initial 10 second (10000) delay
         scheduleEvent(new MetricsUpdateEvent(MetricsUpdateEvent.Type.VULNERABILITY), 10000, 3600000);
 
+        // Creates a new event that executes every 24 hours (86400000) after an initial 2 hour (7200000) delay
+        scheduleEvent(new MetricsCompactionEvent(), 7200000, 86400000);
+
+        // Creates a new event that executes every 24 hours (86400000) after an initial 150 minute (9000000) delay
+        // Pruning the import history precedes the garbage collection of components which are no longer in use
+        scheduleEvent(new HistoryPruningEvent(), 9000000, 86400000);
+
+        // Creates a new event that executes every 24 hours (86400000) after an initial 3 hour (10800000) delay
+        scheduleEvent(new ComponentGarbageCollectionEvent(), 10800000, 86400000);
+
         // Creates a new event that executes every 6 hours (21600000) after an initial 6 hour delay
         // A long initial delay is due to DependencyCheckEvent being called directly after a successful
         // NistMirrorEvent is processed.
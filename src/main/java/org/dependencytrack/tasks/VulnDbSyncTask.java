@@ -24,6 +24,7 @@ import alpine.logging.Logger;
 import alpine.notification.Notification;
 import alpine.notification.NotificationLevel;
 import org.apache.commons.lang3.StringUtils;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.event.IndexEvent;
 import org.dependencytrack.event.VulnDbSyncEvent;
 import org.dependencytrack.model.Cwe;
@@ -95,7 +96,7 @@ public class VulnDbSyncTask implements LoggableSubscriber {
                     }
                 }
             }
-            Event.dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Vulnerability.class));
+            EventPipeline.getInstance().dispatch(new IndexEvent(IndexEvent.Action.COMMIT, Vulnerability.class));
             LOGGER.info("VulnDB mirror synchronization task complete");
             if (successful) {
                 Notification.dispatch(new Notification()
@@ -20,13 +20,16 @@ package org.dependencytrack.tasks;
 import alpine.event.framework.Event;
 import alpine.event.framework.Subscriber;
 import com.github.packageurl.PackageURL;
+import org.dependencytrack.event.CpeMatchAnalysisEvent;
 import org.dependencytrack.event.DependencyCheckEvent;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.event.MetricsUpdateEvent;
 import org.dependencytrack.event.NpmAuditAnalysisEvent;
 import org.dependencytrack.event.OssIndexAnalysisEvent;
 import org.dependencytrack.event.VulnerabilityAnalysisEvent;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.tasks.scanners.BaseComponentAnalyzerTask;
+import org.dependencytrack.tasks.scanners.CpeMatchAnalysisTask;
 import org.dependencytrack.tasks.scanners.DependencyCheckTask;
 import org.dependencytrack.tasks.scanners.NpmAuditAnalysisTask;
 import org.dependencytrack.tasks.scanners.OssIndexAnalysisTask;
@@ -38,6 +41,7 @@ public class VulnerabilityAnalysisTask extends BaseComponentAnalyzerTask impleme
     private List<Component> odcCandidates = new ArrayList<>();
     private List<Component> npmCandidates = new ArrayList<>();
     private List<Component> ossIndexCandidates = new ArrayList<>();
+    private List<Component> cpeMatchCandidates = new ArrayList<>();
 
     public boolean shouldAnalyze(PackageURL packageURL) {
         return true;
@@ -69,39 +73,53 @@ public class VulnerabilityAnalysisTask extends BaseComponentAnalyzerTask impleme
                     if (ossIndexAnalysisTask.shouldAnalyze(purl)) {
                         ossIndexCandidates.add(component);
                     }
+                    CpeMatchAnalysisTask cpeMatchAnalysisTask = new CpeMatchAnalysisTask();
+                    if (cpeMatchAnalysisTask.shouldAnalyze(purl) || component.getCpe() != null) {
+                        cpeMatchCandidates.add(component);
+                    }
                 }
                 if (odcCandidates.size() > 0) {
                     if (event.getProject() != null) {
-                        Event.dispatch(new DependencyCheckEvent(odcCandidates)
+                        EventPipeline.getInstance().dispatch(new DependencyCheckEvent(odcCandidates)
                                 .onSuccess(new MetricsUpdateEvent(event.getProject()))
                         );
                     } else {
-                        Event.dispatch(new DependencyCheckEvent(odcCandidates));
+                        EventPipeline.getInstance().dispatch(new DependencyCheckEvent(odcCandidates));
                     }
                 }
                 if (npmCandidates.size() > 0) {
                     if (event.getProject() != null) {
-                        Event.dispatch(new NpmAuditAnalysisEvent(npmCandidates)
+                        EventPipeline.getInstance().dispatch(new NpmAuditAnalysisEvent(npmCandidates)
                                 .onSuccess(new MetricsUpdateEvent(event.getProject()))
                         );
                     } else {
-                        Event.dispatch(new NpmAuditAnalysisEvent(npmCandidates));
+                        EventPipeline.getInstance().dispatch(new NpmAuditAnalysisEvent(npmCandidates));
                     }
                 }
                 if (ossIndexCandidates.size() > 0) {
                     if (event.getProject() != null) {
-                        Event.dispatch(new OssIndexAnalysisEvent(ossIndexCandidates)
+                        EventPipeline.getInstance().dispatch(new OssIndexAnalysisEvent(ossIndexCandidates)
+                                .onSuccess(new MetricsUpdateEvent(event.getProject()))
+                        );
+                    } else {
+                        EventPipeline.getInstance().dispatch(new OssIndexAnalysisEvent(ossIndexCandidates));
+                    }
+                }
+                if (cpeMatchCandidates.size() > 0) {
+                    if (event.getProject() != null) {
+                        EventPipeline.getInstance().dispatch(new CpeMatchAnalysisEvent(cpeMatchCandidates)
                                 .onSuccess(new MetricsUpdateEvent(event.getProject()))
                         );
                     } else {
-                        Event.dispatch(new OssIndexAnalysisEvent(ossIndexCandidates));
+                        EventPipeline.getInstance().dispatch(new CpeMatchAnalysisEvent(cpeMatchCandidates));
                     }
                 }
             } else {
                 // Portfolio analysis
-                Event.dispatch(new DependencyCheckEvent());
-                Event.dispatch(new NpmAuditAnalysisEvent());
-                Event.dispatch(new OssIndexAnalysisEvent());
+                EventPipeline.getInstance().dispatch(new DependencyCheckEvent());
+                EventPipeline.getInstance().dispatch(new NpmAuditAnalysisEvent());
+                EventPipeline.getInstance().dispatch(new OssIndexAnalysisEvent());
+                EventPipeline.getInstance().dispatch(new CpeMatchAnalysisEvent());
             }
         }
     }
@@ -18,6 +18,15 @@
 package org.dependencytrack.tasks.repositories;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.dependencytrack.model.RepositoryMetaComponent;
+import org.dependencytrack.util.HttpClientFactory;
+import java.io.IOException;
 
 /**
  * Base abstract class that all IMetaAnalyzer implementations should likely extend.
@@ -29,6 +38,10 @@ public abstract class AbstractMetaAnalyzer implements IMetaAnalyzer {
 
     String baseUrl;
 
+    private HttpClient httpClient;
+
+    private RepositoryMetaComponent cacheValidators;
+
     /**
      * {@inheritDoc}
      */
@@ -43,4 +56,70 @@ public abstract class AbstractMetaAnalyzer implements IMetaAnalyzer {
         this.baseUrl = baseUrl;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void setHttpClient(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setCacheValidators(RepositoryMetaComponent metaComponent) {
+        this.cacheValidators = metaComponent;
+    }
+
+    /**
+     * Returns the HttpClient to use for requests to the repository. If a client
+     * has not been specified, a new client is created.
+     * @return a HttpClient
+     */
+    HttpClient getHttpClient() {
+        if (httpClient == null) {
+            httpClient = HttpClientFactory.createClient();
+        }
+        return httpClient;
+    }
+
+    /**
+     * Executes the request. If cache validators for the requested URL are available, the request
+     * is made conditional. The validators returned by the repository, and whether or not the
+     * document was unchanged (HTTP 304), are recorded in the specified MetaModel.
+     * @param request the request to execute
+     * @param meta the MetaModel to record validators to
+     * @return the HttpResponse
+     * @throws IOException if the request failed
+     */
+    HttpResponse executeConditional(HttpGet request, MetaModel meta) throws IOException {
+        final String url = request.getURI().toString();
+        final boolean conditional = cacheValidators != null && url.equals(cacheValidators.getMetadataUrl());
+        if (conditional) {
+            if (cacheValidators.getEtag() != null) {
+                request.setHeader(HttpHeaders.IF_NONE_MATCH, cacheValidators.getEtag());
+            }
+            if (cacheValidators.getLastModified() != null) {
+                request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cacheValidators.getLastModified());
+            }
+        }
+        final HttpResponse response = getHttpClient().execute(request);
+        final int status = response.getStatusLine().getStatusCode();
+        if (status == HttpStatus.SC_NOT_MODIFIED && conditional) {
+            meta.setNotModified(true);
+            meta.setMetadataUrl(url);
+            meta.setEtag(getHeader(response, HttpHeaders.ETAG, cacheValidators.getEtag()));
+            meta.setLastModified(getHeader(response, HttpHeaders.LAST_MODIFIED, cacheValidators.getLastModified()));
+        } else if (status == HttpStatus.SC_OK) {
+            meta.setMetadataUrl(url);
+            meta.setEtag(getHeader(response, HttpHeaders.ETAG, null));
+            meta.setLastModified(getHeader(response, HttpHeaders.LAST_MODIFIED, null));
+        }
+        return response;
+    }
+
+    private static String getHeader(HttpResponse response, String name, String defaultValue) {
+        final Header header = response.getFirstHeader(name);
+        return header != null ? header.getValue() : defaultValue;
+    }
+
 }
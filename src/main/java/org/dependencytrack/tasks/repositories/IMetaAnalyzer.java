@@ -18,7 +18,9 @@
 package org.dependencytrack.tasks.repositories;
 
 import com.github.packageurl.PackageURL;
+import org.apache.http.client.HttpClient;
 import org.dependencytrack.model.Component;
+import org.dependencytrack.model.RepositoryMetaComponent;
 import org.dependencytrack.model.RepositoryType;
 
 /**
@@ -37,6 +39,25 @@ public interface IMetaAnalyzer {
      */
     void setRepositoryBaseUrl(String baseUrl);
 
+    /**
+     * Sets the HttpClient used to communicate with the repository. This allows a single
+     * (pooled) client to be shared by all analyzers using the same repository. If not
+     * specified, IMetaAnalyzer implementations should create a client of their own.
+     * @param httpClient the HttpClient to use
+     * @since 3.3.0
+     */
+    void setHttpClient(HttpClient httpClient);
+
+    /**
+     * Sets the result of a previous analysis. If the previous result contains cache validators
+     * (ETag and/or Last-Modified) for the metadata document being requested, IMetaAnalyzer
+     * implementations should send a conditional request and report an unchanged document via
+     * {@link MetaModel#isNotModified()} rather than parsing it again.
+     * @param metaComponent the result of a previous analysis (may be null)
+     * @since 3.3.0
+     */
+    void setCacheValidators(RepositoryMetaComponent metaComponent);
+
     /**
      * Returns the type of repositry the analyzer supports.
      * @since 3.1.0
@@ -91,6 +112,14 @@ public interface IMetaAnalyzer {
             public void setRepositoryBaseUrl(String baseUrl) {
             }
 
+            @Override
+            public void setHttpClient(HttpClient httpClient) {
+            }
+
+            @Override
+            public void setCacheValidators(RepositoryMetaComponent metaComponent) {
+            }
+
             @Override
             public boolean isApplicable(Component component) {
                 return false;
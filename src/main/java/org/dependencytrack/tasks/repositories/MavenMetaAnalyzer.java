@@ -23,9 +23,8 @@ import alpine.notification.NotificationLevel;
 import com.github.packageurl.PackageURL;
 import org.apache.http.HttpEntity;
 import org.apache.http.StatusLine;
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.util.EntityUtils;
 import org.dependencytrack.notification.NotificationGroup;
 import org.dependencytrack.notification.NotificationScope;
 import org.owasp.dependencycheck.utils.XmlUtils;
@@ -33,11 +32,9 @@ import org.dependencytrack.model.Component;
 import org.dependencytrack.model.RepositoryType;
 import org.dependencytrack.notification.NotificationConstants;
 import org.dependencytrack.util.DateUtil;
-import org.dependencytrack.util.HttpClientFactory;
 import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
@@ -56,6 +53,12 @@ public class MavenMetaAnalyzer extends AbstractMetaAnalyzer {
     private static final String DEFAULT_BASE_URL = "http://central.maven.org/maven2";
     private static final String REPO_METADATA_URL = "/%s/maven-metadata.xml";
 
+    // Compiled XPath expressions are not thread-safe. Each thread compiles them once and reuses them.
+    private static final ThreadLocal<XPathExpression> LATEST_EXPRESSION =
+            ThreadLocal.withInitial(() -> compile("/metadata/versioning/latest"));
+    private static final ThreadLocal<XPathExpression> LAST_UPDATED_EXPRESSION =
+            ThreadLocal.withInitial(() -> compile("/metadata/versioning/lastUpdated"));
+
     MavenMetaAnalyzer() {
         this.baseUrl = DEFAULT_BASE_URL;
     }
@@ -78,27 +81,23 @@ public class MavenMetaAnalyzer extends AbstractMetaAnalyzer {
      * {@inheritDoc}
      */
     public MetaModel analyze(Component component) {
-        HttpClient httpClient = HttpClientFactory.createClient();
         MetaModel meta = new MetaModel(component);
         if (component.getPurl() != null) {
             final String mavenGavUrl = component.getPurl().getNamespace().replaceAll("\\.", "/") + "/" + component.getPurl().getName().replaceAll("\\.", "/");
             final String url = String.format(baseUrl + REPO_METADATA_URL, mavenGavUrl);
+            org.apache.http.HttpResponse response = null;
             try {
-                HttpUriRequest request = new HttpGet(url);
-                org.apache.http.HttpResponse response = httpClient.execute(request);
+                final HttpGet request = new HttpGet(url);
+                response = executeConditional(request, meta);
                 StatusLine status = response.getStatusLine();
-                if (status.getStatusCode() == 200) {
+                if (meta.isNotModified()) {
+                    LOGGER.debug("Metadata unchanged since previous analysis: " + url);
+                } else if (status.getStatusCode() == 200) {
                     HttpEntity entity = response.getEntity();
                     if (entity != null) {
                         final Document document = XmlUtils.buildSecureDocumentBuilder().parse(entity.getContent());
-                        XPathFactory xpathFactory = XPathFactory.newInstance();
-                        XPath xpath = xpathFactory.newXPath();
-
-                        XPathExpression latestExpression = xpath.compile("/metadata/versioning/latest");
-                        String latest = (String)latestExpression.evaluate(document, XPathConstants.STRING);
-
-                        XPathExpression lastUpdatedExpression = xpath.compile("/metadata/versioning/lastUpdated");
-                        String lastUpdated = (String)lastUpdatedExpression.evaluate(document, XPathConstants.STRING);
+                        String latest = (String)LATEST_EXPRESSION.get().evaluate(document, XPathConstants.STRING);
+                        String lastUpdated = (String)LAST_UPDATED_EXPRESSION.get().evaluate(document, XPathConstants.STRING);
 
                         meta.setLatestVersion(latest);
                         if (lastUpdated != null) {
@@ -127,9 +126,22 @@ public class MavenMetaAnalyzer extends AbstractMetaAnalyzer {
                         .content("An error occurred while communicating with an " + supportedRepositoryType().name() + " repository. Check log for details. " + e.getMessage())
                         .level(NotificationLevel.ERROR)
                 );
+            } finally {
+                // Always consume the entity so that pooled connections are released
+                if (response != null) {
+                    EntityUtils.consumeQuietly(response.getEntity());
+                }
             }
         }
         return meta;
     }
 
+    private static XPathExpression compile(String expression) {
+        try {
+            return XPathFactory.newInstance().newXPath().compile(expression);
+        } catch (XPathExpressionException e) {
+            throw new IllegalStateException("Unable to compile XPath expression: " + expression, e);
+        }
+    }
+
 }
@@ -25,6 +25,10 @@ public class MetaModel {
     private Component component;
     private String latestVersion;
     private Date publishedTimestamp;
+    private String metadataUrl;
+    private String etag;
+    private String lastModified;
+    private boolean notModified;
 
     public MetaModel(Component component) {
         this.component = component;
@@ -49,4 +53,36 @@ public class MetaModel {
     public void setPublishedTimestamp(Date publishedTimestamp) {
         this.publishedTimestamp = publishedTimestamp;
     }
+
+    public String getMetadataUrl() {
+        return metadataUrl;
+    }
+
+    public void setMetadataUrl(String metadataUrl) {
+        this.metadataUrl = metadataUrl;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(String lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    public void setNotModified(boolean notModified) {
+        this.notModified = notModified;
+    }
 }
@@ -21,16 +21,18 @@ import alpine.logging.Logger;
 import alpine.notification.Notification;
 import alpine.notification.NotificationLevel;
 import com.github.packageurl.PackageURL;
-import io.github.openunirest.http.HttpResponse;
-import io.github.openunirest.http.JsonNode;
-import io.github.openunirest.http.Unirest;
-import io.github.openunirest.http.exceptions.UnirestException;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.model.RepositoryType;
 import org.dependencytrack.notification.NotificationConstants;
 import org.dependencytrack.notification.NotificationGroup;
 import org.dependencytrack.notification.NotificationScope;
-import org.dependencytrack.util.HttpClientFactory;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.io.IOException;
 
 /**
  * An IMetaAnalyzer implementation that supports NPM.
@@ -66,7 +68,6 @@ public class NpmMetaAnalyzer extends AbstractMetaAnalyzer {
      * {@inheritDoc}
      */
     public MetaModel analyze(Component component) {
-        Unirest.setHttpClient(HttpClientFactory.createClient());
         MetaModel meta = new MetaModel(component);
         if (component.getPurl() != null) {
 
@@ -78,28 +79,33 @@ public class NpmMetaAnalyzer extends AbstractMetaAnalyzer {
             }
 
             final String url = String.format(baseUrl + API_URL, packageName);
+            HttpResponse response = null;
             try {
-                HttpResponse<JsonNode> response = Unirest.get(url)
-                        .header("accept", "application/json")
-                        .asJson();
-                if (response.getStatus() == 200) {
-                    if (response.getBody() != null && response.getBody().getObject() != null) {
-                        String latest = response.getBody().getObject().getString("latest");
+                final HttpGet request = new HttpGet(url);
+                request.setHeader("accept", "application/json");
+                response = executeConditional(request, meta);
+                if (meta.isNotModified()) {
+                    LOGGER.debug("Metadata unchanged since previous analysis: " + url);
+                } else if (response.getStatusLine().getStatusCode() == 200) {
+                    final HttpEntity entity = response.getEntity();
+                    if (entity != null) {
+                        final JSONObject json = new JSONObject(EntityUtils.toString(entity));
+                        String latest = json.getString("latest");
                         meta.setLatestVersion(latest);
                     }
                 } else {
-                    LOGGER.debug("HTTP Status : " + response.getStatus() + " " + response.getStatusText());
+                    LOGGER.debug("HTTP Status : " + response.getStatusLine().getStatusCode() + " " + response.getStatusLine().getReasonPhrase());
                     LOGGER.debug(" - RepositoryType URL : " + url);
                     LOGGER.debug(" - Package URL : " + component.getPurl().canonicalize());
                     Notification.dispatch(new Notification()
                             .scope(NotificationScope.SYSTEM)
                             .group(NotificationGroup.REPOSITORY)
                             .title(NotificationConstants.Title.REPO_ERROR)
-                            .content("An error occurred while communicating with an " + supportedRepositoryType().name() + " repository. URL: " + url + " HTTP Status: " + response.getStatus() + ". Check log for details." )
+                            .content("An error occurred while communicating with an " + supportedRepositoryType().name() + " repository. URL: " + url + " HTTP Status: " + response.getStatusLine().getStatusCode() + ". Check log for details." )
                             .level(NotificationLevel.ERROR)
                     );
                 }
-            } catch (UnirestException e) {
+            } catch (IOException | JSONException e) {
                 LOGGER.error("Request failure", e);
                 Notification.dispatch(new Notification()
                         .scope(NotificationScope.SYSTEM)
@@ -108,6 +114,11 @@ public class NpmMetaAnalyzer extends AbstractMetaAnalyzer {
                         .content("An error occurred while communicating with an " + supportedRepositoryType().name() + " repository. Check log for details. " + e.getMessage())
                         .level(NotificationLevel.ERROR)
                 );
+            } finally {
+                // Always consume the entity so that pooled connections are released
+                if (response != null) {
+                    EntityUtils.consumeQuietly(response.getEntity());
+                }
             }
         }
         return meta;
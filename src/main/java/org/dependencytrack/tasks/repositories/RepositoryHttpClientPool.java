@@ -0,0 +1,110 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks.repositories;
+
+import alpine.logging.Logger;
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.dependencytrack.util.HttpClientFactory;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds one pooled HttpClient per repository so that connections to a repository are
+ * reused across components, and limits the rate at which requests are made to each
+ * repository.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+final class RepositoryHttpClientPool implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(RepositoryHttpClientPool.class);
+
+    private final int maxConnections;
+    private final long intervalNanos;
+    private final Map<String, RepositoryClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new RepositoryHttpClientPool.
+     * @param maxConnections the maximum number of concurrent connections per repository
+     * @param requestsPerSecond the maximum number of requests per second per repository, or 0 for no limit
+     */
+    RepositoryHttpClientPool(int maxConnections, int requestsPerSecond) {
+        this.maxConnections = maxConnections;
+        this.intervalNanos = requestsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / requestsPerSecond : 0;
+    }
+
+    /**
+     * Returns the HttpClient for the repository with the specified base URL. This method
+     * blocks for as long as necessary to honor the rate limit of the repository.
+     * @param repositoryUrl the base URL of the repository
+     * @return a HttpClient
+     * @throws InterruptedException if interrupted while waiting
+     */
+    HttpClient acquire(String repositoryUrl) throws InterruptedException {
+        final RepositoryClient client = clients.computeIfAbsent(repositoryUrl,
+                url -> new RepositoryClient(HttpClientFactory.createPooledClient(url, maxConnections)));
+        client.throttle(intervalNanos);
+        return client.httpClient;
+    }
+
+    /**
+     * Closes all clients and their connection pools.
+     */
+    @Override
+    public void close() {
+        for (Map.Entry<String, RepositoryClient> entry: clients.entrySet()) {
+            try {
+                entry.getValue().httpClient.close();
+            } catch (IOException e) {
+                LOGGER.warn("An error occurred while closing the HTTP client for " + entry.getKey(), e);
+            }
+        }
+        clients.clear();
+    }
+
+    private static final class RepositoryClient {
+
+        private final CloseableHttpClient httpClient;
+        private long nextPermitted = System.nanoTime();
+
+        private RepositoryClient(CloseableHttpClient httpClient) {
+            this.httpClient = httpClient;
+        }
+
+        private void throttle(long intervalNanos) throws InterruptedException {
+            if (intervalNanos <= 0) {
+                return;
+            }
+            final long delay;
+            synchronized (this) {
+                final long now = System.nanoTime();
+                delay = nextPermitted - now;
+                nextPermitted = Math.max(now, nextPermitted) + intervalNanos;
+            }
+            if (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
+        }
+    }
+
+}
@@ -17,6 +17,7 @@
  */
 package org.dependencytrack.tasks.repositories;
 
+import alpine.Config;
 import alpine.event.framework.Event;
 import alpine.event.framework.Subscriber;
 import alpine.logging.Logger;
@@ -24,18 +25,51 @@ import alpine.persistence.PaginatedResult;
 import alpine.resources.AlpineRequest;
 import alpine.resources.OrderDirection;
 import alpine.resources.Pagination;
+import com.github.packageurl.PackageURL;
 import org.apache.commons.lang.StringUtils;
+import org.dependencytrack.DependencyTrackConfigKey;
 import org.dependencytrack.event.RepositoryMetaEvent;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.model.Repository;
 import org.dependencytrack.model.RepositoryMetaComponent;
+import org.dependencytrack.model.RepositoryType;
 import org.dependencytrack.persistence.QueryManager;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Subscriber task that retrieves the latest version (and publish date) of components from
+ * the repositories configured for the ecosystem of each component.
+ *
+ * When analyzing the portfolio, components are deduplicated by their Package URL type,
+ * namespace, and name (all versions of a package share the same metadata) and packages
+ * checked within the configured freshness window are skipped. The remaining packages are
+ * analyzed concurrently using a bounded pool of threads, with one pooled and rate limited
+ * HTTP client per repository. Stale packages are revalidated with conditional requests using
+ * the ETag and Last-Modified validators persisted with each RepositoryMetaComponent.
+ *
+ * @author Steve Springett
+ * @since 3.1.0
+ */
 public class RepositoryMetaAnalyzerTask implements Subscriber {
 
     private static final Logger LOGGER = Logger.getLogger(RepositoryMetaAnalyzerTask.class);
+    private static final int THREADS = Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.REPO_META_ANALYZER_THREADS);
+    private static final int MAX_CONNECTIONS = Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.REPO_META_ANALYZER_MAX_CONNECTIONS);
+    private static final int REQUESTS_PER_SECOND = Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.REPO_META_ANALYZER_REQUESTS_PER_SECOND);
+    private static final int FRESHNESS_HOURS = Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.REPO_META_ANALYZER_FRESHNESS_HOURS);
 
     /**
      * {@inheritDoc}
@@ -45,55 +79,226 @@ public class RepositoryMetaAnalyzerTask implements Subscriber {
         if (e instanceof RepositoryMetaEvent) {
             LOGGER.debug("Analyzing component repository metadata");
             RepositoryMetaEvent event = (RepositoryMetaEvent)e;
-            if (event.getComponent() != null) {
-                try (QueryManager qm = new QueryManager()) {
-                    // Refreshing the object by querying for it again is preventative
-                    analyze(qm, qm.getObjectById(Component.class, event.getComponent().getId()));
+            try (RepositoryHttpClientPool clientPool = new RepositoryHttpClientPool(MAX_CONNECTIONS, REQUESTS_PER_SECOND)) {
+                if (event.getComponent() != null) {
+                    analyzeComponent(clientPool, event.getComponent());
+                } else {
+                    analyzePortfolio(clientPool);
                 }
-            } else {
-                final AlpineRequest alpineRequest = new AlpineRequest(
-                        null,
-                        new Pagination(Pagination.Strategy.OFFSET, 0, 1000),
-                        null,
-                        "id",
-                        OrderDirection.ASCENDING
-                );
-                try (QueryManager qm = new QueryManager(alpineRequest)) {
-                    final long total = qm.getCount(Component.class);
-                    long count = 0;
-                    while (count < total) {
-                        final PaginatedResult result = qm.getComponents();
-                        List<Component> components = result.getList(Component.class);
-                        for (Component component: components) {
-                            analyze(qm, component);
+            }
+            LOGGER.debug("Component repository metadata analysis complete");
+        }
+    }
+
+    /**
+     * Analyzes a single component, unless its package has been checked within the freshness window.
+     */
+    private void analyzeComponent(RepositoryHttpClientPool clientPool, Component eventComponent) {
+        try (QueryManager qm = new QueryManager()) {
+            // Refreshing the object by querying for it again is preventative
+            final Component component = qm.getObjectById(Component.class, eventComponent.getId());
+            final PackageURL purl = component.getPurl();
+            if (purl == null || RepositoryType.UNSUPPORTED == RepositoryType.resolve(purl)) {
+                return;
+            }
+            final RepositoryType type = RepositoryType.resolve(purl);
+            final RepositoryMetaComponent existing = qm.getRepositoryMetaComponent(type, purl.getNamespace(), purl.getName());
+            if (existing != null && !existing.getLastCheck().before(getFreshnessThreshold())) {
+                LOGGER.debug("Skipping recently checked component: " + component.getUuid());
+                return;
+            }
+            final RepositoryMetaComponent previous = existing != null ? copy(existing) : null;
+            final RepositoryMetaComponent result = analyze(clientPool, getRepositoryUrls(qm, type), purl, previous, new AtomicInteger());
+            if (result != null) {
+                qm.synchronizeRepositoryMetaComponent(result);
+            }
+        }
+    }
+
+    /**
+     * Analyzes every unique package in the portfolio which has not been checked within the freshness window.
+     */
+    private void analyzePortfolio(RepositoryHttpClientPool clientPool) {
+        final AlpineRequest alpineRequest = new AlpineRequest(
+                null,
+                new Pagination(Pagination.Strategy.OFFSET, 0, 1000),
+                null,
+                "id",
+                OrderDirection.ASCENDING
+        );
+        final Queue<RepositoryMetaComponent> results = new ConcurrentLinkedQueue<>();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(THREADS * 10), new ThreadPoolExecutor.CallerRunsPolicy());
+        try (QueryManager qm = new QueryManager(alpineRequest)) {
+            final Map<RepositoryType, List<String>> repositoryUrls = new EnumMap<>(RepositoryType.class);
+            final Set<String> packages = new HashSet<>();
+            final Map<String, RepositoryMetaComponent> previousResults = new HashMap<>();
+            final Date threshold = getFreshnessThreshold();
+            for (RepositoryMetaComponent metaComponent: qm.getAllRepositoryMetaComponents()) {
+                final String key = createPackageKey(metaComponent.getRepositoryType(), metaComponent.getNamespace(), metaComponent.getName());
+                if (!metaComponent.getLastCheck().before(threshold)) {
+                    packages.add(key);
+                } else if (metaComponent.getMetadataUrl() != null) {
+                    // Stale, but can be revalidated using a conditional request
+                    previousResults.put(key, copy(metaComponent));
+                }
+            }
+            final int fresh = packages.size();
+            final AtomicInteger notModified = new AtomicInteger();
+            int submitted = 0;
+            int revalidated = 0;
+
+            final long total = qm.getCount(Component.class);
+            long count = 0;
+            while (count < total) {
+                final PaginatedResult result = qm.getComponents();
+                final List<Component> components = result.getList(Component.class);
+                for (Component component: components) {
+                    final PackageURL purl = component.getPurl();
+                    if (purl == null) {
+                        continue;
+                    }
+                    final RepositoryType type = RepositoryType.resolve(purl);
+                    if (RepositoryType.UNSUPPORTED == type) {
+                        continue;
+                    }
+                    final String key = createPackageKey(type, purl.getNamespace(), purl.getName());
+                    if (!packages.add(key)) {
+                        continue;
+                    }
+                    final List<String> urls = repositoryUrls.computeIfAbsent(type, t -> getRepositoryUrls(qm, t));
+                    if (!urls.isEmpty()) {
+                        final RepositoryMetaComponent previous = previousResults.remove(key);
+                        if (previous != null) {
+                            revalidated++;
                         }
-                        count += result.getObjects().size();
-                        qm.advancePagination();
+                        executor.execute(() -> {
+                            try {
+                                final RepositoryMetaComponent metaComponent = analyze(clientPool, urls, purl, previous, notModified);
+                                if (metaComponent != null) {
+                                    results.add(metaComponent);
+                                }
+                            } catch (RuntimeException ex) {
+                                LOGGER.error("An error occurred while analyzing " + purl.canonicalize(), ex);
+                            }
+                        });
+                        submitted++;
                     }
                 }
+                synchronize(qm, results);
+                count += result.getObjects().size();
+                qm.advancePagination();
             }
-            LOGGER.debug("Component repository metadata analysis complete");
+
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                synchronize(qm, results);
+            }
+            synchronize(qm, results);
+            LOGGER.info("Analyzed repository metadata of " + submitted + " package(s) from " + total
+                    + " component(s). " + fresh + " package(s) were checked within the last " + FRESHNESS_HOURS + " hour(s)");
+            if (revalidated > 0) {
+                LOGGER.info("Repository metadata of " + notModified.get() + " of " + revalidated + " revalidated package(s) was unchanged. Cache hit ratio: "
+                        + Math.round(notModified.get() * 100.0 / revalidated) + "%");
+            }
+        } catch (InterruptedException ex) {
+            LOGGER.warn("Interrupted while waiting for repository metadata analysis to complete");
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
         }
     }
 
-    private void analyze(QueryManager qm, Component component) {
-        LOGGER.debug("Analyzing component: " + component.getUuid());
-        IMetaAnalyzer analyzer = IMetaAnalyzer.build(component);
-        for (Repository repository: qm.getAllRepositoriesOrdered(analyzer.supportedRepositoryType())) {
-            analyzer.setRepositoryBaseUrl(repository.getUrl());
+    /**
+     * Queries each repository (in resolution order) for the package until the metadata is resolved.
+     * If the result of a previous analysis is specified, its cache validators are used to make the
+     * request conditional, and its latest version is retained if the metadata is unchanged.
+     * This method may be called concurrently and must not access the database.
+     * @return a transient RepositoryMetaComponent, or null if the package could not be resolved
+     */
+    private RepositoryMetaComponent analyze(RepositoryHttpClientPool clientPool, List<String> repositoryUrls, PackageURL purl,
+                                            RepositoryMetaComponent previous, AtomicInteger notModified) {
+        // Analyzers only require the Package URL. Use a transient component so that
+        // persistent objects are never shared between threads.
+        final Component component = new Component();
+        component.setPurl(purl);
+        final IMetaAnalyzer analyzer = IMetaAnalyzer.build(component);
+        analyzer.setCacheValidators(previous);
+        for (String url: repositoryUrls) {
+            try {
+                analyzer.setHttpClient(clientPool.acquire(url));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            analyzer.setRepositoryBaseUrl(url);
             MetaModel model = analyzer.analyze(component);
+            if (model.isNotModified()) {
+                // Metadata is unchanged since the previous analysis. Only the check date and validators are updated
+                notModified.incrementAndGet();
+                model.setLatestVersion(previous.getLatestVersion());
+                model.setPublishedTimestamp(previous.getPublished());
+            }
             if (StringUtils.trimToNull(model.getLatestVersion()) != null) {
                 // Resolution from repository was successful. Update meta model
                 RepositoryMetaComponent metaComponent = new RepositoryMetaComponent();
-                metaComponent.setRepositoryType(repository.getType());
-                metaComponent.setNamespace(component.getPurl().getNamespace());
-                metaComponent.setName(component.getPurl().getName());
+                metaComponent.setRepositoryType(analyzer.supportedRepositoryType());
+                metaComponent.setNamespace(purl.getNamespace());
+                metaComponent.setName(purl.getName());
                 metaComponent.setPublished(model.getPublishedTimestamp());
                 metaComponent.setLatestVersion(model.getLatestVersion());
                 metaComponent.setLastCheck(new Date());
-                qm.synchronizeRepositoryMetaComponent(metaComponent);
-                return;
+                metaComponent.setMetadataUrl(model.getMetadataUrl());
+                metaComponent.setEtag(model.getEtag());
+                metaComponent.setLastModified(model.getLastModified());
+                return metaComponent;
             }
         }
+        return null;
     }
+
+    /**
+     * Persists the results of all completed analysis.
+     */
+    private void synchronize(QueryManager qm, Queue<RepositoryMetaComponent> results) {
+        RepositoryMetaComponent metaComponent;
+        while ((metaComponent = results.poll()) != null) {
+            qm.synchronizeRepositoryMetaComponent(metaComponent);
+        }
+    }
+
+    /**
+     * Returns the URLs of the repositories of the specified type, in resolution order.
+     */
+    private List<String> getRepositoryUrls(QueryManager qm, RepositoryType type) {
+        final List<String> urls = new ArrayList<>();
+        for (Repository repository: qm.getAllRepositoriesOrdered(type)) {
+            urls.add(repository.getUrl());
+        }
+        return urls;
+    }
+
+    /**
+     * Creates a transient copy of the fields required to revalidate a RepositoryMetaComponent.
+     */
+    private RepositoryMetaComponent copy(RepositoryMetaComponent metaComponent) {
+        final RepositoryMetaComponent result = new RepositoryMetaComponent();
+        result.setRepositoryType(metaComponent.getRepositoryType());
+        result.setNamespace(metaComponent.getNamespace());
+        result.setName(metaComponent.getName());
+        result.setLatestVersion(metaComponent.getLatestVersion());
+        result.setPublished(metaComponent.getPublished());
+        result.setMetadataUrl(metaComponent.getMetadataUrl());
+        result.setEtag(metaComponent.getEtag());
+        result.setLastModified(metaComponent.getLastModified());
+        return result;
+    }
+
+    private Date getFreshnessThreshold() {
+        return new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(FRESHNESS_HOURS));
+    }
+
+    private static String createPackageKey(RepositoryType type, String namespace, String name) {
+        return type.name() + "|" + namespace + "|" + name;
+    }
+
 }
@@ -18,14 +18,13 @@
 package org.dependencytrack.tasks.scanners;
 
 import alpine.logging.Logger;
-import alpine.model.ConfigProperty;
 import alpine.persistence.PaginatedResult;
 import alpine.resources.AlpineRequest;
 import alpine.resources.OrderDirection;
 import alpine.resources.Pagination;
-import alpine.util.BooleanUtil;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.model.ConfigPropertyConstants;
+import org.dependencytrack.persistence.ConfigPropertyCache;
 import org.dependencytrack.persistence.QueryManager;
 
 /**
@@ -55,15 +54,7 @@ public abstract class BaseComponentAnalyzerTask implements ScanTask {
     }
 
     protected boolean isEnabled(ConfigPropertyConstants configPropertyConstants) {
-        try (QueryManager qm = new QueryManager()) {
-            ConfigProperty property = qm.getConfigProperty(
-                    configPropertyConstants.getGroupName(), configPropertyConstants.getPropertyName()
-            );
-            if (ConfigProperty.PropertyType.BOOLEAN == property.getPropertyType()) {
-                return BooleanUtil.valueOf(property.getPropertyValue());
-            }
-            return false;
-        }
+        return ConfigPropertyCache.getInstance().getBoolean(configPropertyConstants);
     }
 
     /**
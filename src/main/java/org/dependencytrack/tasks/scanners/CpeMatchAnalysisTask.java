@@ -0,0 +1,146 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks.scanners;
+
+import alpine.event.framework.Event;
+import alpine.event.framework.Subscriber;
+import alpine.logging.Logger;
+import com.github.packageurl.PackageURL;
+import org.dependencytrack.event.CpeMatchAnalysisEvent;
+import org.dependencytrack.event.EventPipeline;
+import org.dependencytrack.event.MetricsUpdateEvent;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.ConfigPropertyConstants;
+import org.dependencytrack.model.Vulnerability;
+import org.dependencytrack.persistence.QueryManager;
+import org.dependencytrack.util.NotificationUtil;
+import us.springett.parsers.cpe.Cpe;
+import us.springett.parsers.cpe.CpeParser;
+import us.springett.parsers.cpe.CpeParsingException;
+import javax.jdo.JDOObjectNotFoundException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Subscriber task that performs an analysis of components against the CPE match criteria
+ * of the mirrored NVD vulnerabilities, using the in-memory {@link CpeMatchIndex}.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public class CpeMatchAnalysisTask extends BaseComponentAnalyzerTask implements Subscriber {
+
+    private static final Logger LOGGER = Logger.getLogger(CpeMatchAnalysisTask.class);
+
+    /**
+     * {@inheritDoc}
+     */
+    public void inform(Event e) {
+        if (e instanceof CpeMatchAnalysisEvent) {
+            if (!super.isEnabled(ConfigPropertyConstants.SCANNER_CPEMATCH_ENABLED)) {
+                return;
+            }
+            final CpeMatchAnalysisEvent event = (CpeMatchAnalysisEvent)e;
+            LOGGER.info("Starting CPE match analysis task");
+            CpeMatchIndex.getInstance().ensureLoaded();
+            if (event.getComponents().size() > 0) {
+                analyze(event.getComponents());
+            } else {
+                super.analyze();
+            }
+            LOGGER.info("CPE match analysis complete");
+        }
+    }
+
+    /**
+     * Determines if the {@link CpeMatchAnalysisTask} is suitable for analysis based on the PackageURL.
+     * Components without a PackageURL may still be analyzed if they have a CPE.
+     *
+     * @param purl the PackageURL to analyze
+     * @return true if CpeMatchAnalysisTask should analyze, false if not
+     */
+    public boolean shouldAnalyze(PackageURL purl) {
+        return purl != null;
+    }
+
+    /**
+     * Analyzes a list of Components.
+     * @param components a list of Components
+     */
+    public void analyze(List<Component> components) {
+        final CpeMatchIndex index = CpeMatchIndex.getInstance();
+        if (index.isEmpty()) {
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        final Map<Long, Vulnerability> vulnerabilities = new HashMap<>();
+        try (QueryManager qm = new QueryManager()) {
+            for (final Component component: components) {
+                final Set<Long> vulnerabilityIds = match(index, component);
+                for (final Long id: vulnerabilityIds) {
+                    final Vulnerability vulnerability = vulnerabilities.computeIfAbsent(id, k -> getVulnerability(qm, k));
+                    if (vulnerability != null) {
+                        NotificationUtil.analyzeNotificationCriteria(vulnerability, component);
+                        qm.addVulnerability(vulnerability, component);
+                    }
+                }
+                if (!vulnerabilityIds.isEmpty()) {
+                    EventPipeline.getInstance().dispatch(new MetricsUpdateEvent(component));
+                }
+            }
+        }
+        LOGGER.debug("Matched " + components.size() + " component(s) in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Returns the vulnerability with the specified id, or null if it has been deleted since the
+     * index was loaded.
+     */
+    private Vulnerability getVulnerability(QueryManager qm, long id) {
+        try {
+            return qm.getObjectById(Vulnerability.class, id);
+        } catch (JDOObjectNotFoundException e) {
+            LOGGER.debug("Vulnerability " + id + " no longer exists");
+            return null;
+        }
+    }
+
+    /**
+     * Matches a component by its CPE if it has one, and otherwise by the CPE derived from its PackageURL.
+     */
+    private Set<Long> match(CpeMatchIndex index, Component component) {
+        if (component.getCpe() != null) {
+            try {
+                final Cpe cpe = CpeParser.parse(component.getCpe());
+                String version = cpe.getVersion();
+                if (version == null || "*".equals(version) || "-".equals(version)) {
+                    version = component.getVersion();
+                }
+                return index.match(cpe.getVendor(), cpe.getProduct(), version);
+            } catch (CpeParsingException e) {
+                LOGGER.warn("An error occurred while parsing CPE: " + component.getCpe());
+            }
+        }
+        final PackageURL purl = component.getPurl();
+        return (purl != null) ? index.match(purl) : Collections.emptySet();
+    }
+}
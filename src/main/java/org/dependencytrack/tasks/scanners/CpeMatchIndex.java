@@ -0,0 +1,381 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks.scanners;
+
+import alpine.logging.Logger;
+import com.github.packageurl.PackageURL;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.dependencytrack.model.VulnerableSoftware;
+import org.dependencytrack.persistence.QueryManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-memory index of the CPE match criteria of mirrored NVD vulnerabilities. Criteria are
+ * keyed by vendor and product, and the affected versions of each product are held as ranges
+ * sorted by their lower bound, so that a component can be matched without querying the
+ * database or running an external process.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class CpeMatchIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(CpeMatchIndex.class);
+    private static final CpeMatchIndex INSTANCE = new CpeMatchIndex();
+
+    /**
+     * Qualifiers denoting a final release, which are equivalent to the plain version (1.0.Final equals 1.0).
+     */
+    private static final Set<String> RELEASE_QUALIFIERS = new HashSet<>(Arrays.asList("final", "release", "ga"));
+
+    private static final Comparator<Range> BY_START = (a, b) -> {
+        if (a.start == null || b.start == null) {
+            return Boolean.compare(a.start != null, b.start != null);
+        }
+        return compareVersions(a.start, b.start);
+    };
+
+    private final Map<String, List<Range>> products = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> vendorsByProduct = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> keysByVulnerability = new HashMap<>();
+    private final Map<String, String> productsByKey = new HashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * Constructor is package-private so that tests may create isolated indexes.
+     */
+    CpeMatchIndex() { }
+
+    public static CpeMatchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Loads the CPE match criteria of all vulnerabilities if the index has not already been loaded.
+     */
+    public void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            final long start = System.currentTimeMillis();
+            final Map<Long, List<VulnerableSoftware>> criteria = new HashMap<>();
+            try (QueryManager qm = new QueryManager()) {
+                for (final Object[] row: qm.getVulnerableSoftwareRanges()) {
+                    final VulnerableSoftware vs = new VulnerableSoftware();
+                    vs.setVendor((String) row[1]);
+                    vs.setProduct((String) row[2]);
+                    vs.setVersion((String) row[3]);
+                    vs.setVersionStartIncluding((String) row[4]);
+                    vs.setVersionStartExcluding((String) row[5]);
+                    vs.setVersionEndIncluding((String) row[6]);
+                    vs.setVersionEndExcluding((String) row[7]);
+                    criteria.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(vs);
+                }
+            }
+            for (final Map.Entry<Long, List<VulnerableSoftware>> entry: criteria.entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
+            loaded = true;
+            LOGGER.info("Indexed CPE match criteria of " + criteria.size() + " vulnerabilities for "
+                    + products.size() + " product(s) in " + (System.currentTimeMillis() - start) + " ms");
+        }
+    }
+
+    /**
+     * Replaces the CPE match criteria of a vulnerability. Only has an effect once the index
+     * has been loaded, as the criteria will otherwise be picked up by the initial load.
+     * @param vulnerabilityId the id of the vulnerability
+     * @param vulnerableSoftware the CPE match criteria of the vulnerability
+     */
+    public void update(long vulnerabilityId, List<VulnerableSoftware> vulnerableSoftware) {
+        if (loaded) {
+            put(vulnerabilityId, vulnerableSoftware);
+        }
+    }
+
+    /**
+     * Replaces the CPE match criteria of a vulnerability.
+     */
+    synchronized void put(long vulnerabilityId, List<VulnerableSoftware> vulnerableSoftware) {
+        final Map<String, List<Range>> additions = new HashMap<>();
+        for (final VulnerableSoftware vs: vulnerableSoftware) {
+            final Range range = Range.of(vulnerabilityId, vs);
+            if (range != null) {
+                final String key = createKey(vs.getVendor(), vs.getProduct());
+                additions.computeIfAbsent(key, k -> new ArrayList<>()).add(range);
+                vendorsByProduct.computeIfAbsent(vs.getProduct().toLowerCase(), k -> ConcurrentHashMap.newKeySet())
+                        .add(vs.getVendor().toLowerCase());
+                productsByKey.put(key, vs.getProduct().toLowerCase());
+            }
+        }
+        final Set<String> keys = new HashSet<>(additions.keySet());
+        final Set<String> previous = keysByVulnerability.remove(vulnerabilityId);
+        if (previous != null) {
+            keys.addAll(previous);
+        }
+        // Lists are replaced rather than modified so that readers never observe a partial list
+        for (final String key: keys) {
+            final List<Range> ranges = new ArrayList<>(products.getOrDefault(key, Collections.emptyList()));
+            ranges.removeIf(r -> r.vulnerabilityId == vulnerabilityId);
+            ranges.addAll(additions.getOrDefault(key, Collections.emptyList()));
+            if (ranges.isEmpty()) {
+                products.remove(key);
+                removeVendor(key);
+            } else {
+                ranges.sort(BY_START);
+                products.put(key, Collections.unmodifiableList(ranges));
+            }
+        }
+        if (!additions.isEmpty()) {
+            keysByVulnerability.put(vulnerabilityId, additions.keySet());
+        }
+    }
+
+    /**
+     * Removes the vendor of a key which no longer has any criteria from the vendors of its product.
+     */
+    private void removeVendor(String key) {
+        final String product = productsByKey.remove(key);
+        if (product == null) {
+            return;
+        }
+        final String vendor = key.substring(0, key.length() - product.length() - 1);
+        final Set<String> vendors = vendorsByProduct.get(product);
+        if (vendors != null) {
+            vendors.remove(vendor);
+            if (vendors.isEmpty()) {
+                vendorsByProduct.remove(product);
+            }
+        }
+    }
+
+    /**
+     * Returns the vendors which have CPE match criteria for the specified product.
+     */
+    Set<String> getVendors(String product) {
+        return vendorsByProduct.getOrDefault(product, Collections.emptySet());
+    }
+
+    /**
+     * Returns the ids of the vulnerabilities affecting the specified version of a product.
+     * @param vendor the CPE vendor
+     * @param product the CPE product
+     * @param version the version
+     * @return a Set of vulnerability ids
+     */
+    public Set<Long> match(String vendor, String product, String version) {
+        final List<Range> ranges = (vendor == null || product == null) ? null : products.get(createKey(vendor, product));
+        if (ranges == null || StringUtils.isBlank(version)) {
+            return Collections.emptySet();
+        }
+        final Set<Long> vulnerabilityIds = new LinkedHashSet<>();
+        for (final Range range: ranges) {
+            if (range.start != null && compareVersions(range.start, version) > 0) {
+                break; // All remaining ranges start above the version
+            }
+            if (range.contains(version)) {
+                vulnerabilityIds.add(range.vulnerabilityId);
+            }
+        }
+        return vulnerabilityIds;
+    }
+
+    /**
+     * Returns the ids of the vulnerabilities affecting the component identified by the PackageURL.
+     * The product is derived from the name of the package, and is only matched for vendors which
+     * appear in the namespace of the package or which are equal to the product.
+     * @param purl the PackageURL of the component
+     * @return a Set of vulnerability ids
+     */
+    public Set<Long> match(PackageURL purl) {
+        if (purl == null || purl.getVersion() == null) {
+            return Collections.emptySet();
+        }
+        final Set<String> segments = new HashSet<>();
+        if (purl.getNamespace() != null) {
+            for (final String segment: purl.getNamespace().toLowerCase().split("[./@]")) {
+                segments.add(segment);
+            }
+        }
+        final String name = purl.getName().toLowerCase();
+        final Set<Long> vulnerabilityIds = new LinkedHashSet<>();
+        for (final String product: new LinkedHashSet<>(Arrays.asList(name, name.replace('-', '_')))) {
+            for (final String vendor: getVendors(product)) {
+                if (vendor.equals(product) || segments.contains(vendor)) {
+                    vulnerabilityIds.addAll(match(vendor, product, purl.getVersion()));
+                }
+            }
+        }
+        return vulnerabilityIds;
+    }
+
+    /**
+     * Returns true if the index does not contain any CPE match criteria.
+     */
+    public boolean isEmpty() {
+        return products.isEmpty();
+    }
+
+    private static String createKey(String vendor, String product) {
+        return vendor.toLowerCase() + ":" + product.toLowerCase();
+    }
+
+    /**
+     * Compares two versions by splitting them into runs of digits and letters. Runs of digits
+     * are compared numerically and are considered greater than runs of letters, which are
+     * compared case-insensitively. When one version is a prefix of the other, the longer
+     * version is greater unless it continues with letters (as in 1.0 and 1.0rc1) or zeros.
+     * Qualifiers of final releases (Final, RELEASE and GA) are disregarded.
+     * @param a the first version
+     * @param b the second version
+     * @return a negative integer, zero, or a positive integer
+     */
+    static int compareVersions(String a, String b) {
+        final List<String> ta = tokenize(a);
+        final List<String> tb = tokenize(b);
+        for (int i = 0; i < Math.min(ta.size(), tb.size()); i++) {
+            final String x = ta.get(i);
+            final String y = tb.get(i);
+            final boolean numericX = Character.isDigit(x.charAt(0));
+            final boolean numericY = Character.isDigit(y.charAt(0));
+            int result;
+            if (numericX && numericY) {
+                final String nx = StringUtils.stripStart(x, "0");
+                final String ny = StringUtils.stripStart(y, "0");
+                result = Integer.compare(nx.length(), ny.length());
+                if (result == 0) {
+                    result = nx.compareTo(ny);
+                }
+            } else if (numericX != numericY) {
+                result = numericX ? 1 : -1;
+            } else {
+                result = x.compareToIgnoreCase(y);
+            }
+            if (result != 0) {
+                return result;
+            }
+        }
+        // Trailing zeros are insignificant (1.0 equals 1.0.0), trailing letters denote a pre-release
+        final List<String> longer = (ta.size() > tb.size()) ? ta : tb;
+        for (int i = Math.min(ta.size(), tb.size()); i < longer.size(); i++) {
+            final String next = longer.get(i);
+            if (!Character.isDigit(next.charAt(0))) {
+                return (longer == ta) ? -1 : 1;
+            } else if (!StringUtils.stripStart(next, "0").isEmpty()) {
+                return (longer == ta) ? 1 : -1;
+            }
+        }
+        return 0;
+    }
+
+    private static List<String> tokenize(String version) {
+        final List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= version.length(); i++) {
+            final char c = (i < version.length()) ? version.charAt(i) : '.';
+            final boolean boundary = !Character.isLetterOrDigit(c)
+                    || (start >= 0 && Character.isDigit(c) != Character.isDigit(version.charAt(start)));
+            if (boundary && start >= 0) {
+                final String token = version.substring(start, i);
+                if (!RELEASE_QUALIFIERS.contains(token.toLowerCase())) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+            if (Character.isLetterOrDigit(c) && start < 0) {
+                start = i;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * A range of affected versions. A null bound is unbounded.
+     */
+    private static final class Range {
+        private final long vulnerabilityId;
+        private final String start;
+        private final boolean startInclusive;
+        private final String end;
+        private final boolean endInclusive;
+
+        private Range(long vulnerabilityId, String start, boolean startInclusive, String end, boolean endInclusive) {
+            this.vulnerabilityId = vulnerabilityId;
+            this.start = start;
+            this.startInclusive = startInclusive;
+            this.end = end;
+            this.endInclusive = endInclusive;
+        }
+
+        /**
+         * Creates a range from CPE match criteria. A criteria without a version range applies to
+         * the version in the CPE, or to all versions if the version is a wildcard.
+         * @return a Range, or null if the criteria does not apply to any specific version
+         */
+        private static Range of(long vulnerabilityId, VulnerableSoftware vs) {
+            if (vs.getVendor() == null || vs.getProduct() == null) {
+                return null;
+            }
+            final String start = ObjectUtils.firstNonNull(vs.getVersionStartIncluding(), vs.getVersionStartExcluding());
+            final String end = ObjectUtils.firstNonNull(vs.getVersionEndIncluding(), vs.getVersionEndExcluding());
+            if (start != null || end != null) {
+                return new Range(vulnerabilityId, start, vs.getVersionStartIncluding() != null,
+                        end, vs.getVersionEndIncluding() != null);
+            }
+            final String version = vs.getVersion();
+            if (version == null || "*".equals(version)) {
+                return new Range(vulnerabilityId, null, false, null, false);
+            }
+            if ("-".equals(version)) {
+                return null;
+            }
+            return new Range(vulnerabilityId, version, true, version, true);
+        }
+
+        private boolean contains(String version) {
+            if (start != null) {
+                final int cmp = compareVersions(version, start);
+                if (cmp < 0 || (cmp == 0 && !startInclusive)) {
+                    return false;
+                }
+            }
+            if (end != null) {
+                final int cmp = compareVersions(version, end);
+                if (cmp > 0 || (cmp == 0 && !endInclusive)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks.scanners;
+
+import alpine.logging.Logger;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.parser.dependencycheck.util.ModelConverter;
+import org.dependencytrack.util.HttpClientFactory;
+import org.owasp.dependencycheck.Engine;
+import org.owasp.dependencycheck.data.nvdcve.DatabaseException;
+import org.owasp.dependencycheck.data.update.exception.UpdateException;
+import org.owasp.dependencycheck.dependency.Dependency;
+import org.owasp.dependencycheck.dependency.Vulnerability;
+import org.owasp.dependencycheck.exception.ExceptionCollection;
+import org.owasp.dependencycheck.utils.Settings;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.dependencytrack.tasks.NistMirrorTask.NVD_MIRROR_DIR;
+
+/**
+ * A long-lived Dependency-Check engine. The engine and its vulnerability database are kept open
+ * between analyses, and results are returned as in-memory objects rather than a report. The
+ * database is only updated when {@link #update()} is invoked, which happens on the update-only
+ * schedule after the NVD has been mirrored.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class DependencyCheckEngine {
+
+    private static final Logger LOGGER = Logger.getLogger(DependencyCheckEngine.class);
+    private static final DependencyCheckEngine INSTANCE = new DependencyCheckEngine();
+
+    private String dataDirectory;
+    private String propertiesFile;
+    private String suppressionFile;
+    private Settings settings;
+    private Engine engine;
+
+    /**
+     * Private constructor.
+     */
+    private DependencyCheckEngine() { }
+
+    public static DependencyCheckEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Specifies the directories and files used by the engine. Changes take effect the next time
+     * the engine is opened.
+     * @param dataDirectory the Dependency-Check data directory
+     * @param propertiesFile an optional properties file to merge into the settings
+     * @param suppressionFile an optional suppression file
+     */
+    public synchronized void configure(String dataDirectory, String propertiesFile, String suppressionFile) {
+        this.dataDirectory = dataDirectory;
+        this.propertiesFile = propertiesFile;
+        this.suppressionFile = suppressionFile;
+    }
+
+    /**
+     * Analyzes a batch of components.
+     * @param components the components to analyze
+     * @return a Map of component id to the vulnerabilities identified in the component
+     */
+    public synchronized Map<Long, List<Vulnerability>> analyze(List<Component> components) {
+        final Map<Long, List<Vulnerability>> results = new HashMap<>();
+        if (components.isEmpty()) {
+            return results;
+        }
+        final long start = System.currentTimeMillis();
+        final Map<Dependency, Long> componentIds = new IdentityHashMap<>();
+        final List<Dependency> dependencies = new ArrayList<>();
+        for (final Component component: components) {
+            final Dependency dependency = ModelConverter.convert(component);
+            componentIds.put(dependency, component.getId());
+            dependencies.add(dependency);
+        }
+        final Engine engine = open();
+        engine.setDependencies(dependencies);
+        try {
+            engine.analyzeDependencies();
+        } catch (ExceptionCollection e) {
+            if (e.isFatal()) {
+                LOGGER.error("A fatal error occurred during Dependency-Check analysis", e);
+                engine.setDependencies(new ArrayList<>());
+                return results;
+            }
+            LOGGER.warn("Dependency-Check analysis completed with errors: " + e.getMessage());
+        }
+        for (final Dependency dependency: engine.getDependencies()) {
+            // Dependencies may have been bundled together. The results apply to each of them.
+            final List<Dependency> bundle = new ArrayList<>();
+            bundle.add(dependency);
+            bundle.addAll(dependency.getRelatedDependencies());
+            for (final Dependency bundled: bundle) {
+                final Long componentId = componentIds.get(bundled);
+                if (componentId != null) {
+                    results.put(componentId, new ArrayList<>(dependency.getVulnerabilities()));
+                }
+            }
+        }
+        engine.setDependencies(new ArrayList<>());
+        final long duration = Math.max(1, System.currentTimeMillis() - start);
+        LOGGER.info("Dependency-Check analyzed " + components.size() + " component(s) in " + duration + " ms ("
+                + String.format("%.1f", components.size() * 1000.0 / duration) + " components/s)");
+        return results;
+    }
+
+    /**
+     * Updates the Dependency-Check database from the local NVD mirror. The engine is reopened
+     * on the next analysis.
+     */
+    public synchronized void update() {
+        close();
+        final Settings updateSettings = createSettings(true);
+        try (Engine updateEngine = new Engine(updateSettings)) {
+            updateEngine.doUpdates();
+        } catch (UpdateException | DatabaseException e) {
+            LOGGER.error("An error occurred updating the Dependency-Check database", e);
+        } finally {
+            updateSettings.cleanup(false);
+        }
+    }
+
+    /**
+     * Closes the engine and releases the database.
+     */
+    public synchronized void close() {
+        if (engine != null) {
+            engine.close();
+            engine = null;
+        }
+        if (settings != null) {
+            settings.cleanup(false);
+            settings = null;
+        }
+    }
+
+    private Engine open() {
+        if (engine != null) {
+            return engine;
+        }
+        if (!databaseExists()) {
+            LOGGER.info("The Dependency-Check database does not exist. Performing an update prior to analysis");
+            update();
+        }
+        // The database is opened by the first analysis and remains open until the engine is closed
+        settings = createSettings(false);
+        engine = new Engine(settings);
+        return engine;
+    }
+
+    private boolean databaseExists() {
+        final Settings defaults = createSettings(false);
+        try {
+            return new File(dataDirectory, defaults.getString(Settings.KEYS.DB_FILE_NAME, "odc.mv.db")).exists();
+        } finally {
+            defaults.cleanup(false);
+        }
+    }
+
+    private Settings createSettings(boolean autoUpdate) {
+        final Settings settings = new Settings();
+        if (propertiesFile != null) {
+            try {
+                settings.mergeProperties(propertiesFile);
+            } catch (IOException e) {
+                LOGGER.error("An error occurred merging the Dependency-Check properties file", e);
+            }
+        }
+        settings.setString(Settings.KEYS.DATA_DIRECTORY, dataDirectory);
+        settings.setBoolean(Settings.KEYS.AUTO_UPDATE, autoUpdate);
+        settings.setStringIfNotEmpty(Settings.KEYS.SUPPRESSION_FILE, suppressionFile);
+
+        final HttpClientFactory.ProxyInfo proxyInfo = HttpClientFactory.createProxyInfo();
+        if (proxyInfo != null) {
+            settings.setStringIfNotEmpty(Settings.KEYS.PROXY_SERVER, proxyInfo.getHost());
+            settings.setStringIfNotEmpty(Settings.KEYS.PROXY_PORT, String.valueOf(proxyInfo.getPort()));
+            settings.setStringIfNotEmpty(Settings.KEYS.PROXY_USERNAME, proxyInfo.getUsername());
+            settings.setStringIfNotEmpty(Settings.KEYS.PROXY_PASSWORD, proxyInfo.getPassword());
+        }
+        try {
+            final String mirror = new File(NVD_MIRROR_DIR + File.separator).toURI().toURL().toExternalForm();
+            settings.setString(Settings.KEYS.CVE_SCHEMA_1_2, mirror + "nvdcve-%d.xml.gz");
+            settings.setString(Settings.KEYS.CVE_SCHEMA_2_0, mirror + "nvdcve-2.0-%d.xml.gz");
+            settings.setString(Settings.KEYS.CVE_MODIFIED_12_URL, mirror + "nvdcve-modified.xml.gz");
+            settings.setString(Settings.KEYS.CVE_MODIFIED_20_URL, mirror + "nvdcve-2.0-modified.xml.gz");
+        } catch (MalformedURLException e) {
+            LOGGER.error("The local file URL Dependency-Check is using to retrieve the NVD mirrored contents is invalid", e);
+        }
+        return settings;
+    }
+}
@@ -22,27 +22,20 @@ import alpine.event.framework.Event;
 import alpine.event.framework.Subscriber;
 import alpine.logging.Logger;
 import com.github.packageurl.PackageURL;
-import org.owasp.dependencycheck.agent.DependencyCheckScanAgent;
-import org.owasp.dependencycheck.exception.ScanAgentException;
-import org.owasp.dependencycheck.reporting.ReportGenerator;
 import org.dependencytrack.event.DependencyCheckEvent;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.event.MetricsUpdateEvent;
-import org.dependencytrack.exception.ParseException;
 import org.dependencytrack.model.Component;
 import org.dependencytrack.model.ConfigPropertyConstants;
 import org.dependencytrack.model.Vulnerability;
-import org.dependencytrack.parser.dependencycheck.DependencyCheckParser;
-import org.dependencytrack.parser.dependencycheck.model.Analysis;
 import org.dependencytrack.parser.dependencycheck.util.ModelConverter;
 import org.dependencytrack.persistence.QueryManager;
-import org.dependencytrack.util.HttpClientFactory;
 import org.dependencytrack.util.NotificationUtil;
 import java.io.File;
-import java.net.MalformedURLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-
-import static org.dependencytrack.tasks.NistMirrorTask.NVD_MIRROR_DIR;
+import java.util.Map;
 
 /**
  * Subscriber task that performs a Dependency-Check analysis or update.
@@ -55,8 +48,6 @@ public class DependencyCheckTask extends BaseComponentAnalyzerTask implements Sc
     private static final Logger LOGGER = Logger.getLogger(DependencyCheckTask.class);
     private static final String DC_ROOT_DIR = Config.getInstance().getDataDirectorty().getAbsolutePath() + File.separator + "dependency-check";
     private static final String DC_DATA_DIR = DC_ROOT_DIR + File.separator + "data";
-    private static final String DC_REPORT_DIR = DC_ROOT_DIR + File.separator + "reports";
-    private static final String DC_REPORT_FILE = DC_REPORT_DIR + File.separator + "dependency-check-report.xml";
     private static final String DC_GLOBAL_PROPERTIES = DC_ROOT_DIR + File.separator + "dependency-check.properties";
     private static final String DC_GLOBAL_SUPPRESSION = DC_ROOT_DIR + File.separator + "suppressions.xml";
 
@@ -70,7 +61,6 @@ public class DependencyCheckTask extends BaseComponentAnalyzerTask implements Sc
             }
             setupOdcDirectoryStructure(DC_ROOT_DIR);
             setupOdcDirectoryStructure(DC_DATA_DIR);
-            setupOdcDirectoryStructure(DC_REPORT_DIR);
             final DependencyCheckEvent event = (DependencyCheckEvent) e;
             if (DependencyCheckEvent.Action.ANALYZE == event.getAction()) {
                 if (event.getComponents().size() > 0) {
@@ -120,12 +110,8 @@ public class DependencyCheckTask extends BaseComponentAnalyzerTask implements Sc
      */
     private void performUpdateOnly() {
         LOGGER.info("Executing Dependency-Check update-only task");
-        DependencyCheckScanAgent scanAgent = createScanAgent(true);
-        try {
-            scanAgent.execute();
-        } catch (ScanAgentException ex) {
-            LOGGER.error("An error occurred executing Dependency-Check scan agent", ex);
-        }
+        configureEngine();
+        DependencyCheckEngine.getInstance().update();
         LOGGER.info("Dependency-Check update-only complete");
     }
 
@@ -135,72 +121,54 @@ public class DependencyCheckTask extends BaseComponentAnalyzerTask implements Sc
      */
     public void analyze(List<Component> components) {
         LOGGER.info("Executing Dependency-Check analysis task");
-        // Iterate through the components, create evidence, and create the resulting dependency
-        final List<org.owasp.dependencycheck.dependency.Dependency> dependencies = new ArrayList<>();
+        final List<Component> candidates = new ArrayList<>();
         for (Component component: components) {
 
             // Check to see that Dependency-Check only analyzes ecosystems
             // and uses analyzers capable of supporting Dependency-Track
             PackageURL purl = component.getPurl();
             if (shouldAnalyze(purl)) {
-                dependencies.add(ModelConverter.convert(component));
+                candidates.add(component);
             }
 
         }
-        LOGGER.info("Analyzing " + dependencies.size() + " component(s)");
-        DependencyCheckScanAgent scanAgent = createScanAgent(false);
-        scanAgent.setDependencies(dependencies);
-
-        // If a global properties file exists, use it.
-        final File properties = new File(DC_GLOBAL_PROPERTIES);
-        if (properties.exists() && properties.isFile()) {
-            scanAgent.setPropertiesFilePath(properties.getAbsolutePath());
-        }
-
-        // If a global suppression file exists, use it.
-        final File suppressions = new File(DC_GLOBAL_SUPPRESSION);
-        if (suppressions.exists() && suppressions.isFile()) {
-            scanAgent.setSuppressionFile(suppressions.getAbsolutePath());
-        }
-
-        try {
-            scanAgent.execute();
-            processResults();
-            LOGGER.info("Dependency-Check analysis complete");
-        } catch (ScanAgentException ex) {
-            LOGGER.error("An error occurred executing Dependency-Check scan agent", ex);
-        }
+        LOGGER.info("Analyzing " + candidates.size() + " component(s)");
+        configureEngine();
+        final Map<Long, List<org.owasp.dependencycheck.dependency.Vulnerability>> results =
+                DependencyCheckEngine.getInstance().analyze(candidates);
+        processResults(candidates, results);
+        LOGGER.info("Dependency-Check analysis complete");
     }
 
     /**
      * Processes Dependency-Check results after the completion of a scan.
      */
-    private void processResults() {
+    private void processResults(List<Component> components,
+                                Map<Long, List<org.owasp.dependencycheck.dependency.Vulnerability>> results) {
         LOGGER.info("Processing Dependency-Check analysis results");
         try (QueryManager qm = new QueryManager()) {
-            final Analysis analysis = new DependencyCheckParser().parse(new File(DC_REPORT_FILE));
-            for (org.dependencytrack.parser.dependencycheck.model.Dependency dependency : analysis.getDependencies()) {
-                // Resolve internally stored component
-                // The dependency filePath contains the UUID and the filename of the component - Specified in ModelConverter
-                int separator = dependency.getFilePath().indexOf(File.separator);
-                if (separator != 36) {
-                    LOGGER.warn("Component cannot be resolved. Missing file separator or invalid component UUID.");
+            // Vulnerabilities are commonly shared by components in the same batch
+            final Map<String, Vulnerability> resolved = new HashMap<>();
+            for (Component analyzed : components) {
+                final Component component = qm.getObjectById(Component.class, analyzed.getId());
+                if (component == null) {
                     continue;
                 }
-                String uuid = dependency.getFilePath().substring(0, separator);
-                final Component component = qm.getObjectByUuid(Component.class, uuid);
-                final org.dependencytrack.parser.dependencycheck.model.Dependency.Vulnerabilities vulnerabilities = dependency.getVulnerabilities();
+                final List<org.owasp.dependencycheck.dependency.Vulnerability> vulnerabilities = results.get(analyzed.getId());
 
                 // Add vulnerability to an affected component
-                if (vulnerabilities != null && vulnerabilities.getVulnerabilities() != null) {
-                    for (org.dependencytrack.parser.dependencycheck.model.Vulnerability vulnerability : vulnerabilities.getVulnerabilities()) {
+                if (vulnerabilities != null) {
+                    for (org.owasp.dependencycheck.dependency.Vulnerability vulnerability : vulnerabilities) {
                         // Resolve internally stored vulnerability
-                        Vulnerability internalVuln = qm.getVulnerabilityByVulnId(vulnerability.getSource(), vulnerability.getName());
+                        final String source = ModelConverter.convertSource(vulnerability);
+                        Vulnerability internalVuln = resolved.computeIfAbsent(source + ":" + vulnerability.getName(),
+                                key -> qm.getVulnerabilityByVulnId(source, vulnerability.getName()));
                         if (internalVuln == null) {
                             // For some reason, the vulnerability discovered in the scan does not exist in the ODT database.
                             // This could be due to timing issue where the scan picked up a new vuln prior to ODT doing so,
                             // or it might be due to a ODC plugin that uses a vulnerability datasource that ODT does not support.
                             internalVuln = qm.createVulnerability(ModelConverter.convert(qm, vulnerability), true);
+                            resolved.put(source + ":" + vulnerability.getName(), internalVuln);
                         }
                         NotificationUtil.analyzeNotificationCriteria(internalVuln, component);
                         qm.addVulnerability(internalVuln, component);
@@ -231,39 +199,23 @@ public class DependencyCheckTask extends BaseComponentAnalyzerTask implements Sc
                 }
                 */
 
-                Event.dispatch(new MetricsUpdateEvent(component));
+                EventPipeline.getInstance().dispatch(new MetricsUpdateEvent(component));
 
             }
-        } catch (ParseException e) {
-            LOGGER.error("An error occurred while parsing Dependency-Check report", e);
         }
         LOGGER.info("Processing complete");
     }
 
-    private DependencyCheckScanAgent createScanAgent(boolean update) {
-        final DependencyCheckScanAgent scanAgent = new DependencyCheckScanAgent();
-        scanAgent.setDataDirectory(DC_DATA_DIR);
-        scanAgent.setReportOutputDirectory(DC_REPORT_DIR);
-        scanAgent.setReportFormat(ReportGenerator.Format.XML);
-        scanAgent.setAutoUpdate(true);
-        scanAgent.setUpdateOnly(update);
-        //scanAgent.setCpeStartsWithFilter("cpe:"); //todo: will be available in 3.1.1
-
-        HttpClientFactory.ProxyInfo proxyInfo = HttpClientFactory.createProxyInfo();
-        if (proxyInfo != null) {
-            scanAgent.setProxyServer(proxyInfo.getHost());
-            scanAgent.setProxyPort(String.valueOf(proxyInfo.getPort()));
-            scanAgent.setProxyUsername(proxyInfo.getUsername());
-            scanAgent.setProxyPassword(proxyInfo.getPassword());
-        }
-        try {
-            scanAgent.setCveUrl12Base(new File(NVD_MIRROR_DIR + File.separator).toURI().toURL().toExternalForm() + "nvdcve-%d.xml.gz");
-            scanAgent.setCveUrl20Base(new File(NVD_MIRROR_DIR + File.separator).toURI().toURL().toExternalForm() + "nvdcve-2.0-%d.xml.gz");
-            scanAgent.setCveUrl12Modified(new File(NVD_MIRROR_DIR + File.separator).toURI().toURL().toExternalForm() + "nvdcve-modified.xml.gz");
-            scanAgent.setCveUrl20Modified(new File(NVD_MIRROR_DIR + File.separator).toURI().toURL().toExternalForm() + "nvdcve-2.0-modified.xml.gz");
-        } catch (MalformedURLException e) {
-            LOGGER.error("The local file URL Dependency-Check is using to retrieve the NVD mirrored contents is invalid", e);
-        }
-        return scanAgent;
+    /**
+     * Configures the long-lived Dependency-Check engine with the global properties
+     * and suppression files, if they exist.
+     */
+    private void configureEngine() {
+        final File properties = new File(DC_GLOBAL_PROPERTIES);
+        final File suppressions = new File(DC_GLOBAL_SUPPRESSION);
+        DependencyCheckEngine.getInstance().configure(DC_DATA_DIR,
+                (properties.exists() && properties.isFile()) ? properties.getAbsolutePath() : null,
+                (suppressions.exists() && suppressions.isFile()) ? suppressions.getAbsolutePath() : null);
     }
+
 }
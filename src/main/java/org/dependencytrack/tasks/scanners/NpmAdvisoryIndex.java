@@ -0,0 +1,195 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks.scanners;
+
+import alpine.logging.Logger;
+import org.apache.commons.lang3.StringUtils;
+import org.dependencytrack.model.Vulnerability;
+import org.dependencytrack.parser.npm.Semver;
+import org.dependencytrack.parser.npm.SemverRange;
+import org.dependencytrack.persistence.QueryManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-memory index of the mirrored NPM advisories, keyed by module name, with the version
+ * ranges of each advisory compiled ahead of time. Allows npm components to be matched against
+ * advisories locally rather than by submitting them to the NPM Audit API.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class NpmAdvisoryIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(NpmAdvisoryIndex.class);
+    private static final NpmAdvisoryIndex INSTANCE = new NpmAdvisoryIndex();
+
+    private final Map<String, List<Entry>> modules = new ConcurrentHashMap<>();
+    private final Map<String, String> keys = new HashMap<>(); // guarded by this
+    private volatile boolean loaded;
+
+    /**
+     * Constructor is package-private so that tests may create isolated indexes.
+     */
+    NpmAdvisoryIndex() { }
+
+    public static NpmAdvisoryIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Loads all mirrored advisories from the database if the index has not already been loaded.
+     */
+    public void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            final long start = System.currentTimeMillis();
+            try (QueryManager qm = new QueryManager()) {
+                for (final Object[] row: qm.getNpmAdvisoryRanges()) {
+                    add((String) row[0], (String) row[1], (String) row[2], (String) row[3]);
+                }
+            }
+            loaded = true;
+            LOGGER.info("Indexed NPM advisories for " + modules.size() + " module(s) in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
+    }
+
+    /**
+     * Adds or replaces an advisory in the index. Only has an effect once the index has been
+     * loaded, as the advisory will otherwise be picked up by the initial load.
+     * @param vulnerability the NPM advisory that was mirrored
+     */
+    public void update(Vulnerability vulnerability) {
+        if (loaded && Vulnerability.Source.NPM.name().equals(vulnerability.getSource())) {
+            add(vulnerability.getVulnId(), vulnerability.getSubTitle(),
+                    vulnerability.getVulnerableVersions(), vulnerability.getPatchedVersions());
+        }
+    }
+
+    /**
+     * Adds or replaces an advisory in the index. Advisories are matched against their
+     * vulnerable versions, or when absent, against any version that is not patched. An
+     * advisory without a module or a parsable range is removed from the index.
+     * @param vulnId the advisory id
+     * @param module the name of the affected module
+     * @param vulnerableVersions the range of vulnerable versions
+     * @param patchedVersions the range of patched versions
+     */
+    synchronized void add(String vulnId, String module, String vulnerableVersions, String patchedVersions) {
+        if (vulnId == null) {
+            return;
+        }
+        // The module of an advisory may change, so any previous entry is removed first
+        remove(vulnId);
+        if (StringUtils.isBlank(module)) {
+            return;
+        }
+        final Entry entry;
+        if (StringUtils.isNotBlank(vulnerableVersions)) {
+            entry = new Entry(vulnId, SemverRange.parse(vulnerableVersions), false);
+        } else if (StringUtils.isNotBlank(patchedVersions)) {
+            entry = new Entry(vulnId, SemverRange.parse(patchedVersions), true);
+        } else {
+            return;
+        }
+        if (entry.range == null) {
+            LOGGER.warn("Unable to parse the version range of NPM advisory " + vulnId + " for " + module);
+            return;
+        }
+        // Entries are replaced rather than modified so that readers never observe a partial list
+        final String key = module.trim().toLowerCase();
+        final List<Entry> entries = new ArrayList<>(modules.getOrDefault(key, Collections.emptyList()));
+        entries.add(entry);
+        modules.put(key, Collections.unmodifiableList(entries));
+        keys.put(vulnId, key);
+    }
+
+    /**
+     * Removes an advisory from the index, dropping the module once it has no advisories left.
+     * @param vulnId the advisory id
+     */
+    private void remove(String vulnId) {
+        final String key = keys.remove(vulnId);
+        if (key == null) {
+            return;
+        }
+        final List<Entry> entries = new ArrayList<>(modules.getOrDefault(key, Collections.emptyList()));
+        entries.removeIf(e -> e.vulnId.equals(vulnId));
+        if (entries.isEmpty()) {
+            modules.remove(key);
+        } else {
+            modules.put(key, Collections.unmodifiableList(entries));
+        }
+    }
+
+    /**
+     * Returns the ids of the advisories affecting the specified version of a module.
+     * @param module the name of the module
+     * @param version the version of the module
+     * @return a list of advisory ids, empty if there are none or the version is not valid semver
+     */
+    public List<String> match(String module, String version) {
+        if (module == null) {
+            return Collections.emptyList();
+        }
+        final List<Entry> entries = modules.get(module.toLowerCase());
+        if (entries == null) {
+            return Collections.emptyList();
+        }
+        final Semver semver = Semver.parse(version);
+        if (semver == null) {
+            return Collections.emptyList();
+        }
+        final List<String> vulnIds = new ArrayList<>();
+        for (final Entry entry: entries) {
+            if (entry.range.satisfies(semver) != entry.negated) {
+                vulnIds.add(entry.vulnId);
+            }
+        }
+        return vulnIds;
+    }
+
+    /**
+     * Returns true if the index does not contain any advisories.
+     */
+    public boolean isEmpty() {
+        return modules.isEmpty();
+    }
+
+    private static final class Entry {
+        private final String vulnId;
+        private final SemverRange range;
+        private final boolean negated;
+
+        private Entry(String vulnId, SemverRange range, boolean negated) {
+            this.vulnId = vulnId;
+            this.range = range;
+            this.negated = negated;
+        }
+    }
+}
@@ -17,16 +17,24 @@
  */
 package org.dependencytrack.tasks.scanners;
 
+import alpine.Config;
 import alpine.event.framework.Event;
 import alpine.event.framework.Subscriber;
 import alpine.logging.Logger;
 import com.github.packageurl.PackageURL;
-import io.github.openunirest.http.HttpResponse;
 import io.github.openunirest.http.JsonNode;
-import io.github.openunirest.http.Unirest;
-import io.github.openunirest.http.exceptions.UnirestException;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.dependencytrack.DependencyTrackConfigKey;
 import org.dependencytrack.parser.npm.NpmAuditParser;
 import org.json.JSONObject;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.event.MetricsUpdateEvent;
 import org.dependencytrack.event.NpmAuditAnalysisEvent;
 import org.dependencytrack.model.Component;
@@ -36,13 +44,18 @@ import org.dependencytrack.parser.npm.model.Advisory;
 import org.dependencytrack.persistence.QueryManager;
 import org.dependencytrack.util.HttpClientFactory;
 import org.dependencytrack.util.NotificationUtil;
+import java.io.IOException;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Subscriber task that performs an analysis of component using NPM Audit API.
@@ -54,6 +67,10 @@ public class NpmAuditAnalysisTask extends BaseComponentAnalyzerTask implements S
 
     private static final String API_BASE_URL = "https://registry.npmjs.org/-/npm/v1/security/audits";
     private static final Logger LOGGER = Logger.getLogger(NpmAuditAnalysisTask.class);
+    private static final int THREADS = Config.getInstance().getPropertyAsInt(DependencyTrackConfigKey.NPM_AUDIT_ANALYZER_THREADS);
+
+    // Shared by all batches of the event being processed, and closed once it has been processed
+    private CloseableHttpClient httpClient;
 
     /**
      * {@inheritDoc}
@@ -65,10 +82,14 @@ public class NpmAuditAnalysisTask extends BaseComponentAnalyzerTask implements S
             }
             final NpmAuditAnalysisEvent event = (NpmAuditAnalysisEvent)e;
             LOGGER.info("Starting Node Audit analysis task");
-            if (event.getComponents().size() > 0) {
-                analyze(event.getComponents());
-            } else {
-                super.analyze();
+            try {
+                if (event.getComponents().size() > 0) {
+                    analyze(event.getComponents());
+                } else {
+                    super.analyze();
+                }
+            } finally {
+                closeHttpClient();
             }
             LOGGER.info("Node Audit analysis complete");
         }
@@ -94,48 +115,134 @@ public class NpmAuditAnalysisTask extends BaseComponentAnalyzerTask implements S
      * Analyzes a list of Components. The NPM Audit API is only capable of analyzing one
      * version of a node module at a time. For example, attempting to analyze three versions
      * of 'serve' for example will result in only the last version in the payload specified
-     * being scanned. Therefore, this method uses a Map with the name of the module being the
-     * maps key to ensure multiple versions are not sent at the same time. This will result
-     * in multiple requests being made to the NPM Audit API.
+     * being scanned. Therefore, components are first split into the fewest possible batches
+     * in which every module name occurs at most once. The batches are then submitted to the
+     * NPM Audit API concurrently over a client shared by the task, and the advisories returned
+     * for each batch are mapped back to components by module name.
      * @param components a list of Components
      */
     public void analyze(List<Component> components) {
-        final CopyOnWriteArrayList<Component> copy = new CopyOnWriteArrayList<>(components);
-        while (copy.size() > 0) {
-            final Map<String, Component> npmCandidates = new HashMap<>();
-            final JSONObject npmRequires = new JSONObject();
-            final JSONObject npmDependencies = new JSONObject();
-
-            Iterator<Component> i = copy.iterator();
-            while (i.hasNext()) {
-                final Component component = i.next();
-                final PackageURL purl = component.getPurl();
-                if (shouldAnalyze(purl)) {
-                    if (!npmCandidates.containsKey(component.getName())) {
-                        npmCandidates.put(component.getName(), component);
-                        npmRequires.put(purl.getName(), purl.getVersion());
-                        npmDependencies.put(purl.getName(), new JSONObject().put("version", purl.getVersion()));
-                        copy.remove(component);
-                    }
-                } else {
-                    copy.remove(component);
+        if (super.isEnabled(ConfigPropertyConstants.SCANNER_NPMAUDIT_OFFLINE_ENABLED)) {
+            final NpmAdvisoryIndex index = NpmAdvisoryIndex.getInstance();
+            index.ensureLoaded();
+            if (!index.isEmpty()) {
+                analyzeOffline(index, components);
+                return;
+            }
+            LOGGER.debug("No NPM advisories have been mirrored. Falling back to the NPM Audit API");
+        }
+        final List<Map<String, List<Component>>> batches = createBatches(components);
+        if (batches.isEmpty()) {
+            return;
+        }
+        LOGGER.info("Analyzing " + components.size() + " component(s) in " + batches.size() + " batch(es)");
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(THREADS, batches.size()));
+        try {
+            final HttpClient httpClient = getHttpClient();
+            final List<Future<List<Advisory>>> futures = new ArrayList<>();
+            for (final Map<String, List<Component>> batch: batches) {
+                final JSONObject payload = createPayload(batch);
+                futures.add(executor.submit(() -> submit(httpClient, payload)));
+            }
+            for (int i = 0; i < batches.size(); i++) {
+                try {
+                    processResults(batches.get(i), futures.get(i).get());
+                } catch (ExecutionException e) {
+                    LOGGER.error("An error occurred while analyzing", e.getCause());
                 }
+            }
+        } catch (InterruptedException e) {
+            LOGGER.warn("Interrupted while waiting for the NPM Audit API", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-                // Build a minimal package-lock.json in memory
-                final JSONObject packageJson = new JSONObject();
-                packageJson.put("name", "test-package");
-                packageJson.put("version", "1.0.0");
-                packageJson.put("requires", npmRequires);
-                packageJson.put("dependencies", npmDependencies);
+    /**
+     * Splits npm components into batches in which each module name occurs at most once. The
+     * n-th distinct version of a module is placed into the n-th batch, so the number of batches
+     * is equal to the largest number of versions of any one module. Components with the same
+     * module name and version are placed into the same batch.
+     * @param components a list of Components
+     * @return a list of batches, each being a Map of module name to the Components of one version
+     */
+    List<Map<String, List<Component>>> createBatches(List<Component> components) {
+        final List<Map<String, List<Component>>> batches = new ArrayList<>();
+        final Map<String, Map<String, Integer>> versions = new HashMap<>();
+        for (final Component component: components) {
+            final PackageURL purl = component.getPurl();
+            if (!shouldAnalyze(purl) || purl.getVersion() == null) {
+                continue;
+            }
+            final String module = getModuleName(purl);
+            final Map<String, Integer> moduleVersions = versions.computeIfAbsent(module, m -> new HashMap<>());
+            Integer batch = moduleVersions.get(purl.getVersion());
+            if (batch == null) {
+                batch = moduleVersions.size();
+                moduleVersions.put(purl.getVersion(), batch);
+            }
+            if (batch == batches.size()) {
+                batches.add(new HashMap<>());
+            }
+            batches.get(batch).computeIfAbsent(module, m -> new ArrayList<>()).add(component);
+        }
+        return batches;
+    }
 
-                try {
-                    // Submit the package-lock.json to Node Audit API for analysis and process results
-                    final List<Advisory> advisories = submit(packageJson);
-                    processResults(new ArrayList<>(npmCandidates.values()), advisories);
-                } catch (UnirestException e) {
-                    LOGGER.error("An error occurred while analyzing", e);
+    /**
+     * Builds a minimal package-lock.json for a batch of components.
+     */
+    private JSONObject createPayload(Map<String, List<Component>> batch) {
+        final JSONObject npmRequires = new JSONObject();
+        final JSONObject npmDependencies = new JSONObject();
+        for (final Map.Entry<String, List<Component>> entry: batch.entrySet()) {
+            final String version = entry.getValue().get(0).getPurl().getVersion();
+            npmRequires.put(entry.getKey(), version);
+            npmDependencies.put(entry.getKey(), new JSONObject().put("version", version));
+        }
+        final JSONObject packageJson = new JSONObject();
+        packageJson.put("name", "test-package");
+        packageJson.put("version", "1.0.0");
+        packageJson.put("requires", npmRequires);
+        packageJson.put("dependencies", npmDependencies);
+        return packageJson;
+    }
+
+    /**
+     * Returns the name of the module as known to npm, including its scope if it has one.
+     */
+    private static String getModuleName(PackageURL purl) {
+        return (purl.getNamespace() != null) ? purl.getNamespace() + "/" + purl.getName() : purl.getName();
+    }
+
+    /**
+     * Analyzes a list of Components against the mirrored NPM advisories. Unlike the NPM Audit
+     * API, the index is able to match any number of versions of the same module at once.
+     * @param index the index of mirrored NPM advisories
+     * @param components a list of Components
+     */
+    private void analyzeOffline(NpmAdvisoryIndex index, List<Component> components) {
+        LOGGER.info("Analyzing " + components.size() + " component(s) against mirrored NPM advisories");
+        final Map<String, Vulnerability> vulnerabilities = new HashMap<>();
+        try (QueryManager qm = new QueryManager()) {
+            for (final Component component: components) {
+                final PackageURL purl = component.getPurl();
+                if (!shouldAnalyze(purl)) {
+                    continue;
+                }
+                final List<String> vulnIds = index.match(getModuleName(purl), purl.getVersion());
+                for (final String vulnId: vulnIds) {
+                    final Vulnerability vulnerability = vulnerabilities.computeIfAbsent(vulnId,
+                            id -> qm.getVulnerabilityByVulnId(Vulnerability.Source.NPM, id));
+                    if (vulnerability != null) {
+                        NotificationUtil.analyzeNotificationCriteria(vulnerability, component);
+                        qm.addVulnerability(vulnerability, component);
+                    }
+                }
+                if (!vulnIds.isEmpty()) {
+                    EventPipeline.getInstance().dispatch(new MetricsUpdateEvent(component));
                 }
-                LOGGER.info("Analyzing " + npmCandidates.size() + " component(s)");
             }
         }
     }
@@ -143,21 +250,24 @@ public class NpmAuditAnalysisTask extends BaseComponentAnalyzerTask implements S
     /**
      * Submits the payload to the NPM service
      */
-    private List<Advisory> submit(JSONObject payload) throws UnirestException {
-        Unirest.setHttpClient(HttpClientFactory.createClient());
-        final HttpResponse<JsonNode> jsonResponse = Unirest.post(API_BASE_URL)
-                .header("user-agent", "npm/6.1.0 node/v10.5.0 linux x64")
-                .header("npm-in-ci", "false")
-                .header("npm-scope", "")
-                .header("npm-session", generateRandomSession())
-                .header("content-type", "application/json")
-                .body(payload)
-                .asJson();
-        if (jsonResponse.getStatus() == 200) {
-            final NpmAuditParser parser = new NpmAuditParser();
-            return parser.parse(jsonResponse.getBody());
-        } else {
-            LOGGER.warn("Received unexpected HTTP response " + jsonResponse.getStatus() + " " + jsonResponse.getStatusText());
+    private List<Advisory> submit(HttpClient httpClient, JSONObject payload) throws IOException {
+        final HttpPost request = new HttpPost(API_BASE_URL);
+        request.setHeader("user-agent", "npm/6.1.0 node/v10.5.0 linux x64");
+        request.setHeader("npm-in-ci", "false");
+        request.setHeader("npm-scope", "");
+        request.setHeader("npm-session", generateRandomSession());
+        request.setEntity(new StringEntity(payload.toString(), ContentType.APPLICATION_JSON));
+        final HttpResponse response = httpClient.execute(request);
+        try {
+            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
+                final NpmAuditParser parser = new NpmAuditParser();
+                return parser.parse(new JsonNode(EntityUtils.toString(response.getEntity())));
+            } else {
+                LOGGER.warn("Received unexpected HTTP response " + response.getStatusLine().getStatusCode()
+                        + " " + response.getStatusLine().getReasonPhrase());
+            }
+        } finally {
+            EntityUtils.consumeQuietly(response.getEntity());
         }
         return new ArrayList<>();
     }
@@ -165,35 +275,49 @@ public class NpmAuditAnalysisTask extends BaseComponentAnalyzerTask implements S
     /**
      * Processes NPM results.
      */
-    private void processResults(List<Component> components, List<Advisory> advisories) {
-        LOGGER.info("Processing NPM advisories");
+    private void processResults(Map<String, List<Component>> batch, List<Advisory> advisories) {
+        LOGGER.info("Processing " + advisories.size() + " NPM advisories");
+        final Set<Component> affected = new HashSet<>();
         try (QueryManager qm = new QueryManager()) {
             for (Advisory advisory: advisories) {
-                Component component = getComponentFromAdvisory(components, advisory);
-                Vulnerability vulnerabiity = qm.getVulnerabilityByVulnId(Vulnerability.Source.NPM, String.valueOf(advisory.getId()));
-                if (component != null && vulnerabiity != null) {
-                    NotificationUtil.analyzeNotificationCriteria(vulnerabiity, component);
-                    qm.addVulnerability(vulnerabiity, component);
+                final List<Component> components = batch.get(advisory.getModuleName());
+                final Vulnerability vulnerabiity = qm.getVulnerabilityByVulnId(Vulnerability.Source.NPM, String.valueOf(advisory.getId()));
+                if (components != null && vulnerabiity != null) {
+                    for (final Component component: components) {
+                        NotificationUtil.analyzeNotificationCriteria(vulnerabiity, component);
+                        qm.addVulnerability(vulnerabiity, component);
+                        affected.add(component);
+                    }
                 }
-                Event.dispatch(new MetricsUpdateEvent(component));
             }
         }
+        for (final Component component: affected) {
+            EventPipeline.getInstance().dispatch(new MetricsUpdateEvent(component));
+        }
     }
 
     /**
-     * Resolves a Component from the metadata in the advisory.
+     * Returns the HTTP client shared by all requests of the task, creating it on first use.
      */
-    private Component getComponentFromAdvisory(List<Component> components, Advisory advisory) {
-        for (Component component: components) {
-            PackageURL purl = component.getPurl();
-            if (purl != null) {
-                if (purl.getName().equalsIgnoreCase(advisory.getModuleName())
-                        && purl.getVersion().equalsIgnoreCase(advisory.getVersion())) {
-                    return component;
-                }
+    private synchronized HttpClient getHttpClient() {
+        if (httpClient == null) {
+            httpClient = HttpClientFactory.createPooledClient("npm-audit", THREADS);
+        }
+        return httpClient;
+    }
+
+    /**
+     * Closes the HTTP client shared by all requests of the task, if it has been created.
+     */
+    private synchronized void closeHttpClient() {
+        if (httpClient != null) {
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                LOGGER.warn("An error occurred while closing the HTTP client", e);
             }
+            httpClient = null;
         }
-        return null;
     }
 
     /**
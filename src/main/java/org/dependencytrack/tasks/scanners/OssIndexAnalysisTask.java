@@ -17,11 +17,9 @@
  */
 package org.dependencytrack.tasks.scanners;
 
-import alpine.crypto.DataEncryption;
 import alpine.event.framework.Event;
 import alpine.event.framework.Subscriber;
 import alpine.logging.Logger;
-import alpine.model.ConfigProperty;
 import alpine.util.Pageable;
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
@@ -30,6 +28,7 @@ import io.github.openunirest.http.JsonNode;
 import io.github.openunirest.http.Unirest;
 import io.github.openunirest.http.exceptions.UnirestException;
 import org.apache.http.HttpHeaders;
+import org.dependencytrack.event.EventPipeline;
 import org.dependencytrack.event.MetricsUpdateEvent;
 import org.dependencytrack.model.Cwe;
 import org.dependencytrack.model.Vulnerability;
@@ -41,6 +40,7 @@ import org.dependencytrack.model.ConfigPropertyConstants;
 import org.dependencytrack.parser.ossindex.OssIndexParser;
 import org.dependencytrack.parser.ossindex.model.ComponentReport;
 import org.dependencytrack.parser.ossindex.model.ComponentReportVulnerability;
+import org.dependencytrack.persistence.ConfigPropertyCache;
 import org.dependencytrack.persistence.QueryManager;
 import org.dependencytrack.util.HttpClientFactory;
 import us.springett.cvss.Cvss;
@@ -76,30 +76,16 @@ public class OssIndexAnalysisTask extends BaseComponentAnalyzerTask implements S
             if (!super.isEnabled(ConfigPropertyConstants.SCANNER_OSSINDEX_ENABLED)) {
                 return;
             }
-            try (QueryManager qm = new QueryManager()) {
-                ConfigProperty apiUsernameProperty = qm.getConfigProperty(
-                        ConfigPropertyConstants.SCANNER_OSSINDEX_API_USERNAME.getGroupName(),
-                        ConfigPropertyConstants.SCANNER_OSSINDEX_API_USERNAME.getPropertyName()
-                );
-                ConfigProperty apiTokenProperty = qm.getConfigProperty(
-                        ConfigPropertyConstants.SCANNER_OSSINDEX_API_TOKEN.getGroupName(),
-                        ConfigPropertyConstants.SCANNER_OSSINDEX_API_TOKEN.getPropertyName()
-                );
-                if (apiUsernameProperty == null || apiUsernameProperty.getPropertyValue() == null) {
-                    LOGGER.warn("An API username has not been specified for use with OSS Index. Skipping");
-                    return;
-                }
-                if (apiTokenProperty == null || apiTokenProperty.getPropertyValue() == null) {
-                    LOGGER.warn("An API Token has not been specified for use with OSS Index. Skipping");
-                    return;
-                }
-                try {
-                    apiUsername = apiUsernameProperty.getPropertyValue();
-                    apiToken = DataEncryption.decryptAsString(apiTokenProperty.getPropertyValue());
-                } catch (Exception ex) {
-                    LOGGER.error("An error occurred decrypting the OSS Index API Token. Skipping", ex);
-                    return;
-                }
+            final ConfigPropertyCache configPropertyCache = ConfigPropertyCache.getInstance();
+            apiUsername = configPropertyCache.getValue(ConfigPropertyConstants.SCANNER_OSSINDEX_API_USERNAME);
+            apiToken = configPropertyCache.getValue(ConfigPropertyConstants.SCANNER_OSSINDEX_API_TOKEN);
+            if (apiUsername == null) {
+                LOGGER.warn("An API username has not been specified for use with OSS Index. Skipping");
+                return;
+            }
+            if (apiToken == null) {
+                LOGGER.warn("An API Token has not been specified for use with OSS Index, or it could not be decrypted. Skipping");
+                return;
             }
             final OssIndexAnalysisEvent event = (OssIndexAnalysisEvent)e;
             LOGGER.info("Starting Sonatype OSS Index analysis task");
@@ -217,7 +203,7 @@ public class OssIndexAnalysisTask extends BaseComponentAnalyzerTask implements S
                                 qm.addVulnerability(vulnerability, component);
                             }
                         }
-                        Event.dispatch(new MetricsUpdateEvent(component));
+                        EventPipeline.getInstance().dispatch(new MetricsUpdateEvent(component));
                     }
                 }
             }
@@ -0,0 +1,333 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.upgrade.v330;
+
+import alpine.logging.Logger;
+import alpine.persistence.AlpineQueryManager;
+import alpine.upgrade.AbstractUpgradeItem;
+import alpine.util.DbUtil;
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.ComponentIdentity;
+import org.dependencytrack.model.Tag;
+import org.dependencytrack.util.PurlUtil;
+import org.dependencytrack.util.VulnerabilityUtil;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class v330Updater extends AbstractUpgradeItem {
+
+    private static final Logger LOGGER = Logger.getLogger(v330Updater.class);
+    private static final int BATCH_SIZE = 5000;
+    private static final String STMT_1 = "SELECT \"ID\", \"SEVERITY\", \"CVSSV2BASESCORE\", \"CVSSV3BASESCORE\" FROM \"VULNERABILITY\" WHERE \"ID\" > ? AND \"EFFECTIVE_SEVERITY\" IS NULL ORDER BY \"ID\"";
+    private static final String STMT_2 = "UPDATE \"VULNERABILITY\" SET \"EFFECTIVE_SEVERITY\" = ? WHERE \"ID\" = ?";
+    private static final String STMT_3 = "SELECT \"ID\", \"PURL\" FROM \"COMPONENT\" WHERE \"ID\" > ? AND \"PURL\" IS NOT NULL AND \"PURLCOORDINATES\" IS NULL ORDER BY \"ID\"";
+    private static final String STMT_4 = "UPDATE \"COMPONENT\" SET \"PURLCOORDINATES\" = ? WHERE \"ID\" = ?";
+    private static final String STMT_5 = "SELECT \"ID\", \"NAME\" FROM \"TAG\" ORDER BY \"ID\"";
+    private static final String STMT_6 = "UPDATE \"TAG\" SET \"NORMALIZED_NAME\" = ? WHERE \"ID\" = ?";
+    private static final String STMT_7 = "INSERT INTO \"PROJECTS_TAGS\" (\"PROJECT_ID\", \"TAG_ID\") SELECT \"PROJECT_ID\", ? FROM \"PROJECTS_TAGS\" "
+            + "WHERE \"TAG_ID\" = ? AND \"PROJECT_ID\" NOT IN (SELECT \"PROJECT_ID\" FROM \"PROJECTS_TAGS\" WHERE \"TAG_ID\" = ?)";
+    private static final String STMT_8 = "DELETE FROM \"PROJECTS_TAGS\" WHERE \"TAG_ID\" = ?";
+    private static final String STMT_9 = "DELETE FROM \"TAG\" WHERE \"ID\" = ?";
+    private static final String STMT_10 = "SELECT \"ID\", \"MD5\", \"SHA1\", \"SHA_256\", \"SHA_512\", \"SHA3_256\", \"SHA3_512\", \"PURL\" "
+            + "FROM \"COMPONENT\" WHERE \"ID\" > ? AND NOT EXISTS (SELECT 1 FROM \"COMPONENTIDENTITY\" "
+            + "WHERE \"COMPONENTIDENTITY\".\"COMPONENT_ID\" = \"COMPONENT\".\"ID\") ORDER BY \"ID\"";
+    private static final String STMT_11 = "INSERT INTO \"COMPONENTIDENTITY\" (\"COMPONENT_ID\", \"TYPE\", \"VALUE\") VALUES (?, ?, ?)";
+    private static final String STMT_12 = "UPDATE \"COMPONENT\" SET \"LAST_IMPORTED\" = (SELECT MAX(\"BOM\".\"IMPORTED\") FROM \"BOMS_COMPONENTS\" "
+            + "INNER JOIN \"BOM\" ON (\"BOM\".\"ID\" = \"BOMS_COMPONENTS\".\"BOM_ID\") WHERE \"BOMS_COMPONENTS\".\"COMPONENT_ID\" = \"COMPONENT\".\"ID\") "
+            + "WHERE \"LAST_IMPORTED\" IS NULL AND EXISTS (SELECT 1 FROM \"BOMS_COMPONENTS\" WHERE \"BOMS_COMPONENTS\".\"COMPONENT_ID\" = \"COMPONENT\".\"ID\")";
+    private static final String STMT_13 = "UPDATE \"COMPONENT\" SET \"LAST_IMPORTED\" = (SELECT MAX(\"SCAN\".\"IMPORTED\") FROM \"SCANS_COMPONENTS\" "
+            + "INNER JOIN \"SCAN\" ON (\"SCAN\".\"ID\" = \"SCANS_COMPONENTS\".\"SCAN_ID\") WHERE \"SCANS_COMPONENTS\".\"COMPONENT_ID\" = \"COMPONENT\".\"ID\") "
+            + "WHERE EXISTS (SELECT 1 FROM \"SCANS_COMPONENTS\" INNER JOIN \"SCAN\" ON (\"SCAN\".\"ID\" = \"SCANS_COMPONENTS\".\"SCAN_ID\") "
+            + "WHERE \"SCANS_COMPONENTS\".\"COMPONENT_ID\" = \"COMPONENT\".\"ID\" "
+            + "AND (\"COMPONENT\".\"LAST_IMPORTED\" IS NULL OR \"SCAN\".\"IMPORTED\" > \"COMPONENT\".\"LAST_IMPORTED\"))";
+    private static final String[][] INDEXES = {
+            {"PROJECTMETRICS", "PROJECTMETRICS_COMPOSITE_IDX", "\"PROJECT_ID\", \"LAST_OCCURRENCE\""},
+            {"COMPONENTMETRICS", "COMPONENTMETRICS_COMPOSITE_IDX", "\"COMPONENT_ID\", \"LAST_OCCURRENCE\""},
+            {"DEPENDENCYMETRICS", "DEPENDENCYMETRICS_LAST_OCCURRENCE_COMPOSITE_IDX", "\"PROJECT_ID\", \"COMPONENT_ID\", \"LAST_OCCURRENCE\""},
+            {"COMPONENT", "COMPONENT_GROUP_NAME_VERSION_IDX", "\"GROUP\", \"NAME\", \"VERSION\""},
+            {"COMPONENT", "COMPONENT_PURL_IDX", "\"PURL\""},
+            {"COMPONENT", "COMPONENT_PURL_COORDINATES_IDX", "\"PURLCOORDINATES\""},
+            {"COMPONENT", "COMPONENT_LAST_IMPORTED_IDX", "\"LAST_IMPORTED\""}
+    };
+
+    public String getSchemaVersion() {
+        return "3.3.0";
+    }
+
+    public void executeUpgrade(AlpineQueryManager qm, Connection connection) throws SQLException {
+        calculateEffectiveSeverities(connection);
+        calculatePurlCoordinates(connection);
+        normalizeTags(connection);
+        recordComponentIdentities(connection);
+        recordLastImported(connection);
+        createIndexes(connection);
+        createUniqueIndex(connection, "TAG", "TAG_NORMALIZED_NAME_IDX", "\"NORMALIZED_NAME\"");
+    }
+
+    private void calculateEffectiveSeverities(Connection connection) throws SQLException {
+        if (!DbUtil.columnExists(connection, "VULNERABILITY", "EFFECTIVE_SEVERITY")) {
+            LOGGER.warn("The EFFECTIVE_SEVERITY column does not exist. Effective severities will be calculated as vulnerabilities are updated");
+            return;
+        }
+        LOGGER.info("Calculating the effective severity of vulnerabilities");
+        long lastId = 0;
+        long total = 0;
+        int count;
+        do {
+            count = 0;
+            try (PreparedStatement select = connection.prepareStatement(STMT_1);
+                 PreparedStatement update = connection.prepareStatement(STMT_2)) {
+                select.setMaxRows(BATCH_SIZE);
+                select.setLong(1, lastId);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        lastId = rs.getLong(1);
+                        update.setString(1, VulnerabilityUtil.getSeverity(rs.getString(2), rs.getBigDecimal(3), rs.getBigDecimal(4)).name());
+                        update.setLong(2, lastId);
+                        update.addBatch();
+                        count++;
+                    }
+                }
+                if (count > 0) {
+                    update.executeBatch();
+                    if (!connection.getAutoCommit()) {
+                        connection.commit();
+                    }
+                }
+            }
+            total += count;
+        } while (count == BATCH_SIZE);
+        LOGGER.info("Calculated the effective severity of " + total + " vulnerabilities");
+    }
+
+    private void calculatePurlCoordinates(Connection connection) throws SQLException {
+        if (!DbUtil.columnExists(connection, "COMPONENT", "PURLCOORDINATES")) {
+            LOGGER.warn("The PURLCOORDINATES column does not exist. Package URL coordinates will be calculated as components are updated");
+            return;
+        }
+        LOGGER.info("Calculating the Package URL coordinates of components");
+        long lastId = 0;
+        long total = 0;
+        int count;
+        do {
+            count = 0;
+            int updated = 0;
+            try (PreparedStatement select = connection.prepareStatement(STMT_3);
+                 PreparedStatement update = connection.prepareStatement(STMT_4)) {
+                select.setMaxRows(BATCH_SIZE);
+                select.setLong(1, lastId);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        lastId = rs.getLong(1);
+                        count++;
+                        final String coordinates = PurlUtil.getCoordinates(rs.getString(2));
+                        if (coordinates != null) {
+                            update.setString(1, coordinates);
+                            update.setLong(2, lastId);
+                            update.addBatch();
+                            updated++;
+                        }
+                    }
+                }
+                if (updated > 0) {
+                    update.executeBatch();
+                    if (!connection.getAutoCommit()) {
+                        connection.commit();
+                    }
+                }
+            }
+            total += updated;
+        } while (count == BATCH_SIZE);
+        LOGGER.info("Calculated the Package URL coordinates of " + total + " components");
+    }
+
+    private void normalizeTags(Connection connection) throws SQLException {
+        if (!DbUtil.columnExists(connection, "TAG", "NORMALIZED_NAME")) {
+            LOGGER.warn("The NORMALIZED_NAME column does not exist. Tags will be normalized as they are updated");
+            return;
+        }
+        LOGGER.info("Normalizing tag names");
+        final Map<String, Long> tagIds = new HashMap<>();
+        final Map<Long, Long> duplicates = new LinkedHashMap<>();
+        try (PreparedStatement select = connection.prepareStatement(STMT_5);
+             PreparedStatement update = connection.prepareStatement(STMT_6);
+             ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                final long id = rs.getLong(1);
+                final String normalizedName = Tag.normalize(rs.getString(2));
+                final Long existingId = tagIds.putIfAbsent(normalizedName, id);
+                if (existingId != null) {
+                    duplicates.put(id, existingId);
+                    continue;
+                }
+                update.setString(1, normalizedName);
+                update.setLong(2, id);
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+        // Tags that only differ by case were created as separate rows before names were
+        // normalized. Their projects are moved to the oldest tag before they are deleted.
+        try (PreparedStatement move = connection.prepareStatement(STMT_7);
+             PreparedStatement unbind = connection.prepareStatement(STMT_8);
+             PreparedStatement delete = connection.prepareStatement(STMT_9)) {
+            for (final Map.Entry<Long, Long> duplicate: duplicates.entrySet()) {
+                move.setLong(1, duplicate.getValue());
+                move.setLong(2, duplicate.getKey());
+                move.setLong(3, duplicate.getValue());
+                move.executeUpdate();
+                unbind.setLong(1, duplicate.getKey());
+                unbind.executeUpdate();
+                delete.setLong(1, duplicate.getKey());
+                delete.executeUpdate();
+            }
+        }
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+        LOGGER.info("Normalized " + tagIds.size() + " tags and merged " + duplicates.size() + " duplicates");
+    }
+
+    private void recordComponentIdentities(Connection connection) throws SQLException {
+        if (!DbUtil.columnExists(connection, "COMPONENTIDENTITY", "VALUE")) {
+            LOGGER.warn("The COMPONENTIDENTITY table does not exist. Component identities will be recorded as components are updated");
+            return;
+        }
+        LOGGER.info("Recording the hashes and Package URLs of components as component identities");
+        long lastId = 0;
+        long total = 0;
+        int count;
+        do {
+            count = 0;
+            int inserted = 0;
+            try (PreparedStatement select = connection.prepareStatement(STMT_10);
+                 PreparedStatement insert = connection.prepareStatement(STMT_11)) {
+                select.setMaxRows(BATCH_SIZE);
+                select.setLong(1, lastId);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        lastId = rs.getLong(1);
+                        count++;
+                        final Component component = new Component();
+                        component.setMd5(rs.getString(2));
+                        component.setSha1(rs.getString(3));
+                        component.setSha256(rs.getString(4));
+                        component.setSha512(rs.getString(5));
+                        component.setSha3_256(rs.getString(6));
+                        component.setSha3_512(rs.getString(7));
+                        component.setPurl(parsePurl(rs.getString(8)));
+                        for (final Map.Entry<ComponentIdentity.Type, String> identity: ComponentIdentity.getIdentities(component).entrySet()) {
+                            insert.setLong(1, lastId);
+                            insert.setString(2, identity.getKey().name());
+                            insert.setString(3, identity.getValue());
+                            insert.addBatch();
+                            inserted++;
+                        }
+                    }
+                }
+                if (inserted > 0) {
+                    insert.executeBatch();
+                    if (!connection.getAutoCommit()) {
+                        connection.commit();
+                    }
+                }
+            }
+            total += inserted;
+        } while (count == BATCH_SIZE);
+        LOGGER.info("Recorded " + total + " component identities");
+    }
+
+    private void recordLastImported(Connection connection) throws SQLException {
+        if (!DbUtil.columnExists(connection, "COMPONENT", "LAST_IMPORTED")) {
+            LOGGER.warn("The LAST_IMPORTED column does not exist. Components will not be garbage collected until they are imported again");
+            return;
+        }
+        LOGGER.info("Recording the date components were last imported");
+        try (Statement stmt = connection.createStatement()) {
+            final int boms = stmt.executeUpdate(STMT_12);
+            final int scans = stmt.executeUpdate(STMT_13);
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            LOGGER.info("Recorded the import date of " + boms + " components from BOMs and " + scans + " components from scans");
+        }
+    }
+
+    private PackageURL parsePurl(String purl) {
+        if (purl == null) {
+            return null;
+        }
+        try {
+            return new PackageURL(purl);
+        } catch (MalformedPackageURLException e) {
+            return null;
+        }
+    }
+
+    private void createIndexes(Connection connection) throws SQLException {
+        for (final String[] index: INDEXES) {
+            createIndex(connection, index[0], index[1], index[2], "CREATE INDEX");
+        }
+    }
+
+    private void createUniqueIndex(Connection connection, String table, String index, String columns) throws SQLException {
+        createIndex(connection, table, index, columns, "CREATE UNIQUE INDEX");
+    }
+
+    private void createIndex(Connection connection, String table, String index, String columns, String statement) throws SQLException {
+        if (indexExists(connection, table, index)) {
+            return;
+        }
+        LOGGER.info("Creating index " + index);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(statement + " \"" + index + "\" ON \"" + table + "\" (" + columns + ")");
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            LOGGER.warn("Unable to create index " + index + ". The index will be created when the schema is next generated", e);
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+        }
+    }
+
+    private boolean indexExists(Connection connection, String table, String index) throws SQLException {
+        final DatabaseMetaData metaData = connection.getMetaData();
+        for (final String name: new String[]{table, table.toLowerCase()}) {
+            try (ResultSet rs = metaData.getIndexInfo(null, null, name, false, true)) {
+                while (rs.next()) {
+                    if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+}
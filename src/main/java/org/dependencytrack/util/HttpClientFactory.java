@@ -32,7 +32,10 @@ import org.apache.http.client.config.AuthSchemes;
 import org.apache.http.client.config.CookieSpecs;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.config.Lookup;
+import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
@@ -40,8 +43,11 @@ import org.apache.http.impl.auth.BasicSchemeFactory;
 import org.apache.http.impl.auth.DigestSchemeFactory;
 import org.apache.http.impl.auth.NTLMSchemeFactory;
 import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.ProxyAuthenticationStrategy;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 import org.apache.http.ssl.SSLContextBuilder;
 import javax.net.ssl.SSLContext;
 import java.io.UnsupportedEncodingException;
@@ -52,6 +58,8 @@ import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
 
 public final class HttpClientFactory {
 
@@ -65,6 +73,9 @@ public final class HttpClientFactory {
     private static final String PROXY_USERNAME = Config.getInstance().getProperty(Config.AlpineKey.HTTP_PROXY_USERNAME);
     private static final String PROXY_PASSWORD = Config.getInstance().getProperty(Config.AlpineKey.HTTP_PROXY_PASSWORD);
     private static final Logger LOGGER = Logger.getLogger(HttpClientFactory.class);
+    // Connection pools of pooled clients, by name. Pools are removed once their client is closed,
+    // and released if their client is discarded without being closed.
+    private static final Map<PoolingHttpClientConnectionManager, String> POOLS = new WeakHashMap<>();
     private static final String USER_AGENT;
     static {
         USER_AGENT = Config.getInstance().getApplicationName()
@@ -90,6 +101,56 @@ public final class HttpClientFactory {
      * @return a HttpClient object with optional proxy settings
      */
     public static HttpClient createClient() {
+        return createClientBuilder().build();
+    }
+
+    /**
+     * Factory method that creates a HttpClient object backed by a connection pool that keeps
+     * up to the specified number of connections open. Proxy settings are applied in the same
+     * way as {@link #createClient()}. Clients created by this method are intended to be shared
+     * and must be closed once they are no longer needed.
+     * @param name the name of the connection pool, as reported in its statistics
+     * @param maxConnections the maximum number of concurrent connections
+     * @return a CloseableHttpClient object with optional proxy settings
+     * @since 3.3.0
+     */
+    public static CloseableHttpClient createPooledClient(String name, int maxConnections) {
+        final HttpClientBuilder clientBuilder = createClientBuilder();
+        final PoolingHttpClientConnectionManager connectionManager = new TrackedConnectionManager(createSocketFactoryRegistry());
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        clientBuilder.setConnectionManager(connectionManager);
+        synchronized (POOLS) {
+            POOLS.put(connectionManager, name);
+        }
+        return clientBuilder.build();
+    }
+
+    /**
+     * Returns the statistics of the connection pools of clients created by
+     * {@link #createPooledClient(String, int)} which have not been closed, summed by the
+     * name of the pool.
+     * @return a Map of pool statistics keyed by the name of the pool
+     * @since 3.3.0
+     */
+    public static Map<String, PoolStats> getPoolStats() {
+        final Map<String, PoolStats> stats = new TreeMap<>();
+        synchronized (POOLS) {
+            for (final Map.Entry<PoolingHttpClientConnectionManager, String> entry: POOLS.entrySet()) {
+                final PoolStats pool = entry.getKey().getTotalStats();
+                stats.merge(entry.getValue(), pool, (a, b) -> new PoolStats(
+                        a.getLeased() + b.getLeased(), a.getPending() + b.getPending(),
+                        a.getAvailable() + b.getAvailable(), a.getMax() + b.getMax()));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Creates a HttpClientBuilder configured with optional proxy settings.
+     * @return a HttpClientBuilder
+     */
+    private static HttpClientBuilder createClientBuilder() {
         HttpClientBuilder clientBuilder = HttpClientBuilder.create();
         CredentialsProvider credsProvider = new BasicCredentialsProvider();
         clientBuilder.useSystemProperties();
@@ -105,15 +166,9 @@ public final class HttpClientFactory {
                     credsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(proxyInfo.username, proxyInfo.password));
                 }
             }
-            // When a proxy is enabled, turn off certificate chain of trust validation and hostname verification
-            try {
-                SSLContext sslContext = SSLContextBuilder
-                        .create()
-                        .loadTrustMaterial(new TrustSelfSignedStrategy())
-                        .build();
-                clientBuilder.setSSLSocketFactory(new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE));
-            } catch (KeyManagementException | KeyStoreException | NoSuchAlgorithmException e) {
-                LOGGER.warn("An error occurred while configuring proxy", e);
+            final SSLConnectionSocketFactory sslSocketFactory = createProxySSLSocketFactory();
+            if (sslSocketFactory != null) {
+                clientBuilder.setSSLSocketFactory(sslSocketFactory);
             }
         }
 
@@ -126,7 +181,44 @@ public final class HttpClientFactory {
                 .build();
         clientBuilder.setDefaultAuthSchemeRegistry(authProviders);
         clientBuilder.setDefaultRequestConfig(RequestConfig.custom().setCookieSpec(CookieSpecs.STANDARD).build());
-        return clientBuilder.build();
+        return clientBuilder;
+    }
+
+    /**
+     * Creates the SSLConnectionSocketFactory used when a proxy is enabled. Certificate chain
+     * of trust validation and hostname verification are turned off.
+     * @return a SSLConnectionSocketFactory, or null if it cannot be created
+     */
+    private static SSLConnectionSocketFactory createProxySSLSocketFactory() {
+        try {
+            SSLContext sslContext = SSLContextBuilder
+                    .create()
+                    .loadTrustMaterial(new TrustSelfSignedStrategy())
+                    .build();
+            return new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
+        } catch (KeyManagementException | KeyStoreException | NoSuchAlgorithmException e) {
+            LOGGER.warn("An error occurred while configuring proxy", e);
+            return null;
+        }
+    }
+
+    /**
+     * Creates the socket factories of a connection pool. These match the socket factories
+     * HttpClientBuilder uses when it creates the connection pool itself.
+     * @return a Registry of socket factories
+     */
+    private static Registry<ConnectionSocketFactory> createSocketFactoryRegistry() {
+        SSLConnectionSocketFactory sslSocketFactory = null;
+        if (createProxyInfo() != null) {
+            sslSocketFactory = createProxySSLSocketFactory();
+        }
+        if (sslSocketFactory == null) {
+            sslSocketFactory = SSLConnectionSocketFactory.getSystemSocketFactory();
+        }
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory)
+                .build();
     }
 
     /**
@@ -268,4 +360,22 @@ public final class HttpClientFactory {
         }
     }
 
+    /**
+     * A connection pool which stops being reported in the pool statistics once it is shut down,
+     * which happens when its client is closed.
+     */
+    private static final class TrackedConnectionManager extends PoolingHttpClientConnectionManager {
+
+        TrackedConnectionManager(Registry<ConnectionSocketFactory> socketFactoryRegistry) {
+            super(socketFactoryRegistry);
+        }
+
+        @Override
+        public void shutdown() {
+            synchronized (POOLS) {
+                POOLS.remove(this);
+            }
+            super.shutdown();
+        }
+    }
 }
@@ -29,6 +29,7 @@ import org.dependencytrack.notification.NotificationConstants;
 import org.dependencytrack.notification.NotificationGroup;
 import org.dependencytrack.notification.NotificationScope;
 import org.dependencytrack.notification.vo.AnalysisDecisionChange;
+import org.dependencytrack.notification.vo.BulkAnalysisDecisionChange;
 import org.dependencytrack.notification.vo.NewVulnerabilityIdentified;
 import org.dependencytrack.notification.vo.NewVulnerableDependency;
 import org.dependencytrack.persistence.QueryManager;
@@ -36,6 +37,7 @@ import javax.json.Json;
 import javax.json.JsonArrayBuilder;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -115,32 +117,7 @@ public class NotificationUtil {
                 }
             }
 
-            String title = null;
-            if (analysisStateChange) {
-                switch (analysis.getAnalysisState()) {
-                    case EXPLOITABLE:
-                        title = NotificationConstants.Title.ANALYSIS_DECISION_EXPLOITABLE;
-                        break;
-                    case IN_TRIAGE:
-                        title = NotificationConstants.Title.ANALYSIS_DECISION_IN_TRIAGE;
-                        break;
-                    case NOT_AFFECTED:
-                        title = NotificationConstants.Title.ANALYSIS_DECISION_NOT_AFFECTED;
-                        break;
-                    case FALSE_POSITIVE:
-                        title = NotificationConstants.Title.ANALYSIS_DECISION_FALSE_POSITIVE;
-                        break;
-                    case NOT_SET:
-                        title = NotificationConstants.Title.ANALYSIS_DECISION_NOT_SET;
-                        break;
-                }
-            } else if (suppressionChange) {
-                if (analysis.isSuppressed()) {
-                    title = NotificationConstants.Title.ANALYSIS_DECISION_SUPPRESSED;
-                } else {
-                    title = NotificationConstants.Title.ANALYSIS_DECISION_UNSUPPRESSED;
-                }
-            }
+            final String title = getAnalysisDecisionTitle(analysis, analysisStateChange);
 
             analysis = qm.detach(Analysis.class, analysis.getId());
             Notification.dispatch(new Notification()
@@ -155,6 +132,72 @@ public class NotificationUtil {
         }
     }
 
+    /**
+     * Dispatches a single notification for an analysis decision applied to many findings at once.
+     * @param qm the QueryManager
+     * @param analyses the analyses whose state or suppression changed
+     * @param affectedProjects the projects affected by the changed analyses
+     * @param analysisStateChange true if the decision changed the analysis state, false if it only changed suppression
+     */
+    public static void analyzeNotificationCriteria(QueryManager qm, List<Analysis> analyses, Set<Project> affectedProjects,
+                                                   boolean analysisStateChange) {
+        if (analyses.isEmpty()) {
+            return;
+        }
+        final List<Analysis> detached = qm.detach(analyses);
+        final Set<Vulnerability> vulnerabilities = new HashSet<>();
+        final Set<Component> components = new HashSet<>();
+        boolean global = true;
+        for (Analysis analysis: detached) {
+            vulnerabilities.add(analysis.getVulnerability());
+            components.add(analysis.getComponent());
+            global &= analysis.getProject() == null;
+        }
+        final Set<Project> projects = new HashSet<>(qm.detach(new ArrayList<>(affectedProjects)));
+        final Analysis analysis = detached.get(0);
+        Notification.dispatch(new Notification()
+                .scope(NotificationScope.PORTFOLIO)
+                .group((global) ? NotificationGroup.GLOBAL_AUDIT_CHANGE : NotificationGroup.PROJECT_AUDIT_CHANGE)
+                .title(getAnalysisDecisionTitle(analysis, analysisStateChange))
+                .level(NotificationLevel.INFORMATIONAL)
+                .content("An analysis decision was made to " + detached.size() + " findings affecting " + projects.size() + " projects")
+                .subject(new BulkAnalysisDecisionChange(
+                        (vulnerabilities.size() == 1) ? analysis.getVulnerability() : null,
+                        (components.size() == 1) ? analysis.getComponent() : null,
+                        projects, detached))
+        );
+    }
+
+    private static String getAnalysisDecisionTitle(Analysis analysis, boolean analysisStateChange) {
+        String title = null;
+        if (analysisStateChange) {
+            switch (analysis.getAnalysisState()) {
+                case EXPLOITABLE:
+                    title = NotificationConstants.Title.ANALYSIS_DECISION_EXPLOITABLE;
+                    break;
+                case IN_TRIAGE:
+                    title = NotificationConstants.Title.ANALYSIS_DECISION_IN_TRIAGE;
+                    break;
+                case NOT_AFFECTED:
+                    title = NotificationConstants.Title.ANALYSIS_DECISION_NOT_AFFECTED;
+                    break;
+                case FALSE_POSITIVE:
+                    title = NotificationConstants.Title.ANALYSIS_DECISION_FALSE_POSITIVE;
+                    break;
+                case NOT_SET:
+                    title = NotificationConstants.Title.ANALYSIS_DECISION_NOT_SET;
+                    break;
+            }
+        } else {
+            if (analysis.isSuppressed()) {
+                title = NotificationConstants.Title.ANALYSIS_DECISION_SUPPRESSED;
+            } else {
+                title = NotificationConstants.Title.ANALYSIS_DECISION_UNSUPPRESSED;
+            }
+        }
+        return title;
+    }
+
     public static JsonObject toJson(Project project) {
         JsonObjectBuilder projectBuilder = Json.createObjectBuilder();
         projectBuilder.add("uuid", project.getUuid().toString());
@@ -280,6 +323,13 @@ public class NotificationUtil {
             }
             builder.add("affectedProjects", projectsBuilder.build());
         }
+        if (vo instanceof BulkAnalysisDecisionChange) {
+            JsonArrayBuilder analysesBuilder = Json.createArrayBuilder();
+            for (Analysis analysis: ((BulkAnalysisDecisionChange) vo).getAnalyses()) {
+                analysesBuilder.add(toJson(analysis));
+            }
+            builder.add("analyses", analysesBuilder.build());
+        }
         return builder.build();
     }
 
@@ -0,0 +1,70 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.util;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+
+public final class PurlUtil {
+
+    /**
+     * The maximum length of the coordinates, which is the length of the column they are stored in.
+     */
+    public static final int MAX_COORDINATES_LENGTH = 255;
+
+    private PurlUtil() { }
+
+    /**
+     * Returns the canonical form of the coordinates (type, namespace, name and version) of a
+     * PackageURL, omitting qualifiers and subpath. Two PackageURLs identifying the same package
+     * version have the same coordinates regardless of how they were written. Coordinates longer
+     * than {@link #MAX_COORDINATES_LENGTH} are not recorded, as abbreviating them would make
+     * different packages sharing a long prefix have the same coordinates.
+     * @param purl the PackageURL
+     * @return the canonical coordinates, or null if the PackageURL is null, invalid or too long
+     * @since 3.3.0
+     */
+    public static String getCoordinates(PackageURL purl) {
+        if (purl == null) {
+            return null;
+        }
+        try {
+            final String coordinates = new PackageURL(purl.getType(), purl.getNamespace(), purl.getName(), purl.getVersion(), null, null).canonicalize();
+            return coordinates.length() <= MAX_COORDINATES_LENGTH ? coordinates : null;
+        } catch (MalformedPackageURLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the canonical form of the coordinates of a PackageURL string.
+     * @param purl the PackageURL string
+     * @return the canonical coordinates, or null if the PackageURL is null, invalid or too long
+     * @since 3.3.0
+     */
+    public static String getCoordinates(String purl) {
+        if (purl == null) {
+            return null;
+        }
+        try {
+            return getCoordinates(new PackageURL(purl.trim()));
+        } catch (MalformedPackageURLException e) {
+            return null;
+        }
+    }
+}
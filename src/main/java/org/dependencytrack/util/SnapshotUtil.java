@@ -0,0 +1,163 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes sets of object IDs, such as the components of an imported BOM or scan, into compact
+ * snapshots. The IDs are sorted, delta-encoded as variable-length integers, and deflated, which
+ * typically takes one to two bytes per ID. Decoded snapshots are sorted arrays, so two of them
+ * can be diffed in linear time.
+ *
+ * @author Steve Springett
+ * @since 3.3.0
+ */
+public final class SnapshotUtil {
+
+    private SnapshotUtil() { }
+
+    /**
+     * Encodes the specified IDs into a snapshot. Duplicate IDs are only encoded once.
+     * @param ids the IDs to encode
+     * @return the snapshot
+     */
+    public static byte[] encode(Collection<Long> ids) {
+        final long[] sorted = ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(sorted.length * 2 + 8);
+        writeVarLong(out, sorted.length);
+        long previous = 0;
+        for (final long id: sorted) {
+            writeVarLong(out, id - previous);
+            previous = id;
+        }
+        final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(out.toByteArray());
+            deflater.finish();
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream(out.size());
+            final byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decodes a snapshot.
+     * @param snapshot the snapshot to decode
+     * @return the IDs of the snapshot in ascending order, or an empty array if the snapshot is null
+     * @throws IllegalArgumentException if the snapshot is corrupt
+     */
+    public static long[] decode(byte[] snapshot) {
+        if (snapshot == null) {
+            return new long[0];
+        }
+        final Inflater inflater = new Inflater();
+        final byte[] data;
+        try {
+            inflater.setInput(snapshot);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(snapshot.length * 2);
+            final byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                final int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("The snapshot is truncated");
+                }
+                out.write(buffer, 0, length);
+            }
+            data = out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("The snapshot is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+        final int[] position = new int[1];
+        final long[] ids = new long[(int) readVarLong(data, position)];
+        long previous = 0;
+        for (int i = 0; i < ids.length; i++) {
+            previous += readVarLong(data, position);
+            ids[i] = previous;
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the IDs contained in the current snapshot, but not in the previous one.
+     * Calling this method with the arguments swapped returns the IDs which were removed.
+     * @param previous the decoded previous snapshot
+     * @param current the decoded current snapshot
+     * @return the added IDs in ascending order
+     */
+    public static long[] added(long[] previous, long[] current) {
+        final long[] added = new long[current.length];
+        int count = 0;
+        int i = 0;
+        for (final long id: current) {
+            while (i < previous.length && previous[i] < id) {
+                i++;
+            }
+            if (i == previous.length || previous[i] != id) {
+                added[count++] = id;
+            }
+        }
+        return Arrays.copyOf(added, count);
+    }
+
+    /**
+     * Returns whether the decoded snapshot contains the specified ID.
+     * @param snapshot the decoded snapshot
+     * @param id the ID to look for
+     * @return true if the snapshot contains the ID
+     */
+    public static boolean contains(long[] snapshot, long id) {
+        return Arrays.binarySearch(snapshot, id) >= 0;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] data, int[] position) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position[0] >= data.length) {
+                throw new IllegalArgumentException("The snapshot is truncated");
+            }
+            final byte b = data[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("The snapshot is corrupt");
+    }
+
+}
@@ -445,7 +445,7 @@ $rest.deleteProject = function deleteProject(uuid, successCallback, failCallback
         contentType: CONTENT_TYPE_JSON,
         type: METHOD_DELETE,
         statusCode: {
-            204: function(data) {
+            202: function(data) {
                 if (successCallback) {
                     $rest.callbackValidator(successCallback(data));
                 }
@@ -19,6 +19,8 @@ package org.dependencytrack;
 
 import alpine.Config;
 import alpine.persistence.PersistenceManagerFactory;
+import org.dependencytrack.persistence.ConfigPropertyCache;
+import org.dependencytrack.persistence.EntityCache;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -54,6 +56,9 @@ public abstract class BaseTest {
                 stmt.close();
             }
         }
+        pm.getPersistenceManagerFactory().getDataStoreCache().evictAll();
         pm.close();
+        ConfigPropertyCache.getInstance().invalidate();
+        EntityCache.getInstance().invalidateAll();
     }
 }
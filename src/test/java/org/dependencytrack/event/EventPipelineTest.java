@@ -0,0 +1,152 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.event;
+
+import alpine.event.framework.AbstractChainableEvent;
+import alpine.event.framework.Event;
+import alpine.event.framework.Subscriber;
+import org.dependencytrack.metrics.OperationalMetrics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class EventPipelineTest {
+
+    private static final List<String> PROCESSED = Collections.synchronizedList(new ArrayList<>());
+    private static volatile CountDownLatch done;
+    private static volatile CountDownLatch release;
+
+    private EventPipeline pipeline;
+
+    @Before
+    public void before() {
+        PROCESSED.clear();
+        pipeline = new EventPipeline();
+    }
+
+    @After
+    public void after() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    public void testChainRunsAfterSubscriber() throws Exception {
+        pipeline.createExecutor("test-analysis", 1, 10);
+        pipeline.createExecutor("test-chained", 1, 10);
+        pipeline.route(AnalysisEvent.class, SlowSubscriber.class, "test-analysis");
+        pipeline.route(ChainedEvent.class, RecordingSubscriber.class, "test-chained");
+        done = new CountDownLatch(2);
+        pipeline.dispatch(new AnalysisEvent("ok").onSuccess(new ChainedEvent("success")).onFailure(new ChainedEvent("failure")));
+        pipeline.dispatch(new AnalysisEvent("fail").onSuccess(new ChainedEvent("success")).onFailure(new ChainedEvent("failure")));
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList("analysis:ok", "chained:success", "analysis:fail", "chained:failure"), new ArrayList<>(PROCESSED));
+    }
+
+    @Test
+    public void testEventsAreProcessedInOrder() throws Exception {
+        pipeline.createExecutor("test-ordered", 1, 1000);
+        pipeline.route(ChainedEvent.class, RecordingSubscriber.class, "test-ordered");
+        done = new CountDownLatch(200);
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            pipeline.dispatch(new ChainedEvent(String.valueOf(i)));
+            expected.add("chained:" + i);
+        }
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(expected, new ArrayList<>(PROCESSED));
+    }
+
+    @Test
+    public void testOfferRejectsWhenSaturated() throws Exception {
+        pipeline.createExecutor("test-saturated", 1, 1);
+        pipeline.route(BlockingEvent.class, BlockingSubscriber.class, "test-saturated");
+        release = new CountDownLatch(1);
+        done = new CountDownLatch(2);
+        final double rejected = OperationalMetrics.EVENTS_REJECTED.labels("test-saturated").get();
+        final EventExecutor executor = pipeline.getExecutors().get(0);
+        pipeline.offer(new BlockingEvent()); // processed
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (executor.getActiveCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        pipeline.offer(new BlockingEvent()); // queued
+        Assert.assertTrue(pipeline.isSaturated(BlockingEvent.class));
+        pipeline.offer(new BlockingEvent()); // discarded without waiting
+        Assert.assertEquals(rejected + 1, OperationalMetrics.EVENTS_REJECTED.labels("test-saturated").get(), 0);
+        release.countDown();
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    public static class AnalysisEvent extends AbstractChainableEvent {
+        private final String name;
+
+        public AnalysisEvent(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class ChainedEvent implements Event {
+        private final String name;
+
+        public ChainedEvent(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class BlockingEvent implements Event { }
+
+    public static class SlowSubscriber implements Subscriber {
+        public void inform(Event e) {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            final AnalysisEvent event = (AnalysisEvent) e;
+            PROCESSED.add("analysis:" + event.name);
+            if ("fail".equals(event.name)) {
+                throw new IllegalStateException("Analysis failed");
+            }
+        }
+    }
+
+    public static class RecordingSubscriber implements Subscriber {
+        public void inform(Event e) {
+            PROCESSED.add("chained:" + ((ChainedEvent) e).name);
+            done.countDown();
+        }
+    }
+
+    public static class BlockingSubscriber implements Subscriber {
+        public void inform(Event e) {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        }
+    }
+}
@@ -26,6 +26,7 @@ import org.dependencytrack.model.Scan;
 import org.dependencytrack.parser.dependencycheck.model.Analysis;
 import org.dependencytrack.parser.dependencycheck.model.Dependency;
 import org.dependencytrack.parser.dependencycheck.model.Evidence;
+import org.dependencytrack.parser.dependencycheck.model.ProjectInfo;
 import org.dependencytrack.persistence.QueryManager;
 import java.io.File;
 import java.text.SimpleDateFormat;
@@ -141,4 +142,31 @@ public class DependencyCheckParserTest extends BaseTest {
 
         qm.close();
     }
+
+    @Test
+    public void streamingParseTest() throws Exception {
+        final File file = new File("src/test/resources/dependency-check-report-nodejs.xml");
+        final Analysis analysis = new DependencyCheckParser().parse(file);
+        final List<ProjectInfo> projectInfos = new ArrayList<>();
+        final List<Dependency> dependencies = new ArrayList<>();
+        new DependencyCheckParser().parse(file, new DependencyCheckParser.Handler() {
+            @Override
+            public void handle(ProjectInfo projectInfo) {
+                projectInfos.add(projectInfo);
+            }
+
+            @Override
+            public void handle(Dependency dependency) {
+                dependencies.add(dependency);
+            }
+        });
+        Assert.assertEquals(1, projectInfos.size());
+        Assert.assertEquals(analysis.getProjectInfo().getName(), projectInfos.get(0).getName());
+        Assert.assertEquals(analysis.getDependencies().size(), dependencies.size());
+        for (int i = 0; i < dependencies.size(); i++) {
+            Assert.assertEquals(analysis.getDependencies().get(i).getFilePath(), dependencies.get(i).getFilePath());
+            Assert.assertEquals(analysis.getDependencies().get(i).getEvidenceCollected() == null,
+                    dependencies.get(i).getEvidenceCollected() == null);
+        }
+    }
 }
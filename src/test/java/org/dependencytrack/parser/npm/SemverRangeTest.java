@@ -0,0 +1,82 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.parser.npm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SemverRangeTest {
+
+    @Test
+    public void testPrimitiveComparators() {
+        assertSatisfies("<1.2.3", "1.2.2", true);
+        assertSatisfies("<1.2.3", "1.2.3", false);
+        assertSatisfies("<=1.2.3", "1.2.3", true);
+        assertSatisfies(">= 4.0.0 < 4.17.5", "4.17.4", true);
+        assertSatisfies(">= 4.0.0 < 4.17.5", "4.17.5", false);
+        assertSatisfies("<=99.999.99999", "5.0.0", true);
+        assertSatisfies(">=0.0.0", "0.0.1", true);
+        assertSatisfies("<0.0.0", "0.0.0", false);
+    }
+
+    @Test
+    public void testUnions() {
+        assertSatisfies("< 1.0.0 || >= 2.0.0 < 2.1.2", "0.9.9", true);
+        assertSatisfies("< 1.0.0 || >= 2.0.0 < 2.1.2", "1.5.0", false);
+        assertSatisfies("< 1.0.0 || >= 2.0.0 < 2.1.2", "2.1.1", true);
+        assertSatisfies("< 1.0.0 || >= 2.0.0 < 2.1.2", "2.1.2", false);
+    }
+
+    @Test
+    public void testSugaredRanges() {
+        assertSatisfies("^1.2.3", "1.9.0", true);
+        assertSatisfies("^1.2.3", "2.0.0", false);
+        assertSatisfies("^0.2.3", "0.3.0", false);
+        assertSatisfies("^0.0.3", "0.0.4", false);
+        assertSatisfies("~1.2", "1.2.9", true);
+        assertSatisfies("~1.2", "1.3.0", false);
+        assertSatisfies("1.x", "1.5.5", true);
+        assertSatisfies("*", "3.0.0", true);
+        assertSatisfies("1.2 - 2.3", "2.3.9", true);
+        assertSatisfies("1.2 - 2.3", "2.4.0", false);
+        assertSatisfies(">1.2", "1.2.9", false);
+        assertSatisfies(">1.2", "1.3.0", true);
+        assertSatisfies("<=1.2", "1.2.7", true);
+        assertSatisfies("<1.2", "1.2.0", false);
+    }
+
+    @Test
+    public void testPrereleases() {
+        assertSatisfies("<1.0.0-rc.2", "1.0.0-rc.1", true);
+        assertSatisfies("<1.0.0-rc.2", "1.0.0-rc.10", false);
+        assertSatisfies("<1.0.0", "1.0.0-rc.1", false);
+        assertSatisfies("^1.2.3", "2.0.0-alpha", false);
+    }
+
+    @Test
+    public void testInvalidRange() {
+        Assert.assertNull(SemverRange.parse("not a range"));
+        Assert.assertNull(Semver.parse("1.2"));
+    }
+
+    private static void assertSatisfies(String range, String version, boolean expected) {
+        final SemverRange compiled = SemverRange.parse(range);
+        Assert.assertNotNull(range, compiled);
+        Assert.assertEquals(range + " " + version, expected, compiled.satisfies(Semver.parse(version)));
+    }
+}
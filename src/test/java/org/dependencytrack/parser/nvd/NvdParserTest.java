@@ -0,0 +1,99 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.parser.nvd;
+
+import org.dependencytrack.model.VulnerableSoftware;
+import org.junit.Assert;
+import org.junit.Test;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import java.util.List;
+
+public class NvdParserTest {
+
+    @Test
+    public void testOrConfiguration() {
+        final List<VulnerableSoftware> vs = parse(node("OR",
+                cpeMatch("cpe:2.3:a:apache:struts:2.3.1:*:*:*:*:*:*:*", true),
+                cpeMatch("cpe:2.3:a:apache:struts:2.3.2:*:*:*:*:*:*:*", true),
+                cpeMatch("cpe:2.3:a:apache:tomcat:9.0.0:*:*:*:*:*:*:*", false)));
+        Assert.assertEquals(2, vs.size());
+        Assert.assertEquals("struts", vs.get(0).getProduct());
+        Assert.assertEquals("2.3.2", vs.get(1).getVersion());
+    }
+
+    @Test
+    public void testAndConfigurationWithPlatform() {
+        // A vulnerable application running on a platform, which is disregarded
+        final JsonObject node = Json.createObjectBuilder()
+                .add("operator", "AND")
+                .add("children", Json.createArrayBuilder()
+                        .add(node("OR", cpeMatch("cpe:2.3:a:example:app:1.0:*:*:*:*:*:*:*", true)))
+                        .add(node("OR", cpeMatch("cpe:2.3:o:microsoft:windows:-:*:*:*:*:*:*:*", false))))
+                .build();
+        final List<VulnerableSoftware> vs = parse(node);
+        Assert.assertEquals(1, vs.size());
+        Assert.assertEquals("app", vs.get(0).getProduct());
+    }
+
+    @Test
+    public void testAndConfigurationWithSeveralVulnerableCriteria() {
+        // Only vulnerable when both are present, neither can be matched on its own
+        final JsonObject node = Json.createObjectBuilder()
+                .add("operator", "AND")
+                .add("children", Json.createArrayBuilder()
+                        .add(node("OR", cpeMatch("cpe:2.3:a:example:plugin:1.0:*:*:*:*:*:*:*", true)))
+                        .add(node("OR", cpeMatch("cpe:2.3:a:example:host:2.0:*:*:*:*:*:*:*", true))))
+                .build();
+        Assert.assertTrue(parse(node).isEmpty());
+        Assert.assertTrue(parse(node("AND",
+                cpeMatch("cpe:2.3:a:example:plugin:1.0:*:*:*:*:*:*:*", true),
+                cpeMatch("cpe:2.3:a:example:host:2.0:*:*:*:*:*:*:*", true))).isEmpty());
+    }
+
+    @Test
+    public void testNegatedConfiguration() {
+        final JsonObject node = Json.createObjectBuilder()
+                .add("operator", "OR")
+                .add("negate", true)
+                .add("cpe_match", Json.createArrayBuilder().add(cpeMatch("cpe:2.3:a:example:app:1.0:*:*:*:*:*:*:*", true)))
+                .build();
+        Assert.assertTrue(parse(node).isEmpty());
+    }
+
+    private List<VulnerableSoftware> parse(JsonObject node) {
+        final JsonObject cveItem = Json.createObjectBuilder()
+                .add("configurations", Json.createObjectBuilder().add("nodes", Json.createArrayBuilder().add(node)))
+                .build();
+        return new NvdParser().parseCpeMatches(cveItem);
+    }
+
+    private static JsonObject node(String operator, JsonObjectBuilder... cpeMatches) {
+        final JsonArrayBuilder array = Json.createArrayBuilder();
+        for (final JsonObjectBuilder cpeMatch: cpeMatches) {
+            array.add(cpeMatch);
+        }
+        return Json.createObjectBuilder().add("operator", operator).add("cpe_match", array).build();
+    }
+
+    private static JsonObjectBuilder cpeMatch(String cpe23Uri, boolean vulnerable) {
+        return Json.createObjectBuilder().add("vulnerable", vulnerable).add("cpe23Uri", cpe23Uri);
+    }
+}
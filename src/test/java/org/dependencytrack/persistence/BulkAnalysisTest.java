@@ -0,0 +1,129 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import org.dependencytrack.BaseTest;
+import org.dependencytrack.model.Analysis;
+import org.dependencytrack.model.AnalysisComment;
+import org.dependencytrack.model.AnalysisState;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.model.Vulnerability;
+import org.junit.Assert;
+import org.junit.Test;
+import javax.jdo.Query;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+public class BulkAnalysisTest extends BaseTest {
+
+    @Test
+    public void testMakeAnalyses() throws Exception {
+        try (QueryManager qm = new QueryManager()) {
+            final Project p1 = qm.createProject("Example Project 1", null, "1.0", null, null, null, false);
+            final Project p2 = qm.createProject("Example Project 2", null, "1.0", null, null, null, false);
+            Component component = new Component();
+            component.setName("example-lib");
+            component.setVersion("1.0");
+            component = qm.createComponent(component, false);
+            Vulnerability vulnerability = new Vulnerability();
+            vulnerability.setVulnId("INT-1");
+            vulnerability.setSource(Vulnerability.Source.INTERNAL);
+            vulnerability = qm.createVulnerability(vulnerability, false);
+            qm.addVulnerability(vulnerability, component);
+
+            // Duplicate targets are only applied once
+            List<Analysis> stateChanged = new ArrayList<>();
+            List<Analysis> changed = qm.makeAnalyses(Arrays.asList(
+                    createTarget(p1, component, vulnerability),
+                    createTarget(p2, component, vulnerability),
+                    createTarget(p1, component, vulnerability)),
+                    AnalysisState.FALSE_POSITIVE, true, "Not used", "admin", stateChanged);
+            Assert.assertEquals(2, changed.size());
+            Assert.assertEquals(2, stateChanged.size());
+            Analysis analysis = qm.getAnalysis(p1, component, vulnerability);
+            Assert.assertEquals(AnalysisState.FALSE_POSITIVE, analysis.getAnalysisState());
+            Assert.assertTrue(analysis.isSuppressed());
+            Assert.assertEquals(3, countComments(qm, analysis));
+
+            // Reapplying the same decision changes nothing
+            stateChanged = new ArrayList<>();
+            changed = qm.makeAnalyses(Arrays.asList(
+                    createTarget(p1, component, vulnerability),
+                    createTarget(p2, component, vulnerability)),
+                    AnalysisState.FALSE_POSITIVE, true, null, "admin", stateChanged);
+            Assert.assertEquals(0, changed.size());
+            Assert.assertEquals(0, stateChanged.size());
+            Assert.assertEquals(3, countComments(qm, analysis));
+
+            // An unspecified state leaves the state unchanged
+            stateChanged = new ArrayList<>();
+            changed = qm.makeAnalyses(Arrays.asList(
+                    createTarget(p1, component, vulnerability),
+                    createTarget(p2, component, vulnerability)),
+                    null, false, null, "admin", stateChanged);
+            Assert.assertEquals(2, changed.size());
+            Assert.assertEquals(0, stateChanged.size());
+            analysis = qm.getAnalysis(p2, component, vulnerability);
+            Assert.assertEquals(AnalysisState.FALSE_POSITIVE, analysis.getAnalysisState());
+            Assert.assertFalse(analysis.isSuppressed());
+            Assert.assertEquals(4, countComments(qm, analysis));
+
+            // Only a suppression change of the same state is not a state change
+            stateChanged = new ArrayList<>();
+            changed = qm.makeAnalyses(Arrays.asList(
+                    createTarget(p1, component, vulnerability),
+                    createTarget(p2, component, vulnerability)),
+                    AnalysisState.FALSE_POSITIVE, true, null, "admin", stateChanged);
+            Assert.assertEquals(2, changed.size());
+            Assert.assertEquals(0, stateChanged.size());
+            stateChanged = new ArrayList<>();
+            changed = qm.makeAnalyses(Collections.singletonList(createTarget(p1, component, vulnerability)),
+                    AnalysisState.NOT_AFFECTED, null, null, "admin", stateChanged);
+            Assert.assertEquals(1, changed.size());
+            Assert.assertEquals(1, stateChanged.size());
+
+            // A change of both state and suppression records both in the trail
+            changed = qm.makeAnalyses(Collections.singletonList(createTarget(p2, component, vulnerability)),
+                    AnalysisState.EXPLOITABLE, false, null, "admin", new ArrayList<>());
+            Assert.assertEquals(1, changed.size());
+            analysis = qm.getAnalysis(p2, component, vulnerability);
+            Assert.assertEquals(AnalysisState.EXPLOITABLE, analysis.getAnalysisState());
+            Assert.assertFalse(analysis.isSuppressed());
+            Assert.assertEquals(7, countComments(qm, analysis));
+
+            Assert.assertEquals(2, qm.getObjectsByUuid(Project.class, Arrays.asList(p1.getUuid(), p2.getUuid(), UUID.randomUUID())).size());
+        }
+    }
+
+    private Analysis createTarget(Project project, Component component, Vulnerability vulnerability) {
+        final Analysis analysis = new Analysis();
+        analysis.setProject(project);
+        analysis.setComponent(component);
+        analysis.setVulnerability(vulnerability);
+        return analysis;
+    }
+
+    private int countComments(QueryManager qm, Analysis analysis) {
+        final Query query = qm.getPersistenceManager().newQuery(AnalysisComment.class, "analysis == :analysis");
+        return ((List<?>) query.execute(analysis)).size();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import com.github.packageurl.PackageURL;
+import org.dependencytrack.BaseTest;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.ComponentIdentity;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.Map;
+
+public class ComponentIdentityTest extends BaseTest {
+
+    private static final String MD5 = "b5a3f7d6c4e2a1b0c9d8e7f6a5b4c3d2";
+    private static final String SHA1 = "a94a8fe5ccb19ba61c4c0873d391e987982fbbd3";
+
+    @Test
+    public void testGetIdentities() throws Exception {
+        final Component component = new Component();
+        component.setMd5(MD5);
+        component.setSha1(" ");
+        component.setPurl(new PackageURL("pkg:maven/org.acme/example@1.0.0"));
+        final Map<ComponentIdentity.Type, String> identities = ComponentIdentity.getIdentities(component);
+        Assert.assertEquals(2, identities.size());
+        Assert.assertEquals(MD5, identities.get(ComponentIdentity.Type.MD5));
+        Assert.assertEquals("pkg:maven/org.acme/example@1.0.0", identities.get(ComponentIdentity.Type.PURL));
+    }
+
+    @Test
+    public void testResolveComponents() throws Exception {
+        try (QueryManager qm = new QueryManager()) {
+            final Component byHash = createComponent(qm, "by-hash", MD5, null);
+            final Component byPurl = createComponent(qm, "by-purl", null, "pkg:npm/example@1.0.0");
+
+            final Component md5 = new Component();
+            md5.setMd5(MD5);
+            final Component purl = new Component();
+            purl.setPurl(new PackageURL("pkg:npm/example@1.0.0"));
+            final Component unknown = new Component();
+            unknown.setSha1(SHA1);
+            final Map<Component, Component> resolved = qm.resolveComponents(Arrays.asList(md5, purl, unknown));
+            Assert.assertEquals(2, resolved.size());
+            Assert.assertEquals(byHash.getId(), resolved.get(md5).getId());
+            Assert.assertEquals(byPurl.getId(), resolved.get(purl).getId());
+            Assert.assertNull(resolved.get(unknown));
+            Assert.assertEquals(byHash.getId(), qm.getComponentByHash(MD5).getId());
+
+            // Identities follow updates of the component
+            final Component update = new Component();
+            update.setUuid(byHash.getUuid());
+            update.setName("by-hash");
+            update.setSha1(SHA1);
+            qm.updateComponent(update, false);
+            Assert.assertNull(qm.getComponentByHash(MD5));
+            Assert.assertEquals(byHash.getId(), qm.resolveComponent(unknown).getId());
+
+            qm.recursivelyDelete(qm.getObjectByUuid(Component.class, byHash.getUuid()), false);
+            Assert.assertNull(qm.getComponentByHash(SHA1));
+        }
+    }
+
+    private Component createComponent(QueryManager qm, String name, String md5, String purl) throws Exception {
+        final Component component = new Component();
+        component.setName(name);
+        component.setMd5(md5);
+        component.setPurl(purl == null ? null : new PackageURL(purl));
+        return qm.createComponent(component, false);
+    }
+}
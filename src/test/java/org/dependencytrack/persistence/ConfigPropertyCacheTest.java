@@ -0,0 +1,82 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import alpine.crypto.DataEncryption;
+import alpine.model.ConfigProperty;
+import org.dependencytrack.BaseTest;
+import org.dependencytrack.model.ConfigPropertyConstants;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.dependencytrack.model.ConfigPropertyConstants.EMAIL_SMTP_PASSWORD;
+import static org.dependencytrack.model.ConfigPropertyConstants.EMAIL_SMTP_SERVER_PORT;
+import static org.dependencytrack.model.ConfigPropertyConstants.EMAIL_SMTP_SSLTLS;
+
+public class ConfigPropertyCacheTest extends BaseTest {
+
+    @Test
+    public void testLoad() {
+        try (QueryManager qm = new QueryManager()) {
+            createProperty(qm, EMAIL_SMTP_SERVER_PORT, "25");
+            createProperty(qm, EMAIL_SMTP_SSLTLS, "true");
+        }
+        final ConfigPropertyCache cache = ConfigPropertyCache.getInstance();
+        Assert.assertEquals("25", cache.getValue(EMAIL_SMTP_SERVER_PORT));
+        Assert.assertEquals(Integer.valueOf(25), cache.getInteger(EMAIL_SMTP_SERVER_PORT));
+        Assert.assertTrue(cache.getBoolean(EMAIL_SMTP_SSLTLS));
+        Assert.assertNull(cache.getValue(EMAIL_SMTP_PASSWORD));
+        Assert.assertFalse(cache.isDecryptionFailed(EMAIL_SMTP_PASSWORD));
+    }
+
+    @Test
+    public void testInvalidate() {
+        final ConfigPropertyCache cache = ConfigPropertyCache.getInstance();
+        try (QueryManager qm = new QueryManager()) {
+            final ConfigProperty property = createProperty(qm, EMAIL_SMTP_SERVER_PORT, "25");
+            Assert.assertEquals(Integer.valueOf(25), cache.getInteger(EMAIL_SMTP_SERVER_PORT));
+
+            property.setPropertyValue("587");
+            qm.persist(property);
+            Assert.assertEquals(Integer.valueOf(25), cache.getInteger(EMAIL_SMTP_SERVER_PORT));
+
+            cache.invalidate();
+            Assert.assertEquals(Integer.valueOf(587), cache.getInteger(EMAIL_SMTP_SERVER_PORT));
+        }
+    }
+
+    @Test
+    public void testDecryption() throws Exception {
+        final ConfigPropertyCache cache = ConfigPropertyCache.getInstance();
+        try (QueryManager qm = new QueryManager()) {
+            final ConfigProperty property = createProperty(qm, EMAIL_SMTP_PASSWORD, DataEncryption.encryptAsString("secret"));
+            Assert.assertEquals("secret", cache.getValue(EMAIL_SMTP_PASSWORD));
+            Assert.assertFalse(cache.isDecryptionFailed(EMAIL_SMTP_PASSWORD));
+
+            property.setPropertyValue("not encrypted");
+            qm.persist(property);
+            cache.invalidate();
+            Assert.assertNull(cache.getValue(EMAIL_SMTP_PASSWORD));
+            Assert.assertTrue(cache.isDecryptionFailed(EMAIL_SMTP_PASSWORD));
+        }
+    }
+
+    private ConfigProperty createProperty(QueryManager qm, ConfigPropertyConstants cpc, String value) {
+        return qm.createConfigProperty(cpc.getGroupName(), cpc.getPropertyName(), value, cpc.getPropertyType(), cpc.getDescription());
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import alpine.notification.NotificationLevel;
+import alpine.persistence.PersistenceManagerFactory;
+import org.dependencytrack.BaseTest;
+import org.dependencytrack.model.Bom;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.Cwe;
+import org.dependencytrack.model.Dependency;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.model.Vulnerability;
+import org.dependencytrack.notification.NotificationScope;
+import org.junit.Assert;
+import org.junit.Test;
+import javax.jdo.PersistenceManager;
+import javax.jdo.Transaction;
+import javax.jdo.datastore.JDOConnection;
+import javax.transaction.Synchronization;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EntityCacheTest extends BaseTest {
+
+    @Test
+    public void testRegion() throws Exception {
+        final EntityCache cache = new EntityCache(2, 60000);
+        cache.put(Cwe.class, "a", 1L, cache.getGeneration(Cwe.class));
+        cache.put(Cwe.class, "b", 2L, cache.getGeneration(Cwe.class));
+        cache.putList(Cwe.class, "list", Arrays.<Object>asList(1L, 2L), cache.getGeneration(Cwe.class));
+        Assert.assertNull(cache.get(Cwe.class, "a")); // evicted, least recently used
+        Assert.assertEquals(2L, cache.get(Cwe.class, "b"));
+        Assert.assertEquals(Arrays.<Object>asList(1L, 2L), cache.getList(Cwe.class, "list"));
+
+        // Invalidating an object invalidates its lookups and all lists
+        cache.invalidate(Cwe.class, 1L);
+        Assert.assertEquals(2L, cache.get(Cwe.class, "b"));
+        Assert.assertNull(cache.getList(Cwe.class, "list"));
+        cache.invalidate(Cwe.class, 2L);
+        Assert.assertNull(cache.get(Cwe.class, "b"));
+
+        final EntityCache.Statistics statistics = cache.getStatistics().get(EntityCache.CACHEABLE_CLASSES.indexOf(Cwe.class));
+        Assert.assertEquals("Cwe", statistics.getName());
+        Assert.assertEquals(3, statistics.getHits());
+        Assert.assertEquals(3, statistics.getMisses());
+        Assert.assertEquals(1, statistics.getEvictions());
+        Assert.assertEquals(2, statistics.getInvalidations());
+
+        Assert.assertTrue(cache.isCacheable(Vulnerability.class));
+        Assert.assertFalse(cache.isCacheable(Dependency.class));
+        final EntityCache disabled = new EntityCache(0, 60000);
+        disabled.put(Cwe.class, "a", 1L, disabled.getGeneration(Cwe.class));
+        Assert.assertNull(disabled.get(Cwe.class, "a"));
+    }
+
+    @Test
+    public void testCachedLookup() throws Exception {
+        try (QueryManager qm = new QueryManager()) {
+            qm.createCweIfNotExist(79, "Cross-site Scripting");
+        }
+        final Cwe cwe;
+        try (QueryManager qm = new QueryManager()) {
+            cwe = qm.getCweById(79);
+        }
+        final long hits = getStatistics(Cwe.class).getHits();
+        try (QueryManager qm = new QueryManager()) {
+            final Cwe cached = qm.getCweById(79);
+            Assert.assertEquals(cwe.getId(), cached.getId());
+            Assert.assertEquals(hits + 1, getStatistics(Cwe.class).getHits());
+            cached.setName("Improper Neutralization of Input During Web Page Generation");
+            qm.persist(cached);
+        }
+        Assert.assertEquals(0, getStatistics(Cwe.class).getSize());
+        try (QueryManager qm = new QueryManager()) {
+            Assert.assertEquals("Improper Neutralization of Input During Web Page Generation", qm.getCweById(79).getName());
+            Assert.assertNull(qm.getCweById(80));
+        }
+    }
+
+    @Test
+    public void testInvalidationAfterCommit() throws Exception {
+        try (QueryManager qm = new QueryManager()) {
+            qm.createCweIfNotExist(89, "SQL Injection");
+        }
+        try (QueryManager qm = new QueryManager()) {
+            qm.getCweById(89);
+            Assert.assertEquals(1, getStatistics(Cwe.class).getSize());
+            final Transaction trx = qm.getPersistenceManager().currentTransaction();
+            trx.begin();
+            qm.getCweById(89).setName("Improper Neutralization of Special Elements used in an SQL Command");
+            qm.getPersistenceManager().flush();
+            // Not yet committed, a lookup performed now would cache the previous state again
+            Assert.assertEquals(1, getStatistics(Cwe.class).getSize());
+            trx.commit();
+            Assert.assertEquals(0, getStatistics(Cwe.class).getSize());
+        }
+        try (QueryManager qm = new QueryManager()) {
+            Assert.assertEquals("Improper Neutralization of Special Elements used in an SQL Command", qm.getCweById(89).getName());
+        }
+    }
+
+    @Test
+    public void testEvictionAfterOrphanedComponentDeletion() throws Exception {
+        try (QueryManager qm = new QueryManager()) {
+            final Project project = qm.createProject("Example Project", null, "1.0", null, null, null, false);
+            final Bom bom = qm.createBom(project, new Date(0));
+            final Component component = new Component();
+            component.setName("example");
+            final long componentId = qm.createComponent(component, false).getId();
+            final Vulnerability vulnerability = new Vulnerability();
+            vulnerability.setVulnId("INT-1");
+            vulnerability.setSource(Vulnerability.Source.INTERNAL);
+            qm.createVulnerability(vulnerability, false);
+            qm.addVulnerability(vulnerability, qm.getObjectById(Component.class, componentId));
+            qm.updateComponentSnapshot(bom, Collections.singletonList(componentId));
+            Assert.assertEquals(1, qm.getVulnerabilityByVulnId(Vulnerability.Source.INTERNAL, "INT-1").getComponents().size());
+
+            qm.deleteOrphanedComponents(Collections.singletonList(componentId), new Date());
+        }
+        try (QueryManager qm = new QueryManager()) {
+            Assert.assertTrue(qm.getVulnerabilityByVulnId(Vulnerability.Source.INTERNAL, "INT-1").getComponents().isEmpty());
+        }
+    }
+
+    @Test
+    public void testStaleLookupIsNotCached() {
+        final EntityCache cache = new EntityCache(10, 60000);
+        // A lookup performed before an invalidation may have read the previous state
+        final long generation = cache.getGeneration(Cwe.class);
+        cache.invalidate(Cwe.class, 1L);
+        cache.put(Cwe.class, "a", 1L, generation);
+        cache.putList(Cwe.class, "list", Collections.<Object>singletonList(1L), generation);
+        Assert.assertNull(cache.get(Cwe.class, "a"));
+        Assert.assertNull(cache.getList(Cwe.class, "list"));
+        // Other regions are not affected
+        cache.put(Vulnerability.class, "b", 2L, cache.getGeneration(Vulnerability.class));
+        Assert.assertEquals(2L, cache.get(Vulnerability.class, "b"));
+    }
+
+    @Test
+    public void testExistingSynchronizationIsRetained() {
+        try (QueryManager qm = new QueryManager()) {
+            qm.createCweIfNotExist(22, "Path Traversal");
+            qm.getCweById(22);
+        }
+        final AtomicInteger completions = new AtomicInteger();
+        final PersistenceManager pm = PersistenceManagerFactory.createPersistenceManager();
+        try {
+            pm.currentTransaction().setSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    completions.incrementAndGet();
+                }
+            });
+            EntityCacheInvalidator.register(pm);
+            final Transaction trx = pm.currentTransaction();
+            trx.begin();
+            final Cwe cwe = (Cwe) pm.newQuery(Cwe.class, "cweId == 22").execute().iterator().next();
+            cwe.setName("Improper Limitation of a Pathname to a Restricted Directory");
+            trx.commit();
+        } finally {
+            pm.close();
+        }
+        Assert.assertEquals(1, completions.get());
+        Assert.assertEquals(0, getStatistics(Cwe.class).getSize());
+    }
+
+    @Test
+    public void testStatementCounts() throws Exception {
+        enableQueryStatistics();
+        // Reading the statistics may itself execute statements, such as validating the connection
+        final long first = countStatements();
+        final long overhead = countStatements() - first;
+        try (QueryManager qm = new QueryManager()) {
+            final Vulnerability vulnerability = new Vulnerability();
+            vulnerability.setVulnId("INT-1");
+            vulnerability.setSource(Vulnerability.Source.INTERNAL);
+            qm.createVulnerability(vulnerability, false);
+            qm.createNotificationRule("Example Rule", NotificationScope.PORTFOLIO, NotificationLevel.INFORMATIONAL, null);
+        }
+
+        // Cached lookups, such as those performed for every notification, execute no statements once cached
+        try (QueryManager qm = new QueryManager()) {
+            final long before = countStatements();
+            Assert.assertNotNull(qm.getVulnerabilityByVulnId(Vulnerability.Source.INTERNAL, "INT-1"));
+            Assert.assertEquals(1, qm.getEnabledNotificationRules(NotificationScope.PORTFOLIO, NotificationLevel.INFORMATIONAL).size());
+            Assert.assertTrue(countStatements() - before > overhead);
+        }
+        try (QueryManager qm = new QueryManager()) {
+            final long before = countStatements();
+            Assert.assertNotNull(qm.getVulnerabilityByVulnId(Vulnerability.Source.INTERNAL, "INT-1"));
+            Assert.assertEquals(1, qm.getEnabledNotificationRules(NotificationScope.PORTFOLIO, NotificationLevel.INFORMATIONAL).size());
+            Assert.assertEquals(overhead, countStatements() - before);
+        }
+
+        // The number of statements executed to retrieve findings does not depend on the number of findings
+        final long smallId;
+        final long largeId;
+        try (QueryManager qm = new QueryManager()) {
+            final Vulnerability vulnerability = qm.getVulnerabilityByVulnId(Vulnerability.Source.INTERNAL, "INT-1");
+            smallId = createVulnerableProject(qm, "Small Project", vulnerability, 1).getId();
+            largeId = createVulnerableProject(qm, "Large Project", vulnerability, 10).getId();
+        }
+        try (QueryManager qm = new QueryManager()) {
+            final Project small = qm.getObjectById(Project.class, smallId);
+            final Project large = qm.getObjectById(Project.class, largeId);
+            long before = countStatements();
+            Assert.assertEquals(1, qm.getFindings(small).size());
+            final long smallStatements = countStatements() - before;
+            before = countStatements();
+            Assert.assertEquals(10, qm.getFindings(large).size());
+            Assert.assertEquals(smallStatements, countStatements() - before);
+        }
+    }
+
+    private static Project createVulnerableProject(QueryManager qm, String name, Vulnerability vulnerability, int components) {
+        final Project project = qm.createProject(name, null, "1.0", null, null, null, false);
+        for (int i = 0; i < components; i++) {
+            final Component component = new Component();
+            component.setName(name + " Component " + i);
+            qm.createComponent(component, false);
+            qm.addVulnerability(vulnerability, component);
+            qm.createDependencyIfNotExist(project, component, null, null);
+        }
+        return project;
+    }
+
+    /**
+     * Enables the statement statistics of the H2 database used by unit tests.
+     */
+    private static void enableQueryStatistics() throws SQLException {
+        executeStatement("SET QUERY_STATISTICS_MAX_ENTRIES 10000", false);
+        executeStatement("SET QUERY_STATISTICS TRUE", false);
+    }
+
+    /**
+     * Returns the number of statements executed by the H2 database used by unit tests.
+     */
+    private static long countStatements() throws SQLException {
+        return executeStatement("SELECT COALESCE(SUM(EXECUTION_COUNT), 0) FROM INFORMATION_SCHEMA.QUERY_STATISTICS "
+                + "WHERE SQL_STATEMENT NOT LIKE '%QUERY_STATISTICS%'", true);
+    }
+
+    private static long executeStatement(String sql, boolean query) throws SQLException {
+        final PersistenceManager pm = PersistenceManagerFactory.createPersistenceManager();
+        final JDOConnection jdoConnection = pm.getDataStoreConnection();
+        try (Statement stmt = ((Connection) jdoConnection.getNativeConnection()).createStatement()) {
+            if (!query) {
+                stmt.execute(sql);
+                return 0;
+            }
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        } finally {
+            jdoConnection.close();
+            pm.close();
+        }
+    }
+
+    private EntityCache.Statistics getStatistics(Class<?> clazz) {
+        final List<EntityCache.Statistics> statistics = EntityCache.getInstance().getStatistics();
+        return statistics.get(EntityCache.CACHEABLE_CLASSES.indexOf(clazz));
+    }
+}
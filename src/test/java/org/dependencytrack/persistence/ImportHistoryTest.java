@@ -0,0 +1,86 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import org.dependencytrack.BaseTest;
+import org.dependencytrack.model.Bom;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.util.SnapshotUtil;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Date;
+import java.util.List;
+
+public class ImportHistoryTest extends BaseTest {
+
+    @Test
+    public void testPruneAndMigrate() throws Exception {
+        try (QueryManager qm = new QueryManager()) {
+            final Project project = qm.createProject("Example Project", null, "1.0", null, null, null, false);
+            final Component component = new Component();
+            component.setName("example");
+            final long componentId = qm.createComponent(component, false).getId();
+            for (int i = 0; i < 4; i++) {
+                // Imports recorded before component snapshots were introduced
+                final Bom bom = qm.createBom(project, new Date(i * 1000L));
+                bom.setComponentSnapshot(null);
+                qm.persist(bom);
+                qm.bind(bom, qm.getObjectById(Component.class, componentId));
+            }
+
+            Assert.assertEquals(0, qm.pruneImports(Bom.class, 0));
+            Assert.assertEquals(2, qm.pruneImports(Bom.class, 2));
+            Assert.assertEquals(0, qm.pruneImports(Bom.class, 2));
+
+            Assert.assertEquals(1, qm.migrateComponentSnapshots(Bom.class, 1));
+            Assert.assertEquals(1, qm.migrateComponentSnapshots(Bom.class, 1));
+            Assert.assertEquals(0, qm.migrateComponentSnapshots(Bom.class, 1));
+
+            final Date retained = new Date(2000L);
+            final List<Bom> boms = qm.getBoms(project);
+            Assert.assertEquals(2, boms.size());
+            for (final Bom bom: boms) {
+                qm.getPersistenceManager().refresh(bom);
+                Assert.assertFalse(bom.getImported().before(retained));
+                Assert.assertArrayEquals(new long[] {componentId}, SnapshotUtil.decode(bom.getComponentSnapshot()));
+            }
+        }
+    }
+
+    @Test
+    public void testProjectHistoryRetention() throws Exception {
+        try (QueryManager qm = new QueryManager()) {
+            final Project project = qm.createProject("Example Project", null, "1.0", null, null, null, false);
+            for (int i = 0; i < 3; i++) {
+                qm.createBom(project, new Date(i * 1000L));
+            }
+            qm.updateProject(project.getUuid(), project.getName(), null, project.getVersion(), null, null, 0, false);
+            Assert.assertEquals(0, qm.pruneImports(Bom.class, 1));
+
+            // Updates which do not specify a retention keep the current one
+            qm.updateProject(project.getUuid(), project.getName(), null, project.getVersion(), null, null, null, false);
+            Assert.assertEquals(Integer.valueOf(0), qm.getObjectByUuid(Project.class, project.getUuid()).getHistoryRetention());
+            Assert.assertEquals(0, qm.pruneImports(Bom.class, 1));
+
+            qm.updateProject(project.getUuid(), project.getName(), null, project.getVersion(), null, null, 2, false);
+            Assert.assertEquals(1, qm.pruneImports(Bom.class, 1));
+            Assert.assertEquals(2, qm.getBoms(project).size());
+        }
+    }
+}
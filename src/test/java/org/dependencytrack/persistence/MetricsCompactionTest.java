@@ -0,0 +1,76 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import org.dependencytrack.BaseTest;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.model.ProjectMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class MetricsCompactionTest extends BaseTest {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    public void testCompactProjectMetrics() throws Exception {
+        try (QueryManager qm = new QueryManager()) {
+            final Project p1 = qm.createProject("Example Project 1", null, "1.0", null, null, null, false);
+            final Project p2 = qm.createProject("Example Project 2", null, "1.0", null, null, null, false);
+            final long day = 100 * DAY;
+            // Four changes to the first project and two changes to the second project within the same day
+            for (int i = 0; i < 4; i++) {
+                createMetrics(qm, p1, i, new Date(day + i * HOUR), new Date(day + i * HOUR + HOUR / 2));
+            }
+            for (int i = 0; i < 2; i++) {
+                createMetrics(qm, p2, i + 10, new Date(day + i * HOUR), new Date(day + i * HOUR + HOUR / 2));
+            }
+            // A change on the following day is outside of the period being compacted
+            createMetrics(qm, p1, 99, new Date(day + DAY), new Date(day + DAY + HOUR));
+
+            // A batch size smaller than the number of records ensures batch boundaries are handled
+            final long removed = qm.compactProjectMetrics(new Date(day), new Date(day + DAY), 3);
+            Assert.assertEquals(4, removed);
+
+            List<ProjectMetrics> metrics = qm.getProjectMetricsSince(p1, new Date(0));
+            Assert.assertEquals(2, metrics.size());
+            Assert.assertEquals(3, metrics.get(0).getCritical());
+            Assert.assertEquals(new Date(day), metrics.get(0).getFirstOccurrence());
+            Assert.assertEquals(new Date(day + 3 * HOUR + HOUR / 2), metrics.get(0).getLastOccurrence());
+            Assert.assertEquals(99, metrics.get(1).getCritical());
+
+            metrics = qm.getProjectMetricsSince(p2, new Date(0));
+            Assert.assertEquals(1, metrics.size());
+            Assert.assertEquals(11, metrics.get(0).getCritical());
+            Assert.assertEquals(new Date(day), metrics.get(0).getFirstOccurrence());
+        }
+    }
+
+    private void createMetrics(QueryManager qm, Project project, int critical, Date first, Date last) {
+        final ProjectMetrics metrics = new ProjectMetrics();
+        metrics.setProject(project);
+        metrics.setCritical(critical);
+        metrics.setFirstOccurrence(first);
+        metrics.setLastOccurrence(last);
+        qm.persist(metrics);
+    }
+}
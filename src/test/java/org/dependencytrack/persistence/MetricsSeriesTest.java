@@ -0,0 +1,94 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import org.dependencytrack.BaseTest;
+import org.dependencytrack.metrics.MetricsSeries;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.model.ProjectMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+public class MetricsSeriesTest extends BaseTest {
+
+    @Test
+    public void testProjectMetricsSeries() throws Exception {
+        try (QueryManager qm = new QueryManager()) {
+            final Project p1 = qm.createProject("Example Project 1", null, "1.0", null, null, null, false);
+            final Project p2 = qm.createProject("Example Project 2", null, "1.0", null, null, null, false);
+            // Monday June 1st 2020 through Wednesday June 3rd 2020
+            createMetrics(qm, p1, 1, date(1, 1, 0));
+            createMetrics(qm, p1, 3, date(1, 1, 30));
+            createMetrics(qm, p1, 2, date(1, 5, 0));
+            createMetrics(qm, p1, 7, date(2, 10, 0));
+            createMetrics(qm, p2, 4, date(3, 12, 0));
+            final List<Project> projects = Arrays.asList(p1, p2);
+            final Date since = date(1, 0, 0);
+
+            List<MetricsSeries> series = qm.getProjectMetricsSeries(projects, since, MetricsSeries.Bucket.DAY, MetricsSeries.Aggregate.MAX);
+            Assert.assertEquals(2, series.size());
+            Assert.assertEquals(p1.getUuid().toString(), series.get(0).getSubject());
+            Assert.assertEquals(Arrays.asList(date(1, 0, 0).getTime(), date(2, 0, 0).getTime()), series.get(0).getTimestamps());
+            Assert.assertEquals(Arrays.asList(3.0, 7.0), series.get(0).getValues("critical"));
+
+            series = qm.getProjectMetricsSeries(projects, since, MetricsSeries.Bucket.HOUR, MetricsSeries.Aggregate.MAX);
+            Assert.assertEquals(Arrays.asList(date(1, 1, 0).getTime(), date(1, 5, 0).getTime(), date(2, 10, 0).getTime()), series.get(0).getTimestamps());
+            Assert.assertEquals(Arrays.asList(3.0, 2.0, 7.0), series.get(0).getValues("critical"));
+
+            // Days are folded into weeks starting on Monday, averages are weighted by the number of metrics
+            series = qm.getProjectMetricsSeries(projects, since, MetricsSeries.Bucket.WEEK, MetricsSeries.Aggregate.AVG);
+            Assert.assertEquals(Arrays.asList(date(1, 0, 0).getTime()), series.get(0).getTimestamps());
+            Assert.assertEquals(Arrays.asList(3.25), series.get(0).getValues("critical"));
+            Assert.assertEquals(Arrays.asList(date(1, 0, 0).getTime()), series.get(1).getTimestamps());
+            Assert.assertEquals(Arrays.asList(4.0), series.get(1).getValues("critical"));
+        }
+    }
+
+    @Test
+    public void testProjectMetricsFingerprint() throws Exception {
+        try (QueryManager qm = new QueryManager()) {
+            final Project project = qm.createProject("Example Project", null, "1.0", null, null, null, false);
+            final List<Project> projects = Arrays.asList(project);
+            createMetrics(qm, project, 1, date(1, 1, 0));
+            final String fingerprint = qm.getProjectMetricsFingerprint(projects, date(1, 0, 0));
+            Assert.assertEquals(fingerprint, qm.getProjectMetricsFingerprint(projects, date(1, 0, 0)));
+            createMetrics(qm, project, 2, date(1, 2, 0));
+            Assert.assertNotEquals(fingerprint, qm.getProjectMetricsFingerprint(projects, date(1, 0, 0)));
+        }
+    }
+
+    private Date date(int day, int hour, int minute) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(2020, Calendar.JUNE, day, hour, minute, 0);
+        return calendar.getTime();
+    }
+
+    private void createMetrics(QueryManager qm, Project project, int critical, Date date) {
+        final ProjectMetrics metrics = new ProjectMetrics();
+        metrics.setProject(project);
+        metrics.setCritical(critical);
+        metrics.setFirstOccurrence(date);
+        metrics.setLastOccurrence(date);
+        qm.persist(metrics);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import org.dependencytrack.BaseTest;
+import org.dependencytrack.model.Bom;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.Project;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class OrphanedComponentTest extends BaseTest {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    @Test
+    public void testOrphanedComponents() throws Exception {
+        try (QueryManager qm = new QueryManager()) {
+            final Date now = new Date();
+            final Date cutoff = new Date(now.getTime() - 7 * DAY);
+            final Project project = qm.createProject("Example Project", null, "1.0", null, null, null, false);
+            final Bom oldBom = qm.createBom(project, new Date(cutoff.getTime() - DAY));
+            final Bom recentBom = qm.createBom(project, now);
+
+            // In use by the project
+            final Component dependency = createComponent(qm, "dependency", null);
+            qm.createDependencyIfNotExist(project, dependency, null, null);
+            // Parent of a component which is in use
+            final Component parent = createComponent(qm, "parent", null);
+            final Component child = createComponent(qm, "child", parent);
+            qm.createDependencyIfNotExist(project, child, null, null);
+            // Part of a BOM imported within the grace period
+            final Component recent = createComponent(qm, "recent", null);
+            // Only part of a BOM imported before the grace period
+            final Component orphan = createComponent(qm, "orphan", null);
+            // Never part of an import, such as components created through the API
+            final Component standalone = createComponent(qm, "standalone", null);
+            qm.updateComponentSnapshot(oldBom, Arrays.asList(dependency.getId(), parent.getId(), child.getId(), recent.getId(), orphan.getId()));
+            qm.updateComponentSnapshot(recentBom, Collections.singletonList(recent.getId()));
+
+            qm.getPersistenceManager().refresh(recent);
+            Assert.assertEquals(now.getTime(), recent.getLastImported().getTime(), 1000);
+            qm.getPersistenceManager().refresh(standalone);
+            Assert.assertNull(standalone.getLastImported());
+
+            List<Component> orphans = qm.getOrphanedComponents(cutoff, 0, 100);
+            Assert.assertEquals(1, orphans.size());
+            Assert.assertEquals(orphan.getUuid(), orphans.get(0).getUuid());
+            Assert.assertEquals("orphan", orphans.get(0).getName());
+            Assert.assertTrue(qm.getOrphanedComponents(cutoff, orphan.getId(), 100).isEmpty());
+
+            Assert.assertEquals(Collections.singletonList(orphan.getId()), qm.deleteOrphanedComponents(Collections.singletonList(orphan.getId()), cutoff));
+            Assert.assertNull(qm.getObjectByUuid(Component.class, orphan.getUuid()));
+            Assert.assertNotNull(qm.getObjectByUuid(Component.class, recent.getUuid()));
+            Assert.assertNotNull(qm.getObjectByUuid(Component.class, standalone.getUuid()));
+            Assert.assertTrue(qm.getOrphanedComponents(cutoff, 0, 100).isEmpty());
+        }
+    }
+
+    @Test
+    public void testDeleteRechecksOrphanedComponents() throws Exception {
+        try (QueryManager qm = new QueryManager()) {
+            final Date cutoff = new Date(System.currentTimeMillis() - 7 * DAY);
+            final Project project = qm.createProject("Example Project", null, "1.0", null, null, null, false);
+            final Bom oldBom = qm.createBom(project, new Date(cutoff.getTime() - DAY));
+            final Component orphan = createComponent(qm, "orphan", null);
+            final Component reused = createComponent(qm, "reused", null);
+            final Component standalone = createComponent(qm, "standalone", null);
+            qm.updateComponentSnapshot(oldBom, Arrays.asList(orphan.getId(), reused.getId()));
+            Assert.assertEquals(2, qm.getOrphanedComponents(cutoff, 0, 100).size());
+
+            // Put to use again after the orphaned components have been queried
+            qm.createDependencyIfNotExist(project, reused, null, null);
+
+            final List<Long> deleted = qm.deleteOrphanedComponents(Arrays.asList(orphan.getId(), reused.getId(), standalone.getId()), cutoff);
+            Assert.assertEquals(Collections.singletonList(orphan.getId()), deleted);
+            Assert.assertNull(qm.getObjectByUuid(Component.class, orphan.getUuid()));
+            Assert.assertNotNull(qm.getObjectByUuid(Component.class, reused.getUuid()));
+            Assert.assertNotNull(qm.getObjectByUuid(Component.class, standalone.getUuid()));
+        }
+    }
+
+    private Component createComponent(QueryManager qm, String name, Component parent) {
+        final Component component = new Component();
+        component.setName(name);
+        component.setVersion("1.0");
+        component.setParent(parent);
+        return qm.createComponent(component, false);
+    }
+}
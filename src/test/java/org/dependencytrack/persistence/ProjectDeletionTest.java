@@ -0,0 +1,141 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import alpine.model.ConfigProperty;
+import alpine.notification.NotificationLevel;
+import org.dependencytrack.BaseTest;
+import org.dependencytrack.model.Analysis;
+import org.dependencytrack.model.AnalysisState;
+import org.dependencytrack.model.Bom;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.DependencyMetrics;
+import org.dependencytrack.model.NotificationRule;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.model.ProjectMetrics;
+import org.dependencytrack.model.Scan;
+import org.dependencytrack.model.Tag;
+import org.dependencytrack.model.Vulnerability;
+import org.dependencytrack.notification.NotificationScope;
+import org.junit.Assert;
+import org.junit.Test;
+import javax.jdo.datastore.JDOConnection;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class ProjectDeletionTest extends BaseTest {
+
+    private static final String[] PROJECT_TABLES = {"ANALYSIS", "DEPENDENCYMETRICS", "PROJECTMETRICS", "DEPENDENCY",
+            "SCAN", "BOM", "PROJECT_PROPERTY", "PROJECTS_TAGS", "NOTIFICATIONRULE_PROJECTS"};
+
+    @Test
+    public void testDeleteProjects() throws Exception {
+        try (QueryManager qm = new QueryManager()) {
+            final Tag tag = qm.createTag("shared");
+            final NotificationRule rule = qm.createNotificationRule("Example Rule", NotificationScope.PORTFOLIO, NotificationLevel.INFORMATIONAL, null);
+            final Vulnerability vulnerability = new Vulnerability();
+            vulnerability.setVulnId("INT-1");
+            vulnerability.setSource(Vulnerability.Source.INTERNAL);
+            qm.createVulnerability(vulnerability, false);
+            final Component component = new Component();
+            component.setName("example");
+            qm.createComponent(component, false);
+
+            final Project parent = qm.createProject("Parent", null, "1.0", Collections.singletonList(tag), null, null, false);
+            final Project child = qm.createProject("Child", null, "1.0", Collections.singletonList(tag), parent, null, false);
+            final Project unrelated = qm.createProject("Unrelated", null, "1.0", Collections.singletonList(tag), null, null, false);
+            final List<Project> projects = new ArrayList<>();
+            for (final Project project: new Project[] {parent, child, unrelated}) {
+                populate(qm, project, component, vulnerability);
+                projects.add(project);
+            }
+            rule.setProjects(projects);
+            qm.persist(rule);
+
+            final List<Map<Long, UUID>> hierarchy = qm.getProjectHierarchy(parent);
+            Assert.assertEquals(2, hierarchy.size());
+            // A batch size of 1 ensures every batch boundary is crossed
+            Assert.assertTrue(qm.deleteProjects(hierarchy, 1, progress -> { }) > 0);
+
+            for (final Project project: new Project[] {parent, child}) {
+                for (final String table: PROJECT_TABLES) {
+                    Assert.assertEquals(table, 0, count(qm, "SELECT COUNT(*) FROM \"" + table + "\" WHERE \"PROJECT_ID\" = " + project.getId()));
+                }
+                Assert.assertEquals(0, count(qm, "SELECT COUNT(*) FROM \"PROJECT\" WHERE \"ID\" = " + project.getId()));
+            }
+            for (final String table: PROJECT_TABLES) {
+                Assert.assertEquals(table, 1, count(qm, "SELECT COUNT(*) FROM \"" + table + "\" WHERE \"PROJECT_ID\" = " + unrelated.getId()));
+            }
+            Assert.assertEquals(1, count(qm, "SELECT COUNT(*) FROM \"PROJECT\""));
+            Assert.assertEquals(1, count(qm, "SELECT COUNT(*) FROM \"ANALYSISCOMMENT\""));
+            Assert.assertEquals(1, count(qm, "SELECT COUNT(*) FROM \"BOMS_COMPONENTS\""));
+            Assert.assertEquals(1, count(qm, "SELECT COUNT(*) FROM \"SCANS_COMPONENTS\""));
+
+            // Objects shared with other projects are retained
+            Assert.assertNotNull(qm.getObjectByUuid(Component.class, component.getUuid()));
+            Assert.assertNotNull(qm.getObjectByUuid(Vulnerability.class, vulnerability.getUuid()));
+            Assert.assertNotNull(qm.getTagByName("shared"));
+            qm.getPersistenceManager().evictAll();
+            final NotificationRule retained = qm.getObjectByUuid(NotificationRule.class, rule.getUuid());
+            Assert.assertEquals(1, retained.getProjects().size());
+            Assert.assertEquals(unrelated.getUuid(), retained.getProjects().get(0).getUuid());
+        }
+    }
+
+    private void populate(QueryManager qm, Project project, Component component, Vulnerability vulnerability) {
+        qm.createDependencyIfNotExist(project, component, null, null);
+        final Analysis analysis = qm.makeAnalysis(project, component, vulnerability, AnalysisState.NOT_AFFECTED, false);
+        qm.makeAnalysisComment(analysis, "Not affected", "example");
+        final ProjectMetrics projectMetrics = new ProjectMetrics();
+        projectMetrics.setProject(project);
+        projectMetrics.setFirstOccurrence(new Date());
+        projectMetrics.setLastOccurrence(new Date());
+        qm.persist(projectMetrics);
+        final DependencyMetrics dependencyMetrics = new DependencyMetrics();
+        dependencyMetrics.setProject(project);
+        dependencyMetrics.setComponent(component);
+        dependencyMetrics.setFirstOccurrence(new Date());
+        dependencyMetrics.setLastOccurrence(new Date());
+        qm.persist(dependencyMetrics);
+        final Bom bom = qm.createBom(project, new Date());
+        qm.bind(bom, component);
+        final Scan scan = qm.createScan(project, new Date(), new Date());
+        qm.bind(scan, component);
+        qm.createProjectProperty(project, "example", "name", "value", ConfigProperty.PropertyType.STRING, null);
+    }
+
+    private long count(QueryManager qm, String sql) throws Exception {
+        final JDOConnection jdoConnection = qm.getPersistenceManager().getDataStoreConnection();
+        try {
+            final Connection connection = (Connection) jdoConnection.getNativeConnection();
+            try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        } finally {
+            jdoConnection.close();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence;
+
+import org.dependencytrack.BaseTest;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.model.Tag;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TagQueryTest extends BaseTest {
+
+    @Test
+    public void testResolveTags() {
+        try (QueryManager qm = new QueryManager()) {
+            final Tag existing = qm.createTag("Production");
+            final List<Tag> resolved = qm.resolveTags(tags(" production", "backend", "Backend", " "));
+            Assert.assertEquals(2, resolved.size());
+            Assert.assertEquals(existing.getId(), resolved.get(0).getId());
+            Assert.assertEquals("Production", resolved.get(0).getName());
+            Assert.assertEquals("backend", resolved.get(1).getName());
+            Assert.assertEquals(resolved.get(1).getId(), qm.getTagByName("BACKEND").getId());
+            Assert.assertEquals(2, qm.getTagsByName(Arrays.asList("PRODUCTION", "backend", "missing")).size());
+        }
+    }
+
+    @Test
+    public void testGetProjectsByTags() {
+        try (QueryManager qm = new QueryManager()) {
+            final Project both = qm.createProject("Both", null, "1.0", tags("prod", "backend"), null, null, false);
+            final Project prod = qm.createProject("Prod", null, "1.0", tags("prod"), null, null, false);
+            qm.createProject("Untagged", null, "1.0", null, null, null, false);
+            final List<Tag> tags = qm.getTagsByName(Arrays.asList("prod", "backend"));
+
+            final List<?> all = qm.getProjects(tags, true).getObjects();
+            Assert.assertEquals(1, all.size());
+            Assert.assertEquals(both.getUuid(), ((Project) all.get(0)).getUuid());
+
+            final List<?> any = qm.getProjects(tags, false).getObjects();
+            Assert.assertEquals(2, any.size());
+            Assert.assertEquals(both.getUuid(), ((Project) any.get(0)).getUuid());
+            Assert.assertEquals(prod.getUuid(), ((Project) any.get(1)).getUuid());
+
+            Assert.assertEquals(2, qm.getProjects(qm.getTagByName("PROD")).getTotal());
+        }
+    }
+
+    private List<Tag> tags(String... names) {
+        final List<Tag> tags = new ArrayList<>();
+        for (final String name: names) {
+            final Tag tag = new Tag();
+            tag.setName(name);
+            tags.add(tag);
+        }
+        return tags;
+    }
+}
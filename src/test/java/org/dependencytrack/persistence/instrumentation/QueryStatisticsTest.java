@@ -0,0 +1,63 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence.instrumentation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QueryStatisticsTest {
+
+    @Test
+    public void testRepeatedStatements() {
+        final QueryStatistics statistics = new QueryStatistics(1000, 3);
+        final QueryStatistics.Scope scope = new QueryStatistics.Scope(statistics, "GET /api/v1/project");
+        for (int i = 0; i < 3; i++) {
+            statistics.record(scope, "SELECT * FROM \"PROJECT\" WHERE \"ID\" = " + i, 1000);
+        }
+        statistics.record(scope, "SELECT * FROM \"TAG\"", 1000);
+        statistics.complete(scope);
+        Assert.assertEquals(1, statistics.getScopes().size());
+        Assert.assertEquals(4, statistics.getScopes().get(0).getStatements());
+        Assert.assertEquals(1, statistics.getCandidates().size());
+        Assert.assertEquals("GET /api/v1/project", statistics.getCandidates().get(0).getScope());
+        Assert.assertEquals(3, statistics.getCandidates().get(0).getMaxExecutions());
+    }
+
+    @Test
+    public void testScopesAreBounded() {
+        final QueryStatistics statistics = new QueryStatistics(1000, 1);
+        for (int i = 0; i < QueryStatistics.MAX_SCOPES + 10; i++) {
+            final QueryStatistics.Scope scope = new QueryStatistics.Scope(statistics, "GET /api/v1/unknown" + i);
+            statistics.record(scope, "SELECT 1", 1000);
+            statistics.complete(scope);
+        }
+        // Units of work already seen are still counted under their own name
+        final QueryStatistics.Scope scope = new QueryStatistics.Scope(statistics, "GET /api/v1/unknown0");
+        statistics.complete(scope);
+
+        Assert.assertEquals(QueryStatistics.MAX_SCOPES + 1, statistics.getScopes().size());
+        Assert.assertEquals(QueryStatistics.MAX_SCOPES + 1, statistics.getCandidates().size());
+        for (final QueryStatistics.ScopeStatistics scopeStatistics: statistics.getScopes()) {
+            if (QueryStatistics.OTHER.equals(scopeStatistics.getName())) {
+                Assert.assertEquals(10, scopeStatistics.getInvocations());
+            } else if ("GET /api/v1/unknown0".equals(scopeStatistics.getName())) {
+                Assert.assertEquals(2, scopeStatistics.getInvocations());
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.persistence.instrumentation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SqlFingerprintTest {
+
+    @Test
+    public void testLiteralsAreReplaced() {
+        Assert.assertEquals("SELECT \"A0\".\"NAME\" FROM \"COMPONENT\" \"A0\" WHERE \"A0\".\"ID\" = ? AND \"A0\".\"VERSION\" = ?",
+                SqlFingerprint.of("SELECT \"A0\".\"NAME\" FROM \"COMPONENT\" \"A0\" WHERE \"A0\".\"ID\" = 42 AND \"A0\".\"VERSION\" = '1.0'"));
+        Assert.assertEquals("SELECT * FROM T WHERE NAME = ? AND SCORE > ?",
+                SqlFingerprint.of("SELECT * FROM T WHERE NAME = 'O''Brien' AND SCORE > -7.5"));
+    }
+
+    @Test
+    public void testSameShapeHasSameFingerprint() {
+        Assert.assertEquals(SqlFingerprint.of("SELECT * FROM T WHERE ID IN (?, ?, ?)"),
+                SqlFingerprint.of("SELECT *\n  FROM T\n WHERE ID IN (1,2)"));
+        Assert.assertEquals("SELECT * FROM T WHERE ID IN (?)", SqlFingerprint.of("SELECT * FROM T WHERE ID IN (?,?)"));
+    }
+
+    @Test
+    public void testIdentifiersAreRetained() {
+        Assert.assertEquals("SELECT \"B1\".\"ID\" FROM \"PROJECT_TAGS\" \"B1\" WHERE \"B1\".\"TAG_ID\" = ?",
+                SqlFingerprint.of("SELECT \"B1\".\"ID\" FROM \"PROJECT_TAGS\" \"B1\" WHERE \"B1\".\"TAG_ID\" = ?"));
+        Assert.assertNull(SqlFingerprint.of(null));
+    }
+
+}
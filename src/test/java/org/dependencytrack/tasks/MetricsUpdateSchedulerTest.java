@@ -0,0 +1,97 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks;
+
+import org.dependencytrack.BaseTest;
+import org.dependencytrack.event.MetricsUpdateEvent;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.Dependency;
+import org.dependencytrack.model.Project;
+import org.dependencytrack.persistence.QueryManager;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class MetricsUpdateSchedulerTest extends BaseTest {
+
+    @Test
+    public void testCoalesce() {
+        final MetricsUpdateScheduler scheduler = new MetricsUpdateScheduler(60000);
+        try (QueryManager qm = new QueryManager()) {
+            final Project project = qm.createProject("Example Project", null, "1.0", null, null, null, false);
+            final Component component = createComponent(qm, "example");
+
+            final MetricsUpdateEvent projectEvent = new MetricsUpdateEvent(project);
+            final MetricsUpdateEvent componentEvent = new MetricsUpdateEvent(component);
+            final MetricsUpdateEvent vulnerabilityEvent = new MetricsUpdateEvent(MetricsUpdateEvent.Type.VULNERABILITY);
+            scheduler.schedule(projectEvent);
+            scheduler.schedule(componentEvent);
+            scheduler.schedule(new MetricsUpdateEvent(project));
+            scheduler.schedule(vulnerabilityEvent);
+            scheduler.schedule(new MetricsUpdateEvent(component));
+            Assert.assertEquals(Arrays.asList(projectEvent, componentEvent, vulnerabilityEvent), scheduler.getPending());
+
+            // Projects and components are recalculated by the portfolio update
+            final MetricsUpdateEvent portfolioEvent = new MetricsUpdateEvent(MetricsUpdateEvent.Type.PORTFOLIO);
+            scheduler.schedule(portfolioEvent);
+            scheduler.schedule(new MetricsUpdateEvent(project));
+            Assert.assertEquals(Arrays.asList(vulnerabilityEvent, portfolioEvent), scheduler.getPending());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testFold() {
+        try (QueryManager qm = new QueryManager()) {
+            final Project project = qm.createProject("Example Project", null, "1.0", null, null, null, false);
+            final Project otherProject = qm.createProject("Other Project", null, "1.0", null, null, null, false);
+            final Component component = createComponent(qm, "example");
+            final Component otherComponent = createComponent(qm, "other");
+            final Dependency dependency = qm.createDependencyIfNotExist(project, component, null, null);
+            qm.createDependencyIfNotExist(otherProject, otherComponent, null, null);
+            final Dependency otherDependency = qm.createDependencyIfNotExist(otherProject, component, null, null);
+
+            final MetricsUpdateEvent componentEvent = new MetricsUpdateEvent(component);
+            final MetricsUpdateEvent otherComponentEvent = new MetricsUpdateEvent(otherComponent);
+            final MetricsUpdateEvent dependencyEvent = new MetricsUpdateEvent(dependency);
+            final MetricsUpdateEvent otherDependencyEvent = new MetricsUpdateEvent(otherDependency);
+            final MetricsUpdateEvent projectEvent = new MetricsUpdateEvent(project);
+
+            final List<MetricsUpdateScheduler.Update> updates = MetricsUpdateScheduler.fold(Arrays.asList(
+                    componentEvent, otherComponentEvent, dependencyEvent, otherDependencyEvent, projectEvent));
+            Assert.assertEquals(3, updates.size());
+            Assert.assertSame(otherComponentEvent, updates.get(0).getEvent());
+            Assert.assertSame(otherDependencyEvent, updates.get(1).getEvent());
+            Assert.assertSame(projectEvent, updates.get(2).getEvent());
+            Assert.assertEquals(Collections.singleton(component.getId()), updates.get(2).getComponentIds());
+
+            // Without a pending project update, nothing is folded
+            Assert.assertEquals(2, MetricsUpdateScheduler.fold(Arrays.asList(componentEvent, dependencyEvent)).size());
+        }
+    }
+
+    private static Component createComponent(QueryManager qm, String name) {
+        final Component component = new Component();
+        component.setName(name);
+        component.setVersion("1.0");
+        return qm.createComponent(component, false);
+    }
+}
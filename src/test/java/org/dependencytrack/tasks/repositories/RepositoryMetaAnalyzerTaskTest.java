@@ -0,0 +1,151 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks.repositories;
+
+import com.github.packageurl.PackageURL;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.dependencytrack.BaseTest;
+import org.dependencytrack.event.RepositoryMetaEvent;
+import org.dependencytrack.model.Component;
+import org.dependencytrack.model.RepositoryMetaComponent;
+import org.dependencytrack.model.RepositoryType;
+import org.dependencytrack.persistence.QueryManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RepositoryMetaAnalyzerTaskTest extends BaseTest {
+
+    private static final String MAVEN_METADATA =
+            "<metadata><groupId>com.example</groupId><artifactId>example-lib</artifactId><versioning>" +
+            "<latest>2.0.0</latest><release>2.0.0</release><lastUpdated>20180601120000</lastUpdated>" +
+            "</versioning></metadata>";
+    private static final String NPM_DIST_TAGS = "{\"latest\":\"4.17.10\"}";
+
+    private static final String ETAG = "\"5b1135e8\"";
+
+    private HttpServer server;
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    @Before
+    public void startRepository() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/maven/com/example/example-lib/maven-metadata.xml", exchange -> respond(exchange, MAVEN_METADATA));
+        server.createContext("/npm/-/package/lodash/dist-tags", exchange -> respond(exchange, NPM_DIST_TAGS));
+        server.start();
+    }
+
+    @After
+    public void stopRepository() {
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        requests.computeIfAbsent(exchange.getRequestURI().getPath(), k -> new AtomicInteger()).incrementAndGet();
+        exchange.getResponseHeaders().set("ETag", ETAG);
+        if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private int getRequestCount(String path) {
+        final AtomicInteger count = requests.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    @Test
+    public void testPortfolioAnalysis() throws Exception {
+        final String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        try (QueryManager qm = new QueryManager()) {
+            qm.createRepository(RepositoryType.MAVEN, "stub-maven", baseUrl + "/maven", true);
+            qm.createRepository(RepositoryType.NPM, "stub-npm", baseUrl + "/npm", true);
+            for (String version: new String[] {"1.0.0", "1.1.0", "1.2.0"}) {
+                createComponent(qm, "example-lib", version, new PackageURL("maven", "com.example", "example-lib", version, null, null));
+                createComponent(qm, "lodash", version, new PackageURL("npm", null, "lodash", version, null, null));
+            }
+        }
+
+        new RepositoryMetaAnalyzerTask().inform(new RepositoryMetaEvent());
+
+        try (QueryManager qm = new QueryManager()) {
+            RepositoryMetaComponent maven = qm.getRepositoryMetaComponent(RepositoryType.MAVEN, "com.example", "example-lib");
+            Assert.assertNotNull(maven);
+            Assert.assertEquals("2.0.0", maven.getLatestVersion());
+            Assert.assertNotNull(maven.getLastCheck());
+            RepositoryMetaComponent npm = qm.getRepositoryMetaComponent(RepositoryType.NPM, null, "lodash");
+            Assert.assertNotNull(npm);
+            Assert.assertEquals("4.17.10", npm.getLatestVersion());
+        }
+        // All versions of a package share the same metadata and are requested once
+        Assert.assertEquals(1, getRequestCount("/maven/com/example/example-lib/maven-metadata.xml"));
+        Assert.assertEquals(1, getRequestCount("/npm/-/package/lodash/dist-tags"));
+
+        // Packages checked within the freshness window are skipped
+        new RepositoryMetaAnalyzerTask().inform(new RepositoryMetaEvent());
+        Assert.assertEquals(1, getRequestCount("/maven/com/example/example-lib/maven-metadata.xml"));
+        Assert.assertEquals(1, getRequestCount("/npm/-/package/lodash/dist-tags"));
+        Assert.assertEquals(0, notModified.get());
+
+        // Stale packages are revalidated with a conditional request
+        try (QueryManager qm = new QueryManager()) {
+            for (RepositoryMetaComponent metaComponent: qm.getAllRepositoryMetaComponents()) {
+                Assert.assertEquals(ETAG, metaComponent.getEtag());
+                metaComponent.setLastCheck(new Date(0));
+                qm.persist(metaComponent);
+            }
+        }
+        new RepositoryMetaAnalyzerTask().inform(new RepositoryMetaEvent());
+        Assert.assertEquals(2, getRequestCount("/maven/com/example/example-lib/maven-metadata.xml"));
+        Assert.assertEquals(2, getRequestCount("/npm/-/package/lodash/dist-tags"));
+        Assert.assertEquals(2, notModified.get());
+        try (QueryManager qm = new QueryManager()) {
+            RepositoryMetaComponent maven = qm.getRepositoryMetaComponent(RepositoryType.MAVEN, "com.example", "example-lib");
+            Assert.assertEquals("2.0.0", maven.getLatestVersion());
+            Assert.assertTrue(maven.getLastCheck().after(new Date(0)));
+            RepositoryMetaComponent npm = qm.getRepositoryMetaComponent(RepositoryType.NPM, null, "lodash");
+            Assert.assertEquals("4.17.10", npm.getLatestVersion());
+        }
+    }
+
+    private void createComponent(QueryManager qm, String name, String version, PackageURL purl) {
+        Component component = new Component();
+        component.setName(name);
+        component.setVersion(version);
+        component.setPurl(purl);
+        qm.createComponent(component, false);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks.scanners;
+
+import com.github.packageurl.PackageURL;
+import org.dependencytrack.model.VulnerableSoftware;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class CpeMatchIndexTest {
+
+    @Test
+    public void testCompareVersions() {
+        Assert.assertTrue(CpeMatchIndex.compareVersions("2.9.10", "2.10.0") < 0);
+        Assert.assertTrue(CpeMatchIndex.compareVersions("1.0rc1", "1.0") < 0);
+        Assert.assertTrue(CpeMatchIndex.compareVersions("1.0.1", "1.0") > 0);
+        Assert.assertEquals(0, CpeMatchIndex.compareVersions("1.0", "1.0.0"));
+        Assert.assertEquals(0, CpeMatchIndex.compareVersions("2.4_1", "2.4.1"));
+    }
+
+    @Test
+    public void testCompareReleaseQualifiers() {
+        Assert.assertEquals(0, CpeMatchIndex.compareVersions("5.4.2.Final", "5.4.2"));
+        Assert.assertEquals(0, CpeMatchIndex.compareVersions("5.1.3.RELEASE", "5.1.3"));
+        Assert.assertEquals(0, CpeMatchIndex.compareVersions("1.0-GA", "1.0.0"));
+        Assert.assertEquals(0, CpeMatchIndex.compareVersions("5.1.3.RELEASE", "5.1.3.Final"));
+        Assert.assertTrue(CpeMatchIndex.compareVersions("5.1.3.RELEASE", "5.1.4") < 0);
+        Assert.assertTrue(CpeMatchIndex.compareVersions("5.1.3.RELEASE", "5.1.3.RC1") > 0);
+        Assert.assertTrue(CpeMatchIndex.compareVersions("5.1.3.RELEASE", "5.1.2") > 0);
+
+        // An end excluding bound excludes the release of the same version
+        final CpeMatchIndex index = new CpeMatchIndex();
+        index.put(1, Collections.singletonList(create("pivotal_software", "spring_framework", "*", "5.1.0", null, null, "5.1.3")));
+        Assert.assertEquals(Collections.singleton(1L), index.match("pivotal_software", "spring_framework", "5.1.2.RELEASE"));
+        Assert.assertTrue(index.match("pivotal_software", "spring_framework", "5.1.3.RELEASE").isEmpty());
+        Assert.assertEquals(Collections.singleton(1L), index.match("pivotal_software", "spring_framework", "5.1.0.RELEASE"));
+    }
+
+    @Test
+    public void testMatch() {
+        final CpeMatchIndex index = new CpeMatchIndex();
+        index.put(1, Arrays.asList(
+                create("apache", "struts", "*", "2.3.5", null, null, "2.3.35"),
+                create("apache", "struts", "*", "2.5.0", null, "2.5.17", null)));
+        index.put(2, Collections.singletonList(create("apache", "struts", "2.5.10", null, null, null, null)));
+
+        Assert.assertTrue(index.match("apache", "struts", "2.3.4").isEmpty());
+        Assert.assertEquals(Collections.singleton(1L), index.match("apache", "struts", "2.3.34"));
+        Assert.assertTrue(index.match("apache", "struts", "2.3.35").isEmpty());
+        Assert.assertEquals(2, index.match("apache", "struts", "2.5.10").size());
+        Assert.assertEquals(Collections.singleton(1L), index.match("apache", "struts", "2.5.17"));
+        Assert.assertTrue(index.match("apache", "struts", "2.5.18").isEmpty());
+
+        // Replacing the criteria of a vulnerability removes its previous criteria
+        index.put(1, Collections.emptyList());
+        Assert.assertEquals(Collections.singleton(2L), index.match("apache", "struts", "2.5.10"));
+        Assert.assertTrue(index.match("apache", "struts", "2.3.34").isEmpty());
+    }
+
+    @Test
+    public void testMatchPurl() throws Exception {
+        final CpeMatchIndex index = new CpeMatchIndex();
+        index.put(1, Collections.singletonList(create("fasterxml", "jackson-databind", "*", "2.9.0", null, "2.9.8", null)));
+        index.put(2, Collections.singletonList(create("lodash", "lodash", "*", null, null, null, "4.17.11")));
+
+        Assert.assertEquals(Collections.singleton(1L), index.match(new PackageURL("pkg:maven/com.fasterxml.jackson.core/jackson-databind@2.9.7")));
+        Assert.assertTrue(index.match(new PackageURL("pkg:maven/org.example/jackson-databind@2.9.7")).isEmpty());
+        Assert.assertEquals(Collections.singleton(2L), index.match(new PackageURL("pkg:npm/lodash@4.17.10")));
+
+        // Vendors are removed along with the last criteria of their product
+        index.put(2, Collections.emptyList());
+        Assert.assertTrue(index.getVendors("lodash").isEmpty());
+        Assert.assertEquals(Collections.singleton("fasterxml"), index.getVendors("jackson-databind"));
+    }
+
+    private static VulnerableSoftware create(String vendor, String product, String version, String startIncluding,
+                                             String startExcluding, String endIncluding, String endExcluding) {
+        final VulnerableSoftware vs = new VulnerableSoftware();
+        vs.setCpe23("cpe:2.3:a:" + vendor + ":" + product + ":" + version + ":*:*:*:*:*:*:*");
+        vs.setVendor(vendor);
+        vs.setProduct(product);
+        vs.setVersion(version);
+        vs.setVersionStartIncluding(startIncluding);
+        vs.setVersionStartExcluding(startExcluding);
+        vs.setVersionEndIncluding(endIncluding);
+        vs.setVersionEndExcluding(endExcluding);
+        return vs;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks.scanners;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class NpmAdvisoryIndexTest {
+
+    @Test
+    public void testMatch() {
+        final NpmAdvisoryIndex index = new NpmAdvisoryIndex();
+        Assert.assertTrue(index.isEmpty());
+        index.add("1", "Lodash", "<4.17.5", null);
+        index.add("2", "lodash", null, ">=4.17.11");
+        index.add("3", "minimist", "<0.2.1 || >=1.0.0 <1.2.3", null);
+
+        Assert.assertEquals(Arrays.asList("1", "2"), index.match("lodash", "4.17.4"));
+        Assert.assertEquals(Collections.singletonList("2"), index.match("LODASH", "4.17.10"));
+        Assert.assertTrue(index.match("lodash", "4.17.11").isEmpty());
+        Assert.assertEquals(Collections.singletonList("3"), index.match("minimist", "1.2.0"));
+        Assert.assertTrue(index.match("minimist", "0.2.1").isEmpty());
+        Assert.assertTrue(index.match("minimist", "not-a-version").isEmpty());
+        Assert.assertTrue(index.match("express", "4.0.0").isEmpty());
+        Assert.assertTrue(index.match(null, "4.0.0").isEmpty());
+    }
+
+    @Test
+    public void testReplace() {
+        final NpmAdvisoryIndex index = new NpmAdvisoryIndex();
+        index.add("1", "lodash", "<4.17.5", null);
+        index.add("1", "lodash", "<4.17.11", null);
+        Assert.assertEquals(Collections.singletonList("1"), index.match("lodash", "4.17.10"));
+
+        // Advisories whose module changes are no longer matched against the previous module
+        index.add("1", "lodash.merge", "<4.17.11", null);
+        Assert.assertTrue(index.match("lodash", "4.17.10").isEmpty());
+        Assert.assertEquals(Collections.singletonList("1"), index.match("lodash.merge", "4.17.10"));
+
+        // Advisories without a range are removed
+        index.add("1", "lodash.merge", null, null);
+        Assert.assertTrue(index.match("lodash.merge", "4.17.10").isEmpty());
+        Assert.assertTrue(index.isEmpty());
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.tasks.scanners;
+
+import com.github.packageurl.PackageURL;
+import org.dependencytrack.model.Component;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class NpmAuditAnalysisTaskTest {
+
+    @Test
+    public void testCreateBatches() throws Exception {
+        final List<Component> components = new ArrayList<>();
+        components.add(createComponent("pkg:npm/serve@6.5.3"));
+        components.add(createComponent("pkg:npm/serve@6.5.4"));
+        components.add(createComponent("pkg:npm/lodash@4.17.4"));
+        components.add(createComponent("pkg:npm/serve@7.0.0"));
+        components.add(createComponent("pkg:npm/%40angular/core@5.0.0"));
+        components.add(createComponent("pkg:maven/org.example/serve@1.0.0"));
+        components.add(createComponent("pkg:npm/serve@6.5.4"));
+        components.add(createComponent("pkg:npm/lodash"));
+
+        final List<Map<String, List<Component>>> batches = new NpmAuditAnalysisTask().createBatches(components);
+        Assert.assertEquals(3, batches.size());
+        Assert.assertEquals(3, batches.get(0).size());
+        Assert.assertEquals("6.5.3", batches.get(0).get("serve").get(0).getPurl().getVersion());
+        Assert.assertEquals(1, batches.get(0).get("lodash").size());
+        Assert.assertEquals(1, batches.get(0).get("@angular/core").size());
+        Assert.assertEquals(1, batches.get(1).size());
+        Assert.assertEquals(2, batches.get(1).get("serve").size());
+        for (final Component component: batches.get(1).get("serve")) {
+            Assert.assertEquals("6.5.4", component.getPurl().getVersion());
+        }
+        Assert.assertEquals(1, batches.get(2).size());
+        Assert.assertEquals("7.0.0", batches.get(2).get("serve").get(0).getPurl().getVersion());
+    }
+
+    private static Component createComponent(String purl) throws Exception {
+        final Component component = new Component();
+        component.setPurl(new PackageURL(purl));
+        return component;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.util;
+
+import com.github.packageurl.PackageURL;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PurlUtilTest {
+
+    @Test
+    public void testCoordinates() throws Exception {
+        Assert.assertEquals("pkg:maven/org.acme/example@1.0",
+                PurlUtil.getCoordinates(new PackageURL("pkg:maven/org.acme/example@1.0?type=jar#sub/path")));
+        // Differently written PackageURLs of the same package version have the same coordinates
+        Assert.assertEquals(PurlUtil.getCoordinates(" pkg:maven/org.acme/example@1.0?classifier=sources&type=jar"),
+                PurlUtil.getCoordinates("pkg:maven/org.acme/example@1.0?type=jar&classifier=sources"));
+        Assert.assertEquals("pkg:maven/org.acme/example", PurlUtil.getCoordinates("pkg:maven/org.acme/example"));
+    }
+
+    @Test
+    public void testInvalid() {
+        Assert.assertNull(PurlUtil.getCoordinates((String) null));
+        Assert.assertNull(PurlUtil.getCoordinates((PackageURL) null));
+        Assert.assertNull(PurlUtil.getCoordinates("not a purl"));
+    }
+
+    @Test
+    public void testTooLong() {
+        final String prefix = "pkg:maven/org.acme/" + StringUtils.repeat("a", 300);
+        Assert.assertNull(PurlUtil.getCoordinates(prefix + "@1.0"));
+        Assert.assertNull(PurlUtil.getCoordinates(prefix + "b@1.0"));
+        final String purl = "pkg:maven/org.acme/" + StringUtils.repeat("a", PurlUtil.MAX_COORDINATES_LENGTH - 23) + "@1.0";
+        Assert.assertEquals(PurlUtil.MAX_COORDINATES_LENGTH, PurlUtil.getCoordinates(purl).length());
+    }
+}
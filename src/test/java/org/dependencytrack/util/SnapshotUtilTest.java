@@ -0,0 +1,68 @@
+/*
+ * This file is part of Dependency-Track.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright (c) Steve Springett. All Rights Reserved.
+ */
+package org.dependencytrack.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class SnapshotUtilTest {
+
+    @Test
+    public void testEncodeDecode() {
+        final List<Long> ids = new ArrayList<>();
+        for (long id = 1000; id < 3000; id += 3) {
+            ids.add(id);
+        }
+        ids.add(Long.MAX_VALUE);
+        ids.add(1L);
+        ids.add(1000L); // duplicate
+        Collections.shuffle(ids);
+        final byte[] snapshot = SnapshotUtil.encode(ids);
+        Assert.assertTrue(snapshot.length < ids.size() * 2);
+        final long[] decoded = SnapshotUtil.decode(snapshot);
+        Assert.assertEquals(ids.size() - 1, decoded.length);
+        Assert.assertEquals(1L, decoded[0]);
+        Assert.assertEquals(1000L, decoded[1]);
+        Assert.assertEquals(Long.MAX_VALUE, decoded[decoded.length - 1]);
+        Assert.assertTrue(SnapshotUtil.contains(decoded, 2998L));
+        Assert.assertFalse(SnapshotUtil.contains(decoded, 2999L));
+    }
+
+    @Test
+    public void testEmptySnapshot() {
+        Assert.assertEquals(0, SnapshotUtil.decode(SnapshotUtil.encode(Collections.emptyList())).length);
+        Assert.assertEquals(0, SnapshotUtil.decode(null).length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCorruptSnapshot() {
+        SnapshotUtil.decode(new byte[] {1, 2, 3});
+    }
+
+    @Test
+    public void testDiff() {
+        final long[] previous = SnapshotUtil.decode(SnapshotUtil.encode(Arrays.asList(1L, 2L, 5L, 8L)));
+        final long[] current = SnapshotUtil.decode(SnapshotUtil.encode(Arrays.asList(2L, 3L, 8L, 9L)));
+        Assert.assertArrayEquals(new long[] {3L, 9L}, SnapshotUtil.added(previous, current));
+        Assert.assertArrayEquals(new long[] {1L, 5L}, SnapshotUtil.added(current, previous));
+    }
+}